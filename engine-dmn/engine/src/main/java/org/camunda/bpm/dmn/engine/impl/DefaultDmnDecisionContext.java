@@ -34,8 +34,8 @@ import org.camunda.bpm.dmn.engine.impl.evaluation.DecisionTableEvaluationHandler
 import org.camunda.bpm.dmn.engine.impl.evaluation.DmnDecisionLogicEvaluationHandler;
 import org.camunda.bpm.dmn.engine.impl.hitpolicy.HitPolicyEntry;
 import org.camunda.bpm.engine.variable.VariableMap;
-import org.camunda.bpm.engine.variable.Variables;
 import org.camunda.bpm.engine.variable.context.VariableContext;
+import org.camunda.bpm.engine.variable.impl.CompactVariableMap;
 import org.camunda.bpm.model.dmn.HitPolicy;
 
 /**
@@ -97,7 +97,7 @@ public class DefaultDmnDecisionContext {
 
   protected VariableMap buildVariableMapFromVariableContext(VariableContext variableContext) {
 
-    VariableMap variableMap = Variables.createVariables();
+    VariableMap variableMap = new CompactVariableMap();
 
     Set<String> variables = variableContext.keySet();
     for(String variable: variables) {
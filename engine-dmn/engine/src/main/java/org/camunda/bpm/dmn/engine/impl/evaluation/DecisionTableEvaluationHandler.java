@@ -45,6 +45,7 @@ import org.camunda.bpm.dmn.engine.impl.delegate.DmnEvaluatedOutputImpl;
 import org.camunda.bpm.dmn.feel.impl.FeelEngine;
 import org.camunda.bpm.engine.variable.Variables;
 import org.camunda.bpm.engine.variable.context.VariableContext;
+import org.camunda.bpm.engine.variable.impl.CompactVariableMap;
 import org.camunda.bpm.engine.variable.impl.context.CompositeVariableContext;
 import org.camunda.bpm.engine.variable.value.TypedValue;
 
@@ -170,7 +171,7 @@ public class DecisionTableEvaluationHandler implements DmnDecisionLogicEvaluatio
       String inputVariableName = evaluatedInput.getInputVariable();
 
       return CompositeVariableContext.compose(
-        Variables.createVariables()
+        new CompactVariableMap()
             .putValue("inputVariableName", inputVariableName)
             .putValueTyped(inputVariableName, evaluatedInput.getValue())
             .asVariableContext(),
@@ -0,0 +1,91 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.spin.plugin.impl;
+
+import org.camunda.bpm.engine.impl.variable.serializer.AbstractObjectValueSerializer;
+import org.camunda.bpm.engine.impl.variable.serializer.TypedValueSerializer;
+import org.camunda.bpm.engine.variable.Variables.SerializationDataFormats;
+import org.camunda.bpm.engine.variable.value.ObjectValue;
+import org.camunda.spin.spi.DataFormat;
+import org.camunda.spin.spi.DataFormatMapper;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+/**
+ * Implementation of a {@link TypedValueSerializer} for {@link ObjectValue ObjectValues} which
+ * serializes java objects to the binary Cbor representation using Jackson.
+ *
+ * <p>Type names are determined by the mapper of the Spin Json {@link DataFormat}, so that
+ * objects are stored with the same (canonical Jackson) type names as Json serialized objects.
+ * Properties that are unknown to the java type are ignored on deserialization.</p>
+ */
+public class JacksonCborObjectValueSerializer extends AbstractObjectValueSerializer {
+
+  public static final String NAME = "spin://" + SerializationDataFormats.CBOR.getName();
+
+  protected DataFormatMapper typeNameMapper;
+  protected ObjectMapper objectMapper;
+
+  public JacksonCborObjectValueSerializer(DataFormat<?> jsonDataFormat) {
+    super(SerializationDataFormats.CBOR.getName());
+    this.typeNameMapper = jsonDataFormat.getMapper();
+    this.objectMapper = createObjectMapper();
+  }
+
+  protected ObjectMapper createObjectMapper() {
+    ObjectMapper objectMapper = new ObjectMapper(new CBORFactory());
+    objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    return objectMapper;
+  }
+
+  public String getName() {
+    return NAME;
+  }
+
+  public ObjectMapper getObjectMapper() {
+    return objectMapper;
+  }
+
+  public void setObjectMapper(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  protected boolean isSerializationTextBased() {
+    return false;
+  }
+
+  protected String getTypeNameForDeserialized(Object deserializedObject) {
+    return typeNameMapper.getCanonicalTypeName(deserializedObject);
+  }
+
+  protected byte[] serializeToByteArray(Object deserializedObject) throws Exception {
+    return objectMapper.writeValueAsBytes(deserializedObject);
+  }
+
+  protected Object deserializeFromByteArray(byte[] bytes, String objectTypeName) throws Exception {
+    JavaType type = objectMapper.getTypeFactory().constructFromCanonical(objectTypeName);
+    return objectMapper.readValue(bytes, type);
+  }
+
+  protected boolean canSerializeValue(Object value) {
+    return typeNameMapper.canMap(value);
+  }
+
+}
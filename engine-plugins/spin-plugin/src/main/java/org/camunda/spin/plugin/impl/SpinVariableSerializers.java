@@ -32,6 +32,9 @@ import org.camunda.spin.xml.SpinXmlElement;
  */
 public class SpinVariableSerializers {
 
+  protected static final String JACKSON_OBJECT_MAPPER_CLASS = "com.fasterxml.jackson.databind.ObjectMapper";
+  protected static final String JACKSON_CBOR_FACTORY_CLASS = "com.fasterxml.jackson.dataformat.cbor.CBORFactory";
+
   public static List<TypedValueSerializer<?>> createObjectValueSerializers(DataFormats dataFormats) {
     List<TypedValueSerializer<?>> serializers = new ArrayList<TypedValueSerializer<?>>();
 
@@ -40,9 +43,33 @@ public class SpinVariableSerializers {
       serializers.add(new SpinObjectValueSerializer("spin://"+dataFormat.getName(), dataFormat));
     }
 
+    DataFormat<?> jsonDataFormat = dataFormats.getDataFormatByName(DataFormats.JSON_DATAFORMAT_NAME);
+    if (jsonDataFormat != null && isCborAvailable()) {
+      serializers.add(new JacksonCborObjectValueSerializer(jsonDataFormat));
+    }
+
     return serializers;
   }
 
+  /**
+   * The Cbor serializer is provided if Jackson and its Cbor dataformat
+   * module are on the classpath of the plugin.
+   */
+  protected static boolean isCborAvailable() {
+    try {
+      ClassLoader classLoader = SpinVariableSerializers.class.getClassLoader();
+      Class.forName(JACKSON_OBJECT_MAPPER_CLASS, false, classLoader);
+      Class.forName(JACKSON_CBOR_FACTORY_CLASS, false, classLoader);
+      return true;
+    }
+    catch (ClassNotFoundException e) {
+      return false;
+    }
+    catch (LinkageError e) {
+      return false;
+    }
+  }
+
   public static List<TypedValueSerializer<?>> createSpinValueSerializers(DataFormats dataFormats) {
     List<TypedValueSerializer<?>> serializers = new ArrayList<TypedValueSerializer<?>>();
 
@@ -0,0 +1,168 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.spin.plugin.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.spin.DataFormats;
+import org.camunda.spin.impl.json.jackson.format.JacksonJsonDataFormat;
+import org.camunda.spin.plugin.impl.JacksonCborObjectValueSerializer;
+import org.camunda.spin.plugin.variables.JsonSerializable;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares the Cbor object value serialization with the Spin Json serialization
+ * for a single bean, a list of beans and a nested document. Run with
+ * <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.camunda.spin.plugin.benchmark.CborSerializationBenchmark</code>.
+ *
+ * <p>Besides the time per operation, JMH reports the secondary result
+ * <code>payloadBytes</code>: the serialized bytes written or read per time unit.
+ * Multiplying it with the time per operation gives the payload size of the
+ * format in bytes.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CborSerializationBenchmark {
+
+  @Param({"bean", "list", "document"})
+  public String payload;
+
+  protected ObjectMapper jsonMapper;
+  protected ObjectMapper cborMapper;
+
+  protected Object value;
+  protected JavaType type;
+  protected byte[] json;
+  protected byte[] cbor;
+
+  @Setup
+  public void setUp() throws Exception {
+    JacksonJsonDataFormat jsonDataFormat = (JacksonJsonDataFormat) DataFormats.json();
+    jsonMapper = jsonDataFormat.getObjectMapper();
+    cborMapper = new JacksonCborObjectValueSerializer(jsonDataFormat).getObjectMapper();
+
+    value = createPayload(payload);
+    type = jsonMapper.getTypeFactory().constructFromCanonical(jsonDataFormat.getMapper().getCanonicalTypeName(value));
+    json = jsonMapper.writeValueAsBytes(value);
+    cbor = cborMapper.writeValueAsBytes(value);
+  }
+
+  @Benchmark
+  public byte[] serializeJson(PayloadCounters counters) throws Exception {
+    byte[] bytes = jsonMapper.writeValueAsBytes(value);
+    counters.payloadBytes += bytes.length;
+    return bytes;
+  }
+
+  @Benchmark
+  public byte[] serializeCbor(PayloadCounters counters) throws Exception {
+    byte[] bytes = cborMapper.writeValueAsBytes(value);
+    counters.payloadBytes += bytes.length;
+    return bytes;
+  }
+
+  @Benchmark
+  public Object deserializeJson(PayloadCounters counters) throws Exception {
+    counters.payloadBytes += json.length;
+    return jsonMapper.readValue(json, type);
+  }
+
+  @Benchmark
+  public Object deserializeCbor(PayloadCounters counters) throws Exception {
+    counters.payloadBytes += cbor.length;
+    return cborMapper.readValue(cbor, type);
+  }
+
+  /**
+   * Counts the serialized bytes which are processed by a benchmark method.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class PayloadCounters {
+
+    public long payloadBytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      payloadBytes = 0;
+    }
+
+  }
+
+  protected static Object createPayload(String payload) {
+    if ("bean".equals(payload)) {
+      return new JsonSerializable("a String", 42, true);
+    }
+    else if ("list".equals(payload)) {
+      List<JsonSerializable> beans = new ArrayList<JsonSerializable>();
+      for (int i = 0; i < 100; i++) {
+        beans.add(new JsonSerializable("a String" + i, 42 + i, i % 2 == 0));
+      }
+      return beans;
+    }
+    else {
+      Map<String, Object> document = new LinkedHashMap<String, Object>();
+      document.put("orderId", "order-4711");
+      document.put("amount", 1234.56);
+      List<Map<String, Object>> items = new ArrayList<Map<String, Object>>();
+      for (int i = 0; i < 50; i++) {
+        Map<String, Object> item = new LinkedHashMap<String, Object>();
+        item.put("sku", "sku-" + i);
+        item.put("quantity", i);
+        item.put("price", 9.99 * i);
+        item.put("available", i % 3 != 0);
+        items.add(item);
+      }
+      document.put("items", items);
+      return document;
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder()
+      .include(CborSerializationBenchmark.class.getSimpleName())
+      .build())
+      .run();
+  }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.spin.plugin.variables;
+
+import static org.camunda.bpm.engine.variable.Variables.objectValue;
+import static org.camunda.bpm.engine.variable.Variables.serializedObjectValue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.digest._apacheCommonsCodec.Base64;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.variable.Variables.SerializationDataFormats;
+import org.camunda.bpm.engine.variable.type.ValueType;
+import org.camunda.bpm.engine.variable.value.ObjectValue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+public class CborSerializationTest extends PluggableProcessEngineTestCase {
+
+  protected static final String ONE_TASK_PROCESS = "org/camunda/spin/plugin/oneTaskProcess.bpmn20.xml";
+
+  protected static final String CBOR_FORMAT_NAME = SerializationDataFormats.CBOR.getName();
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testSerializationAsCbor() throws Exception {
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    JsonSerializable bean = new JsonSerializable("a String", 42, true);
+    runtimeService.setVariable(instance.getId(), "simpleBean", objectValue(bean).serializationDataFormat(CBOR_FORMAT_NAME).create());
+
+    // validate untyped value
+    Object value = runtimeService.getVariable(instance.getId(), "simpleBean");
+    assertEquals(bean, value);
+
+    // validate typed value
+    ObjectValue typedValue = runtimeService.getVariableTyped(instance.getId(), "simpleBean");
+    assertEquals(ValueType.OBJECT, typedValue.getType());
+    assertTrue(typedValue.isDeserialized());
+    assertEquals(bean, typedValue.getValue());
+    assertEquals(CBOR_FORMAT_NAME, typedValue.getSerializationDataFormat());
+    assertEquals(JsonSerializable.class.getName(), typedValue.getObjectTypeName());
+
+    // the serialized value is the base64 encoded cbor representation
+    byte[] serializedValue = Base64.decodeBase64(typedValue.getValueSerialized().getBytes());
+    assertEquals(bean, cborMapper().readValue(serializedValue, JsonSerializable.class));
+    assertTrue(serializedValue.length < bean.toExpectedJsonString().length());
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testListSerializationAsCbor() {
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    List<JsonSerializable> beans = new ArrayList<JsonSerializable>();
+    for (int i = 0; i < 20; i++) {
+      beans.add(new JsonSerializable("a String" + i, 42 + i, true));
+    }
+
+    runtimeService.setVariable(instance.getId(), "simpleBeans", objectValue(beans).serializationDataFormat(CBOR_FORMAT_NAME).create());
+
+    // the element type is retained
+    Object value = runtimeService.getVariable(instance.getId(), "simpleBeans");
+    assertEquals(beans, value);
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testIgnoreUnknownPropertiesOnDeserialization() throws Exception {
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    Map<String, Object> properties = new LinkedHashMap<String, Object>();
+    properties.put("stringProperty", "a String");
+    properties.put("intProperty", 42);
+    properties.put("booleanProperty", true);
+    properties.put("removedProperty", "no longer part of the class");
+    byte[] cbor = cborMapper().writeValueAsBytes(properties);
+
+    runtimeService.setVariable(instance.getId(), "simpleBean", serializedObjectValue(new String(Base64.encodeBase64(cbor)))
+      .serializationDataFormat(CBOR_FORMAT_NAME)
+      .objectTypeName(JsonSerializable.class.getName())
+      .create());
+
+    Object value = runtimeService.getVariable(instance.getId(), "simpleBean");
+    assertEquals(new JsonSerializable("a String", 42, true), value);
+  }
+
+  protected ObjectMapper cborMapper() {
+    return new ObjectMapper(new CBORFactory());
+  }
+
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.spin.plugin.variables;
+
+import static org.camunda.bpm.engine.variable.Variables.objectValue;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.history.HistoricDetail;
+import org.camunda.bpm.engine.history.HistoricVariableUpdate;
+import org.camunda.bpm.engine.impl.history.HistoryLevel;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoricDetailVariableInstanceUpdateEntity;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.variable.value.ObjectValue;
+import org.camunda.spin.DataFormats;
+
+public class HistoricVariableJsonPatchTest extends PluggableProcessEngineTestCase {
+
+  protected static final String ONE_TASK_PROCESS = "org/camunda/spin/plugin/oneTaskProcess.bpmn20.xml";
+
+  protected static final String JSON_FORMAT_NAME = DataFormats.json().getName();
+
+  // patches only pay off if the document is larger than the changes
+  protected static final String LONG_STRING = new String(new char[200]).replace('\0', 'a');
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    processEngineConfiguration.setHistoryJsonPatchEnabled(true);
+  }
+
+  protected void tearDown() throws Exception {
+    processEngineConfiguration.setHistoryJsonPatchEnabled(false);
+    processEngineConfiguration.setHistoryJsonPatchSnapshotInterval(10);
+    super.tearDown();
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testStorePatchForUpdate() {
+    if (processEngineConfiguration.getHistoryLevel() != HistoryLevel.HISTORY_LEVEL_FULL) {
+      return;
+    }
+
+    // given
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    // when
+    setBean(instance, new JsonSerializable(LONG_STRING, 42, false));
+    setBean(instance, new JsonSerializable(LONG_STRING + "b", 42, false));
+    setBean(instance, new JsonSerializable(LONG_STRING + "b", 43, true));
+
+    // then
+    List<HistoricDetail> updates = historyService.createHistoricDetailQuery()
+        .variableUpdates()
+        .orderPartiallyByOccurrence()
+        .asc()
+        .list();
+
+    assertEquals(3, updates.size());
+    assertFalse(((HistoricDetailVariableInstanceUpdateEntity) updates.get(0)).isJsonPatch());
+    assertTrue(((HistoricDetailVariableInstanceUpdateEntity) updates.get(1)).isJsonPatch());
+    assertTrue(((HistoricDetailVariableInstanceUpdateEntity) updates.get(2)).isJsonPatch());
+
+    assertBean(updates.get(0), LONG_STRING, 42, false);
+    assertBean(updates.get(1), LONG_STRING + "b", 42, false);
+    assertBean(updates.get(2), LONG_STRING + "b", 43, true);
+
+    ObjectValue serializedValue = (ObjectValue) ((HistoricVariableUpdate) updates.get(2)).getTypedValue();
+    assertEquals(JSON_FORMAT_NAME, serializedValue.getSerializationDataFormat());
+    assertEquals(JsonSerializable.class.getName(), serializedValue.getObjectTypeName());
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testStoreFullValueAfterSnapshotInterval() {
+    if (processEngineConfiguration.getHistoryLevel() != HistoryLevel.HISTORY_LEVEL_FULL) {
+      return;
+    }
+
+    // given
+    processEngineConfiguration.setHistoryJsonPatchSnapshotInterval(2);
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    // when
+    for (int i = 0; i < 6; i++) {
+      setBean(instance, new JsonSerializable(LONG_STRING, i, false));
+    }
+
+    // then
+    List<HistoricDetail> updates = historyService.createHistoricDetailQuery()
+        .variableUpdates()
+        .orderPartiallyByOccurrence()
+        .asc()
+        .list();
+
+    assertEquals(6, updates.size());
+    boolean[] expectedPatches = { false, true, true, false, true, true };
+    for (int i = 0; i < updates.size(); i++) {
+      assertEquals(expectedPatches[i], ((HistoricDetailVariableInstanceUpdateEntity) updates.get(i)).isJsonPatch());
+      assertBean(updates.get(i), LONG_STRING, i, false);
+    }
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testStoreFullValueIfPatchesExceedValueSize() {
+    if (processEngineConfiguration.getHistoryLevel() != HistoryLevel.HISTORY_LEVEL_FULL) {
+      return;
+    }
+
+    // given
+    processEngineConfiguration.setHistoryJsonPatchSnapshotInterval(100);
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    // the value has about 180 bytes, each patch of the int property about 50 bytes
+    String stringProperty = LONG_STRING.substring(0, 120);
+
+    // when
+    for (int i = 0; i < 6; i++) {
+      setBean(instance, new JsonSerializable(stringProperty, i, false));
+    }
+
+    // then
+    List<HistoricDetail> updates = historyService.createHistoricDetailQuery()
+        .variableUpdates()
+        .orderPartiallyByOccurrence()
+        .asc()
+        .list();
+
+    assertEquals(6, updates.size());
+    boolean[] expectedPatches = { false, true, true, true, false, true };
+    for (int i = 0; i < updates.size(); i++) {
+      assertEquals(expectedPatches[i], ((HistoricDetailVariableInstanceUpdateEntity) updates.get(i)).isJsonPatch());
+      assertBean(updates.get(i), stringProperty, i, false);
+    }
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testResolvePatchesOfSeveralVariables() {
+    if (processEngineConfiguration.getHistoryLevel() != HistoryLevel.HISTORY_LEVEL_FULL) {
+      return;
+    }
+
+    // given
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    ProcessInstance otherInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    // when
+    setBean(instance, new JsonSerializable(LONG_STRING, 1, false));
+    setBean(otherInstance, new JsonSerializable(LONG_STRING, 10, false));
+    setBean(instance, new JsonSerializable(LONG_STRING, 2, false));
+    setBean(otherInstance, new JsonSerializable(LONG_STRING, 20, false));
+    setBean(otherInstance, new JsonSerializable(LONG_STRING, 30, true));
+
+    // then
+    List<HistoricDetail> updates = historyService.createHistoricDetailQuery()
+        .variableUpdates()
+        .processInstanceId(otherInstance.getId())
+        .orderPartiallyByOccurrence()
+        .asc()
+        .list();
+
+    assertEquals(3, updates.size());
+    assertBean(updates.get(0), LONG_STRING, 10, false);
+    assertBean(updates.get(1), LONG_STRING, 20, false);
+    assertBean(updates.get(2), LONG_STRING, 30, true);
+
+    HistoricDetail latestUpdate = historyService.createHistoricDetailQuery()
+        .variableUpdates()
+        .processInstanceId(instance.getId())
+        .orderPartiallyByOccurrence()
+        .desc()
+        .listPage(0, 1)
+        .get(0);
+
+    assertTrue(((HistoricDetailVariableInstanceUpdateEntity) latestUpdate).isJsonPatch());
+    assertBean(latestUpdate, LONG_STRING, 2, false);
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testKeepFullValueInHistoricVariableInstance() {
+    if (processEngineConfiguration.getHistoryLevel() != HistoryLevel.HISTORY_LEVEL_FULL) {
+      return;
+    }
+
+    // given
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    setBean(instance, new JsonSerializable(LONG_STRING, 42, false));
+
+    // when
+    setBean(instance, new JsonSerializable(LONG_STRING + "b", 42, false));
+
+    // then
+    JsonSerializable value = (JsonSerializable) historyService.createHistoricVariableInstanceQuery()
+        .singleResult()
+        .getValue();
+    assertEquals(LONG_STRING + "b", value.getStringProperty());
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testStoreFullValueIfDisabled() {
+    if (processEngineConfiguration.getHistoryLevel() != HistoryLevel.HISTORY_LEVEL_FULL) {
+      return;
+    }
+
+    // given
+    processEngineConfiguration.setHistoryJsonPatchEnabled(false);
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    // when
+    setBean(instance, new JsonSerializable(LONG_STRING, 42, false));
+    setBean(instance, new JsonSerializable(LONG_STRING + "b", 42, false));
+
+    // then
+    for (HistoricDetail update : historyService.createHistoricDetailQuery().variableUpdates().list()) {
+      assertFalse(((HistoricDetailVariableInstanceUpdateEntity) update).isJsonPatch());
+    }
+  }
+
+  protected void setBean(ProcessInstance instance, JsonSerializable bean) {
+    runtimeService.setVariable(instance.getId(), "simpleBean", objectValue(bean).serializationDataFormat(JSON_FORMAT_NAME).create());
+  }
+
+  protected void assertBean(HistoricDetail update, String stringProperty, int intProperty, boolean booleanProperty) {
+    JsonSerializable bean = (JsonSerializable) ((HistoricVariableUpdate) update).getValue();
+    assertEquals(stringProperty, bean.getStringProperty());
+    assertEquals(intProperty, bean.getIntProperty());
+    assertEquals(booleanProperty, bean.getBooleanProperty());
+  }
+
+}
@@ -18,6 +18,7 @@ package org.camunda.bpm.engine.rest;
 
 
 import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksExtendedDto;
+import org.camunda.bpm.engine.rest.mapper.NdJsonMessageBodyWriter;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
@@ -38,4 +39,16 @@ public interface FetchAndLockRestService {
   @Produces(MediaType.APPLICATION_JSON)
   void fetchAndLock(FetchExternalTasksExtendedDto dto, @Suspended final AsyncResponse asyncResponse);
 
+  /**
+   * Fetches and locks external tasks like {@link #fetchAndLock(FetchExternalTasksExtendedDto, AsyncResponse)}
+   * but responds with newline-delimited JSON, i.e. one locked task per line. The tasks are written
+   * to the response one by one, so that workers can start processing the first task before the
+   * whole batch is serialized. Selected by requesting <code>application/x-ndjson</code>; the lower
+   * quality makes clients which accept any media type (or send no Accept header) get plain JSON.
+   */
+  @POST
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(NdJsonMessageBodyWriter.APPLICATION_NDJSON + ";qs=0.5")
+  void fetchAndLockStreaming(FetchExternalTasksExtendedDto dto, @Suspended final AsyncResponse asyncResponse);
+
 }
@@ -24,6 +24,7 @@ import org.camunda.bpm.engine.rest.exception.RestExceptionHandler;
 import org.camunda.bpm.engine.rest.hal.JacksonHalJsonProvider;
 import org.camunda.bpm.engine.rest.mapper.JacksonConfigurator;
 import org.camunda.bpm.engine.rest.mapper.MultipartPayloadProvider;
+import org.camunda.bpm.engine.rest.mapper.NdJsonMessageBodyWriter;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -49,6 +50,7 @@ public class CamundaRestResources {
     CONFIGURATION_CLASSES.add(RestExceptionHandler.class);
     CONFIGURATION_CLASSES.add(MultipartPayloadProvider.class);
     CONFIGURATION_CLASSES.add(JacksonHalJsonProvider.class);
+    CONFIGURATION_CLASSES.add(NdJsonMessageBodyWriter.class);
   }
 
   /**
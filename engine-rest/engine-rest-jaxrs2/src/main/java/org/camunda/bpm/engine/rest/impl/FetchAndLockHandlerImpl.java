@@ -17,10 +17,11 @@
 package org.camunda.bpm.engine.rest.impl;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -36,66 +37,93 @@ import org.camunda.bpm.engine.externaltask.LockedExternalTask;
 import org.camunda.bpm.engine.impl.ProcessEngineImpl;
 import org.camunda.bpm.engine.impl.identity.Authentication;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
-import org.camunda.bpm.engine.impl.util.SingleConsumerCondition;
 import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksExtendedDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.LockedExternalTaskDto;
 import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
 import org.camunda.bpm.engine.rest.exception.RestException;
 import org.camunda.bpm.engine.rest.spi.FetchAndLockHandler;
+import org.camunda.bpm.engine.rest.spi.FetchAndLockHandlerMetrics;
 import org.camunda.bpm.engine.rest.util.EngineUtil;
 
 
 /**
  * @author Tassilo Weidner
  */
-public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
+public class FetchAndLockHandlerImpl implements FetchAndLockHandler, FetchAndLockHandlerMetrics {
 
   private final static Logger LOG = Logger.getLogger(FetchAndLockHandlerImpl.class.getName());
 
   protected static final String UNIQUE_WORKER_REQUEST_PARAM_NAME = "fetch-and-lock-unique-worker-request";
+  protected static final String SHARD_COUNT_PARAM_NAME = "fetch-and-lock-shard-count";
+  protected static final String QUEUE_CAPACITY_PARAM_NAME = "fetch-and-lock-queue-capacity";
+  protected static final String ADMISSION_TIMEOUT_PARAM_NAME = "fetch-and-lock-admission-timeout";
+
+  protected static final int DEFAULT_SHARD_COUNT = 1;
+  protected static final int DEFAULT_QUEUE_CAPACITY = 200;
+  protected static final long DEFAULT_ADMISSION_TIMEOUT = 0;
 
   protected static final long PENDING_REQUEST_FETCH_INTERVAL = 30L * 1000;
   protected static final long MAX_BACK_OFF_TIME = Long.MAX_VALUE;
   protected static final long MAX_REQUEST_TIMEOUT = 1800000; // 30 minutes
 
-  protected SingleConsumerCondition condition;
-
-  protected BlockingQueue<FetchAndLockRequest> queue = new ArrayBlockingQueue<>(200);
-  protected List<FetchAndLockRequest> pendingRequests = new ArrayList<>();
-  protected List<FetchAndLockRequest> newRequests = new ArrayList<>();
-
-  protected Thread handlerThread = new Thread(this, this.getClass().getSimpleName());
+  protected List<FetchAndLockShard> shards;
 
   protected volatile boolean isRunning = false;
 
   protected boolean isUniqueWorkerRequest = false;
+  protected int shardCount = DEFAULT_SHARD_COUNT;
+  protected int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+  protected long admissionTimeout = DEFAULT_ADMISSION_TIMEOUT;
 
   public FetchAndLockHandlerImpl() {
-    this.condition = new SingleConsumerCondition(handlerThread);
+    initShards();
   }
 
-  @Override
-  public void run() {
+  protected void initShards() {
+    List<FetchAndLockShard> shards = new ArrayList<>();
+    for (int i = 0; i < shardCount; i++) {
+      shards.add(createShard(i));
+    }
+    this.shards = Collections.unmodifiableList(shards);
+  }
+
+  protected FetchAndLockShard createShard(int index) {
+    return new FetchAndLockShard(this, index, queueCapacity, admissionTimeout);
+  }
+
+  protected void run(FetchAndLockShard shard) {
     while (isRunning) {
       try {
-        acquire();
+        acquire(shard);
       }
       catch (Exception e) {
         // what ever happens, don't leave the loop
       }
     }
 
-    rejectPendingRequests();
+    rejectPendingRequests(shard);
   }
 
+  /**
+   * Runs one acquisition cycle on every shard.
+   */
   protected void acquire() {
+    for (FetchAndLockShard shard : shards) {
+      acquire(shard);
+    }
+  }
+
+  protected void acquire(FetchAndLockShard shard) {
     LOG.log(Level.FINEST, "Acquire start");
 
-    queue.drainTo(newRequests);
+    List<FetchAndLockRequest> pendingRequests = shard.getPendingRequests();
+    List<FetchAndLockRequest> newRequests = shard.getNewRequests();
+
+    shard.drainQueue();
 
     if (!newRequests.isEmpty()) {
       if (isUniqueWorkerRequest) {
-        removeDuplicates();
+        removeDuplicates(shard);
       }
 
       pendingRequests.addAll(newRequests);
@@ -106,14 +134,33 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
 
     long backoffTime = MAX_BACK_OFF_TIME; //timestamp
 
+    // requests fetching the same tasks as a previous request which did not get any task;
+    // there are no tasks left for them, so they are not queried again until the next acquisition.
+    // A partial result is not enough: tasks may be limited per fetch or locked concurrently.
+    // A request for no tasks gets nothing regardless, so it does not exhaust its group
+    Set<List<Object>> exhaustedTopicGroups = new HashSet<>();
+
     Iterator<FetchAndLockRequest> iterator = pendingRequests.iterator();
     while (iterator.hasNext()) {
 
       FetchAndLockRequest pendingRequest = iterator.next();
+      List<Object> topicGroupKey = pendingRequest.getTopicGroupKey();
 
-      LOG.log(Level.FINEST, "Fetching tasks for request {0}", pendingRequest);
+      FetchAndLockResult result;
+      if (exhaustedTopicGroups.contains(topicGroupKey)) {
+        LOG.log(Level.FINEST, "Skipping request with exhausted topics {0}", pendingRequest);
 
-      FetchAndLockResult result = tryFetchAndLock(pendingRequest);
+        result = FetchAndLockResult.successful(new ArrayList<LockedExternalTaskDto>());
+      }
+      else {
+        LOG.log(Level.FINEST, "Fetching tasks for request {0}", pendingRequest);
+
+        result = tryFetchAndLock(pendingRequest);
+
+        if (result.wasSuccessful() && result.getTasks().isEmpty() && pendingRequest.getDto().getMaxTasks() > 0) {
+          exhaustedTopicGroups.add(topicGroupKey);
+        }
+      }
 
       LOG.log(Level.FINEST, "Fetch and lock result: {0}", result);
 
@@ -124,6 +171,7 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
         if (!lockedTasks.isEmpty() || isExpired(pendingRequest)) {
           AsyncResponse asyncResponse = pendingRequest.getAsyncResponse();
           asyncResponse.resume(lockedTasks);
+          shard.requestCompleted(pendingRequest);
 
           LOG.log(Level.FINEST, "resume and remove request with {0}", lockedTasks);
 
@@ -138,6 +186,7 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
         AsyncResponse asyncResponse = pendingRequest.getAsyncResponse();
         Throwable processEngineException = result.getThrowable();
         asyncResponse.resume(processEngineException);
+        shard.requestCompleted(pendingRequest);
 
         LOG.log(Level.FINEST, "Resume and remove request with error {0}", processEngineException);
 
@@ -145,22 +194,24 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
       }
     }
 
+    shard.updatePendingRequestCount();
+
     final long waitTime = Math.max(0, backoffTime);
 
     if (pendingRequests.isEmpty()) {
-      suspend(waitTime);
+      suspend(shard, waitTime);
     }
     else {
       // if there are pending requests, try fetch periodically to ensure tasks created on other
       // cluster nodes and tasks with expired timeouts can be fetched in a timely manner
-      suspend(Math.min(PENDING_REQUEST_FETCH_INTERVAL, waitTime));
+      suspend(shard, Math.min(PENDING_REQUEST_FETCH_INTERVAL, waitTime));
     }
   }
 
-  protected void removeDuplicates() {
-    for (FetchAndLockRequest newRequest : newRequests) {
+  protected void removeDuplicates(FetchAndLockShard shard) {
+    for (FetchAndLockRequest newRequest : shard.getNewRequests()) {
       // remove any request from pendingRequests with the same worker id
-      Iterator<FetchAndLockRequest> iterator = pendingRequests.iterator();
+      Iterator<FetchAndLockRequest> iterator = shard.getPendingRequests().iterator();
       while (iterator.hasNext()) {
         FetchAndLockRequest pendingRequest = iterator.next();
         if (pendingRequest.getDto().getWorkerId().equals(newRequest.getDto().getWorkerId())) {
@@ -181,58 +232,86 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
     }
 
     isRunning = true;
-    handlerThread.start();
 
-    ProcessEngineImpl.EXT_TASK_CONDITIONS.addConsumer(condition);
+    for (FetchAndLockShard shard : shards) {
+      shard.getThread().start();
+      ProcessEngineImpl.EXT_TASK_CONDITIONS.addConsumer(shard.getCondition());
+    }
   }
 
   @Override
   public void shutdown() {
     try {
-      ProcessEngineImpl.EXT_TASK_CONDITIONS.removeConsumer(condition);
+      for (FetchAndLockShard shard : shards) {
+        ProcessEngineImpl.EXT_TASK_CONDITIONS.removeConsumer(shard.getCondition());
+      }
     }
     finally {
       isRunning = false;
-      condition.signal();
+      for (FetchAndLockShard shard : shards) {
+        shard.getCondition().signal();
+      }
     }
 
-    try {
-      handlerThread.join();
-    } catch (InterruptedException e) {
-      LOG.log(Level.WARNING, "Shutting down the handler thread failed: {0}", e);
+    for (FetchAndLockShard shard : shards) {
+      try {
+        shard.getThread().join();
+      } catch (InterruptedException e) {
+        LOG.log(Level.WARNING, "Shutting down the handler thread failed: {0}", e);
+      }
     }
   }
 
-  protected void suspend(long millis) {
+  protected void suspend(FetchAndLockShard shard, long millis) {
     if (millis <= 0) {
       return;
     }
 
-    suspendAcquisition(millis);
+    suspendAcquisition(shard, millis);
   }
 
-  protected void suspendAcquisition(long millis) {
+  protected void suspendAcquisition(FetchAndLockShard shard, long millis) {
     try {
-      if (queue.isEmpty() && isRunning) {
+      if (!shard.hasQueuedRequests() && isRunning) {
         LOG.log(Level.FINEST, "Suspend acquisition for {0}ms", millis);
-        condition.await(millis);
+        shard.getCondition().await(millis);
         LOG.log(Level.FINEST, "Acquisition woke up");
       }
     }
     finally {
-      if (handlerThread.isInterrupted()) {
+      if (shard.getThread().isInterrupted()) {
         Thread.currentThread().interrupt();
       }
     }
   }
 
   protected void addRequest(FetchAndLockRequest request) {
-    if (!queue.offer(request)) {
+    FetchAndLockShard shard = getShard(request);
+
+    if (!shard.offer(request)) {
       AsyncResponse asyncResponse = request.getAsyncResponse();
       errorTooManyRequests(asyncResponse);
     }
 
-    condition.signal();
+    shard.getCondition().signal();
+  }
+
+  /**
+   * Requests fetching the same tasks are assigned to the same shard, so that they
+   * are fetched together. With unique worker requests, the requests of a worker are
+   * assigned to the same shard instead, so that previous requests can be replaced.
+   */
+  protected FetchAndLockShard getShard(FetchAndLockRequest request) {
+    int hash;
+    if (isUniqueWorkerRequest) {
+      String workerId = request.getDto().getWorkerId();
+      hash = workerId != null ? workerId.hashCode() : 0;
+    }
+    else {
+      hash = request.getTopicGroupKey().hashCode();
+    }
+
+    return shards.get((hash & Integer.MAX_VALUE) % shards.size());
   }
 
   protected FetchAndLockResult tryFetchAndLock(FetchAndLockRequest request) {
@@ -275,7 +354,16 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
   }
 
   protected void rejectPendingRequests() {
-    for (FetchAndLockRequest pendingRequest : pendingRequests) {
+    for (FetchAndLockShard shard : shards) {
+      rejectPendingRequests(shard);
+    }
+  }
+
+  protected void rejectPendingRequests(FetchAndLockShard shard) {
+    // requests waiting for admission would not be answered otherwise
+    shard.getPendingRequests().addAll(shard.removeQueuedRequests());
+
+    for (FetchAndLockRequest pendingRequest : shard.getPendingRequests()) {
       AsyncResponse asyncResponse = pendingRequest.getAsyncResponse();
       asyncResponse.resume(new RestException(Status.INTERNAL_SERVER_ERROR, "Request rejected due to shutdown of application server."));
     }
@@ -345,10 +433,49 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
 
       if (servletContext != null) {
         parseUniqueWorkerRequestParam(servletContext.getInitParameter(UNIQUE_WORKER_REQUEST_PARAM_NAME));
+        parseShardParams(
+          servletContext.getInitParameter(SHARD_COUNT_PARAM_NAME),
+          servletContext.getInitParameter(QUEUE_CAPACITY_PARAM_NAME),
+          servletContext.getInitParameter(ADMISSION_TIMEOUT_PARAM_NAME));
       }
     }
   }
 
+  protected void parseShardParams(String shardCountParam, String queueCapacityParam, String admissionTimeoutParam) {
+    shardCount = parsePositiveInt(SHARD_COUNT_PARAM_NAME, shardCountParam, DEFAULT_SHARD_COUNT);
+    queueCapacity = parsePositiveInt(QUEUE_CAPACITY_PARAM_NAME, queueCapacityParam, DEFAULT_QUEUE_CAPACITY);
+
+    admissionTimeout = DEFAULT_ADMISSION_TIMEOUT;
+    if (admissionTimeoutParam != null) {
+      try {
+        admissionTimeout = Math.max(0, Long.parseLong(admissionTimeoutParam.trim()));
+      }
+      catch (NumberFormatException e) {
+        LOG.log(Level.WARNING, "Invalid value ''{0}'' of {1}, using default", new Object[] { admissionTimeoutParam, ADMISSION_TIMEOUT_PARAM_NAME });
+      }
+    }
+
+    if (!isRunning) {
+      initShards();
+    }
+  }
+
+  protected int parsePositiveInt(String paramName, String param, int defaultValue) {
+    if (param != null) {
+      try {
+        int value = Integer.parseInt(param.trim());
+        if (value > 0) {
+          return value;
+        }
+      }
+      catch (NumberFormatException e) {
+        // log below
+      }
+      LOG.log(Level.WARNING, "Invalid value ''{0}'' of {1}, using default", new Object[] { param, paramName });
+    }
+    return defaultValue;
+  }
+
   protected void parseUniqueWorkerRequestParam(String uniqueWorkerRequestParam) {
     if (uniqueWorkerRequestParam != null) {
       isUniqueWorkerRequest = Boolean.valueOf(uniqueWorkerRequestParam);
@@ -357,7 +484,78 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
     }
   }
 
+  /**
+   * @return the pending requests of all shards; must only be used when the handler is not running
+   */
   public List<FetchAndLockRequest> getPendingRequests() {
+    List<FetchAndLockRequest> pendingRequests = new ArrayList<>();
+    for (FetchAndLockShard shard : shards) {
+      pendingRequests.addAll(shard.getPendingRequests());
+    }
     return pendingRequests;
   }
+
+  public List<FetchAndLockShard> getShards() {
+    return shards;
+  }
+
+  // metrics //////////////////////////////////////////
+
+  public int getQueueDepth() {
+    int queueDepth = 0;
+    for (FetchAndLockShard shard : shards) {
+      queueDepth += shard.getQueueDepth();
+    }
+    return queueDepth;
+  }
+
+  public int getPendingRequestCount() {
+    int pendingRequestCount = 0;
+    for (FetchAndLockShard shard : shards) {
+      pendingRequestCount += shard.getPendingRequestCount();
+    }
+    return pendingRequestCount;
+  }
+
+  public long getRejectedRequests() {
+    long rejectedRequests = 0;
+    for (FetchAndLockShard shard : shards) {
+      rejectedRequests += shard.getRejectedRequests();
+    }
+    return rejectedRequests;
+  }
+
+  public long getCompletedRequests() {
+    long completedRequests = 0;
+    for (FetchAndLockShard shard : shards) {
+      completedRequests += shard.getCompletedRequests();
+    }
+    return completedRequests;
+  }
+
+  /**
+   * @return the time requests spent in the queue of their shard, averaged over the requests of all shards
+   */
+  public long getAverageQueueTimeMillis() {
+    long dequeuedRequests = 0;
+    long totalQueueTimeMillis = 0;
+    for (FetchAndLockShard shard : shards) {
+      dequeuedRequests += shard.getDequeuedRequests();
+      totalQueueTimeMillis += shard.getTotalQueueTimeMillis();
+    }
+    return dequeuedRequests > 0 ? totalQueueTimeMillis / dequeuedRequests : 0;
+  }
+
+  /**
+   * @return the time until deferred requests were answered, averaged over the requests of all shards
+   */
+  public long getAverageResponseTimeMillis() {
+    long completedRequests = 0;
+    long totalResponseTimeMillis = 0;
+    for (FetchAndLockShard shard : shards) {
+      completedRequests += shard.getCompletedRequests();
+      totalResponseTimeMillis += shard.getTotalResponseTimeMillis();
+    }
+    return completedRequests > 0 ? totalResponseTimeMillis / completedRequests : 0;
+  }
 }
@@ -16,10 +16,16 @@
  */
 package org.camunda.bpm.engine.rest.impl;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import org.camunda.bpm.engine.impl.identity.Authentication;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksDto.FetchExternalTaskTopicDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksExtendedDto;
 
 import javax.ws.rs.container.AsyncResponse;
@@ -34,6 +40,7 @@ public class FetchAndLockRequest {
   protected AsyncResponse asyncResponse;
   protected String processEngineName;
   protected Authentication authentication;
+  protected List<Object> topicGroupKey;
 
   public Date getRequestTime() {
     return requestTime;
@@ -87,6 +94,52 @@ public class FetchAndLockRequest {
     return requestTime + asyncResponseTimeout;
   }
 
+  /**
+   * Returns a key which is equal for all requests that fetch the same tasks. It consists of the
+   * process engine, the authentication, the priority flag and the topics including their
+   * lock duration and filters. The worker id, the maximum number of tasks and the response
+   * timeout are not part of the key.
+   */
+  public List<Object> getTopicGroupKey() {
+    if (topicGroupKey == null) {
+      Set<List<Object>> topics = new HashSet<>();
+      if (dto.getTopics() != null) {
+        for (FetchExternalTaskTopicDto topic : dto.getTopics()) {
+          topics.add(Arrays.asList(
+            topic.getTopicName(),
+            topic.getBusinessKey(),
+            topic.getProcessDefinitionId(),
+            asList(topic.getProcessDefinitionIdIn()),
+            topic.getProcessDefinitionKey(),
+            asList(topic.getProcessDefinitionKeyIn()),
+            topic.getLockDuration(),
+            topic.getVariables(),
+            topic.getProcessVariables(),
+            topic.isDeserializeValues(),
+            topic.isLocalVariables(),
+            topic.isWithoutTenantId(),
+            asList(topic.getTenantIdIn())));
+        }
+      }
+
+      String userId = null;
+      List<String> groupIds = null;
+      List<String> tenantIds = null;
+      if (authentication != null) {
+        userId = authentication.getUserId();
+        groupIds = authentication.getGroupIds();
+        tenantIds = authentication.getTenantIds();
+      }
+
+      topicGroupKey = Arrays.asList(processEngineName, userId, groupIds, tenantIds, dto.isUsePriority(), topics);
+    }
+    return topicGroupKey;
+  }
+
+  protected List<String> asList(String[] values) {
+    return values != null ? Arrays.asList(values) : Collections.<String>emptyList();
+  }
+
   @Override
   public String toString() {
     return "FetchAndLockRequest [requestTime=" + requestTime + ", dto=" + dto + ", asyncResponse=" + asyncResponse + ", processEngineName=" + processEngineName
@@ -38,4 +38,10 @@ public class FetchAndLockRestServiceImpl extends AbstractRestProcessEngineAware
     fetchAndLockHandler.addPendingRequest(dto, asyncResponse, processEngine);
   }
 
+  @Override
+  public void fetchAndLockStreaming(FetchExternalTasksExtendedDto dto, AsyncResponse asyncResponse) {
+    // the locked tasks are written as ndjson by the message body writer selected for the response
+    fetchAndLock(dto, asyncResponse);
+  }
+
 }
@@ -0,0 +1,243 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.impl.util.SingleConsumerCondition;
+
+/**
+ * A partition of the pending fetch and lock requests which is acquired by its own thread.
+ * Keeps the metrics of its queue: the number of queued and pending requests, rejected
+ * requests and the time requests spent in the queue and until they were answered.
+ */
+public class FetchAndLockShard implements Runnable {
+
+  protected FetchAndLockHandlerImpl handler;
+  protected int index;
+  protected int queueCapacity;
+  protected long admissionTimeoutMillis;
+
+  protected BlockingQueue<FetchAndLockRequest> queue;
+  // requests which did not fit into the full queue; they are admitted by the shard's thread in the
+  // order they arrived or rejected once they waited longer than the admission timeout
+  protected ConcurrentLinkedQueue<FetchAndLockRequest> waitingRequests = new ConcurrentLinkedQueue<>();
+  protected AtomicInteger waitingRequestCount = new AtomicInteger();
+  protected List<FetchAndLockRequest> pendingRequests = new ArrayList<>();
+  protected List<FetchAndLockRequest> newRequests = new ArrayList<>();
+
+  protected Thread thread;
+  protected SingleConsumerCondition condition;
+
+  // the pending requests are only accessed by the shard's thread; this count is published for other threads
+  protected volatile int pendingRequestCount;
+
+  protected AtomicLong rejectedRequests = new AtomicLong();
+  protected AtomicLong dequeuedRequests = new AtomicLong();
+  protected AtomicLong totalQueueTimeMillis = new AtomicLong();
+  protected AtomicLong completedRequests = new AtomicLong();
+  protected AtomicLong totalResponseTimeMillis = new AtomicLong();
+
+  /**
+   * @param queueCapacity the maximum number of requests handed over to the
+   *   shard's thread between two acquisitions; as many requests can wait for admission
+   * @param admissionTimeoutMillis how long a request can wait for admission if the queue is full
+   */
+  public FetchAndLockShard(FetchAndLockHandlerImpl handler, int index, int queueCapacity, long admissionTimeoutMillis) {
+    this.handler = handler;
+    this.index = index;
+    this.queueCapacity = queueCapacity;
+    this.admissionTimeoutMillis = admissionTimeoutMillis;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.thread = new Thread(this, handler.getClass().getSimpleName() + "-" + index);
+    this.condition = new SingleConsumerCondition(thread);
+  }
+
+  @Override
+  public void run() {
+    handler.run(this);
+  }
+
+  /**
+   * Hands the request over to the shard's thread without blocking the calling thread.
+   * If the queue is full, the request waits for admission by the shard's thread, as long
+   * as the admission timeout is positive and not too many requests are waiting already.
+   *
+   * @return false if the request was rejected
+   */
+  public boolean offer(FetchAndLockRequest request) {
+    // requests must not overtake the requests waiting for admission
+    if (waitingRequests.isEmpty() && queue.offer(request)) {
+      return true;
+    }
+
+    if (admissionTimeoutMillis > 0) {
+      if (waitingRequestCount.incrementAndGet() <= queueCapacity) {
+        waitingRequests.add(request);
+        return true;
+      }
+      waitingRequestCount.decrementAndGet();
+    }
+
+    rejectedRequests.incrementAndGet();
+    return false;
+  }
+
+  /**
+   * Moves the requests handed over since the last acquisition to the new requests, followed
+   * by at most queue capacity many requests waiting for admission. Waiting requests which
+   * exceeded the admission timeout are rejected.
+   */
+  public void drainQueue() {
+    int size = newRequests.size();
+    queue.drainTo(newRequests);
+
+    long now = ClockUtil.getCurrentTime().getTime();
+    int admittedRequests = 0;
+    FetchAndLockRequest waitingRequest;
+    while (admittedRequests < queueCapacity && (waitingRequest = waitingRequests.poll()) != null) {
+      waitingRequestCount.decrementAndGet();
+
+      if (now - waitingRequest.getRequestTime().getTime() > admissionTimeoutMillis) {
+        rejectedRequests.incrementAndGet();
+        handler.errorTooManyRequests(waitingRequest.getAsyncResponse());
+      }
+      else {
+        newRequests.add(waitingRequest);
+        admittedRequests++;
+      }
+    }
+
+    for (int i = size; i < newRequests.size(); i++) {
+      totalQueueTimeMillis.addAndGet(Math.max(0, now - newRequests.get(i).getRequestTime().getTime()));
+      dequeuedRequests.incrementAndGet();
+    }
+  }
+
+  /**
+   * @return true if requests were handed over or are waiting for admission
+   */
+  public boolean hasQueuedRequests() {
+    return !queue.isEmpty() || !waitingRequests.isEmpty();
+  }
+
+  /**
+   * Removes the requests which were handed over or are waiting for admission
+   * but not moved to the new requests yet.
+   */
+  public List<FetchAndLockRequest> removeQueuedRequests() {
+    List<FetchAndLockRequest> queuedRequests = new ArrayList<>();
+    queue.drainTo(queuedRequests);
+
+    FetchAndLockRequest waitingRequest;
+    while ((waitingRequest = waitingRequests.poll()) != null) {
+      waitingRequestCount.decrementAndGet();
+      queuedRequests.add(waitingRequest);
+    }
+
+    return queuedRequests;
+  }
+
+  /**
+   * Publishes the number of pending requests; must be called by the shard's thread
+   * after it changed the pending requests.
+   */
+  public void updatePendingRequestCount() {
+    pendingRequestCount = pendingRequests.size();
+  }
+
+  public void requestCompleted(FetchAndLockRequest request) {
+    long now = ClockUtil.getCurrentTime().getTime();
+    totalResponseTimeMillis.addAndGet(Math.max(0, now - request.getRequestTime().getTime()));
+    completedRequests.incrementAndGet();
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public BlockingQueue<FetchAndLockRequest> getQueue() {
+    return queue;
+  }
+
+  public List<FetchAndLockRequest> getPendingRequests() {
+    return pendingRequests;
+  }
+
+  public List<FetchAndLockRequest> getNewRequests() {
+    return newRequests;
+  }
+
+  public Thread getThread() {
+    return thread;
+  }
+
+  public SingleConsumerCondition getCondition() {
+    return condition;
+  }
+
+  // metrics //////////////////////////////////////////
+
+  /**
+   * @return the number of requests which were handed over or are waiting for admission
+   */
+  public int getQueueDepth() {
+    return queue.size() + waitingRequestCount.get();
+  }
+
+  public int getPendingRequestCount() {
+    return pendingRequestCount;
+  }
+
+  public long getRejectedRequests() {
+    return rejectedRequests.get();
+  }
+
+  public long getCompletedRequests() {
+    return completedRequests.get();
+  }
+
+  public long getDequeuedRequests() {
+    return dequeuedRequests.get();
+  }
+
+  public long getTotalQueueTimeMillis() {
+    return totalQueueTimeMillis.get();
+  }
+
+  public long getTotalResponseTimeMillis() {
+    return totalResponseTimeMillis.get();
+  }
+
+  public long getAverageQueueTimeMillis() {
+    long count = dequeuedRequests.get();
+    return count > 0 ? totalQueueTimeMillis.get() / count : 0;
+  }
+
+  public long getAverageResponseTimeMillis() {
+    long count = completedRequests.get();
+    return count > 0 ? totalResponseTimeMillis.get() / count : 0;
+  }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.mapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * <p>Provides a {@link MessageBodyWriter} which writes collections as newline-delimited JSON
+ * (<code>application/x-ndjson</code>): every element is serialized into a single line and the
+ * entity stream is flushed after each line. Clients can start processing the first element
+ * before the remaining elements are serialized.</p>
+ */
+@Provider
+@Produces(NdJsonMessageBodyWriter.APPLICATION_NDJSON)
+public class NdJsonMessageBodyWriter implements MessageBodyWriter<Collection<?>> {
+
+  public static final String APPLICATION_NDJSON = "application/x-ndjson";
+  public static final MediaType APPLICATION_NDJSON_TYPE = new MediaType("application", "x-ndjson");
+
+  protected static final int LINE_SEPARATOR = '\n';
+
+  protected ObjectMapper objectMapper = JacksonConfigurator.configureObjectMapper(new ObjectMapper());
+
+  public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+    return Collection.class.isAssignableFrom(type)
+        && APPLICATION_NDJSON_TYPE.isCompatible(mediaType);
+  }
+
+  public long getSize(Collection<?> elements, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+    return -1;
+  }
+
+  public void writeTo(Collection<?> elements, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+      MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException, WebApplicationException {
+
+    for (Object element : elements) {
+      // serialize the elements one by one, so that the client does not have to wait for the whole collection
+      entityStream.write(objectMapper.writeValueAsBytes(element));
+      entityStream.write(LINE_SEPARATOR);
+      entityStream.flush();
+    }
+  }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.spi;
+
+/**
+ * Metrics of a {@link FetchAndLockHandler} which defers fetch and lock requests;
+ * implemented by the default handler. Obtain the handler in use with
+ * {@link org.camunda.bpm.engine.rest.impl.FetchAndLockContextListener#getFetchAndLockHandler()}.
+ */
+public interface FetchAndLockHandlerMetrics {
+
+  /**
+   * @return the number of requests which were deferred but not picked up by the handler yet
+   */
+  int getQueueDepth();
+
+  /**
+   * @return the number of requests which are waiting for tasks
+   */
+  int getPendingRequestCount();
+
+  /**
+   * @return the number of requests which were rejected because too many requests were queued
+   */
+  long getRejectedRequests();
+
+  /**
+   * @return the number of deferred requests which were answered with tasks or after their timeout
+   */
+  long getCompletedRequests();
+
+  /**
+   * @return the average time in milliseconds until deferred requests were picked up by the handler
+   */
+  long getAverageQueueTimeMillis();
+
+  /**
+   * @return the average time in milliseconds until deferred requests were answered
+   */
+  long getAverageResponseTimeMillis();
+
+}
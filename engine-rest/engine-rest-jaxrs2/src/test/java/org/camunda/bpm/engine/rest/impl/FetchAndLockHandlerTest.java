@@ -52,6 +52,7 @@ import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.argThat;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
@@ -101,7 +102,7 @@ public class FetchAndLockHandlerTest {
     when(fetchTopicBuilder.enableCustomObjectDeserialization())
       .thenReturn(fetchTopicBuilder);
 
-    doNothing().when(handler).suspend(anyLong());
+    doNothing().when(handler).suspend(any(FetchAndLockShard.class), anyLong());
     doReturn(processEngine).when(handler).getProcessEngine(any(FetchAndLockRequest.class));
 
     lockedExternalTaskMock = MockProvider.createMockLockedExternalTask();
@@ -138,7 +139,7 @@ public class FetchAndLockHandlerTest {
     // then
     verify(asyncResponse).resume(argThat(IsCollectionWithSize.hasSize(1)));
     assertThat(handler.getPendingRequests().size(), is(0));
-    verify(handler).suspend(Long.MAX_VALUE);
+    verify(handler).suspend(any(FetchAndLockShard.class), eq(Long.MAX_VALUE));
   }
 
   @Test
@@ -155,7 +156,7 @@ public class FetchAndLockHandlerTest {
     // then
     verify(asyncResponse, never()).resume(any());
     assertThat(handler.getPendingRequests().size(), is(1));
-    verify(handler).suspend(5000L);
+    verify(handler).suspend(any(FetchAndLockShard.class), eq(5000L));
   }
 
   @Test
@@ -169,7 +170,7 @@ public class FetchAndLockHandlerTest {
 
     // assume
     assertThat(handler.getPendingRequests().size(), is(1));
-    verify(handler).suspend(5000L);
+    verify(handler).suspend(any(FetchAndLockShard.class), eq(5000L));
 
     List<LockedExternalTask> tasks = new ArrayList<LockedExternalTask>();
     tasks.add(lockedExternalTaskMock);
@@ -183,7 +184,7 @@ public class FetchAndLockHandlerTest {
     // then
     verify(asyncResponse).resume(argThat(IsCollectionWithSize.hasSize(1)));
     assertThat(handler.getPendingRequests().size(), is(0));
-    verify(handler).suspend(Long.MAX_VALUE);
+    verify(handler).suspend(any(FetchAndLockShard.class), eq(Long.MAX_VALUE));
   }
 
   @Test
@@ -199,7 +200,7 @@ public class FetchAndLockHandlerTest {
 
     // assume
     assertThat(handler.getPendingRequests().size(), is(1));
-    verify(handler).suspend(4000L);
+    verify(handler).suspend(any(FetchAndLockShard.class), eq(4000L));
 
     addSecondsToClock(4);
 
@@ -209,7 +210,7 @@ public class FetchAndLockHandlerTest {
     // then
     verify(asyncResponse).resume(argThat(IsCollectionWithSize.hasSize(0)));
     assertThat(handler.getPendingRequests().size(), is(0));
-    verify(handler).suspend(Long.MAX_VALUE);
+    verify(handler).suspend(any(FetchAndLockShard.class), eq(Long.MAX_VALUE));
   }
 
   @Test
@@ -226,7 +227,7 @@ public class FetchAndLockHandlerTest {
 
     // assume
     assertThat(handler.getPendingRequests().size(), is(2));
-    verify(handler).suspend(3000L);
+    verify(handler).suspend(any(FetchAndLockShard.class), eq(3000L));
 
     addSecondsToClock(4);
 
@@ -236,7 +237,7 @@ public class FetchAndLockHandlerTest {
     // then
     verify(asyncResponse, times(2)).resume(Collections.emptyList());
     assertThat(handler.getPendingRequests().size(), is(0));
-    verify(handler).suspend(Long.MAX_VALUE);
+    verify(handler).suspend(any(FetchAndLockShard.class), eq(Long.MAX_VALUE));
   }
 
   @Test
@@ -250,7 +251,7 @@ public class FetchAndLockHandlerTest {
 
     // Then
     assertThat(handler.getPendingRequests().size(), is(0));
-    verify(handler, never()).suspend(anyLong());
+    verify(handler, never()).suspend(any(FetchAndLockShard.class), anyLong());
     verify(asyncResponse).resume(any(ProcessEngineException.class));
   }
 
@@ -265,7 +266,7 @@ public class FetchAndLockHandlerTest {
 
     // assume
     assertThat(handler.getPendingRequests().size(), is(1));
-    verify(handler).suspend(5000L);
+    verify(handler).suspend(any(FetchAndLockShard.class), eq(5000L));
 
     // when
     doThrow(new ProcessEngineException()).when(fetchTopicBuilder).execute();
@@ -273,7 +274,7 @@ public class FetchAndLockHandlerTest {
 
     // then
     assertThat(handler.getPendingRequests().size(), is(0));
-    verify(handler).suspend(Long.MAX_VALUE);
+    verify(handler).suspend(any(FetchAndLockShard.class), eq(Long.MAX_VALUE));
     verify(asyncResponse).resume(any(ProcessEngineException.class));
   }
 
@@ -289,7 +290,7 @@ public class FetchAndLockHandlerTest {
     handler.addPendingRequest(createDto(FetchAndLockHandlerImpl.MAX_REQUEST_TIMEOUT + 1), asyncResponse, processEngine);
 
     // then
-    verify(handler, never()).suspend(anyLong());
+    verify(handler, never()).suspend(any(FetchAndLockShard.class), anyLong());
     assertThat(handler.getPendingRequests().size(), is(0));
 
     ArgumentCaptor<InvalidRequestException> argumentCaptor = ArgumentCaptor.forClass(InvalidRequestException.class);
@@ -309,7 +310,7 @@ public class FetchAndLockHandlerTest {
     handler.acquire();
 
     // then
-    verify(handler).suspend(FetchAndLockHandlerImpl.PENDING_REQUEST_FETCH_INTERVAL);
+    verify(handler).suspend(any(FetchAndLockShard.class), eq(FetchAndLockHandlerImpl.PENDING_REQUEST_FETCH_INTERVAL));
   }
 
   @Test
@@ -321,7 +322,7 @@ public class FetchAndLockHandlerTest {
     handler.acquire();
 
     // then
-    verify(handler).suspend(FetchAndLockHandlerImpl.MAX_BACK_OFF_TIME);
+    verify(handler).suspend(any(FetchAndLockShard.class), eq(FetchAndLockHandlerImpl.MAX_BACK_OFF_TIME));
   }
 
   @Test
@@ -393,7 +394,295 @@ public class FetchAndLockHandlerTest {
 
     // then
     assertThat(handler.getPendingRequests().size(), is(0));
-    verify(handler).suspend(Long.MAX_VALUE);
+    verify(handler).suspend(any(FetchAndLockShard.class), eq(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void shouldFetchOncePerTopicGroupDueToNoAvailableTasks() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+
+    handler.addPendingRequest(createDto(5000L, "aWorkerId"), mock(AsyncResponse.class), processEngine);
+    handler.addPendingRequest(createDto(5000L, "anotherWorkerId"), mock(AsyncResponse.class), processEngine);
+    handler.addPendingRequest(createDto(5000L, "aThirdWorkerId"), mock(AsyncResponse.class), processEngine);
+
+    // assume
+    verify(fetchTopicBuilder, times(3)).execute();
+
+    // when
+    handler.acquire();
+
+    // then
+    verify(fetchTopicBuilder, times(4)).execute();
+    assertThat(handler.getPendingRequests().size(), is(3));
+  }
+
+  @Test
+  public void shouldFetchForEveryTopicGroup() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+
+    handler.addPendingRequest(createDto(5000L, "aWorkerId", "aTopicName"), mock(AsyncResponse.class), processEngine);
+    handler.addPendingRequest(createDto(5000L, "anotherWorkerId", "anotherTopicName"), mock(AsyncResponse.class), processEngine);
+
+    // when
+    handler.acquire();
+
+    // then
+    verify(fetchTopicBuilder, times(4)).execute();
+  }
+
+  @Test
+  public void shouldFetchForNextRequestOfTopicGroupWhileTasksAvailable() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+
+    AsyncResponse asyncResponse = mock(AsyncResponse.class);
+    AsyncResponse anotherAsyncResponse = mock(AsyncResponse.class);
+    handler.addPendingRequest(createDto(5000L, "aWorkerId"), asyncResponse, processEngine);
+    handler.addPendingRequest(createDto(5000L, "anotherWorkerId"), anotherAsyncResponse, processEngine);
+
+    List<LockedExternalTask> tasks = new ArrayList<LockedExternalTask>();
+    for (int i = 0; i < 5; i++) {
+      tasks.add(lockedExternalTaskMock);
+    }
+    List<LockedExternalTask> remainingTasks = new ArrayList<LockedExternalTask>();
+    remainingTasks.add(lockedExternalTaskMock);
+    doReturn(tasks).doReturn(remainingTasks).when(fetchTopicBuilder).execute();
+
+    // when
+    handler.acquire();
+
+    // then
+    verify(fetchTopicBuilder, times(4)).execute();
+    verify(asyncResponse).resume(argThat(IsCollectionWithSize.hasSize(5)));
+    verify(anotherAsyncResponse).resume(argThat(IsCollectionWithSize.hasSize(1)));
+    assertThat(handler.getPendingRequests().size(), is(0));
+  }
+
+  @Test
+  public void shouldFetchForNextRequestOfTopicGroupAfterPartialResult() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+
+    AsyncResponse asyncResponse = mock(AsyncResponse.class);
+    AsyncResponse anotherAsyncResponse = mock(AsyncResponse.class);
+    AsyncResponse thirdAsyncResponse = mock(AsyncResponse.class);
+    handler.addPendingRequest(createDto(5000L, "aWorkerId"), asyncResponse, processEngine);
+    handler.addPendingRequest(createDto(5000L, "anotherWorkerId"), anotherAsyncResponse, processEngine);
+    handler.addPendingRequest(createDto(5000L, "aThirdWorkerId"), thirdAsyncResponse, processEngine);
+
+    List<LockedExternalTask> tasks = new ArrayList<LockedExternalTask>();
+    tasks.add(lockedExternalTaskMock);
+    doReturn(tasks).doReturn(tasks).doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+
+    // when
+    handler.acquire();
+
+    // then
+    verify(fetchTopicBuilder, times(6)).execute();
+    verify(asyncResponse).resume(argThat(IsCollectionWithSize.hasSize(1)));
+    verify(anotherAsyncResponse).resume(argThat(IsCollectionWithSize.hasSize(1)));
+    verify(thirdAsyncResponse, never()).resume(any());
+    assertThat(handler.getPendingRequests().size(), is(1));
+  }
+
+  @Test
+  public void shouldFetchForNextRequestOfTopicGroupAfterRequestForNoTasks() {
+    // given
+    AsyncResponse asyncResponse = mock(AsyncResponse.class);
+    AsyncResponse anotherAsyncResponse = mock(AsyncResponse.class);
+
+    FetchExternalTasksExtendedDto noTasksDto = createDto(5000L, "aWorkerId");
+    noTasksDto.setMaxTasks(0);
+
+    List<LockedExternalTask> tasks = new ArrayList<LockedExternalTask>();
+    tasks.add(lockedExternalTaskMock);
+    doReturn(Collections.emptyList())
+      .doReturn(Collections.emptyList())
+      .doReturn(Collections.emptyList())
+      .doReturn(tasks)
+      .when(fetchTopicBuilder).execute();
+
+    handler.addPendingRequest(noTasksDto, asyncResponse, processEngine);
+    handler.addPendingRequest(createDto(5000L, "anotherWorkerId"), anotherAsyncResponse, processEngine);
+
+    // when
+    handler.acquire();
+
+    // then
+    verify(fetchTopicBuilder, times(4)).execute();
+    verify(asyncResponse, never()).resume(any());
+    verify(anotherAsyncResponse).resume(argThat(IsCollectionWithSize.hasSize(1)));
+    assertThat(handler.getPendingRequests().size(), is(1));
+  }
+
+  @Test
+  public void shouldAssignRequestsFetchingSameTopicsToSameShard() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+    handler.parseShardParams("4", null, null);
+
+    // when
+    handler.addPendingRequest(createDto(5000L, "aWorkerId"), mock(AsyncResponse.class), processEngine);
+    handler.addPendingRequest(createDto(5000L, "anotherWorkerId"), mock(AsyncResponse.class), processEngine);
+    handler.acquire();
+
+    // then
+    int shardsWithPendingRequests = 0;
+    for (FetchAndLockShard shard : handler.getShards()) {
+      if (!shard.getPendingRequests().isEmpty()) {
+        shardsWithPendingRequests++;
+        assertThat(shard.getPendingRequests().size(), is(2));
+      }
+    }
+    assertThat(shardsWithPendingRequests, is(1));
+  }
+
+  @Test
+  public void shouldDistributeRequestsAcrossShardsByTopic() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+    handler.parseShardParams("4", null, null);
+
+    // when
+    for (int i = 0; i < 20; i++) {
+      handler.addPendingRequest(createDto(5000L, "aWorkerId" + i, "aTopicName" + i), mock(AsyncResponse.class), processEngine);
+    }
+    handler.acquire();
+
+    // then
+    int shardsWithPendingRequests = 0;
+    for (FetchAndLockShard shard : handler.getShards()) {
+      for (FetchAndLockRequest pendingRequest : shard.getPendingRequests()) {
+        assertThat(handler.getShard(pendingRequest), is(shard));
+      }
+      if (!shard.getPendingRequests().isEmpty()) {
+        shardsWithPendingRequests++;
+      }
+    }
+    assertThat(shardsWithPendingRequests > 1, is(true));
+    assertThat(handler.getPendingRequests().size(), is(20));
+  }
+
+  @Test
+  public void shouldRejectRequestDueToFullQueue() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+    handler.parseShardParams("1", "1", null);
+
+    handler.addPendingRequest(createDto(5000L, "aWorkerId"), mock(AsyncResponse.class), processEngine);
+
+    // when
+    AsyncResponse asyncResponse = mock(AsyncResponse.class);
+    handler.addPendingRequest(createDto(5000L, "anotherWorkerId"), asyncResponse, processEngine);
+
+    // then
+    verify(asyncResponse).resume(any(InvalidRequestException.class));
+    assertThat(handler.getRejectedRequests(), is(1L));
+    assertThat(handler.getQueueDepth(), is(1));
+  }
+
+  @Test
+  public void shouldAdmitWaitingRequestWithoutBlocking() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+    handler.parseShardParams("1", "1", "5000");
+
+    handler.addPendingRequest(createDto(5000L, "aWorkerId"), mock(AsyncResponse.class), processEngine);
+
+    // when the queue is full
+    AsyncResponse asyncResponse = mock(AsyncResponse.class);
+    handler.addPendingRequest(createDto(5000L, "anotherWorkerId"), asyncResponse, processEngine);
+
+    // then the request waits for admission
+    verify(asyncResponse, never()).resume(any());
+    assertThat(handler.getRejectedRequests(), is(0L));
+    assertThat(handler.getQueueDepth(), is(2));
+
+    // when
+    handler.acquire();
+
+    // then
+    assertThat(handler.getQueueDepth(), is(0));
+    assertThat(handler.getPendingRequests().size(), is(2));
+  }
+
+  @Test
+  public void shouldRejectWaitingRequestAfterAdmissionTimeout() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+    handler.parseShardParams("1", "1", "1000");
+
+    handler.addPendingRequest(createDto(5000L, "aWorkerId"), mock(AsyncResponse.class), processEngine);
+    AsyncResponse asyncResponse = mock(AsyncResponse.class);
+    handler.addPendingRequest(createDto(5000L, "anotherWorkerId"), asyncResponse, processEngine);
+
+    // when
+    addSecondsToClock(2);
+    handler.acquire();
+
+    // then
+    verify(asyncResponse).resume(any(InvalidRequestException.class));
+    assertThat(handler.getRejectedRequests(), is(1L));
+    assertThat(handler.getPendingRequests().size(), is(1));
+  }
+
+  @Test
+  public void shouldReportQueueDepthAndPendingRequests() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+    handler.addPendingRequest(createDto(5000L), mock(AsyncResponse.class), processEngine);
+
+    // assume
+    assertThat(handler.getQueueDepth(), is(1));
+    assertThat(handler.getPendingRequestCount(), is(0));
+
+    // when
+    handler.acquire();
+
+    // then
+    assertThat(handler.getQueueDepth(), is(0));
+    assertThat(handler.getPendingRequestCount(), is(1));
+  }
+
+  @Test
+  public void shouldReportAverageTimesAcrossShards() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+    handler.parseShardParams("4", null, null);
+
+    for (int i = 0; i < 8; i++) {
+      handler.addPendingRequest(createDto(5000L, "aWorkerId" + i, "aTopicName" + i), mock(AsyncResponse.class), processEngine);
+    }
+
+    addSecondsToClock(2);
+    handler.acquire();
+
+    List<LockedExternalTask> tasks = new ArrayList<LockedExternalTask>();
+    tasks.add(lockedExternalTaskMock);
+    doReturn(tasks).when(fetchTopicBuilder).execute();
+
+    // when
+    addSecondsToClock(2);
+    handler.acquire();
+
+    // then
+    assertThat(handler.getPendingRequestCount(), is(0));
+    assertThat(handler.getCompletedRequests(), is(8L));
+    assertThat(handler.getAverageQueueTimeMillis(), is(2000L));
+    assertThat(handler.getAverageResponseTimeMillis(), is(4000L));
+  }
+
+  @Test
+  public void shouldUseDefaultsForInvalidShardParams() {
+    // when
+    handler.parseShardParams("zero", "-1", "never");
+
+    // then
+    assertThat(handler.getShards().size(), is(FetchAndLockHandlerImpl.DEFAULT_SHARD_COUNT));
+    assertThat(handler.queueCapacity, is(FetchAndLockHandlerImpl.DEFAULT_QUEUE_CAPACITY));
+    assertThat(handler.admissionTimeout, is(FetchAndLockHandlerImpl.DEFAULT_ADMISSION_TIMEOUT));
   }
 
   @Test
@@ -417,10 +706,14 @@ public class FetchAndLockHandlerTest {
   }
 
   protected FetchExternalTasksExtendedDto createDto(Long responseTimeout, String workerId) {
+    return createDto(responseTimeout, workerId, "aTopicName");
+  }
+
+  protected FetchExternalTasksExtendedDto createDto(Long responseTimeout, String workerId, String topicName) {
     FetchExternalTasksExtendedDto externalTask = new FetchExternalTasksExtendedDto();
 
     FetchExternalTasksExtendedDto.FetchExternalTaskTopicDto topic = new FetchExternalTasksExtendedDto.FetchExternalTaskTopicDto();
-    topic.setTopicName("aTopicName");
+    topic.setTopicName(topicName);
     topic.setLockDuration(12354L);
 
     externalTask.setMaxTasks(5);
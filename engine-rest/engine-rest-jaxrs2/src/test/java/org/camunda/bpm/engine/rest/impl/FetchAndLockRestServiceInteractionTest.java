@@ -31,6 +31,7 @@ import org.camunda.bpm.engine.rest.AbstractRestServiceTest;
 import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksExtendedDto;
 import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
 import org.camunda.bpm.engine.rest.helper.MockProvider;
+import org.camunda.bpm.engine.rest.mapper.NdJsonMessageBodyWriter;
 import org.camunda.bpm.engine.rest.util.container.TestContainerRule;
 import org.junit.Before;
 import org.junit.ClassRule;
@@ -45,6 +46,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 import javax.servlet.ServletContextEvent;
 import javax.ws.rs.core.Response.Status;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -169,6 +171,53 @@ public class FetchAndLockRestServiceInteractionTest extends AbstractRestServiceT
     verifyNoMoreInteractions(fetchTopicBuilder, externalTaskService);
   }
 
+  @Test
+  public void shouldFetchAndLockAsNdJson() {
+    LockedExternalTask anotherLockedExternalTaskMock = MockProvider.mockExternalTask()
+      .id("anotherExternalTaskId")
+      .buildLockedExternalTask();
+    when(fetchTopicBuilder.execute())
+      .thenReturn(Arrays.asList(lockedExternalTaskMock, anotherLockedExternalTaskMock));
+    FetchExternalTasksExtendedDto fetchExternalTasksDto = createDto(null, true, true, false);
+
+    String content = given()
+      .contentType(ContentType.JSON)
+      .accept(NdJsonMessageBodyWriter.APPLICATION_NDJSON)
+      .body(fetchExternalTasksDto)
+      .pathParam("name", "default")
+    .then().expect()
+      .statusCode(Status.OK.getStatusCode())
+      .contentType(containsString(NdJsonMessageBodyWriter.APPLICATION_NDJSON))
+    .when().post(FETCH_EXTERNAL_TASK_URL_NAMED_ENGINE)
+      .asString();
+
+    String[] lines = content.split("\n");
+    assertThat(lines.length, is(2));
+    assertThat(lines[0], containsString("\"id\":\"" + MockProvider.EXTERNAL_TASK_ID + "\""));
+    assertThat(lines[0], containsString("\"" + MockProvider.EXAMPLE_VARIABLE_INSTANCE_NAME + "\""));
+    assertThat(lines[1], containsString("\"id\":\"anotherExternalTaskId\""));
+
+    verify(fetchTopicBuilder).execute();
+  }
+
+  @Test
+  public void shouldFetchAndLockAsJsonByDefault() {
+    when(fetchTopicBuilder.execute())
+      .thenReturn(new ArrayList<LockedExternalTask>(Collections.singleton(lockedExternalTaskMock)));
+    FetchExternalTasksExtendedDto fetchExternalTasksDto = createDto(null, true, true, false);
+
+    // no explicit Accept header, i.e. any media type is accepted
+    given()
+      .contentType(ContentType.JSON)
+      .body(fetchExternalTasksDto)
+      .pathParam("name", "default")
+    .then().expect()
+      .statusCode(Status.OK.getStatusCode())
+      .contentType(ContentType.JSON)
+      .body("[0].id", equalTo(MockProvider.EXTERNAL_TASK_ID))
+    .when().post(FETCH_EXTERNAL_TASK_URL_NAMED_ENGINE);
+  }
+
   @Test
   public void shouldFetchWithoutVariables() {
     when(fetchTopicBuilder.execute())
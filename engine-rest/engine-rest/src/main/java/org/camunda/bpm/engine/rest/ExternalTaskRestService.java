@@ -32,9 +32,14 @@ import javax.ws.rs.core.UriInfo;
 
 import org.camunda.bpm.engine.rest.dto.CountResultDto;
 import org.camunda.bpm.engine.rest.dto.batch.BatchDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.CompleteExternalTasksDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.ExtendLockOnExternalTaskDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.ExtendLocksOnExternalTasksDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.ExternalTaskDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.ExternalTaskFailuresDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.ExternalTaskQueryDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.HandleExternalTaskResultDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.LockedExternalTaskDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.SetRetriesForExternalTasksDto;
 import org.camunda.bpm.engine.rest.sub.externaltask.ExternalTaskResource;
@@ -91,4 +96,27 @@ public interface ExternalTaskRestService {
   @Produces(MediaType.APPLICATION_JSON)
   BatchDto setRetriesAsync(SetRetriesForExternalTasksDto retriesDto);
 
+  @POST
+  @Path("/complete-batch")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  List<HandleExternalTaskResultDto> completeExternalTasks(CompleteExternalTasksDto dto);
+
+  @POST
+  @Path("/extend-lock-batch")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  List<HandleExternalTaskResultDto> extendLocksOnExternalTasks(ExtendLocksOnExternalTasksDto dto);
+
+  @POST
+  @Path("/failure-batch")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  List<HandleExternalTaskResultDto> handleExternalTaskFailures(ExternalTaskFailuresDto dto);
+
+  @POST
+  @Path("/extend-locks")
+  @Consumes(MediaType.APPLICATION_JSON)
+  void extendLocks(ExtendLockOnExternalTaskDto dto);
+
 }
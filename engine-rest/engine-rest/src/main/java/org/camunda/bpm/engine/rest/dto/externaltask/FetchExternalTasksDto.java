@@ -75,6 +75,7 @@ public class FetchExternalTasksDto {
     protected HashMap<String, Object> processVariables;
     protected boolean deserializeValues = false;
     protected boolean localVariables = false;
+    protected Integer weight;
 
     protected boolean withoutTenantId;
     protected String[] tenantIdIn;
@@ -145,6 +146,12 @@ public class FetchExternalTasksDto {
     public void setLocalVariables(boolean localVariables) {
       this.localVariables = localVariables;
     }
+    public Integer getWeight() {
+      return weight;
+    }
+    public void setWeight(Integer weight) {
+      this.weight = weight;
+    }
     public boolean isWithoutTenantId() {
       return withoutTenantId;
     }
@@ -205,6 +212,10 @@ public class FetchExternalTasksDto {
           topicFetchBuilder = topicFetchBuilder.localVariables();
         }
 
+        if (topicDto.getWeight() != null) {
+          topicFetchBuilder = topicFetchBuilder.weight(topicDto.getWeight());
+        }
+
         if (TRUE.equals(topicDto.isWithoutTenantId())) {
           topicFetchBuilder = topicFetchBuilder.withoutTenantId();
         }
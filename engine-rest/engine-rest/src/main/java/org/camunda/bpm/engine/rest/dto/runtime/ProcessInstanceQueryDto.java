@@ -86,6 +86,7 @@ public class ProcessInstanceQueryDto extends AbstractQueryDto<ProcessInstanceQue
   private Boolean isProcessDefinitionWithoutTenantId;
 
   private List<VariableQueryParameterDto> variables;
+  private List<VariableQueryParameterDto> indexedVariables;
 
   private List<ProcessInstanceQueryDto> orQueries;
 
@@ -246,6 +247,15 @@ public class ProcessInstanceQueryDto extends AbstractQueryDto<ProcessInstanceQue
     this.variables = variables;
   }
 
+  public List<VariableQueryParameterDto> getIndexedVariables() {
+    return indexedVariables;
+  }
+
+  @CamundaQueryParam(value = "indexedVariables", converter = VariableListConverter.class)
+  public void setIndexedVariables(List<VariableQueryParameterDto> indexedVariables) {
+    this.indexedVariables = indexedVariables;
+  }
+
   public Boolean isWithIncident() {
     return withIncident;
   }
@@ -473,6 +483,18 @@ public class ProcessInstanceQueryDto extends AbstractQueryDto<ProcessInstanceQue
         }
       }
     }
+    if (indexedVariables != null) {
+      for (VariableQueryParameterDto variableQueryParam : indexedVariables) {
+        String path = variableQueryParam.getName();
+        String op = variableQueryParam.getOperator();
+
+        if (op.equals(VariableQueryParameterDto.EQUALS_OPERATOR_NAME)) {
+          query.indexedVariableValueEquals(path, variableQueryParam.getValue());
+        } else {
+          throw new InvalidRequestException(Status.BAD_REQUEST, "Invalid indexed variable comparator specified: " + op);
+        }
+      }
+    }
   }
 
   @Override
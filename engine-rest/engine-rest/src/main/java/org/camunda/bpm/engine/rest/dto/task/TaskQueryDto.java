@@ -28,6 +28,7 @@ import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response.Status;
 
 import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.IndexedVariableQueryValue;
 import org.camunda.bpm.engine.impl.QueryEntityRelationCondition;
 import org.camunda.bpm.engine.impl.QueryOrderingProperty;
 import org.camunda.bpm.engine.impl.TaskQueryImpl;
@@ -199,6 +200,7 @@ public class TaskQueryDto extends AbstractQueryDto<TaskQuery> {
   private List<VariableQueryParameterDto> taskVariables;
   private List<VariableQueryParameterDto> processVariables;
   private List<VariableQueryParameterDto> caseInstanceVariables;
+  private List<VariableQueryParameterDto> processIndexedVariables;
 
   private List<TaskQueryDto> orQueries;
 
@@ -603,6 +605,11 @@ public class TaskQueryDto extends AbstractQueryDto<TaskQuery> {
     this.processVariables = processVariables;
   }
 
+  @CamundaQueryParam(value = "processIndexedVariables", converter = VariableListConverter.class)
+  public void setProcessIndexedVariables(List<VariableQueryParameterDto> processIndexedVariables) {
+    this.processIndexedVariables = processIndexedVariables;
+  }
+
   @CamundaQueryParam("caseDefinitionId")
   public void setCaseDefinitionId(String caseDefinitionId) {
     this.caseDefinitionId = caseDefinitionId;
@@ -976,6 +983,10 @@ public class TaskQueryDto extends AbstractQueryDto<TaskQuery> {
     return processVariables;
   }
 
+  public List<VariableQueryParameterDto> getProcessIndexedVariables() {
+    return processIndexedVariables;
+  }
+
   public List<VariableQueryParameterDto> getCaseInstanceVariables() {
     return caseInstanceVariables;
   }
@@ -1305,6 +1316,19 @@ public class TaskQueryDto extends AbstractQueryDto<TaskQuery> {
       }
     }
 
+    if (processIndexedVariables != null) {
+      for (VariableQueryParameterDto variableQueryParam : processIndexedVariables) {
+        String path = variableQueryParam.getName();
+        String op = variableQueryParam.getOperator();
+
+        if (op.equals(VariableQueryParameterDto.EQUALS_OPERATOR_NAME)) {
+          query.processIndexedVariableValueEquals(path, variableQueryParam.getValue());
+        } else {
+          throw new InvalidRequestException(Status.BAD_REQUEST, "Invalid indexed process variable comparator specified: " + op);
+        }
+      }
+    }
+
     if (caseInstanceVariables != null) {
       for (VariableQueryParameterDto variableQueryParam : caseInstanceVariables) {
         String variableName = variableQueryParam.getName();
@@ -1526,6 +1550,15 @@ public class TaskQueryDto extends AbstractQueryDto<TaskQuery> {
       }
     }
 
+    dto.processIndexedVariables = new ArrayList<VariableQueryParameterDto>();
+    for (IndexedVariableQueryValue indexedVariableValue : taskQuery.getIndexedVariableValues()) {
+      VariableQueryParameterDto variableValueDto = new VariableQueryParameterDto();
+      variableValueDto.setName(indexedVariableValue.getPath());
+      variableValueDto.setOperator(VariableQueryParameterDto.EQUALS_OPERATOR_NAME);
+      variableValueDto.setValue(indexedVariableValue.getValue());
+      dto.processIndexedVariables.add(variableValueDto);
+    }
+
     if (taskQuery.getSuspensionState() == SuspensionState.ACTIVE) {
       dto.active = true;
     }
@@ -30,15 +30,25 @@ import org.camunda.bpm.engine.exception.NotFoundException;
 import org.camunda.bpm.engine.externaltask.ExternalTask;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQuery;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQueryBuilder;
+import org.camunda.bpm.engine.externaltask.HandleExternalTasksBuilder;
 import org.camunda.bpm.engine.externaltask.LockedExternalTask;
 import org.camunda.bpm.engine.externaltask.UpdateExternalTaskRetriesBuilder;
 import org.camunda.bpm.engine.history.HistoricProcessInstanceQuery;
 import org.camunda.bpm.engine.rest.ExternalTaskRestService;
 import org.camunda.bpm.engine.rest.dto.CountResultDto;
+import org.camunda.bpm.engine.rest.dto.VariableValueDto;
 import org.camunda.bpm.engine.rest.dto.batch.BatchDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.CompleteExternalTaskItemDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.CompleteExternalTasksDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.ExtendLockOnExternalTaskDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.ExtendLockOnExternalTaskItemDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.ExtendLocksOnExternalTasksDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.ExternalTaskDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.ExternalTaskQueryDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.ExternalTaskFailureItemDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.ExternalTaskFailuresDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.HandleExternalTaskResultDto;
 import org.camunda.bpm.engine.rest.dto.history.HistoricProcessInstanceQueryDto;
 import org.camunda.bpm.engine.rest.dto.runtime.ProcessInstanceQueryDto;
 import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
@@ -46,6 +56,7 @@ import org.camunda.bpm.engine.rest.dto.externaltask.LockedExternalTaskDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.SetRetriesForExternalTasksDto;
 import org.camunda.bpm.engine.rest.sub.externaltask.ExternalTaskResource;
 import org.camunda.bpm.engine.rest.sub.externaltask.impl.ExternalTaskResourceImpl;
+import org.camunda.bpm.engine.variable.VariableMap;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.camunda.bpm.engine.runtime.ProcessInstanceQuery;
@@ -172,6 +183,71 @@ public class ExternalTaskRestServiceImpl extends AbstractRestProcessEngineAware
     }
   }
 
+  @Override
+  public List<HandleExternalTaskResultDto> completeExternalTasks(CompleteExternalTasksDto dto) {
+    ProcessEngine engine = getProcessEngine();
+    HandleExternalTasksBuilder builder = engine.getExternalTaskService().handleExternalTasks(dto.getWorkerId());
+
+    List<CompleteExternalTaskItemDto> externalTasks = dto.getExternalTasks();
+    if (externalTasks != null) {
+      for (CompleteExternalTaskItemDto externalTask : externalTasks) {
+        VariableMap variables = VariableValueDto.toMap(externalTask.getVariables(), engine, getObjectMapper());
+        VariableMap localVariables = VariableValueDto.toMap(externalTask.getLocalVariables(), engine, getObjectMapper());
+        builder.complete(externalTask.getExternalTaskId(), variables, localVariables);
+      }
+    }
+
+    return handleExternalTasks(builder);
+  }
+
+  @Override
+  public List<HandleExternalTaskResultDto> extendLocksOnExternalTasks(ExtendLocksOnExternalTasksDto dto) {
+    HandleExternalTasksBuilder builder = getProcessEngine().getExternalTaskService().handleExternalTasks(dto.getWorkerId());
+
+    List<ExtendLockOnExternalTaskItemDto> externalTasks = dto.getExternalTasks();
+    if (externalTasks != null) {
+      for (ExtendLockOnExternalTaskItemDto externalTask : externalTasks) {
+        builder.extendLock(externalTask.getExternalTaskId(), externalTask.getNewDuration());
+      }
+    }
+
+    return handleExternalTasks(builder);
+  }
+
+  @Override
+  public List<HandleExternalTaskResultDto> handleExternalTaskFailures(ExternalTaskFailuresDto dto) {
+    HandleExternalTasksBuilder builder = getProcessEngine().getExternalTaskService().handleExternalTasks(dto.getWorkerId());
+
+    List<ExternalTaskFailureItemDto> externalTasks = dto.getExternalTasks();
+    if (externalTasks != null) {
+      for (ExternalTaskFailureItemDto externalTask : externalTasks) {
+        builder.handleFailure(externalTask.getExternalTaskId(), externalTask.getErrorMessage(),
+            externalTask.getErrorDetails(), externalTask.getRetries(), externalTask.getRetryTimeout());
+      }
+    }
+
+    return handleExternalTasks(builder);
+  }
+
+  @Override
+  public void extendLocks(ExtendLockOnExternalTaskDto dto) {
+    try {
+      getProcessEngine().getExternalTaskService().extendLocks(dto.getWorkerId(), dto.getNewDuration());
+    }
+    catch (BadUserRequestException e) {
+      throw new InvalidRequestException(Status.BAD_REQUEST, e, e.getMessage());
+    }
+  }
+
+  protected List<HandleExternalTaskResultDto> handleExternalTasks(HandleExternalTasksBuilder builder) {
+    try {
+      return HandleExternalTaskResultDto.fromResults(builder.execute());
+    }
+    catch (BadUserRequestException e) {
+      throw new InvalidRequestException(Status.BAD_REQUEST, e.getMessage());
+    }
+  }
+
   protected UpdateExternalTaskRetriesBuilder updateRetries(SetRetriesForExternalTasksDto retriesDto) {
 
     ExternalTaskService externalTaskService = getProcessEngine().getExternalTaskService();
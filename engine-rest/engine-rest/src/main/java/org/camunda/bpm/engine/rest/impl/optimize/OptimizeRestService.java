@@ -23,7 +23,9 @@ import org.camunda.bpm.engine.history.HistoricProcessInstance;
 import org.camunda.bpm.engine.history.HistoricTaskInstance;
 import org.camunda.bpm.engine.history.HistoricVariableUpdate;
 import org.camunda.bpm.engine.history.UserOperationLogEntry;
+import org.camunda.bpm.engine.impl.OptimizeService;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.optimize.OptimizeResultPage;
 import org.camunda.bpm.engine.impl.persistence.entity.optimize.OptimizeHistoricIdentityLinkLogEntity;
 import org.camunda.bpm.engine.rest.dto.converter.DateConverter;
 import org.camunda.bpm.engine.rest.dto.history.HistoricActivityInstanceDto;
@@ -33,6 +35,7 @@ import org.camunda.bpm.engine.rest.dto.history.HistoricTaskInstanceDto;
 import org.camunda.bpm.engine.rest.dto.history.UserOperationLogEntryDto;
 import org.camunda.bpm.engine.rest.dto.history.optimize.OptimizeHistoricIdentityLinkLogDto;
 import org.camunda.bpm.engine.rest.dto.history.optimize.OptimizeHistoricVariableUpdateDto;
+import org.camunda.bpm.engine.rest.dto.history.optimize.OptimizeResultPageDto;
 import org.camunda.bpm.engine.rest.impl.AbstractRestProcessEngineAware;
 
 import javax.ws.rs.GET;
@@ -40,6 +43,8 @@ import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -223,6 +228,96 @@ public class OptimizeRestService extends AbstractRestProcessEngineAware {
     return result;
   }
 
+  @GET
+  @Path("/activity-instance/completed/page")
+  public OptimizeResultPageDto<HistoricActivityInstanceDto> getCompletedHistoricActivityInstancePage(@QueryParam("continuationToken") String continuationToken,
+                                                                                                     @QueryParam("maxResults") int maxResults) {
+    maxResults = ensureValidMaxResults(maxResults);
+
+    OptimizeResultPage<HistoricActivityInstance> page =
+      getOptimizeService().getCompletedHistoricActivityInstancePage(continuationToken, maxResults);
+
+    List<HistoricActivityInstanceDto> result = new ArrayList<>();
+    for (HistoricActivityInstance instance : page.getResults()) {
+      result.add(HistoricActivityInstanceDto.fromHistoricActivityInstance(instance));
+    }
+    return new OptimizeResultPageDto<>(result, page.getContinuationToken());
+  }
+
+  @GET
+  @Path("/task-instance/completed/page")
+  public OptimizeResultPageDto<HistoricTaskInstanceDto> getCompletedHistoricTaskInstancePage(@QueryParam("continuationToken") String continuationToken,
+                                                                                             @QueryParam("maxResults") int maxResults) {
+    maxResults = ensureValidMaxResults(maxResults);
+
+    OptimizeResultPage<HistoricTaskInstance> page =
+      getOptimizeService().getCompletedHistoricTaskInstancePage(continuationToken, maxResults);
+
+    List<HistoricTaskInstanceDto> result = new ArrayList<>();
+    for (HistoricTaskInstance instance : page.getResults()) {
+      result.add(HistoricTaskInstanceDto.fromHistoricTaskInstance(instance));
+    }
+    return new OptimizeResultPageDto<>(result, page.getContinuationToken());
+  }
+
+  @GET
+  @Path("/process-instance/completed/page")
+  public OptimizeResultPageDto<HistoricProcessInstanceDto> getCompletedHistoricProcessInstancePage(@QueryParam("continuationToken") String continuationToken,
+                                                                                                   @QueryParam("maxResults") int maxResults) {
+    maxResults = ensureValidMaxResults(maxResults);
+
+    OptimizeResultPage<HistoricProcessInstance> page =
+      getOptimizeService().getCompletedHistoricProcessInstancePage(continuationToken, maxResults);
+
+    List<HistoricProcessInstanceDto> result = new ArrayList<>();
+    for (HistoricProcessInstance instance : page.getResults()) {
+      result.add(HistoricProcessInstanceDto.fromHistoricProcessInstance(instance));
+    }
+    return new OptimizeResultPageDto<>(result, page.getContinuationToken());
+  }
+
+  @GET
+  @Path("/process-instance/completed/export")
+  @Produces(MediaType.APPLICATION_OCTET_STREAM)
+  public StreamingOutput exportCompletedHistoricProcessInstances(@QueryParam("finishedAfter") String finishedAfterAsString) {
+    final Date finishedAfter = dateConverter.convertQueryParameterToType(finishedAfterAsString);
+    final OptimizeService optimizeService = getOptimizeService();
+
+    return new StreamingOutput() {
+      public void write(OutputStream output) {
+        optimizeService.exportCompletedHistoricProcessInstances(finishedAfter, output);
+      }
+    };
+  }
+
+  @GET
+  @Path("/activity-instance/completed/export")
+  @Produces(MediaType.APPLICATION_OCTET_STREAM)
+  public StreamingOutput exportCompletedHistoricActivityInstances(@QueryParam("finishedAfter") String finishedAfterAsString) {
+    final Date finishedAfter = dateConverter.convertQueryParameterToType(finishedAfterAsString);
+    final OptimizeService optimizeService = getOptimizeService();
+
+    return new StreamingOutput() {
+      public void write(OutputStream output) {
+        optimizeService.exportCompletedHistoricActivityInstances(finishedAfter, output);
+      }
+    };
+  }
+
+  @GET
+  @Path("/task-instance/completed/export")
+  @Produces(MediaType.APPLICATION_OCTET_STREAM)
+  public StreamingOutput exportCompletedHistoricTaskInstances(@QueryParam("finishedAfter") String finishedAfterAsString) {
+    final Date finishedAfter = dateConverter.convertQueryParameterToType(finishedAfterAsString);
+    final OptimizeService optimizeService = getOptimizeService();
+
+    return new StreamingOutput() {
+      public void write(OutputStream output) {
+        optimizeService.exportCompletedHistoricTaskInstances(finishedAfter, output);
+      }
+    };
+  }
+
   @GET
   @Path("/process-instance/running")
   public List<HistoricProcessInstanceDto> getRunningHistoricProcessInstances(@QueryParam("startedAfter") String startedAfterAsString,
@@ -295,4 +390,11 @@ public class OptimizeRestService extends AbstractRestProcessEngineAware {
   protected int ensureValidMaxResults(int givenMaxResults) {
     return givenMaxResults > 0 ? givenMaxResults : Integer.MAX_VALUE;
   }
+
+  protected OptimizeService getOptimizeService() {
+    ProcessEngineConfigurationImpl config =
+      (ProcessEngineConfigurationImpl) getProcessEngine().getProcessEngineConfiguration();
+    return config.getOptimizeService();
+  }
+
 }
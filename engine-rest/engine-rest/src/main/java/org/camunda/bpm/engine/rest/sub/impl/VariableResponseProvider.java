@@ -25,6 +25,7 @@ import org.camunda.bpm.engine.variable.value.TypedValue;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 
 /**
  * @author Christopher Zell <christopher.zell@camunda.com>
@@ -50,7 +51,9 @@ public class VariableResponseProvider {
     if (fileValue.getEncoding() != null) {
       type += "; charset=" + fileValue.getEncoding();
     }
-    Object value = fileValue.getValue() == null ? "" : fileValue.getValue();
+    // open the stream only once, it may be read from an external blob store
+    InputStream stream = fileValue.getValue();
+    Object value = stream == null ? "" : stream;
     return Response.ok(value, type).header("Content-Disposition", "attachment; filename=" + fileValue.getFilename()).build();
   }
 
@@ -53,6 +53,7 @@ import org.camunda.bpm.engine.exception.NotFoundException;
 import org.camunda.bpm.engine.externaltask.ExternalTask;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQuery;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQueryTopicBuilder;
+import org.camunda.bpm.engine.externaltask.HandleExternalTasksBuilder;
 import org.camunda.bpm.engine.externaltask.LockedExternalTask;
 import org.camunda.bpm.engine.externaltask.UpdateExternalTaskRetriesBuilder;
 import org.camunda.bpm.engine.history.HistoricProcessInstanceQuery;
@@ -61,9 +62,11 @@ import org.camunda.bpm.engine.impl.HistoricProcessInstanceQueryImpl;
 import org.camunda.bpm.engine.impl.HistoryServiceImpl;
 import org.camunda.bpm.engine.impl.ProcessInstanceQueryImpl;
 import org.camunda.bpm.engine.impl.RuntimeServiceImpl;
+import org.camunda.bpm.engine.impl.externaltask.HandleExternalTaskResultImpl;
 import org.camunda.bpm.engine.rest.dto.externaltask.ExternalTaskQueryDto;
 import org.camunda.bpm.engine.rest.dto.history.HistoricProcessInstanceQueryDto;
 import org.camunda.bpm.engine.rest.dto.runtime.ProcessInstanceQueryDto;
+import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
 import org.camunda.bpm.engine.rest.exception.RestException;
 import org.camunda.bpm.engine.rest.helper.EqualsVariableMap;
 import org.camunda.bpm.engine.rest.helper.MockProvider;
@@ -104,6 +107,10 @@ public class ExternalTaskRestServiceInteractionTest extends AbstractRestServiceT
   protected static final String RETRIES_EXTERNAL_TASKS_ASYNC_URL = EXTERNAL_TASK_URL + "/retries-async";
   protected static final String PRIORITY_EXTERNAL_TASK_URL = SINGLE_EXTERNAL_TASK_URL + "/priority";
   protected static final String EXTEND_LOCK_ON_EXTERNAL_TASK = SINGLE_EXTERNAL_TASK_URL + "/extendLock";
+  protected static final String COMPLETE_EXTERNAL_TASKS_URL = EXTERNAL_TASK_URL + "/complete-batch";
+  protected static final String EXTEND_LOCK_ON_EXTERNAL_TASKS_URL = EXTERNAL_TASK_URL + "/extend-lock-batch";
+  protected static final String HANDLE_EXTERNAL_TASK_FAILURES_URL = EXTERNAL_TASK_URL + "/failure-batch";
+  protected static final String EXTEND_LOCKS_OF_WORKER_URL = EXTERNAL_TASK_URL + "/extend-locks";
 
 
   protected ExternalTaskService externalTaskService;
@@ -118,6 +125,8 @@ public class ExternalTaskRestServiceInteractionTest extends AbstractRestServiceT
 
   protected UpdateExternalTaskRetriesBuilder updateRetriesBuilder;
 
+  protected HandleExternalTasksBuilder handleExternalTasksBuilder;
+
   @Before
   public void setUpRuntimeData() {
     externalTaskService = mock(ExternalTaskService.class);
@@ -151,6 +160,7 @@ public class ExternalTaskRestServiceInteractionTest extends AbstractRestServiceT
     when(fetchTopicBuilder.processInstanceVariableEquals(anyMapOf(String.class, Object.class))).thenReturn(fetchTopicBuilder);
     when(fetchTopicBuilder.withoutTenantId()).thenReturn(fetchTopicBuilder);
     when(fetchTopicBuilder.tenantIdIn(any(String.class))).thenReturn(fetchTopicBuilder);
+    when(fetchTopicBuilder.weight(anyInt())).thenReturn(fetchTopicBuilder);
 
     Batch batch = createMockBatch();
     updateRetriesBuilder = mock(UpdateExternalTaskRetriesBuilder.class);
@@ -163,6 +173,15 @@ public class ExternalTaskRestServiceInteractionTest extends AbstractRestServiceT
     when(updateRetriesBuilder.historicProcessInstanceQuery(any(HistoricProcessInstanceQuery.class))).thenReturn(updateRetriesBuilder);
     when(updateRetriesBuilder.setAsync(anyInt())).thenReturn(batch);
 
+    handleExternalTasksBuilder = mock(HandleExternalTasksBuilder.class);
+    when(externalTaskService.handleExternalTasks(any(String.class))).thenReturn(handleExternalTasksBuilder);
+
+    when(handleExternalTasksBuilder.complete(any(String.class), anyMapOf(String.class, Object.class), anyMapOf(String.class, Object.class)))
+      .thenReturn(handleExternalTasksBuilder);
+    when(handleExternalTasksBuilder.extendLock(any(String.class), anyLong())).thenReturn(handleExternalTasksBuilder);
+    when(handleExternalTasksBuilder.handleFailure(any(String.class), any(String.class), any(String.class), anyInt(), anyLong()))
+      .thenReturn(handleExternalTasksBuilder);
+
     // querying
     externalTaskQueryMock = mock(ExternalTaskQuery.class);
     when(externalTaskQueryMock.externalTaskId(any(String.class))).thenReturn(externalTaskQueryMock);
@@ -228,6 +247,35 @@ public class ExternalTaskRestServiceInteractionTest extends AbstractRestServiceT
     verifyNoMoreInteractions(fetchTopicBuilder, externalTaskService);
   }
 
+  @Test
+  public void testFetchAndLockWithWeight() {
+    // given
+    when(fetchTopicBuilder.execute()).thenReturn(Arrays.asList(lockedExternalTaskMock));
+
+    // when
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("maxTasks", 5);
+    parameters.put("workerId", "aWorkerId");
+    parameters.put("usePriority", true);
+
+    Map<String, Object> topicParameter = new HashMap<String, Object>();
+    topicParameter.put("topicName", "aTopicName");
+    topicParameter.put("lockDuration", 12354L);
+    topicParameter.put("variables", Arrays.asList(MockProvider.EXAMPLE_VARIABLE_INSTANCE_NAME));
+    topicParameter.put("weight", 3);
+    parameters.put("topics", Arrays.asList(topicParameter));
+
+    executePost(parameters);
+
+    InOrder inOrder = inOrder(fetchTopicBuilder, externalTaskService);
+    inOrder.verify(externalTaskService).fetchAndLock(5, "aWorkerId", true);
+    inOrder.verify(fetchTopicBuilder).topic("aTopicName", 12354L);
+    inOrder.verify(fetchTopicBuilder).variables(Arrays.asList(MockProvider.EXAMPLE_VARIABLE_INSTANCE_NAME));
+    inOrder.verify(fetchTopicBuilder).weight(3);
+    inOrder.verify(fetchTopicBuilder).execute();
+    verifyNoMoreInteractions(fetchTopicBuilder, externalTaskService);
+  }
+
   @Test
   public void testFetchAndLockWithProcessDefinition() {
     // given
@@ -1621,6 +1669,182 @@ public class ExternalTaskRestServiceInteractionTest extends AbstractRestServiceT
       .post(EXTEND_LOCK_ON_EXTERNAL_TASK);
   }
 
+  @Test
+  public void testCompleteBatch() {
+    when(handleExternalTasksBuilder.execute()).thenReturn(Arrays.asList(
+        HandleExternalTaskResultImpl.successful("anExternalTaskId"),
+        HandleExternalTaskResultImpl.failed("anotherExternalTaskId", "anErrorMessage")));
+
+    Map<String, Object> variables = VariablesBuilder
+        .create()
+        .variable("var1", "val1")
+        .getVariables();
+
+    Map<String, Object> firstTask = new HashMap<String, Object>();
+    firstTask.put("externalTaskId", "anExternalTaskId");
+    firstTask.put("variables", variables);
+
+    Map<String, Object> secondTask = new HashMap<String, Object>();
+    secondTask.put("externalTaskId", "anotherExternalTaskId");
+    secondTask.put("localVariables", variables);
+
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("workerId", "aWorkerId");
+    parameters.put("externalTasks", Arrays.asList(firstTask, secondTask));
+
+    given()
+      .contentType(POST_JSON_CONTENT_TYPE)
+      .body(parameters)
+    .then()
+      .expect()
+      .statusCode(Status.OK.getStatusCode())
+      .body("size()", equalTo(2))
+      .body("[0].externalTaskId", equalTo("anExternalTaskId"))
+      .body("[0].successful", equalTo(true))
+      .body("[1].externalTaskId", equalTo("anotherExternalTaskId"))
+      .body("[1].successful", equalTo(false))
+      .body("[1].errorMessage", equalTo("anErrorMessage"))
+    .when()
+      .post(COMPLETE_EXTERNAL_TASKS_URL);
+
+    InOrder inOrder = inOrder(externalTaskService, handleExternalTasksBuilder);
+    inOrder.verify(externalTaskService).handleExternalTasks("aWorkerId");
+    inOrder.verify(handleExternalTasksBuilder).complete(
+        eq("anExternalTaskId"),
+        argThat(EqualsVariableMap.matches()
+          .matcher("var1", EqualsUntypedValue.matcher().value("val1"))),
+        eq((Map<String, Object>) null));
+    inOrder.verify(handleExternalTasksBuilder).complete(
+        eq("anotherExternalTaskId"),
+        eq((Map<String, Object>) null),
+        argThat(EqualsVariableMap.matches()
+          .matcher("var1", EqualsUntypedValue.matcher().value("val1"))));
+    inOrder.verify(handleExternalTasksBuilder).execute();
+    inOrder.verifyNoMoreInteractions();
+  }
+
+  @Test
+  public void testExtendLockBatch() {
+    when(handleExternalTasksBuilder.execute()).thenReturn(Arrays.asList(
+        HandleExternalTaskResultImpl.successful("anExternalTaskId")));
+
+    Map<String, Object> task = new HashMap<String, Object>();
+    task.put("externalTaskId", "anExternalTaskId");
+    task.put("newDuration", 1000);
+
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("workerId", "aWorkerId");
+    parameters.put("externalTasks", Arrays.asList(task));
+
+    given()
+      .contentType(POST_JSON_CONTENT_TYPE)
+      .body(parameters)
+    .then()
+      .expect()
+      .statusCode(Status.OK.getStatusCode())
+      .body("[0].externalTaskId", equalTo("anExternalTaskId"))
+      .body("[0].successful", equalTo(true))
+    .when()
+      .post(EXTEND_LOCK_ON_EXTERNAL_TASKS_URL);
+
+    verify(externalTaskService).handleExternalTasks("aWorkerId");
+    verify(handleExternalTasksBuilder).extendLock("anExternalTaskId", 1000);
+    verify(handleExternalTasksBuilder).execute();
+    verifyNoMoreInteractions(handleExternalTasksBuilder);
+  }
+
+  @Test
+  public void testHandleFailureBatch() {
+    when(handleExternalTasksBuilder.execute()).thenReturn(Arrays.asList(
+        HandleExternalTaskResultImpl.successful("anExternalTaskId")));
+
+    Map<String, Object> task = new HashMap<String, Object>();
+    task.put("externalTaskId", "anExternalTaskId");
+    task.put("errorMessage", "anErrorMessage");
+    task.put("errorDetails", "aStackTrace");
+    task.put("retries", 5);
+    task.put("retryTimeout", 12345);
+
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("workerId", "aWorkerId");
+    parameters.put("externalTasks", Arrays.asList(task));
+
+    given()
+      .contentType(POST_JSON_CONTENT_TYPE)
+      .body(parameters)
+    .then()
+      .expect()
+      .statusCode(Status.OK.getStatusCode())
+      .body("[0].externalTaskId", equalTo("anExternalTaskId"))
+      .body("[0].successful", equalTo(true))
+    .when()
+      .post(HANDLE_EXTERNAL_TASK_FAILURES_URL);
+
+    verify(externalTaskService).handleExternalTasks("aWorkerId");
+    verify(handleExternalTasksBuilder).handleFailure("anExternalTaskId", "anErrorMessage", "aStackTrace", 5, 12345);
+    verify(handleExternalTasksBuilder).execute();
+    verifyNoMoreInteractions(handleExternalTasksBuilder);
+  }
+
+  @Test
+  public void testHandleBatchThrowsBadUserRequestException() {
+    doThrow(new BadUserRequestException("aMessage")).when(handleExternalTasksBuilder).execute();
+
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("workerId", "aWorkerId");
+    parameters.put("externalTasks", Arrays.asList());
+
+    given()
+      .contentType(POST_JSON_CONTENT_TYPE)
+      .body(parameters)
+    .then()
+      .expect()
+      .statusCode(Status.BAD_REQUEST.getStatusCode())
+      .body("type", equalTo(InvalidRequestException.class.getSimpleName()))
+      .body("message", equalTo("aMessage"))
+    .when()
+      .post(COMPLETE_EXTERNAL_TASKS_URL);
+  }
+
+  @Test
+  public void testExtendLocksOfWorker() {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("workerId", "workerId");
+    parameters.put("newDuration", 1000);
+
+    given()
+      .contentType(ContentType.JSON)
+      .body(parameters)
+    .then()
+      .expect()
+      .statusCode(Status.NO_CONTENT.getStatusCode())
+    .when()
+      .post(EXTEND_LOCKS_OF_WORKER_URL);
+
+    verify(externalTaskService).extendLocks("workerId", 1000);
+    verifyNoMoreInteractions(externalTaskService);
+  }
+
+  @Test
+  public void testExtendLocksOfWorkerFailed() {
+    doThrow(new BadUserRequestException("aMessage")).when(externalTaskService).extendLocks(anyString(), anyLong());
+
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("workerId", "workerId");
+    parameters.put("newDuration", -1);
+
+    given()
+      .contentType(ContentType.JSON)
+      .body(parameters)
+    .then()
+      .expect()
+      .statusCode(Status.BAD_REQUEST.getStatusCode())
+      .body("type", equalTo(InvalidRequestException.class.getSimpleName()))
+      .body("message", equalTo("aMessage"))
+    .when()
+      .post(EXTEND_LOCKS_OF_WORKER_URL);
+  }
+
   protected void executePost(Map<String, Object> parameters) {
     given()
         .contentType(POST_JSON_CONTENT_TYPE)
@@ -313,6 +313,41 @@ public class ProcessInstanceRestServiceQueryTest extends
     verify(mockedQuery).variableValueNotEquals(variableName, variableValue);
   }
 
+  @Test
+  public void testIndexedVariableParameters() {
+    given().queryParam("indexedVariables", "customer.id_eq_aCustomerId")
+      .then().expect().statusCode(Status.OK.getStatusCode())
+      .when().get(PROCESS_INSTANCE_QUERY_URL);
+
+    verify(mockedQuery).indexedVariableValueEquals("customer.id", "aCustomerId");
+  }
+
+  @Test
+  public void testIndexedVariableParametersAsPost() {
+    Map<String, Object> variableJson = new HashMap<String, Object>();
+    variableJson.put("name", "customer.id");
+    variableJson.put("operator", "eq");
+    variableJson.put("value", 42);
+
+    Map<String, Object> json = new HashMap<String, Object>();
+    json.put("indexedVariables", Collections.singletonList(variableJson));
+
+    given().contentType(POST_JSON_CONTENT_TYPE).body(json)
+      .then().expect().statusCode(Status.OK.getStatusCode())
+      .when().post(PROCESS_INSTANCE_QUERY_URL);
+
+    verify(mockedQuery).indexedVariableValueEquals("customer.id", 42);
+  }
+
+  @Test
+  public void testInvalidIndexedVariableComparator() {
+    given().queryParam("indexedVariables", "customer.id_neq_aCustomerId")
+      .then().expect().statusCode(Status.BAD_REQUEST.getStatusCode()).contentType(ContentType.JSON)
+      .body("type", equalTo(InvalidRequestException.class.getSimpleName()))
+      .body("message", containsString("Invalid indexed variable comparator specified: neq"))
+      .when().get(PROCESS_INSTANCE_QUERY_URL);
+  }
+
   @Test
   public void testMultipleVariableParameters() {
     String variableName1 = "varName";
@@ -1203,6 +1203,20 @@ public class TaskRestServiceQueryTest extends AbstractRestServiceTest {
     verify(mockQuery).taskVariableValueLike(SAMPLE_VAR_NAME, SAMPLE_VAR_VALUE.toLowerCase());
   }
 
+  @Test
+  public void testProcessIndexedVariableParameters() {
+    given()
+      .queryParam("processIndexedVariables", "customer.id_eq_aCustomerId")
+      .header("accept", MediaType.APPLICATION_JSON)
+    .then()
+      .expect()
+        .statusCode(Status.OK.getStatusCode())
+      .when()
+        .get(TASK_QUERY_URL);
+
+    verify(mockQuery).processIndexedVariableValueEquals("customer.id", "aCustomerId");
+  }
+
   @Test
   public void testProcessVariableParameters() {
     // equals
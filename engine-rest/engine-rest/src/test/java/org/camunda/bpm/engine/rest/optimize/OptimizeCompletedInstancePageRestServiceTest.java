@@ -0,0 +1,149 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.optimize;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.history.HistoricActivityInstance;
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+import org.camunda.bpm.engine.history.HistoricTaskInstance;
+import org.camunda.bpm.engine.impl.OptimizeService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.optimize.OptimizeResultPage;
+import org.camunda.bpm.engine.rest.AbstractRestServiceTest;
+import org.camunda.bpm.engine.rest.helper.MockProvider;
+import org.camunda.bpm.engine.rest.util.container.TestContainerRule;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response.Status;
+import java.util.Collections;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class OptimizeCompletedInstancePageRestServiceTest extends AbstractRestServiceTest {
+
+  public static final String OPTIMIZE_ACTIVITY_INSTANCE_PAGE_PATH =
+    TEST_RESOURCE_ROOT_PATH + "/optimize/activity-instance/completed/page";
+  public static final String OPTIMIZE_TASK_INSTANCE_PAGE_PATH =
+    TEST_RESOURCE_ROOT_PATH + "/optimize/task-instance/completed/page";
+  public static final String OPTIMIZE_PROCESS_INSTANCE_PAGE_PATH =
+    TEST_RESOURCE_ROOT_PATH + "/optimize/process-instance/completed/page";
+
+  protected static final String CONTINUATION_TOKEN = "aToken";
+  protected static final String NEXT_CONTINUATION_TOKEN = "aNextToken";
+
+  protected OptimizeService mockedOptimizeService;
+  protected ProcessEngine namedProcessEngine;
+
+  @ClassRule
+  public static TestContainerRule rule = new TestContainerRule();
+
+  @Before
+  public void setUpRuntimeData() {
+    mockedOptimizeService = mock(OptimizeService.class);
+    ProcessEngineConfigurationImpl mockedConfig = mock(ProcessEngineConfigurationImpl.class);
+
+    namedProcessEngine = getProcessEngine(MockProvider.EXAMPLE_PROCESS_ENGINE_NAME);
+    when(namedProcessEngine.getProcessEngineConfiguration()).thenReturn(mockedConfig);
+    when(mockedConfig.getOptimizeService()).thenReturn(mockedOptimizeService);
+
+    when(mockedOptimizeService.getCompletedHistoricActivityInstancePage(anyString(), anyInt()))
+      .thenReturn(new OptimizeResultPage<>(Collections.<HistoricActivityInstance>emptyList(), NEXT_CONTINUATION_TOKEN));
+    when(mockedOptimizeService.getCompletedHistoricTaskInstancePage(anyString(), anyInt()))
+      .thenReturn(new OptimizeResultPage<>(Collections.<HistoricTaskInstance>emptyList(), NEXT_CONTINUATION_TOKEN));
+    when(mockedOptimizeService.getCompletedHistoricProcessInstancePage(anyString(), anyInt()))
+      .thenReturn(new OptimizeResultPage<>(Collections.<HistoricProcessInstance>emptyList(), NEXT_CONTINUATION_TOKEN));
+  }
+
+  @Test
+  public void testActivityInstancePage() {
+    given()
+      .queryParam("continuationToken", CONTINUATION_TOKEN)
+      .queryParam("maxResults", 10)
+    .then()
+      .expect()
+        .statusCode(Status.OK.getStatusCode())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body("results", hasSize(0))
+        .body("continuationToken", equalTo(NEXT_CONTINUATION_TOKEN))
+    .when()
+      .get(OPTIMIZE_ACTIVITY_INSTANCE_PAGE_PATH);
+
+    verify(mockedOptimizeService).getCompletedHistoricActivityInstancePage(CONTINUATION_TOKEN, 10);
+    verifyNoMoreInteractions(mockedOptimizeService);
+  }
+
+  @Test
+  public void testTaskInstancePage() {
+    given()
+      .queryParam("continuationToken", CONTINUATION_TOKEN)
+      .queryParam("maxResults", 10)
+    .then()
+      .expect()
+        .statusCode(Status.OK.getStatusCode())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body("results", hasSize(0))
+        .body("continuationToken", equalTo(NEXT_CONTINUATION_TOKEN))
+    .when()
+      .get(OPTIMIZE_TASK_INSTANCE_PAGE_PATH);
+
+    verify(mockedOptimizeService).getCompletedHistoricTaskInstancePage(CONTINUATION_TOKEN, 10);
+    verifyNoMoreInteractions(mockedOptimizeService);
+  }
+
+  @Test
+  public void testProcessInstancePage() {
+    given()
+      .queryParam("continuationToken", CONTINUATION_TOKEN)
+      .queryParam("maxResults", 10)
+    .then()
+      .expect()
+        .statusCode(Status.OK.getStatusCode())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body("results", hasSize(0))
+        .body("continuationToken", equalTo(NEXT_CONTINUATION_TOKEN))
+    .when()
+      .get(OPTIMIZE_PROCESS_INSTANCE_PAGE_PATH);
+
+    verify(mockedOptimizeService).getCompletedHistoricProcessInstancePage(CONTINUATION_TOKEN, 10);
+    verifyNoMoreInteractions(mockedOptimizeService);
+  }
+
+  @Test
+  public void testPageWithoutParameters() {
+    given()
+    .then()
+      .expect()
+        .statusCode(Status.OK.getStatusCode())
+    .when()
+      .get(OPTIMIZE_PROCESS_INSTANCE_PAGE_PATH);
+
+    verify(mockedOptimizeService).getCompletedHistoricProcessInstancePage(null, Integer.MAX_VALUE);
+    verifyNoMoreInteractions(mockedOptimizeService);
+  }
+
+}
@@ -27,6 +27,8 @@ import org.camunda.bpm.engine.exception.NotFoundException;
 import org.camunda.bpm.engine.externaltask.ExternalTask;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQuery;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQueryBuilder;
+import org.camunda.bpm.engine.externaltask.ExternalTaskWorkerBuilder;
+import org.camunda.bpm.engine.externaltask.HandleExternalTasksBuilder;
 import org.camunda.bpm.engine.externaltask.UpdateExternalTaskRetriesBuilder;
 import org.camunda.bpm.engine.externaltask.UpdateExternalTaskRetriesSelectBuilder;
 
@@ -167,6 +169,48 @@ public interface ExternalTaskService {
    */
   public void extendLock(String externalTaskId, String workerId, long newLockDuration);
 
+  /**
+   * <p>Extends the locks of all external tasks of a worker with a single heartbeat.
+   * Tasks whose lock has already expired or which are suspended are not affected.
+   * Workers which process long running tasks can call this method periodically
+   * instead of extending the lock of every task on its own.</p>
+   *
+   * @param workerId the id of the worker that extends the locks of its tasks
+   * @param newLockDuration the duration in milliseconds the locks are extended by, starting from now
+   *
+   * @throws BadUserRequestException if the lock duration is not positive
+   * @throws AuthorizationException thrown if the current user does not possess any of the following permissions
+   *   for the process instances of the tasks:
+   *   <ul>
+   *     <li>{@link Permissions#UPDATE} on {@link Resources#PROCESS_INSTANCE}</li>
+   *     <li>{@link Permissions#UPDATE_INSTANCE} on {@link Resources#PROCESS_DEFINITION}</li>
+   *   </ul>
+   */
+  public void extendLocks(String workerId, long newLockDuration);
+
+  /**
+   * <p>Completes, extends the locks of or reports failures of multiple external tasks on behalf of
+   * a worker in one transaction. Each task gets its own result, so that tasks which are not found,
+   * not assigned to the worker or which the current user is not authorized to update do not affect
+   * the other tasks. If handling a task fails, each task is handled in its own transaction instead.</p>
+   *
+   * @param workerId the id of the worker that handles the tasks
+   *
+   * @return a builder to add the tasks and execute the batch
+   */
+  public HandleExternalTasksBuilder handleExternalTasks(String workerId);
+
+  /**
+   * <p>Creates a worker which fetches and locks external tasks on behalf of the given worker id
+   * within this JVM and executes them with handlers, without going through the REST API.
+   * The worker has to be started and should be stopped before the process engine is closed.</p>
+   *
+   * @param workerId the id of the worker the tasks are locked for
+   *
+   * @return a builder to subscribe the worker to topics and to create it
+   */
+  public ExternalTaskWorkerBuilder createWorker(String workerId);
+
   /**
    * <p>Signals that an external task could not be successfully executed.
    * The task must be assigned to the given worker. The number of retries left can be specified. In addition, a timeout can be
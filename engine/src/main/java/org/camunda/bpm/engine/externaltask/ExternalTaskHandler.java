@@ -0,0 +1,37 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.externaltask;
+
+import org.camunda.bpm.engine.ExternalTaskService;
+
+/**
+ * Handles the external tasks of a topic which are fetched by an {@link ExternalTaskWorker}.
+ */
+public interface ExternalTaskHandler {
+
+  /**
+   * Executes the business logic of the external task. The handler is responsible for
+   * completing the task or reporting a failure or BPMN error via the given service.
+   * If the handler throws an exception, the exception is logged and the task is fetched
+   * again once its lock expired.
+   *
+   * @param externalTask the locked external task
+   * @param externalTaskService the service to complete the task with
+   */
+  void execute(LockedExternalTask externalTask, ExternalTaskService externalTaskService);
+
+}
@@ -132,4 +132,14 @@ public interface ExternalTaskQueryTopicBuilder extends ExternalTaskQueryBuilder
    */
   public ExternalTaskQueryTopicBuilder localVariables();
 
+  /**
+   * Define the weight of the current topic when the requested number of tasks is allocated
+   * across multiple topics. Only applies if fair fetching is enabled in the process engine
+   * configuration. The default weight is 1.
+   *
+   * @param weight the weight of the topic; must be positive
+   * @return this builder
+   */
+  public ExternalTaskQueryTopicBuilder weight(int weight);
+
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.externaltask;
+
+/**
+ * Fetches and locks external tasks in the same JVM as the process engine, without going
+ * through the REST API, and executes them with the {@link ExternalTaskHandler}s of their topics.
+ *
+ * <p>The worker waits for new external tasks like a long polling fetch and lock request and
+ * executes the handlers on a bounded thread pool. It only fetches as many tasks as the pool has
+ * capacity for and as the handlers are expected to handle before the locks expire.</p>
+ *
+ * @see org.camunda.bpm.engine.ExternalTaskService#createWorker(String)
+ */
+public interface ExternalTaskWorker {
+
+  /**
+   * Starts fetching and handling external tasks. Has no effect if the worker is active.
+   */
+  void start();
+
+  /**
+   * Stops fetching external tasks and waits for the handlers of fetched tasks, at most for the
+   * {@link ExternalTaskWorkerBuilder#stopTimeout(long) stop timeout}. Tasks which have already been
+   * fetched are still handled within this time. Afterwards, fetched tasks whose handlers have not
+   * started are unlocked, so that they can be fetched again right away, and the threads of running
+   * handlers are interrupted; the tasks of interrupted handlers stay locked until their lock expires,
+   * unless the handlers complete or unlock them. Has no effect if the worker is not active.
+   */
+  void stop();
+
+  /**
+   * @return true if the worker is started and fetches external tasks
+   */
+  boolean isActive();
+
+  /**
+   * @return the id of the worker which the external tasks are locked for
+   */
+  String getWorkerId();
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.externaltask;
+
+/**
+ * Configures an {@link ExternalTaskWorker}.
+ */
+public interface ExternalTaskWorkerBuilder {
+
+  /**
+   * Subscribes the worker to a topic.
+   *
+   * @param topicName the name of the topic
+   * @param lockDuration the duration in milliseconds for which tasks of the topic are locked
+   * @param handler the handler which executes the tasks of the topic
+   * @return this builder
+   */
+  ExternalTaskWorkerBuilder topic(String topicName, long lockDuration, ExternalTaskHandler handler);
+
+  /**
+   * Defines the maximum number of tasks which are fetched at once. Fewer tasks are fetched
+   * if the handlers cannot keep up with them. The default is 10.
+   *
+   * @return this builder
+   */
+  ExternalTaskWorkerBuilder maxTasks(int maxTasks);
+
+  /**
+   * Defines whether tasks with a higher priority are fetched first. The default is false.
+   *
+   * @return this builder
+   */
+  ExternalTaskWorkerBuilder usePriority(boolean usePriority);
+
+  /**
+   * Defines the number of threads which execute the handlers. The default is 3.
+   *
+   * @return this builder
+   */
+  ExternalTaskWorkerBuilder poolSize(int poolSize);
+
+  /**
+   * Defines the number of fetched tasks which may wait for a free thread. The default is 10.
+   *
+   * @return this builder
+   */
+  ExternalTaskWorkerBuilder queueCapacity(int queueCapacity);
+
+  /**
+   * Defines the maximum time in milliseconds the worker waits for new tasks before it fetches again.
+   * The worker is notified about tasks which are created by this process engine, so that they are fetched
+   * right away. The default is 30 seconds.
+   *
+   * @return this builder
+   */
+  ExternalTaskWorkerBuilder asyncResponseTimeout(long asyncResponseTimeout);
+
+  /**
+   * Defines the maximum time in milliseconds {@link ExternalTaskWorker#stop()} waits for the handlers
+   * of fetched tasks to finish. The default is 10 seconds.
+   *
+   * @return this builder
+   */
+  ExternalTaskWorkerBuilder stopTimeout(long stopTimeout);
+
+  /**
+   * Creates the worker. The worker is not started.
+   *
+   * @return the worker
+   */
+  ExternalTaskWorker build();
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.externaltask;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Handles multiple external tasks locked by the same worker in one command and
+ * transaction. Tasks which are not found, not locked by the worker, whose lock
+ * expired, which are suspended or which the current user is not authorized to update
+ * are reported as failed results and do not affect the other tasks of the batch.
+ */
+public interface HandleExternalTasksBuilder {
+
+  /**
+   * Completes the external task.
+   *
+   * @see org.camunda.bpm.engine.ExternalTaskService#complete(String, String)
+   */
+  HandleExternalTasksBuilder complete(String externalTaskId);
+
+  /**
+   * Completes the external task and sets the variables on its process instance.
+   *
+   * @see org.camunda.bpm.engine.ExternalTaskService#complete(String, String, Map)
+   */
+  HandleExternalTasksBuilder complete(String externalTaskId, Map<String, Object> variables);
+
+  /**
+   * Completes the external task and sets the variables on its process instance and the local
+   * variables on its execution.
+   *
+   * @see org.camunda.bpm.engine.ExternalTaskService#complete(String, String, Map, Map)
+   */
+  HandleExternalTasksBuilder complete(String externalTaskId, Map<String, Object> variables, Map<String, Object> localVariables);
+
+  /**
+   * Extends the lock of the external task.
+   *
+   * @see org.camunda.bpm.engine.ExternalTaskService#extendLock(String, String, long)
+   */
+  HandleExternalTasksBuilder extendLock(String externalTaskId, long newLockDuration);
+
+  /**
+   * Reports the failure of the external task.
+   *
+   * @see org.camunda.bpm.engine.ExternalTaskService#handleFailure(String, String, String, String, int, long)
+   */
+  HandleExternalTasksBuilder handleFailure(String externalTaskId, String errorMessage, String errorDetails, int retries, long retryTimeout);
+
+  /**
+   * Handles the external tasks in the order they were added. Each external task may only be
+   * handled once per batch.
+   *
+   * <p>If handling a task fails after it was validated, e.g. because the process
+   * instance continues with a failing activity, the batch is rolled back and each task
+   * is handled in its own transaction instead. The task which fails is reported as a
+   * failed result with the message of the exception; the other tasks are still handled.</p>
+   *
+   * @return one result per external task, in the order the tasks were added
+   */
+  List<HandleExternalTaskResult> execute();
+
+}
@@ -54,6 +54,16 @@ public interface HistoricActivityStatisticsQuery extends Query<HistoricActivityS
   /** Only select historic activities of process instances that were finished after the given date. */
   HistoricActivityStatisticsQuery finishedAfter(Date date);
 
+  /**
+   * Compute the statistics from the pre-aggregated rollups, which are maintained if the
+   * process engine configuration property <code>historyStatisticsRollupEnabled</code> is set,
+   * instead of the historic activity instances. The rollups only contain activities which were
+   * executed after enabling them and are updated periodically, i.e. they lag behind the history.
+   * They are not reduced if historic instances are deleted or removed by the history cleanup.
+   * Cannot be combined with restrictions on the start or end date.
+   */
+  HistoricActivityStatisticsQuery useRollups();
+
   /**
    * Order by activity id (needs to be followed by {@link #asc()} or {@link #desc()}).
    */
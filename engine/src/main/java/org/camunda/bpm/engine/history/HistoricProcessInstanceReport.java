@@ -58,4 +58,15 @@ public interface HistoricProcessInstanceReport extends Report {
    */
   HistoricProcessInstanceReport processDefinitionKeyIn(String... processDefinitionKeys);
 
+  /**
+   * Computes the report from the pre-aggregated rollups, which are maintained if the
+   * process engine configuration property <code>historyStatisticsRollupEnabled</code> is set,
+   * instead of the historic process instances. The rollups only contain process instances which
+   * finished after enabling them and are updated periodically, i.e. they lag behind the history.
+   * They are not reduced if historic instances are deleted or removed by the history cleanup.
+   *
+   * @throws NotValidException when the report is executed and restricted by the start date
+   */
+  HistoricProcessInstanceReport useRollups();
+
 }
@@ -16,16 +16,23 @@
  */
 package org.camunda.bpm.engine.impl;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.camunda.bpm.engine.ExternalTaskService;
 import org.camunda.bpm.engine.batch.Batch;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQuery;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQueryBuilder;
+import org.camunda.bpm.engine.externaltask.ExternalTaskWorker;
+import org.camunda.bpm.engine.externaltask.ExternalTaskWorkerBuilder;
+import org.camunda.bpm.engine.externaltask.HandleExternalTasksBuilder;
 import org.camunda.bpm.engine.externaltask.UpdateExternalTaskRetriesSelectBuilder;
 import org.camunda.bpm.engine.impl.cmd.*;
 import org.camunda.bpm.engine.impl.externaltask.ExternalTaskQueryTopicBuilderImpl;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskWorkerBuilderImpl;
 
 /**
  * @author Thorben Lindhauer
@@ -34,6 +41,9 @@ import org.camunda.bpm.engine.impl.externaltask.ExternalTaskQueryTopicBuilderImp
  */
 public class ExternalTaskServiceImpl extends ServiceImpl implements ExternalTaskService {
 
+  // the started workers, they are stopped when the process engine is closed
+  protected final Set<ExternalTaskWorker> workers = new LinkedHashSet<ExternalTaskWorker>();
+
   @Override
   public ExternalTaskQueryBuilder fetchAndLock(int maxTasks, String workerId) {
     return fetchAndLock(maxTasks, workerId, false);
@@ -126,4 +136,42 @@ public class ExternalTaskServiceImpl extends ServiceImpl implements ExternalTask
     commandExecutor.execute(new ExtendLockOnExternalTaskCmd(externalTaskId, workerId, lockDuration));
   }
 
+  @Override
+  public void extendLocks(String workerId, long newLockDuration) {
+    commandExecutor.execute(new ExtendLocksOfWorkerCmd(workerId, newLockDuration));
+  }
+
+  @Override
+  public HandleExternalTasksBuilder handleExternalTasks(String workerId) {
+    return new HandleExternalTasksBuilderImpl(commandExecutor, workerId);
+  }
+
+  @Override
+  public ExternalTaskWorkerBuilder createWorker(String workerId) {
+    return new ExternalTaskWorkerBuilderImpl(this, workerId);
+  }
+
+  public void registerWorker(ExternalTaskWorker worker) {
+    synchronized (workers) {
+      workers.add(worker);
+    }
+  }
+
+  public void unregisterWorker(ExternalTaskWorker worker) {
+    synchronized (workers) {
+      workers.remove(worker);
+    }
+  }
+
+  public void stopWorkers() {
+    List<ExternalTaskWorker> startedWorkers;
+    synchronized (workers) {
+      startedWorkers = new ArrayList<ExternalTaskWorker>(workers);
+    }
+
+    for (ExternalTaskWorker worker : startedWorkers) {
+      worker.stop();
+    }
+  }
+
 }
@@ -19,6 +19,7 @@ package org.camunda.bpm.engine.impl;
 import java.util.Date;
 import java.util.List;
 import org.apache.tools.ant.util.DateUtils;
+import org.camunda.bpm.engine.exception.NotValidException;
 import org.camunda.bpm.engine.history.HistoricActivityStatistics;
 import org.camunda.bpm.engine.history.HistoricActivityStatisticsQuery;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
@@ -47,6 +48,8 @@ public class HistoricActivityStatisticsQueryImpl extends AbstractQuery<HistoricA
   protected Date finishedBefore;
   protected Date finishedAfter;
 
+  protected boolean useRollups;
+
   public HistoricActivityStatisticsQueryImpl(String processDefinitionId, CommandExecutor commandExecutor) {
     super(commandExecutor);
     this.processDefinitionId = processDefinitionId;
@@ -91,6 +94,11 @@ public class HistoricActivityStatisticsQueryImpl extends AbstractQuery<HistoricA
     return this;
   }
 
+  public HistoricActivityStatisticsQuery useRollups() {
+    useRollups = true;
+    return this;
+  }
+
   public HistoricActivityStatisticsQuery orderByActivityId() {
     return orderBy(HistoricActivityStatisticsQueryProperty.ACTIVITY_ID_);
   }
@@ -114,6 +122,10 @@ public class HistoricActivityStatisticsQueryImpl extends AbstractQuery<HistoricA
   protected void checkQueryOk() {
     super.checkQueryOk();
     ensureNotNull("No valid process definition id supplied", "processDefinitionId", processDefinitionId);
+
+    if (useRollups && (startedBefore != null || startedAfter != null || finishedBefore != null || finishedAfter != null)) {
+      throw new NotValidException("Statistics computed from rollups cannot be restricted by start or end date");
+    }
   }
 
   // getters /////////////////////////////////////////////////
@@ -122,6 +134,26 @@ public class HistoricActivityStatisticsQueryImpl extends AbstractQuery<HistoricA
     return processDefinitionId;
   }
 
+  public Date getStartedBefore() {
+    return startedBefore;
+  }
+
+  public Date getStartedAfter() {
+    return startedAfter;
+  }
+
+  public Date getFinishedBefore() {
+    return finishedBefore;
+  }
+
+  public Date getFinishedAfter() {
+    return finishedAfter;
+  }
+
+  public boolean isUseRollups() {
+    return useRollups;
+  }
+
   public boolean isIncludeFinished() {
     return includeFinished;
   }
@@ -18,8 +18,11 @@ package org.camunda.bpm.engine.impl;
 
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.camunda.bpm.engine.history.HistoricDetail;
 import org.camunda.bpm.engine.history.HistoricDetailQuery;
@@ -207,6 +210,9 @@ public class HistoricDetailQueryImpl extends AbstractQuery<HistoricDetailQuery,
       .getHistoricDetailManager()
       .findHistoricDetailsByQueryCriteria(this, page);
     if (historicDetails!=null) {
+      prefetchByteArrays(commandContext, historicDetails);
+      resolveJsonPatches(commandContext, historicDetails);
+
       for (HistoricDetail historicDetail: historicDetails) {
         if (historicDetail instanceof HistoricDetailVariableInstanceUpdateEntity) {
           HistoricDetailVariableInstanceUpdateEntity entity = (HistoricDetailVariableInstanceUpdateEntity) historicDetail;
@@ -226,6 +232,48 @@ public class HistoricDetailQueryImpl extends AbstractQuery<HistoricDetailQuery,
     return historicDetails;
   }
 
+  /**
+   * Loads the byte arrays of all values to fetch with a single query
+   * instead of one query per historic detail.
+   */
+  protected void prefetchByteArrays(CommandContext commandContext, List<HistoricDetail> historicDetails) {
+    Set<String> byteArrayIds = new HashSet<>();
+    for (HistoricDetail historicDetail : historicDetails) {
+      if (historicDetail instanceof HistoricDetailVariableInstanceUpdateEntity) {
+        HistoricDetailVariableInstanceUpdateEntity entity = (HistoricDetailVariableInstanceUpdateEntity) historicDetail;
+        if (entity.getByteArrayValueId() != null && shouldFetchValue(entity)) {
+          byteArrayIds.add(entity.getByteArrayValueId());
+        }
+      }
+    }
+    commandContext.getByteArrayManager().prefetchByteArrays(byteArrayIds);
+  }
+
+  /**
+   * Reconstructs the values of all updates which store a Json patch in one batch
+   * instead of selecting the previous updates per historic detail.
+   */
+  protected void resolveJsonPatches(CommandContext commandContext, List<HistoricDetail> historicDetails) {
+    List<HistoricDetailVariableInstanceUpdateEntity> jsonPatches = new ArrayList<HistoricDetailVariableInstanceUpdateEntity>();
+    for (HistoricDetail historicDetail : historicDetails) {
+      if (historicDetail instanceof HistoricDetailVariableInstanceUpdateEntity) {
+        HistoricDetailVariableInstanceUpdateEntity entity = (HistoricDetailVariableInstanceUpdateEntity) historicDetail;
+        if (entity.isJsonPatch() && shouldFetchValue(entity)) {
+          jsonPatches.add(entity);
+        }
+      }
+    }
+    if (!jsonPatches.isEmpty()) {
+      try {
+        commandContext.getHistoricDetailManager().resolveJsonPatches(jsonPatches);
+
+      } catch(Exception t) {
+        // the values which could not be resolved are resolved one by one
+        LOG.exceptionWhileGettingValueForVariable(t);
+      }
+    }
+  }
+
   protected boolean shouldFetchValue(HistoricDetailVariableInstanceUpdateEntity entity) {
     // do not fetch values for byte arrays eagerly (unless requested by the user)
     return isByteArrayFetchingEnabled
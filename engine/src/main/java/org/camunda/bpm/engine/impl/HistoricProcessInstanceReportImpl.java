@@ -52,6 +52,8 @@ public class HistoricProcessInstanceReportImpl implements HistoricProcessInstanc
 
   protected PeriodUnit durationPeriodUnit;
 
+  protected boolean useRollups;
+
   protected CommandExecutor commandExecutor;
 
   protected TenantCheck tenantCheck = new TenantCheck();
@@ -86,6 +88,11 @@ public class HistoricProcessInstanceReportImpl implements HistoricProcessInstanc
     return this;
   }
 
+  public HistoricProcessInstanceReport useRollups() {
+    this.useRollups = true;
+    return this;
+  }
+
   // report execution /////////////////////////////////////////////
 
   public List<DurationReportResult> duration(PeriodUnit periodUnit) {
@@ -114,6 +121,10 @@ public class HistoricProcessInstanceReportImpl implements HistoricProcessInstanc
 
     doAuthCheck(commandContext);
 
+    if (useRollups && (startedAfter != null || startedBefore != null)) {
+      throw new NotValidException("A report computed from rollups cannot be restricted by start date");
+    }
+
     if(areNotInAscendingOrder(startedAfter, startedBefore)) {
       return Collections.emptyList();
     }
@@ -174,6 +185,10 @@ public class HistoricProcessInstanceReportImpl implements HistoricProcessInstanc
     return processDefinitionKeyIn;
   }
 
+  public boolean isUseRollups() {
+    return useRollups;
+  }
+
   public TenantCheck getTenantCheck() {
     return tenantCheck;
   }
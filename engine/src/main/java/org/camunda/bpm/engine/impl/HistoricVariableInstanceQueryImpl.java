@@ -18,7 +18,9 @@ package org.camunda.bpm.engine.impl;
 
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.camunda.bpm.engine.history.HistoricVariableInstance;
 import org.camunda.bpm.engine.history.HistoricVariableInstanceQuery;
@@ -205,6 +207,8 @@ public class HistoricVariableInstanceQueryImpl extends AbstractQuery<HistoricVar
             .findHistoricVariableInstancesByQueryCriteria(this, page);
 
     if (historicVariableInstances!=null) {
+      prefetchByteArrays(commandContext, historicVariableInstances);
+
       for (HistoricVariableInstance historicVariableInstance: historicVariableInstances) {
 
         HistoricVariableInstanceEntity variableInstanceEntity = (HistoricVariableInstanceEntity) historicVariableInstance;
@@ -223,6 +227,21 @@ public class HistoricVariableInstanceQueryImpl extends AbstractQuery<HistoricVar
     return historicVariableInstances;
   }
 
+  /**
+   * Loads the byte arrays of all values to fetch with a single query
+   * instead of one query per variable instance.
+   */
+  protected void prefetchByteArrays(CommandContext commandContext, List<HistoricVariableInstance> historicVariableInstances) {
+    Set<String> byteArrayIds = new HashSet<>();
+    for (HistoricVariableInstance historicVariableInstance : historicVariableInstances) {
+      HistoricVariableInstanceEntity variableInstanceEntity = (HistoricVariableInstanceEntity) historicVariableInstance;
+      if (variableInstanceEntity.getByteArrayId() != null && shouldFetchValue(variableInstanceEntity)) {
+        byteArrayIds.add(variableInstanceEntity.getByteArrayId());
+      }
+    }
+    commandContext.getByteArrayManager().prefetchByteArrays(byteArrayIds);
+  }
+
   protected boolean shouldFetchValue(HistoricVariableInstanceEntity entity) {
     // do not fetch values for byte arrays eagerly (unless requested by the user)
     return isByteArrayFetchingEnabled
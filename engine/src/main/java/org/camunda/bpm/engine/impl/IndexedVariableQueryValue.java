@@ -0,0 +1,52 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl;
+
+import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
+
+import java.io.Serializable;
+
+import org.camunda.bpm.engine.impl.variable.IndexedVariablePath;
+
+/**
+ * Restricts a query to process instances in which an {@link IndexedVariablePath}
+ * has a certain value.
+ */
+public class IndexedVariableQueryValue implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected String path;
+  protected String value;
+
+  public IndexedVariableQueryValue(String path, Object value) {
+    ensureNotNull("path", path);
+    ensureNotNull("value", value);
+    this.path = path;
+    this.value = IndexedVariablePath.toIndexValue(value);
+    ensureNotNull("Value of type " + value.getClass().getName() + " cannot be indexed", "value", this.value);
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+}
@@ -33,7 +33,7 @@ import org.camunda.bpm.engine.runtime.MessageCorrelationResult;
 import org.camunda.bpm.engine.runtime.MessageCorrelationResultWithVariables;
 import org.camunda.bpm.engine.runtime.ProcessInstance;
 import org.camunda.bpm.engine.variable.VariableMap;
-import org.camunda.bpm.engine.variable.impl.VariableMapImpl;
+import org.camunda.bpm.engine.variable.impl.CompactVariableMap;
 
 /**
  * @author Daniel Meyer
@@ -120,13 +120,13 @@ public class MessageCorrelationBuilderImpl implements MessageCorrelationBuilder
 
   protected void ensureCorrelationProcessInstanceVariablesInitialized() {
     if(correlationProcessInstanceVariables == null) {
-      correlationProcessInstanceVariables = new VariableMapImpl();
+      correlationProcessInstanceVariables = new CompactVariableMap();
     }
   }
 
   protected void ensureCorrelationLocalVariablesInitialized() {
     if(correlationLocalVariables == null) {
-      correlationLocalVariables = new VariableMapImpl();
+      correlationLocalVariables = new CompactVariableMap();
     }
   }
 
@@ -175,13 +175,13 @@ public class MessageCorrelationBuilderImpl implements MessageCorrelationBuilder
 
   protected void ensurePayloadProcessInstanceVariablesInitialized() {
     if (payloadProcessInstanceVariables == null) {
-      payloadProcessInstanceVariables = new VariableMapImpl();
+      payloadProcessInstanceVariables = new CompactVariableMap();
     }
   }
 
   protected void ensurePayloadProcessInstanceVariablesLocalInitialized() {
     if (payloadProcessInstanceVariablesLocal == null) {
-      payloadProcessInstanceVariablesLocal = new VariableMapImpl();
+      payloadProcessInstanceVariablesLocal = new CompactVariableMap();
     }
   }
 
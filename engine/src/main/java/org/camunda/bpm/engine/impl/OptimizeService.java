@@ -22,9 +22,15 @@ import org.camunda.bpm.engine.history.HistoricProcessInstance;
 import org.camunda.bpm.engine.history.HistoricTaskInstance;
 import org.camunda.bpm.engine.history.HistoricVariableUpdate;
 import org.camunda.bpm.engine.history.UserOperationLogEntry;
+import org.camunda.bpm.engine.impl.cmd.optimize.OptimizeCompletedHistoricActivityInstancePageCmd;
 import org.camunda.bpm.engine.impl.cmd.optimize.OptimizeCompletedHistoricActivityInstanceQueryCmd;
+import org.camunda.bpm.engine.impl.cmd.optimize.OptimizeCompletedHistoricProcessInstancePageCmd;
 import org.camunda.bpm.engine.impl.cmd.optimize.OptimizeCompletedHistoricProcessInstanceQueryCmd;
+import org.camunda.bpm.engine.impl.cmd.optimize.OptimizeCompletedHistoricTaskInstancePageCmd;
 import org.camunda.bpm.engine.impl.cmd.optimize.OptimizeCompletedHistoricTaskInstanceQueryCmd;
+import org.camunda.bpm.engine.impl.cmd.optimize.OptimizeExportCompletedHistoricActivityInstancesCmd;
+import org.camunda.bpm.engine.impl.cmd.optimize.OptimizeExportCompletedHistoricProcessInstancesCmd;
+import org.camunda.bpm.engine.impl.cmd.optimize.OptimizeExportCompletedHistoricTaskInstancesCmd;
 import org.camunda.bpm.engine.impl.cmd.optimize.OptimizeHistoricDecisionInstanceQueryCmd;
 import org.camunda.bpm.engine.impl.cmd.optimize.OptimizeHistoricIdentityLinkLogQueryCmd;
 import org.camunda.bpm.engine.impl.cmd.optimize.OptimizeHistoricUserOperationsLogQueryCmd;
@@ -32,8 +38,12 @@ import org.camunda.bpm.engine.impl.cmd.optimize.OptimizeHistoricVariableUpdateQu
 import org.camunda.bpm.engine.impl.cmd.optimize.OptimizeRunningHistoricActivityInstanceQueryCmd;
 import org.camunda.bpm.engine.impl.cmd.optimize.OptimizeRunningHistoricProcessInstanceQueryCmd;
 import org.camunda.bpm.engine.impl.cmd.optimize.OptimizeRunningHistoricTaskInstanceQueryCmd;
+import org.camunda.bpm.engine.impl.optimize.OptimizeResultPage;
+import org.camunda.bpm.engine.impl.optimize.export.HistoricDataExportReader;
+import org.camunda.bpm.engine.impl.optimize.export.HistoricDataExportWriter;
 import org.camunda.bpm.engine.impl.persistence.entity.optimize.OptimizeHistoricIdentityLinkLogEntity;
 
+import java.io.OutputStream;
 import java.util.Date;
 import java.util.List;
 
@@ -119,5 +129,80 @@ public class OptimizeService extends ServiceImpl {
     );
   }
 
+  /**
+   * Returns the next page of historic activity instances ordered by end time and id.
+   * In contrast to {@link #getCompletedHistoricActivityInstances(Date, Date, int)}, instances
+   * with the same end time are never skipped or returned twice.
+   *
+   * @param continuationToken the token of the previous page; <code>null</code> to start with the first page
+   */
+  public OptimizeResultPage<HistoricActivityInstance> getCompletedHistoricActivityInstancePage(String continuationToken,
+                                                                                               int maxResults) {
+    return commandExecutor.execute(
+      new OptimizeCompletedHistoricActivityInstancePageCmd(continuationToken, maxResults)
+    );
+  }
+
+  /**
+   * Returns the next page of historic task instances ordered by end time and id.
+   *
+   * @see #getCompletedHistoricActivityInstancePage(String, int)
+   */
+  public OptimizeResultPage<HistoricTaskInstance> getCompletedHistoricTaskInstancePage(String continuationToken,
+                                                                                       int maxResults) {
+    return commandExecutor.execute(
+      new OptimizeCompletedHistoricTaskInstancePageCmd(continuationToken, maxResults)
+    );
+  }
+
+  /**
+   * Returns the next page of historic process instances ordered by end time and id.
+   *
+   * @see #getCompletedHistoricActivityInstancePage(String, int)
+   */
+  public OptimizeResultPage<HistoricProcessInstance> getCompletedHistoricProcessInstancePage(String continuationToken,
+                                                                                             int maxResults) {
+    return commandExecutor.execute(
+      new OptimizeCompletedHistoricProcessInstancePageCmd(continuationToken, maxResults)
+    );
+  }
+
+  /**
+   * Writes all historic process instances which finished after the given date
+   * in a single sequential scan to the output stream. The output is gzip compressed
+   * and column oriented, see {@link HistoricDataExportWriter} for the layout
+   * and {@link HistoricDataExportReader} to read it.
+   *
+   * @param finishedAfter only instances which finished after this date are exported;
+   *                      if <code>null</code>, all finished instances are exported
+   * @return the number of exported instances
+   */
+  public long exportCompletedHistoricProcessInstances(Date finishedAfter, OutputStream outputStream) {
+    return commandExecutor.execute(
+      new OptimizeExportCompletedHistoricProcessInstancesCmd(finishedAfter, outputStream)
+    );
+  }
+
+  /**
+   * Writes all historic activity instances which finished after the given date to the output stream.
+   *
+   * @see #exportCompletedHistoricProcessInstances(Date, OutputStream)
+   */
+  public long exportCompletedHistoricActivityInstances(Date finishedAfter, OutputStream outputStream) {
+    return commandExecutor.execute(
+      new OptimizeExportCompletedHistoricActivityInstancesCmd(finishedAfter, outputStream)
+    );
+  }
+
+  /**
+   * Writes all historic task instances which finished after the given date to the output stream.
+   *
+   * @see #exportCompletedHistoricProcessInstances(Date, OutputStream)
+   */
+  public long exportCompletedHistoricTaskInstances(Date finishedAfter, OutputStream outputStream) {
+    return commandExecutor.execute(
+      new OptimizeExportCompletedHistoricTaskInstancesCmd(finishedAfter, outputStream)
+    );
+  }
 
 }
@@ -22,6 +22,7 @@ import org.camunda.bpm.engine.*;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cfg.TransactionContextFactory;
 import org.camunda.bpm.engine.impl.el.ExpressionManager;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskNotificationChannel;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
@@ -114,6 +115,15 @@ public class ProcessEngineImpl implements ProcessEngine {
         dbMetricsReporter.start();
       }
     }
+
+    if (processEngineConfiguration.isHistoryStatisticsRollupEnabled()) {
+      processEngineConfiguration.getHistoricStatisticsRollupReporter().start();
+    }
+
+    ExternalTaskNotificationChannel externalTaskNotificationChannel = processEngineConfiguration.getExternalTaskNotificationChannel();
+    if (externalTaskNotificationChannel != null) {
+      externalTaskNotificationChannel.start(commandExecutor, EXT_TASK_CONDITIONS);
+    }
   }
 
   protected void executeSchemaOperations() {
@@ -136,6 +146,19 @@ public class ProcessEngineImpl implements ProcessEngine {
       processEngineConfiguration.getDbMetricsReporter().stop();
     }
 
+    if (processEngineConfiguration.isHistoryStatisticsRollupEnabled()) {
+      processEngineConfiguration.getHistoricStatisticsRollupReporter().stop();
+    }
+
+    if (externalTaskService instanceof ExternalTaskServiceImpl) {
+      // the workers must not fetch tasks from a closed engine
+      ((ExternalTaskServiceImpl) externalTaskService).stopWorkers();
+    }
+
+    if (processEngineConfiguration.getExternalTaskNotificationChannel() != null) {
+      processEngineConfiguration.getExternalTaskNotificationChannel().stop();
+    }
+
     if ((jobExecutor != null)) {
       // unregister process engine with Job Executor
       jobExecutor.unregisterProcessEngine(this);
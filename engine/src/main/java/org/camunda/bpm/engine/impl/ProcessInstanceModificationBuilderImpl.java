@@ -40,7 +40,7 @@ import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 import org.camunda.bpm.engine.runtime.ProcessInstanceModificationBuilder;
 import org.camunda.bpm.engine.runtime.ProcessInstanceModificationInstantiationBuilder;
 import org.camunda.bpm.engine.variable.VariableMap;
-import org.camunda.bpm.engine.variable.impl.VariableMapImpl;
+import org.camunda.bpm.engine.variable.impl.CompactVariableMap;
 
 /**
  * @author Thorben Lindhauer
@@ -60,7 +60,7 @@ public class ProcessInstanceModificationBuilderImpl implements ProcessInstanceMo
   protected List<AbstractProcessInstanceModificationCommand> operations = new ArrayList<AbstractProcessInstanceModificationCommand>();
 
   // variables not associated with an activity that are to be set on the instance itself
-  protected VariableMap processVariables = new VariableMapImpl();
+  protected VariableMap processVariables = new CompactVariableMap();
 
   public ProcessInstanceModificationBuilderImpl(CommandExecutor commandExecutor, String processInstanceId) {
     this(processInstanceId);
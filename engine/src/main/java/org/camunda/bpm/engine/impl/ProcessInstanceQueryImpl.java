@@ -66,6 +66,7 @@ public class ProcessInstanceQueryImpl extends AbstractVariableQueryImpl<ProcessI
   protected String superCaseInstanceId;
   protected String subCaseInstanceId;
   protected String[] activityIds;
+  protected List<IndexedVariableQueryValue> indexedVariableValues = new ArrayList<>();
   protected boolean isRootProcessInstances;
   protected boolean isLeafProcessInstances;
 
@@ -109,6 +110,11 @@ public class ProcessInstanceQueryImpl extends AbstractVariableQueryImpl<ProcessI
     return this;
   }
 
+  public ProcessInstanceQuery indexedVariableValueEquals(String path, Object value) {
+    indexedVariableValues.add(new IndexedVariableQueryValue(path, value));
+    return this;
+  }
+
   public ProcessInstanceQuery processInstanceBusinessKeyLike(String businessKeyLike) {
     this.businessKeyLike = businessKeyLike;
     return this;
@@ -387,6 +393,10 @@ public class ProcessInstanceQueryImpl extends AbstractVariableQueryImpl<ProcessI
     return businessKey;
   }
 
+  public List<IndexedVariableQueryValue> getIndexedVariableValues() {
+    return indexedVariableValues;
+  }
+
   public String getBusinessKeyLike() {
     return businessKeyLike;
   }
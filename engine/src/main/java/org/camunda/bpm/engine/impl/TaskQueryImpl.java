@@ -93,6 +93,7 @@ public class TaskQueryImpl extends AbstractQuery<TaskQuery, Task> implements Tas
   protected String[] processInstanceBusinessKeys;
   protected String processInstanceBusinessKeyLike;
   protected List<TaskQueryVariableValue> variables = new ArrayList<TaskQueryVariableValue>();
+  protected List<IndexedVariableQueryValue> indexedVariableValues = new ArrayList<IndexedVariableQueryValue>();
   protected Date dueDate;
   protected Date dueBefore;
   protected Date dueAfter;
@@ -660,6 +661,12 @@ public class TaskQueryImpl extends AbstractQuery<TaskQuery, Task> implements Tas
     return this;
   }
   
+  @Override
+  public TaskQuery processIndexedVariableValueEquals(String path, Object value) {
+    indexedVariableValues.add(new IndexedVariableQueryValue(path, value));
+    return this;
+  }
+
   @Override
   public TaskQuery processVariableValueNotEquals(String variableName, Object variableValue) {
     addVariable(variableName, variableValue, QueryOperator.NOT_EQUALS, false, true);
@@ -1477,6 +1484,10 @@ public class TaskQueryImpl extends AbstractQuery<TaskQuery, Task> implements Tas
     return variables;
   }
 
+  public List<IndexedVariableQueryValue> getIndexedVariableValues() {
+    return indexedVariableValues;
+  }
+
   public String getProcessDefinitionKey() {
     return processDefinitionKey;
   }
@@ -2044,6 +2055,8 @@ public class TaskQueryImpl extends AbstractQuery<TaskQuery, Task> implements Tas
 
     // merge variables
     mergeVariables(extendedQuery, extendingQuery);
+    extendedQuery.indexedVariableValues.addAll(this.getIndexedVariableValues());
+    extendedQuery.indexedVariableValues.addAll(extendingQuery.getIndexedVariableValues());
 
     // merge expressions
     mergeExpressions(extendedQuery, extendingQuery);
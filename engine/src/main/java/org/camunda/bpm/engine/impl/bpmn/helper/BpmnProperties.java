@@ -25,6 +25,7 @@ import org.camunda.bpm.engine.impl.core.model.PropertyListKey;
 import org.camunda.bpm.engine.impl.core.model.PropertyMapKey;
 import org.camunda.bpm.engine.impl.jobexecutor.TimerDeclarationImpl;
 import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
+import org.camunda.bpm.engine.impl.variable.IndexedVariablePath;
 
 import static org.camunda.bpm.engine.impl.bpmn.parser.BpmnParse.PROPERTYNAME_HAS_CONDITIONAL_EVENTS;
 
@@ -68,4 +69,9 @@ public class BpmnProperties {
 
   public static final PropertyKey<ConditionalEventDefinition> CONDITIONAL_EVENT_DEFINITION = new PropertyKey<ConditionalEventDefinition>("conditionalEventDefinition");
 
+  /**
+   * Variable paths of a process definition whose values are indexed for variable value queries.
+   */
+  public static final PropertyListKey<IndexedVariablePath> INDEXED_VARIABLE_PATHS = new PropertyListKey<IndexedVariablePath>("indexedVariablePaths");
+
 }
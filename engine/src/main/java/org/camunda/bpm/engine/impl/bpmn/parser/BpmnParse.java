@@ -67,6 +67,7 @@ import org.camunda.bpm.engine.impl.util.StringUtil;
 import org.camunda.bpm.engine.impl.util.xml.Element;
 import org.camunda.bpm.engine.impl.util.xml.Namespace;
 import org.camunda.bpm.engine.impl.util.xml.Parse;
+import org.camunda.bpm.engine.impl.variable.IndexedVariablePath;
 import org.camunda.bpm.engine.impl.variable.VariableDeclaration;
 import org.camunda.bpm.engine.repository.ProcessDefinition;
 
@@ -169,6 +170,8 @@ public class BpmnParse extends Parse {
   protected static final String CANDIDATE_STARTER_USERS_EXTENSION = "candidateStarterUsers";
   protected static final String CANDIDATE_STARTER_GROUPS_EXTENSION = "candidateStarterGroups";
 
+  protected static final String INDEXED_VARIABLE_PATHS_EXTENSION = "indexedVariablePaths";
+
   protected static final String ATTRIBUTEVALUE_T_FORMAL_EXPRESSION = BpmnParser.BPMN20_NS + ":tFormalExpression";
 
   public static final String PROPERTYNAME_IS_MULTI_INSTANCE = "isMultiInstance";
@@ -561,6 +564,8 @@ public class BpmnParse extends Parse {
     boolean isStartableInTasklist = isStartable(processElement);
     processDefinition.setStartableInTasklist(isStartableInTasklist);
 
+    parseIndexedVariablePaths(processElement, processDefinition);
+
     LOG.parsingElement("process", processDefinition.getKey());
 
     parseScope(processElement, processDefinition);
@@ -583,6 +588,18 @@ public class BpmnParse extends Parse {
     return processDefinition;
   }
 
+  protected void parseIndexedVariablePaths(Element processElement, ProcessDefinitionEntity processDefinition) {
+    String indexedVariablePaths = processElement.attributeNS(CAMUNDA_BPMN_EXTENSIONS_NS, INDEXED_VARIABLE_PATHS_EXTENSION);
+    for (String path : parseCommaSeparatedList(indexedVariablePaths)) {
+      if (IndexedVariablePath.isValid(path)) {
+        processDefinition.getProperties().addListItem(BpmnProperties.INDEXED_VARIABLE_PATHS, new IndexedVariablePath(path));
+      }
+      else {
+        addError("Invalid indexed variable path '" + path + "'", processElement);
+      }
+    }
+  }
+
   protected void parseLaneSets(Element parentElement, ProcessDefinitionEntity processDefinition) {
     List<Element> laneSets = parentElement.elements("laneSet");
 
@@ -162,6 +162,7 @@ import org.camunda.bpm.engine.impl.event.EventHandlerImpl;
 import org.camunda.bpm.engine.impl.event.EventType;
 import org.camunda.bpm.engine.impl.event.SignalEventHandler;
 import org.camunda.bpm.engine.impl.externaltask.DefaultExternalTaskPriorityProvider;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskNotificationChannel;
 import org.camunda.bpm.engine.impl.form.engine.FormEngine;
 import org.camunda.bpm.engine.impl.form.engine.HtmlFormEngine;
 import org.camunda.bpm.engine.impl.form.engine.JuelFormEngine;
@@ -183,8 +184,12 @@ import org.camunda.bpm.engine.impl.history.DefaultHistoryRemovalTimeProvider;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
 import org.camunda.bpm.engine.impl.history.HistoryRemovalTimeProvider;
 import org.camunda.bpm.engine.impl.history.event.HistoricDecisionInstanceManager;
+import org.camunda.bpm.engine.impl.history.handler.CompositeHistoryEventHandler;
 import org.camunda.bpm.engine.impl.history.handler.DbHistoryEventHandler;
 import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.statistics.HistoricStatisticsRollupHistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.statistics.HistoricStatisticsRollupRegistry;
+import org.camunda.bpm.engine.impl.history.statistics.HistoricStatisticsRollupReporter;
 import org.camunda.bpm.engine.impl.history.parser.HistoryParseListener;
 import org.camunda.bpm.engine.impl.history.producer.CacheAwareCmmnHistoryEventProducer;
 import org.camunda.bpm.engine.impl.history.producer.CacheAwareHistoryEventProducer;
@@ -269,6 +274,7 @@ import org.camunda.bpm.engine.impl.migration.validation.instruction.SameEventTyp
 import org.camunda.bpm.engine.impl.migration.validation.instruction.UpdateEventTriggersValidator;
 import org.camunda.bpm.engine.impl.optimize.OptimizeManager;
 import org.camunda.bpm.engine.impl.persistence.GenericManagerFactory;
+import org.camunda.bpm.engine.impl.persistence.blob.BlobStore;
 import org.camunda.bpm.engine.impl.persistence.deploy.Deployer;
 import org.camunda.bpm.engine.impl.persistence.deploy.cache.CacheFactory;
 import org.camunda.bpm.engine.impl.persistence.deploy.cache.DefaultCacheFactory;
@@ -313,6 +319,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.TaskManager;
 import org.camunda.bpm.engine.impl.persistence.entity.TaskReportManager;
 import org.camunda.bpm.engine.impl.persistence.entity.TenantManager;
 import org.camunda.bpm.engine.impl.persistence.entity.UserOperationLogManager;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableIndexManager;
 import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceManager;
 import org.camunda.bpm.engine.impl.runtime.ConditionHandler;
 import org.camunda.bpm.engine.impl.runtime.CorrelationHandler;
@@ -377,6 +384,8 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   public static final int DEFAULT_FAILED_JOB_LISTENER_MAX_RETRIES = 3;
 
+  public static final int DEFAULT_BLOB_STORE_THRESHOLD = 1024 * 1024;
+
   public static SqlSessionFactory cachedSqlSessionFactory;
 
   // SERVICES /////////////////////////////////////////////////////////////////
@@ -778,8 +787,90 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
    */
   private int historyCleanupBatchThreshold = 10;
 
+  /**
+   * Indicates whether each history cleanup job tunes its batch size based on the measured duration of its previous run.
+   * The configured {@link #historyCleanupBatchSize} is used as upper bound.
+   */
+  protected boolean historyCleanupAdaptiveBatchSize = false;
+  /**
+   * Duration in milliseconds a single history cleanup run should take when {@link #historyCleanupAdaptiveBatchSize} is enabled.
+   */
+  protected long historyCleanupTargetBatchDuration = 1000;
+
   private boolean historyCleanupMetricsEnabled = true;
 
+  /**
+   * Indicates whether pre-aggregated rollups of historic activity statistics and process instance durations
+   * are maintained by an additional history event handler. Queries only read them if they request it, see
+   * {@link org.camunda.bpm.engine.history.HistoricActivityStatisticsQuery#useRollups()}.
+   */
+  protected boolean historyStatisticsRollupEnabled = false;
+  protected HistoricStatisticsRollupRegistry historicStatisticsRollupRegistry;
+  protected HistoricStatisticsRollupReporter historicStatisticsRollupReporter;
+
+  /**
+   * Indicates whether historic variable updates of the same variable instance share a byte array
+   * if the serialized value did not change.
+   */
+  protected boolean historyByteArrayDeduplicationEnabled = false;
+
+  /**
+   * Indicates whether historic variable updates of Json object variables store a Json patch
+   * (RFC 6902) against the previous value instead of the full value. Only applied with
+   * history level full, since reading an update reconstructs its value from the previous updates.
+   */
+  protected boolean historyJsonPatchEnabled = false;
+
+  /**
+   * The maximum number of consecutive historic updates of a Json object variable which store
+   * a Json patch. The next update stores the full value again, so that reading an update applies
+   * a bounded number of patches. A full value is also stored once the patches since the last full
+   * value together become larger than the value itself.
+   */
+  protected int historyJsonPatchSnapshotInterval = 10;
+
+  /**
+   * Indicates whether the serializer resolved for a variable value is cached by the properties
+   * the built-in serializers decide on (value type, value class and serialization format).
+   * Must not be enabled with custom serializers which decide based on the content of a value.
+   */
+  protected boolean variableSerializerResolutionCacheEnabled = false;
+
+  /**
+   * Notifies the process engines on other cluster nodes about available external tasks, so that long-polling
+   * fetch and lock requests there are answered without delay. No notifications are exchanged if not set.
+   */
+  protected ExternalTaskNotificationChannel externalTaskNotificationChannel;
+
+  /**
+   * Indicates whether fetch and lock of external tasks locks the fetched rows with <code>FOR UPDATE SKIP LOCKED</code>,
+   * so that concurrent workers skip the tasks that are being locked by each other instead of failing with
+   * optimistic locking exceptions. Requires PostgreSQL 9.5, MySQL 8.0, MariaDB 10.6, Oracle or SQL Server;
+   * is ignored with a warning on other databases and older versions, which are detected by the product version
+   * reported by the JDBC connection.
+   */
+  protected boolean externalTaskSkipLockedEnabled = false;
+
+  /**
+   * If true, external tasks are fetched for multiple topics by allocating the requested number of tasks
+   * across the topics by their weights, so that a topic with many (high priority) tasks does not starve
+   * the other topics requested by the same worker. Costs one query per requested topic.
+   */
+  protected boolean externalTaskFairFetchEnabled = false;
+
+  /**
+   * The minimum size in bytes from which on byte array values of variables are stored compressed.
+   * A negative value disables the compression. Compressed values are always read transparently.
+   */
+  protected int byteArrayCompressionThreshold = -1;
+
+  /**
+   * If set, values of variables which reach the {@link #blobStoreThreshold} are stored in
+   * this blob store instead of the database.
+   */
+  protected BlobStore blobStore;
+  protected int blobStoreThreshold = DEFAULT_BLOB_STORE_THRESHOLD;
+
   private int failedJobListenerMaxRetries = DEFAULT_FAILED_JOB_LISTENER_MAX_RETRIES;
 
   protected String failedJobRetryTimeCycle;
@@ -849,6 +940,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     initResourceAuthorizationProvider();
     initPermissionProvider();
     initMetrics();
+    initHistoryStatisticsRollup();
     initMigration();
     initCommandCheckers();
     initDefaultUserPermissionForTask();
@@ -913,6 +1005,11 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
           "History cleanup batch threshold cannot be negative.");
     }
 
+    if (historyCleanupTargetBatchDuration <= 0) {
+      throw LOG.invalidPropertyValue("historyCleanupTargetBatchDuration", String.valueOf(historyCleanupTargetBatchDuration),
+          "History cleanup target batch duration must be positive.");
+    }
+
     initHistoryTimeToLive();
 
     initBatchOperationsHistoryTimeToLive();
@@ -1545,6 +1642,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       addSessionFactory(new GenericManagerFactory(TaskManager.class));
       addSessionFactory(new GenericManagerFactory(TaskReportManager.class));
       addSessionFactory(new GenericManagerFactory(VariableInstanceManager.class));
+      addSessionFactory(new GenericManagerFactory(VariableIndexManager.class));
       addSessionFactory(new GenericManagerFactory(EventSubscriptionManager.class));
       addSessionFactory(new GenericManagerFactory(StatisticsManager.class));
       addSessionFactory(new GenericManagerFactory(IncidentManager.class));
@@ -2330,6 +2428,19 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     if (historyEventHandler == null) {
       historyEventHandler = new DbHistoryEventHandler();
     }
+    if (historyStatisticsRollupEnabled) {
+      if (historicStatisticsRollupRegistry == null) {
+        historicStatisticsRollupRegistry = new HistoricStatisticsRollupRegistry();
+      }
+      historyEventHandler = new CompositeHistoryEventHandler(historyEventHandler,
+          new HistoricStatisticsRollupHistoryEventHandler(historicStatisticsRollupRegistry));
+    }
+  }
+
+  protected void initHistoryStatisticsRollup() {
+    if (historyStatisticsRollupEnabled && historicStatisticsRollupReporter == null) {
+      historicStatisticsRollupReporter = new HistoricStatisticsRollupReporter(historicStatisticsRollupRegistry, commandExecutorTxRequired);
+    }
   }
 
   // password digest //////////////////////////////////////////////////////////
@@ -3742,6 +3853,123 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return isMetricsEnabled;
   }
 
+  public boolean isHistoryStatisticsRollupEnabled() {
+    return historyStatisticsRollupEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryStatisticsRollupEnabled(boolean historyStatisticsRollupEnabled) {
+    this.historyStatisticsRollupEnabled = historyStatisticsRollupEnabled;
+    return this;
+  }
+
+  public boolean isHistoryByteArrayDeduplicationEnabled() {
+    return historyByteArrayDeduplicationEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryByteArrayDeduplicationEnabled(boolean historyByteArrayDeduplicationEnabled) {
+    this.historyByteArrayDeduplicationEnabled = historyByteArrayDeduplicationEnabled;
+    return this;
+  }
+
+  public boolean isHistoryJsonPatchEnabled() {
+    return historyJsonPatchEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryJsonPatchEnabled(boolean historyJsonPatchEnabled) {
+    this.historyJsonPatchEnabled = historyJsonPatchEnabled;
+    return this;
+  }
+
+  public boolean isVariableSerializerResolutionCacheEnabled() {
+    return variableSerializerResolutionCacheEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setVariableSerializerResolutionCacheEnabled(boolean variableSerializerResolutionCacheEnabled) {
+    this.variableSerializerResolutionCacheEnabled = variableSerializerResolutionCacheEnabled;
+    return this;
+  }
+
+  public ExternalTaskNotificationChannel getExternalTaskNotificationChannel() {
+    return externalTaskNotificationChannel;
+  }
+
+  public ProcessEngineConfigurationImpl setExternalTaskNotificationChannel(ExternalTaskNotificationChannel externalTaskNotificationChannel) {
+    this.externalTaskNotificationChannel = externalTaskNotificationChannel;
+    return this;
+  }
+
+  public boolean isExternalTaskSkipLockedEnabled() {
+    return externalTaskSkipLockedEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setExternalTaskSkipLockedEnabled(boolean externalTaskSkipLockedEnabled) {
+    this.externalTaskSkipLockedEnabled = externalTaskSkipLockedEnabled;
+    return this;
+  }
+
+  public boolean isExternalTaskFairFetchEnabled() {
+    return externalTaskFairFetchEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setExternalTaskFairFetchEnabled(boolean externalTaskFairFetchEnabled) {
+    this.externalTaskFairFetchEnabled = externalTaskFairFetchEnabled;
+    return this;
+  }
+
+  public int getHistoryJsonPatchSnapshotInterval() {
+    return historyJsonPatchSnapshotInterval;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryJsonPatchSnapshotInterval(int historyJsonPatchSnapshotInterval) {
+    this.historyJsonPatchSnapshotInterval = historyJsonPatchSnapshotInterval;
+    return this;
+  }
+
+  public int getByteArrayCompressionThreshold() {
+    return byteArrayCompressionThreshold;
+  }
+
+  public ProcessEngineConfigurationImpl setByteArrayCompressionThreshold(int byteArrayCompressionThreshold) {
+    this.byteArrayCompressionThreshold = byteArrayCompressionThreshold;
+    return this;
+  }
+
+  public BlobStore getBlobStore() {
+    return blobStore;
+  }
+
+  public ProcessEngineConfigurationImpl setBlobStore(BlobStore blobStore) {
+    this.blobStore = blobStore;
+    return this;
+  }
+
+  public int getBlobStoreThreshold() {
+    return blobStoreThreshold;
+  }
+
+  public ProcessEngineConfigurationImpl setBlobStoreThreshold(int blobStoreThreshold) {
+    this.blobStoreThreshold = blobStoreThreshold;
+    return this;
+  }
+
+  public HistoricStatisticsRollupRegistry getHistoricStatisticsRollupRegistry() {
+    return historicStatisticsRollupRegistry;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoricStatisticsRollupRegistry(HistoricStatisticsRollupRegistry historicStatisticsRollupRegistry) {
+    this.historicStatisticsRollupRegistry = historicStatisticsRollupRegistry;
+    return this;
+  }
+
+  public HistoricStatisticsRollupReporter getHistoricStatisticsRollupReporter() {
+    return historicStatisticsRollupReporter;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoricStatisticsRollupReporter(HistoricStatisticsRollupReporter historicStatisticsRollupReporter) {
+    this.historicStatisticsRollupReporter = historicStatisticsRollupReporter;
+    return this;
+  }
+
   public DbMetricsReporter getDbMetricsReporter() {
     return dbMetricsReporter;
   }
@@ -4174,6 +4402,24 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.historyCleanupBatchThreshold = historyCleanupBatchThreshold;
   }
 
+  public boolean isHistoryCleanupAdaptiveBatchSize() {
+    return historyCleanupAdaptiveBatchSize;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryCleanupAdaptiveBatchSize(boolean historyCleanupAdaptiveBatchSize) {
+    this.historyCleanupAdaptiveBatchSize = historyCleanupAdaptiveBatchSize;
+    return this;
+  }
+
+  public long getHistoryCleanupTargetBatchDuration() {
+    return historyCleanupTargetBatchDuration;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryCleanupTargetBatchDuration(long historyCleanupTargetBatchDuration) {
+    this.historyCleanupTargetBatchDuration = historyCleanupTargetBatchDuration;
+    return this;
+  }
+
   public boolean isHistoryCleanupMetricsEnabled() {
     return historyCleanupMetricsEnabled;
   }
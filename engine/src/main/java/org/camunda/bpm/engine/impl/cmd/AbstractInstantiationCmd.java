@@ -45,7 +45,7 @@ import org.camunda.bpm.engine.impl.tree.ReferenceWalker;
 import org.camunda.bpm.engine.impl.util.EnsureUtil;
 import org.camunda.bpm.engine.runtime.ActivityInstance;
 import org.camunda.bpm.engine.variable.VariableMap;
-import org.camunda.bpm.engine.variable.impl.VariableMapImpl;
+import org.camunda.bpm.engine.variable.impl.CompactVariableMap;
 
 /**
  * @author Thorben Lindhauer
@@ -60,8 +60,8 @@ public abstract class AbstractInstantiationCmd extends AbstractProcessInstanceMo
   public AbstractInstantiationCmd(String processInstanceId, String ancestorActivityInstanceId) {
     super(processInstanceId);
     this.ancestorActivityInstanceId = ancestorActivityInstanceId;
-    this.variables = new VariableMapImpl();
-    this.variablesLocal = new VariableMapImpl();
+    this.variables = new CompactVariableMap();
+    this.variablesLocal = new CompactVariableMap();
   }
 
   public void addVariable(String name, Object value) {
@@ -40,6 +40,11 @@ public class CompleteExternalTaskCmd extends HandleExternalTaskCmd {
     return "External Task " + externalTaskId + " cannot be completed by worker '" + workerId;
   }
 
+  @Override
+  protected void validateExternalTask(ExternalTaskEntity externalTask) {
+    externalTask.ensureActive();
+  }
+
   @Override
   public void execute(ExternalTaskEntity externalTask) {
     externalTask.complete(variables, localVariables);
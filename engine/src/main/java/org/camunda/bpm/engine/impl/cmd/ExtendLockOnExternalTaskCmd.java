@@ -32,19 +32,29 @@ public class ExtendLockOnExternalTaskCmd extends HandleExternalTaskCmd {
 
   public ExtendLockOnExternalTaskCmd(String externalTaskId, String workerId, long newLockTime) {
     super(externalTaskId, workerId);
-    EnsureUtil.ensurePositive(BadUserRequestException.class, "lockTime", newLockTime);
     this.newLockTime = newLockTime;
   }
 
+  @Override
+  protected void validateInput() {
+    super.validateInput();
+    EnsureUtil.ensurePositive(BadUserRequestException.class, "lockTime", newLockTime);
+  }
+
   @Override
   public String getErrorMessageOnWrongWorkerAccess() {
     return "The lock of the External Task " + externalTaskId + " cannot be extended by worker '" + workerId + "'";
   }
 
   @Override
-  protected void execute(ExternalTaskEntity externalTask) {
+  protected void validateExternalTask(ExternalTaskEntity externalTask) {
+    externalTask.ensureActive();
     EnsureUtil.ensureGreaterThanOrEqual(BadUserRequestException.class, "Cannot extend a lock that expired",
         "lockExpirationTime", externalTask.getLockExpirationTime().getTime(), ClockUtil.getCurrentTime().getTime());
+  }
+
+  @Override
+  protected void execute(ExternalTaskEntity externalTask) {
     externalTask.extendLock(newLockTime);
   }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.BadUserRequestException;
+import org.camunda.bpm.engine.impl.cfg.CommandChecker;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExternalTaskManager;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.impl.util.EnsureUtil;
+
+/**
+ * Extends the locks of all external tasks of a worker which have not expired yet.
+ */
+public class ExtendLocksOfWorkerCmd implements Command<Void> {
+
+  protected String workerId;
+  protected long newLockDuration;
+
+  public ExtendLocksOfWorkerCmd(String workerId, long newLockDuration) {
+    this.workerId = workerId;
+    this.newLockDuration = newLockDuration;
+  }
+
+  @Override
+  public Void execute(CommandContext commandContext) {
+    EnsureUtil.ensureNotNull("workerId", workerId);
+    EnsureUtil.ensurePositive(BadUserRequestException.class, "lockTime", newLockDuration);
+
+    ExternalTaskManager externalTaskManager = commandContext.getExternalTaskManager();
+    Date now = ClockUtil.getCurrentTime();
+
+    if (isInstanceCheckRequired(commandContext)) {
+      List<String> processInstanceIds = externalTaskManager.findProcessInstanceIdsOfExtendableLocks(workerId, now);
+      for (String processInstanceId : processInstanceIds) {
+        for (CommandChecker checker : commandContext.getProcessEngineConfiguration().getCommandCheckers()) {
+          checker.checkUpdateProcessInstanceById(processInstanceId);
+        }
+      }
+    }
+
+    Date lockExpirationTime = new Date(now.getTime() + newLockDuration);
+    externalTaskManager.extendLocksByWorkerId(workerId, now, lockExpirationTime);
+
+    return null;
+  }
+
+  /**
+   * The process instances of the locked tasks only have to be fetched if they are checked.
+   */
+  protected boolean isInstanceCheckRequired(CommandContext commandContext) {
+    return (commandContext.getAuthorizationManager().isAuthorizationEnabled() && commandContext.isAuthorizationCheckEnabled())
+        || commandContext.getTenantManager().isTenantCheckEnabled();
+  }
+
+}
@@ -30,6 +30,7 @@ import org.camunda.bpm.engine.impl.externaltask.TopicFetchInstruction;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.entity.ExternalTaskEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ExternalTaskManager;
 import org.camunda.bpm.engine.impl.util.EnsureUtil;
 
 /**
@@ -65,9 +66,19 @@ public class FetchExternalTasksCmd implements Command<List<LockedExternalTask>>
       instruction.ensureVariablesInitialized();
     }
 
-    List<ExternalTaskEntity> externalTasks = commandContext
-      .getExternalTaskManager()
-      .selectExternalTasksForTopics(fetchInstructions.values(), maxResults, usePriority);
+    ExternalTaskManager externalTaskManager = commandContext.getExternalTaskManager();
+
+    List<ExternalTaskEntity> externalTasks;
+    if (commandContext.getProcessEngineConfiguration().isExternalTaskFairFetchEnabled()) {
+      externalTasks = externalTaskManager
+        .selectExternalTasksForTopicsFairly(fetchInstructions.values(), maxResults, usePriority);
+    }
+    else {
+      externalTasks = externalTaskManager
+        .selectExternalTasksForTopics(fetchInstructions.values(), maxResults, usePriority);
+    }
+
+    externalTaskManager.fetchVariablesByName(externalTasks, fetchInstructions);
 
     final List<LockedExternalTask> result = new ArrayList<LockedExternalTask>();
 
@@ -126,6 +137,7 @@ public class FetchExternalTasksCmd implements Command<List<LockedExternalTask>>
     for (TopicFetchInstruction instruction : fetchInstructions.values()) {
       EnsureUtil.ensureNotNull("topicName", instruction.getTopicName());
       EnsureUtil.ensurePositive("lockTime", instruction.getLockDuration());
+      EnsureUtil.ensurePositive("weight", (long) instruction.getWeight());
     }
   }
 }
@@ -42,23 +42,46 @@ public abstract class HandleExternalTaskCmd extends ExternalTaskCmd {
 
   @Override
   public Void execute(CommandContext commandContext) {
-    validateInput();    
+    ExternalTaskEntity externalTask = findAndValidateExternalTask(commandContext);
+
+    execute(externalTask);
+
+    return null;
+  }
+
+  /**
+   * Finds the external task and validates that the worker can handle it, without changing the task.
+   */
+  protected ExternalTaskEntity findAndValidateExternalTask(CommandContext commandContext) {
+    validateInput();
 
     ExternalTaskEntity externalTask = commandContext.getExternalTaskManager().findExternalTaskById(externalTaskId);
     EnsureUtil.ensureNotNull(NotFoundException.class,
         "Cannot find external task with id " + externalTaskId, "externalTask", externalTask);
 
-    if (!workerId.equals(externalTask.getWorkerId())) {      
+    if (!workerId.equals(externalTask.getWorkerId())) {
       throw new BadUserRequestException(getErrorMessageOnWrongWorkerAccess() + "'. It is locked by worker '" + externalTask.getWorkerId() + "'.");
     }
 
     for(CommandChecker checker : commandContext.getProcessEngineConfiguration().getCommandCheckers()) {
       checker.checkUpdateProcessInstanceById(externalTask.getProcessInstanceId());
     }
-    
-    execute(externalTask);
-    
-    return null;
+
+    validateExternalTask(externalTask);
+
+    return externalTask;
+  }
+
+  /**
+   * Validates the state of the external task before it is handled.
+   *
+   * @param externalTask the external task which is handled by the command
+   */
+  protected void validateExternalTask(ExternalTaskEntity externalTask) {
+  }
+
+  public String getExternalTaskId() {
+    return externalTaskId;
   }
   
   /**
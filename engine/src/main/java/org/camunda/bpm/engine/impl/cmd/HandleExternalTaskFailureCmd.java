@@ -55,6 +55,11 @@ public class HandleExternalTaskFailureCmd extends HandleExternalTaskCmd {
     this.retryDuration = retryDuration;
   }
 
+  @Override
+  protected void validateExternalTask(ExternalTaskEntity externalTask) {
+    externalTask.ensureActive();
+  }
+
   @Override
   public void execute(ExternalTaskEntity externalTask) {
     externalTask.failed(errorMessage, errorDetails, retries, retryDuration);
@@ -0,0 +1,101 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.camunda.bpm.engine.externaltask.HandleExternalTaskResult;
+import org.camunda.bpm.engine.externaltask.HandleExternalTasksBuilder;
+import org.camunda.bpm.engine.impl.externaltask.HandleExternalTaskResultImpl;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+
+public class HandleExternalTasksBuilderImpl implements HandleExternalTasksBuilder {
+
+  protected CommandExecutor commandExecutor;
+  protected String workerId;
+
+  protected List<HandleExternalTaskCmd> commands = new ArrayList<HandleExternalTaskCmd>();
+
+  public HandleExternalTasksBuilderImpl(CommandExecutor commandExecutor, String workerId) {
+    this.commandExecutor = commandExecutor;
+    this.workerId = workerId;
+  }
+
+  public HandleExternalTasksBuilder complete(String externalTaskId) {
+    return complete(externalTaskId, null, null);
+  }
+
+  public HandleExternalTasksBuilder complete(String externalTaskId, Map<String, Object> variables) {
+    return complete(externalTaskId, variables, null);
+  }
+
+  public HandleExternalTasksBuilder complete(String externalTaskId, Map<String, Object> variables, Map<String, Object> localVariables) {
+    commands.add(new CompleteExternalTaskCmd(externalTaskId, workerId, variables, localVariables));
+    return this;
+  }
+
+  public HandleExternalTasksBuilder extendLock(String externalTaskId, long newLockDuration) {
+    commands.add(new ExtendLockOnExternalTaskCmd(externalTaskId, workerId, newLockDuration));
+    return this;
+  }
+
+  public HandleExternalTasksBuilder handleFailure(String externalTaskId, String errorMessage, String errorDetails, int retries, long retryTimeout) {
+    commands.add(new HandleExternalTaskFailureCmd(externalTaskId, workerId, errorMessage, errorDetails, retries, retryTimeout));
+    return this;
+  }
+
+  public List<HandleExternalTaskResult> execute() {
+    try {
+      return commandExecutor.execute(new HandleExternalTasksCmd(commands));
+    }
+    catch (RuntimeException e) {
+      // handling one of the tasks failed and the transaction is rolled back;
+      // handle each task in its own transaction, so that it does not fail the other tasks
+      return executeSeparately();
+    }
+  }
+
+  protected List<HandleExternalTaskResult> executeSeparately() {
+    List<HandleExternalTaskResult> results = new ArrayList<HandleExternalTaskResult>(commands.size());
+    Set<String> externalTaskIds = new HashSet<String>();
+
+    for (HandleExternalTaskCmd command : commands) {
+      String externalTaskId = command.getExternalTaskId();
+
+      if (!externalTaskIds.add(externalTaskId)) {
+        results.add(HandleExternalTasksCmd.duplicateTask(externalTaskId));
+        continue;
+      }
+
+      try {
+        List<HandleExternalTaskResult> result = commandExecutor.execute(new HandleExternalTasksCmd(Collections.singletonList(command)));
+        results.addAll(result);
+      }
+      catch (RuntimeException e) {
+        results.add(HandleExternalTaskResultImpl.failed(externalTaskId, e.getMessage()));
+      }
+    }
+
+    return results;
+  }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.externaltask.HandleExternalTaskResult;
+import org.camunda.bpm.engine.impl.externaltask.HandleExternalTaskResultImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExternalTaskEntity;
+
+/**
+ * Handles multiple external tasks in one transaction. All tasks are validated
+ * before any of them is handled, so that invalid tasks can be reported per task
+ * without leaving the other tasks in an inconsistent state. If handling a valid
+ * task fails, the command fails; {@link HandleExternalTasksBuilderImpl} then
+ * handles each task in its own transaction.
+ */
+public class HandleExternalTasksCmd implements Command<List<HandleExternalTaskResult>> {
+
+  protected List<HandleExternalTaskCmd> commands;
+
+  public HandleExternalTasksCmd(List<HandleExternalTaskCmd> commands) {
+    this.commands = commands;
+  }
+
+  public List<HandleExternalTaskResult> execute(CommandContext commandContext) {
+    List<HandleExternalTaskResult> results = new ArrayList<HandleExternalTaskResult>(commands.size());
+    List<ExternalTaskEntity> externalTasks = new ArrayList<ExternalTaskEntity>(commands.size());
+    Set<String> externalTaskIds = new HashSet<String>();
+
+    for (HandleExternalTaskCmd command : commands) {
+      String externalTaskId = command.getExternalTaskId();
+      ExternalTaskEntity externalTask = null;
+
+      if (!externalTaskIds.add(externalTaskId)) {
+        results.add(duplicateTask(externalTaskId));
+      }
+      else {
+        try {
+          externalTask = command.findAndValidateExternalTask(commandContext);
+          results.add(HandleExternalTaskResultImpl.successful(externalTaskId));
+        }
+        catch (ProcessEngineException e) {
+          results.add(HandleExternalTaskResultImpl.failed(externalTaskId, e.getMessage()));
+        }
+      }
+
+      externalTasks.add(externalTask);
+    }
+
+    for (int i = 0; i < commands.size(); i++) {
+      ExternalTaskEntity externalTask = externalTasks.get(i);
+      if (externalTask != null) {
+        commands.get(i).execute(externalTask);
+      }
+    }
+
+    return results;
+  }
+
+  public static HandleExternalTaskResult duplicateTask(String externalTaskId) {
+    return HandleExternalTaskResultImpl.failed(externalTaskId,
+        "External task " + externalTaskId + " is handled more than once in the same batch");
+  }
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd.optimize;
+
+import java.io.OutputStream;
+import java.util.Date;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+
+public class OptimizeExportCompletedHistoricActivityInstancesCmd implements Command<Long> {
+
+  protected Date finishedAfter;
+  protected OutputStream outputStream;
+
+  public OptimizeExportCompletedHistoricActivityInstancesCmd(Date finishedAfter, OutputStream outputStream) {
+    this.finishedAfter = finishedAfter;
+    this.outputStream = outputStream;
+  }
+
+  public Long execute(CommandContext commandContext) {
+    return commandContext.getOptimizeManager().exportCompletedHistoricActivityInstances(finishedAfter, outputStream);
+  }
+
+}
@@ -90,6 +90,16 @@ public abstract class AbstractVariableScope implements Serializable, VariableSco
     return variableMap;
   }
 
+  /**
+   * Returns the variables with the given names. Only these variables are fetched
+   * from the scopes which have not loaded all of their variables yet.
+   */
+  public VariableMapImpl getVariablesTyped(Collection<String> variableNames, boolean deserializeValues) {
+    VariableMapImpl variableMap = new VariableMapImpl();
+    collectVariables(variableMap, variableNames, false, deserializeValues);
+    return variableMap;
+  }
+
   public VariableMapImpl getVariablesLocal() {
     return getVariablesLocalTyped();
   }
@@ -104,6 +114,16 @@ public abstract class AbstractVariableScope implements Serializable, VariableSco
     return variables;
   }
 
+  /**
+   * Returns the local variables with the given names. Only these variables are
+   * fetched if the scope has not loaded all of its variables yet.
+   */
+  public VariableMapImpl getVariablesLocalTyped(Collection<String> variableNames, boolean deserializeValues) {
+    VariableMapImpl variables = new VariableMapImpl();
+    collectVariables(variables, variableNames, true, deserializeValues);
+    return variables;
+  }
+
   public void collectVariables(VariableMapImpl resultVariables, Collection<String> variableNames, boolean isLocal, boolean deserializeValues) {
     boolean collectAll = (variableNames == null);
 
@@ -117,7 +137,7 @@ public abstract class AbstractVariableScope implements Serializable, VariableSco
     if(!isLocal) {
       AbstractVariableScope parentScope = getParentVariableScope();
       // Do not propagate to parent if all variables in 'variableNames' are already collected!
-      if(parentScope != null && (collectAll || !resultVariables.keySet().equals(variableNames))) {
+      if(parentScope != null && (collectAll || !resultVariables.keySet().containsAll(variableNames))) {
         parentScope.collectVariables(resultVariables, variableNames, isLocal, deserializeValues);
       }
     }
@@ -19,6 +19,7 @@ package org.camunda.bpm.engine.impl.core.variable.scope;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -35,9 +36,23 @@ import org.camunda.bpm.engine.impl.core.variable.CoreVariableInstance;
  */
 public class VariableStore<T extends CoreVariableInstance> {
 
+  /**
+   * Number of single variables which are fetched by name before the store is
+   * initialized with all variables instead. Reading many variables one by one
+   * would otherwise cost one query per variable.
+   */
+  public static final int MAX_SINGLE_FETCHES_BY_NAME = 3;
+
   protected VariablesProvider<T> variablesProvider;
   protected Map<String, T> variables;
 
+  /**
+   * Variables which have been fetched by name as long as the store is not initialized.
+   * A <code>null</code> value marks a variable which does not exist.
+   */
+  protected Map<String, T> variablesByName = new HashMap<String, T>();
+  protected int singleFetchesByName;
+
   protected Map<String, T> removedVariables = new HashMap<String, T>();
 
   protected List<VariableStoreObserver<T>> observers;
@@ -62,6 +77,8 @@ public class VariableStore<T extends CoreVariableInstance> {
     }
     else {
       this.variablesProvider = variablesProvider;
+      this.variablesByName.clear();
+      this.singleFetchesByName = 0;
     }
 
   }
@@ -90,21 +107,100 @@ public class VariableStore<T extends CoreVariableInstance> {
       // in this case we don't initialize the variables map,
       // otherwise it would most likely contain only a subset
       // of existing variables
-      for (T variable : variablesProvider.provideVariables(variableNames)) {
-        result.put(variable.getName(), variable);
+      fetchVariablesByName(variableNames);
+
+      for (String variableName : variableNames) {
+        T variable = variablesByName.get(variableName);
+        if (variable != null) {
+          result.put(variableName, variable);
+        }
       }
     }
 
     return result;
   }
 
+  /**
+   * Fetches the variables with the given names which have not been fetched yet.
+   */
+  protected void fetchVariablesByName(Collection<String> variableNames) {
+    List<String> missingVariableNames = new ArrayList<String>();
+    for (String variableName : variableNames) {
+      if (!variablesByName.containsKey(variableName)) {
+        missingVariableNames.add(variableName);
+      }
+    }
+
+    if (!missingVariableNames.isEmpty()) {
+      for (String variableName : missingVariableNames) {
+        variablesByName.put(variableName, null);
+      }
+
+      for (T variable : variablesProvider.provideVariables(missingVariableNames)) {
+        variablesByName.put(variable.getName(), variable);
+      }
+    }
+  }
+
+  /**
+   * Registers variables with the given names which have been fetched for this store
+   * elsewhere, e.g. together with the variables of other scopes. Names without a variable
+   * are registered as not existing. Has no effect for names which have been fetched already
+   * and if the store is initialized.
+   */
+  public void addFetchedVariables(Collection<String> variableNames, Collection<T> fetchedVariables) {
+    if (isInitialized()) {
+      return;
+    }
+
+    Set<String> missingVariableNames = new HashSet<String>();
+    for (String variableName : variableNames) {
+      if (!variablesByName.containsKey(variableName)) {
+        missingVariableNames.add(variableName);
+        variablesByName.put(variableName, null);
+      }
+    }
+
+    if (fetchedVariables != null) {
+      for (T variable : fetchedVariables) {
+        if (missingVariableNames.contains(variable.getName())) {
+          variablesByName.put(variable.getName(), variable);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the variable with the given name without initializing the store
+   * with all variables, if it has not been initialized yet. After
+   * {@link #MAX_SINGLE_FETCHES_BY_NAME} variables have been fetched one by one,
+   * the store is initialized with all variables on the next miss.
+   */
+  protected T getVariableByName(String name) {
+    if (!isInitialized() && !variablesByName.containsKey(name)) {
+      if (singleFetchesByName < MAX_SINGLE_FETCHES_BY_NAME) {
+        singleFetchesByName++;
+        fetchVariablesByName(Collections.singletonList(name));
+      }
+      else {
+        forceInitialization();
+      }
+    }
+
+    if (isInitialized()) {
+      return variables.get(name);
+    }
+    else {
+      return variablesByName.get(name);
+    }
+  }
+
   public T getRemovedVariable(String name) {
     return removedVariables.get(name);
   }
 
   public T getVariable(String name) {
-
-    return getVariablesMap().get(name);
+    return getVariableByName(name);
   }
 
   public List<T> getVariables() {
@@ -149,7 +245,12 @@ public class VariableStore<T extends CoreVariableInstance> {
   }
 
   public boolean containsKey(String key) {
-    return getVariablesMap().containsKey(key);
+    if (isInitialized()) {
+      return variables.containsKey(key);
+    }
+    else {
+      return getVariableByName(key) != null;
+    }
   }
 
   public Set<String> getKeys() {
@@ -167,6 +268,8 @@ public class VariableStore<T extends CoreVariableInstance> {
       for (T variable : variablesProvider.provideVariables()) {
         variables.put(variable.getName(), variable);
       }
+
+      variablesByName.clear();
     }
   }
 
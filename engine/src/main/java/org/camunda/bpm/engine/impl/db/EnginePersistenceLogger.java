@@ -743,4 +743,12 @@ public class EnginePersistenceLogger extends ProcessEngineLogger {
         + "Failed operation: {}",
         operation));
   }
+
+  public void skipLockedNotSupported(String databaseType, String databaseVersion) {
+    logWarn(
+        "090",
+        "The database '{}' in version '{}' does not support FOR UPDATE SKIP LOCKED; "
+        + "the engine configuration property 'externalTaskSkipLockedEnabled' is ignored",
+        databaseType, databaseVersion);
+  }
 }
@@ -18,6 +18,7 @@ package org.camunda.bpm.engine.impl.db;
 
 import java.util.List;
 
+import org.apache.ibatis.session.ResultHandler;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation.State;
 import org.camunda.bpm.engine.impl.interceptor.Session;
@@ -58,6 +59,12 @@ public interface PersistenceSession extends Session {
 
   List<?> selectList(String statement, Object parameter);
 
+  /**
+   * Passes each row of the result to the given handler instead of collecting
+   * the complete result in memory.
+   */
+  void selectWithResultHandler(String statement, Object parameter, ResultHandler<?> resultHandler);
+
   <T extends DbEntity> T selectById(Class<T> type, String id);
 
   Object selectOne(String statement, Object parameter);
@@ -32,6 +32,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import org.apache.ibatis.session.ResultHandler;
 import org.camunda.bpm.engine.OptimisticLockingException;
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.impl.DeploymentQueryImpl;
@@ -182,6 +183,14 @@ public class DbEntityManager implements Session, EntityLoadListener {
     return filterLoadedObjects(loadedObjects);
   }
 
+  /**
+   * Streams the result of the given statement to the handler. The loaded objects
+   * bypass the entity cache, so they are neither tracked nor flushed.
+   */
+  public void selectWithResultHandler(String statement, Object parameter, ResultHandler<?> resultHandler) {
+    persistenceSession.selectWithResultHandler(statement, new ListQueryParameterObject(parameter, 0, Integer.MAX_VALUE), resultHandler);
+  }
+
   public Object selectOne(String statement, Object parameter) {
     Object result = persistenceSession.selectOne(statement, parameter);
     if (result instanceof DbEntity) {
@@ -37,6 +37,7 @@ import java.util.Map;
 
 import org.apache.ibatis.executor.BatchResult;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.SqlSession;
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
@@ -101,6 +102,11 @@ public abstract class DbSqlSession extends AbstractPersistenceSession {
     return resultList;
   }
 
+  public void selectWithResultHandler(String statement, Object parameter, ResultHandler<?> resultHandler) {
+    statement = dbSqlSessionFactory.mapStatement(statement);
+    sqlSession.select(statement, parameter, resultHandler);
+  }
+
   @SuppressWarnings("unchecked")
   public <T extends DbEntity> T selectById(Class<T> type, String id) {
     String selectStatement = dbSqlSessionFactory.getSelectStatement(type);
@@ -17,14 +17,20 @@
 package org.camunda.bpm.engine.impl.db.sql;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.ibatis.session.SqlSessionFactory;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.cfg.IdGenerator;
 import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
 import org.camunda.bpm.engine.impl.interceptor.Session;
 import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
 import org.camunda.bpm.engine.impl.util.ClassNameUtil;
@@ -216,6 +222,7 @@ public class DbSqlSessionFactory implements SessionFactory {
       constants.put("constant.event", "'event'");
       constants.put("constant.op_message", "CONCAT(NEW_VALUE_, '_|_', PROPERTY_)");
       constants.put("constant_for_update", "for update");
+      constants.put("constant_for_update_skip_locked", "for update skip locked");
       constants.put("constant.datepart.quarter", "QUARTER");
       constants.put("constant.datepart.month", "MONTH");
       constants.put("constant.datepart.minute", "MINUTE");
@@ -305,6 +312,7 @@ public class DbSqlSessionFactory implements SessionFactory {
     constants.put("constant.event", "'event'");
     constants.put("constant.op_message", "NEW_VALUE_ || '_|_' || PROPERTY_");
     constants.put("constant_for_update", "for update");
+    constants.put("constant_for_update_skip_locked", "for update skip locked");
     constants.put("constant.datepart.quarter", "QUARTER");
     constants.put("constant.datepart.month", "MONTH");
     constants.put("constant.datepart.minute", "MINUTE");
@@ -348,6 +356,7 @@ public class DbSqlSessionFactory implements SessionFactory {
     databaseSpecificCollationForCaseSensitivity.put(ORACLE, "");
 
     addDatabaseSpecificStatement(ORACLE, "selectHistoricProcessInstanceDurationReport", "selectHistoricProcessInstanceDurationReport_oracle");
+    addDatabaseSpecificStatement(ORACLE, "selectHistoricProcessInstanceDurationReportFromRollup", "selectHistoricProcessInstanceDurationReportFromRollup_oracle");
     addDatabaseSpecificStatement(ORACLE, "selectHistoricTaskInstanceDurationReport", "selectHistoricTaskInstanceDurationReport_oracle");
     addDatabaseSpecificStatement(ORACLE, "selectHistoricTaskInstanceCountByTaskNameReport", "selectHistoricTaskInstanceCountByTaskNameReport_oracle");
     addDatabaseSpecificStatement(ORACLE, "selectFilterByQueryCriteria", "selectFilterByQueryCriteria_oracleDb2");
@@ -378,6 +387,7 @@ public class DbSqlSessionFactory implements SessionFactory {
     constants.put("constant.event", "cast('event' as nvarchar2(255))");
     constants.put("constant.op_message", "NEW_VALUE_ || '_|_' || PROPERTY_");
     constants.put("constant_for_update", "for update");
+    constants.put("constant_for_update_skip_locked", "for update skip locked");
     constants.put("constant.datepart.quarter", "'Q'");
     constants.put("constant.datepart.month", "'MM'");
     constants.put("constant.datepart.minute", "'MI'");
@@ -517,10 +527,13 @@ public class DbSqlSessionFactory implements SessionFactory {
     addDatabaseSpecificStatement(MSSQL, "selectEventSubscriptionsByNameAndExecution", "selectEventSubscriptionsByNameAndExecution_mssql");
     addDatabaseSpecificStatement(MSSQL, "selectEventSubscriptionsByExecutionAndType", "selectEventSubscriptionsByExecutionAndType_mssql");
     addDatabaseSpecificStatement(MSSQL, "selectHistoricDecisionInstancesByNativeQuery", "selectHistoricDecisionInstancesByNativeQuery_mssql_or_db2");
+    addDatabaseSpecificStatement(MSSQL, "selectExternalTaskIdsForUpdateSkipLocked", "selectExternalTaskIdsForUpdateSkipLocked_mssql");
 
     constants = new HashMap<>();
     constants.put("constant.event", "'event'");
     constants.put("constant.op_message", "NEW_VALUE_ + '_|_' + PROPERTY_");
+    // the mssql statement locks with table hints instead
+    constants.put("constant_for_update_skip_locked", "");
     constants.put("constant.datepart.quarter", "QUARTER");
     constants.put("constant.datepart.month", "MONTH");
     constants.put("constant.datepart.minute", "MINUTE");
@@ -531,6 +544,12 @@ public class DbSqlSessionFactory implements SessionFactory {
     dbSpecificConstants.put(MSSQL, constants);
   }
 
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  // MariaDB reports its version with this prefix to clients of the MySQL protocol
+  protected static final String MARIADB_VERSION_PREFIX = "5.5.5-";
+  protected static final Pattern VERSION_PATTERN = Pattern.compile("(\\d+)\\.(\\d+)");
+
   protected String databaseType;
   protected String databaseTablePrefix = "";
   /**
@@ -554,6 +573,9 @@ public class DbSqlSessionFactory implements SessionFactory {
 
   protected boolean jdbcBatchProcessing;
 
+  // determined with the first session which asks for it
+  protected volatile Boolean skipLockedSupported;
+
   public DbSqlSessionFactory(boolean jdbcBatchProcessing) {
     this.jdbcBatchProcessing = jdbcBatchProcessing;
   }
@@ -620,6 +642,82 @@ public class DbSqlSessionFactory implements SessionFactory {
     return (mappedStatement!=null ? mappedStatement : statement);
   }
 
+  /**
+   * @return true if rows can be locked with <code>${constant_for_update_skip_locked}</code>,
+   *   skipping the rows that are locked by other transactions; the version of the database
+   *   is checked with the connection of the given session once
+   */
+  public boolean isSkipLockedSupported(DbSqlSession dbSqlSession) {
+    Boolean supported = skipLockedSupported;
+    if (supported == null) {
+      supported = checkSkipLockedSupported(dbSqlSession);
+      skipLockedSupported = supported;
+    }
+    return supported;
+  }
+
+  protected boolean checkSkipLockedSupported(DbSqlSession dbSqlSession) {
+    Map<String, String> constants = dbSpecificConstants.get(databaseType);
+    if (constants == null || !constants.containsKey("constant_for_update_skip_locked")) {
+      return false;
+    }
+
+    // PostgreSQL 9.5, MySQL 8.0 and MariaDB 10.6 introduced SKIP LOCKED
+    int requiredMajorVersion;
+    int requiredMinorVersion;
+    if (POSTGRES.equals(databaseType)) {
+      requiredMajorVersion = 9;
+      requiredMinorVersion = 5;
+    }
+    else if (MYSQL.equals(databaseType)) {
+      requiredMajorVersion = 8;
+      requiredMinorVersion = 0;
+    }
+    else if (MARIADB.equals(databaseType)) {
+      requiredMajorVersion = 10;
+      requiredMinorVersion = 6;
+    }
+    else {
+      return true;
+    }
+
+    String databaseVersion = null;
+    try {
+      DatabaseMetaData metaData = dbSqlSession.getSqlSession().getConnection().getMetaData();
+      databaseVersion = metaData.getDatabaseProductVersion();
+    }
+    catch (SQLException e) {
+      // treated as an unknown version
+    }
+
+    if (!isVersionAtLeast(databaseVersion, requiredMajorVersion, requiredMinorVersion)) {
+      LOG.skipLockedNotSupported(databaseType, databaseVersion);
+      return false;
+    }
+
+    return true;
+  }
+
+  protected boolean isVersionAtLeast(String databaseVersion, int requiredMajorVersion, int requiredMinorVersion) {
+    if (databaseVersion == null) {
+      return false;
+    }
+
+    if (databaseVersion.startsWith(MARIADB_VERSION_PREFIX)) {
+      databaseVersion = databaseVersion.substring(MARIADB_VERSION_PREFIX.length());
+    }
+
+    Matcher matcher = VERSION_PATTERN.matcher(databaseVersion);
+    if (!matcher.find()) {
+      return false;
+    }
+
+    int majorVersion = Integer.parseInt(matcher.group(1));
+    int minorVersion = Integer.parseInt(matcher.group(2));
+    return majorVersion > requiredMajorVersion
+        || (majorVersion == requiredMajorVersion && minorVersion >= requiredMinorVersion);
+  }
+
   // customized getters and setters ///////////////////////////////////////////
 
   public void setDatabaseType(String databaseType) {
@@ -0,0 +1,143 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.externaltask;
+
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyEntity;
+import org.camunda.bpm.engine.impl.util.CompositeCondition;
+
+/**
+ * Exchanges external task notifications through a counter in the property table
+ * which is shared by all nodes of the cluster. Publications are collected and
+ * written at most once per poll interval; every node polls the counter and signals
+ * its waiting fetch and lock requests when it changed. The property is created
+ * with the schema, so that publishing nodes never compete for inserting it.
+ */
+public class DbExternalTaskNotificationChannel implements ExternalTaskNotificationChannel {
+
+  protected static final ExternalTaskLogger LOG = ProcessEngineLogger.EXTERNAL_TASK_LOGGER;
+
+  public static final String NOTIFICATION_PROPERTY_NAME = "external.task.notification";
+
+  protected long pollIntervalInMillis = 100;
+
+  protected CommandExecutor commandExecutor;
+  protected CompositeCondition condition;
+
+  protected AtomicBoolean publicationPending = new AtomicBoolean(false);
+  protected boolean polled = false;
+  protected String lastSeenValue;
+
+  private Timer timer;
+
+  public synchronized void start(CommandExecutor commandExecutor, CompositeCondition condition) {
+    if (timer != null) {
+      return;
+    }
+
+    this.commandExecutor = commandExecutor;
+    this.condition = condition;
+
+    timer = new Timer("Camunda External Task Notification Channel", true);
+    timer.schedule(new TimerTask() {
+      public void run() {
+        exchangeNotifications();
+      }
+    }, 0, pollIntervalInMillis);
+  }
+
+  public void publish() {
+    publicationPending.set(true);
+  }
+
+  public synchronized void stop() {
+    if (timer != null) {
+      timer.cancel();
+      timer = null;
+    }
+  }
+
+  protected void exchangeNotifications() {
+    try {
+      if (publicationPending.getAndSet(false)) {
+        writeNotification();
+      }
+
+      String value = commandExecutor.execute(new ReadNotificationCmd());
+
+      if (polled && value != null && !value.equals(lastSeenValue)) {
+        condition.signalAll();
+      }
+      lastSeenValue = value;
+      polled = true;
+    }
+    catch (Exception e) {
+      LOG.exceptionWhileExchangingNotifications(e);
+    }
+  }
+
+  protected void writeNotification() {
+    try {
+      commandExecutor.execute(new WriteNotificationCmd());
+    }
+    catch (OptimisticLockingException e) {
+      // another node published at the same time, which changes the counter as well
+    }
+  }
+
+  public long getPollIntervalInMillis() {
+    return pollIntervalInMillis;
+  }
+
+  public void setPollIntervalInMillis(long pollIntervalInMillis) {
+    this.pollIntervalInMillis = pollIntervalInMillis;
+  }
+
+  protected static class ReadNotificationCmd implements Command<String> {
+
+    public String execute(CommandContext commandContext) {
+      PropertyEntity property = commandContext.getPropertyManager().findPropertyById(NOTIFICATION_PROPERTY_NAME);
+      return property != null ? property.getValue() : null;
+    }
+  }
+
+  protected static class WriteNotificationCmd implements Command<Void> {
+
+    public Void execute(CommandContext commandContext) {
+      PropertyEntity property = commandContext.getPropertyManager().findPropertyById(NOTIFICATION_PROPERTY_NAME);
+
+      if (property == null) {
+        LOG.noNotificationPropertyFound(NOTIFICATION_PROPERTY_NAME);
+      }
+      else {
+        long counter = Long.parseLong(property.getValue());
+        property.setValue(Long.toString(counter + 1));
+      }
+
+      return null;
+    }
+  }
+
+}
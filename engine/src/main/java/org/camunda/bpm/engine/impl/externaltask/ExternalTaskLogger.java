@@ -40,4 +40,39 @@ public class ExternalTaskLogger extends ProcessEngineLogger {
         "Could not determine priority for external task created in context of execution {}. Using default priority {}",
         execution, value, e);
   }
+
+  public void exceptionWhileExchangingNotifications(Exception e) {
+    logWarn(
+        "002",
+        "Exception while exchanging external task notifications with other nodes: {}",
+        e.getMessage(), e);
+  }
+
+  public void exceptionWhileFetchingExternalTasks(String workerId, Exception e) {
+    logWarn(
+        "003",
+        "Exception while fetching external tasks for worker '{}': {}",
+        workerId, e.getMessage(), e);
+  }
+
+  public void exceptionWhileHandlingExternalTask(String externalTaskId, String topicName, Exception e) {
+    logWarn(
+        "004",
+        "Exception while handling external task {} of topic '{}': {}",
+        externalTaskId, topicName, e.getMessage(), e);
+  }
+
+  public void noNotificationPropertyFound(String propertyName) {
+    logWarn(
+        "005",
+        "No external task notification property '{}' found in database, notifications are not published",
+        propertyName);
+  }
+
+  public void unlockingUnhandledExternalTasks(String workerId, long stopTimeout, int taskCount) {
+    logWarn(
+        "006",
+        "External task worker '{}' did not finish its handlers within {} ms after it was stopped, unlocking {} external tasks which were not handled",
+        workerId, stopTimeout, taskCount);
+  }
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.externaltask;
+
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.util.CompositeCondition;
+
+/**
+ * Notifies the process engines on other cluster nodes that external tasks
+ * became available, so that long-polling fetch and lock requests waiting there
+ * are answered right away instead of on their next periodic fetch.
+ */
+public interface ExternalTaskNotificationChannel {
+
+  /**
+   * Starts receiving the notifications published by other nodes.
+   *
+   * @param commandExecutor the command executor of the process engine
+   * @param condition signalled for every notification received
+   */
+  void start(CommandExecutor commandExecutor, CompositeCondition condition);
+
+  /**
+   * Publishes that external tasks became available on this node. Invoked after
+   * the transaction which created or unlocked the tasks committed; must not block.
+   */
+  void publish();
+
+  void stop();
+
+}
@@ -141,5 +141,10 @@ public class ExternalTaskQueryTopicBuilderImpl implements ExternalTaskQueryTopic
     return this;
   }
 
+  public ExternalTaskQueryTopicBuilder weight(int weight) {
+    currentInstruction.setWeight(weight);
+    return this;
+  }
+
 
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.externaltask;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.camunda.bpm.engine.externaltask.ExternalTaskHandler;
+import org.camunda.bpm.engine.externaltask.ExternalTaskWorker;
+import org.camunda.bpm.engine.externaltask.ExternalTaskWorkerBuilder;
+import org.camunda.bpm.engine.impl.ExternalTaskServiceImpl;
+import org.camunda.bpm.engine.impl.util.EnsureUtil;
+
+public class ExternalTaskWorkerBuilderImpl implements ExternalTaskWorkerBuilder {
+
+  public static final int DEFAULT_MAX_TASKS = 10;
+  public static final int DEFAULT_POOL_SIZE = 3;
+  public static final int DEFAULT_QUEUE_CAPACITY = 10;
+  public static final long DEFAULT_ASYNC_RESPONSE_TIMEOUT = 30L * 1000;
+  public static final long DEFAULT_STOP_TIMEOUT = 10L * 1000;
+
+  protected ExternalTaskServiceImpl externalTaskService;
+  protected String workerId;
+
+  protected Map<String, Long> lockDurations = new LinkedHashMap<String, Long>();
+  protected Map<String, ExternalTaskHandler> handlers = new LinkedHashMap<String, ExternalTaskHandler>();
+
+  protected int maxTasks = DEFAULT_MAX_TASKS;
+  protected boolean usePriority = false;
+  protected int poolSize = DEFAULT_POOL_SIZE;
+  protected int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+  protected long asyncResponseTimeout = DEFAULT_ASYNC_RESPONSE_TIMEOUT;
+  protected long stopTimeout = DEFAULT_STOP_TIMEOUT;
+
+  public ExternalTaskWorkerBuilderImpl(ExternalTaskServiceImpl externalTaskService, String workerId) {
+    this.externalTaskService = externalTaskService;
+    this.workerId = workerId;
+  }
+
+  public ExternalTaskWorkerBuilder topic(String topicName, long lockDuration, ExternalTaskHandler handler) {
+    EnsureUtil.ensureNotNull("topicName", topicName);
+    EnsureUtil.ensurePositive("lockDuration", lockDuration);
+    EnsureUtil.ensureNotNull("handler", handler);
+
+    lockDurations.put(topicName, lockDuration);
+    handlers.put(topicName, handler);
+    return this;
+  }
+
+  public ExternalTaskWorkerBuilder maxTasks(int maxTasks) {
+    this.maxTasks = maxTasks;
+    return this;
+  }
+
+  public ExternalTaskWorkerBuilder usePriority(boolean usePriority) {
+    this.usePriority = usePriority;
+    return this;
+  }
+
+  public ExternalTaskWorkerBuilder poolSize(int poolSize) {
+    this.poolSize = poolSize;
+    return this;
+  }
+
+  public ExternalTaskWorkerBuilder queueCapacity(int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+    return this;
+  }
+
+  public ExternalTaskWorkerBuilder asyncResponseTimeout(long asyncResponseTimeout) {
+    this.asyncResponseTimeout = asyncResponseTimeout;
+    return this;
+  }
+
+  public ExternalTaskWorkerBuilder stopTimeout(long stopTimeout) {
+    this.stopTimeout = stopTimeout;
+    return this;
+  }
+
+  public ExternalTaskWorker build() {
+    EnsureUtil.ensureNotNull("workerId", workerId);
+    EnsureUtil.ensureNotEmpty("topics", handlers);
+    EnsureUtil.ensurePositive("maxTasks", (long) maxTasks);
+    EnsureUtil.ensurePositive("poolSize", (long) poolSize);
+    EnsureUtil.ensureGreaterThanOrEqual("queueCapacity", queueCapacity, 0);
+    EnsureUtil.ensurePositive("asyncResponseTimeout", asyncResponseTimeout);
+    EnsureUtil.ensureGreaterThanOrEqual("stopTimeout", stopTimeout, 0);
+
+    return new ExternalTaskWorkerImpl(this);
+  }
+
+  public ExternalTaskServiceImpl getExternalTaskService() {
+    return externalTaskService;
+  }
+
+  public String getWorkerId() {
+    return workerId;
+  }
+
+  public Map<String, Long> getLockDurations() {
+    return lockDurations;
+  }
+
+  public Map<String, ExternalTaskHandler> getHandlers() {
+    return handlers;
+  }
+
+  public int getMaxTasks() {
+    return maxTasks;
+  }
+
+  public boolean isUsePriority() {
+    return usePriority;
+  }
+
+  public int getPoolSize() {
+    return poolSize;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public long getAsyncResponseTimeout() {
+    return asyncResponseTimeout;
+  }
+
+  public long getStopTimeout() {
+    return stopTimeout;
+  }
+
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.externaltask;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.camunda.bpm.engine.externaltask.ExternalTaskHandler;
+import org.camunda.bpm.engine.externaltask.ExternalTaskQueryBuilder;
+import org.camunda.bpm.engine.externaltask.ExternalTaskWorker;
+import org.camunda.bpm.engine.externaltask.LockedExternalTask;
+import org.camunda.bpm.engine.impl.ExternalTaskServiceImpl;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.util.SingleConsumerCondition;
+
+/**
+ * Fetches external tasks in a dedicated acquisition thread and executes the handlers on a
+ * fixed thread pool. The number of fetched tasks which are not handled yet is bounded by
+ * the pool size plus the queue capacity. In addition, the worker measures how long the
+ * handlers take and fetches only as many tasks as it can handle within half of the lock
+ * duration, so that the locks of fetched tasks do not expire while they are waiting.
+ * When the worker is stopped, fetched tasks whose handlers have not started within the
+ * stop timeout are unlocked. Started workers are stopped when the process engine is closed.
+ */
+public class ExternalTaskWorkerImpl implements ExternalTaskWorker {
+
+  protected static final ExternalTaskLogger LOG = ProcessEngineLogger.EXTERNAL_TASK_LOGGER;
+
+  protected static final double LOCK_DURATION_UTILIZATION = 0.5;
+
+  // weight of the latest handler duration in the moving average
+  protected static final double HANDLER_DURATION_SMOOTHING = 0.2;
+
+  protected ExternalTaskServiceImpl externalTaskService;
+  protected String workerId;
+  protected Map<String, Long> lockDurations;
+  protected Map<String, ExternalTaskHandler> handlers;
+  protected int maxTasks;
+  protected boolean usePriority;
+  protected int poolSize;
+  protected int capacity;
+  protected long asyncResponseTimeout;
+  protected long minLockDuration;
+  protected long stopTimeout;
+
+  protected volatile boolean isActive = false;
+  protected volatile boolean isWaitingForHandlers = false;
+
+  protected Thread acquisitionThread;
+  protected SingleConsumerCondition condition;
+  protected ThreadPoolExecutor executor;
+  protected Semaphore permits;
+
+  // in nanoseconds; negative until the first task is handled
+  protected double averageHandlerDuration = -1;
+
+  public ExternalTaskWorkerImpl(ExternalTaskWorkerBuilderImpl builder) {
+    this.externalTaskService = builder.getExternalTaskService();
+    this.workerId = builder.getWorkerId();
+    this.lockDurations = new LinkedHashMap<String, Long>(builder.getLockDurations());
+    this.handlers = new LinkedHashMap<String, ExternalTaskHandler>(builder.getHandlers());
+    this.maxTasks = builder.getMaxTasks();
+    this.usePriority = builder.isUsePriority();
+    this.poolSize = builder.getPoolSize();
+    this.capacity = builder.getPoolSize() + builder.getQueueCapacity();
+    this.asyncResponseTimeout = builder.getAsyncResponseTimeout();
+    this.minLockDuration = Collections.min(lockDurations.values());
+    this.stopTimeout = builder.getStopTimeout();
+  }
+
+  public synchronized void start() {
+    if (isActive) {
+      return;
+    }
+
+    isActive = true;
+
+    // the semaphore bounds the tasks which are not handled yet; the queue of the pool is not bounded itself,
+    // since a pool thread releases its permit before it takes the next task from the queue
+    permits = new Semaphore(capacity);
+    executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), createHandlerThreadFactory());
+
+    acquisitionThread = new Thread(new Runnable() {
+      public void run() {
+        acquireTasks();
+      }
+    }, "Camunda External Task Worker " + workerId);
+    // like the handler threads, the acquisition thread must not keep the JVM alive
+    acquisitionThread.setDaemon(true);
+
+    condition = new SingleConsumerCondition(acquisitionThread);
+    ProcessEngineImpl.EXT_TASK_CONDITIONS.addConsumer(condition);
+    externalTaskService.registerWorker(this);
+
+    acquisitionThread.start();
+  }
+
+  public void stop() {
+    Thread thread;
+
+    synchronized (this) {
+      if (!isActive) {
+        return;
+      }
+
+      isActive = false;
+      ProcessEngineImpl.EXT_TASK_CONDITIONS.removeConsumer(condition);
+      externalTaskService.unregisterWorker(this);
+      condition.signal();
+      thread = acquisitionThread;
+    }
+
+    try {
+      thread.join();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    stopHandlers();
+  }
+
+  /**
+   * Waits up to the stop timeout for the handlers of the fetched tasks. Afterwards, the tasks
+   * whose handlers have not started are unlocked and the running handlers are interrupted.
+   */
+  protected void stopHandlers() {
+    executor.shutdown();
+
+    boolean terminated = false;
+    try {
+      terminated = executor.awaitTermination(stopTimeout, TimeUnit.MILLISECONDS);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    if (!terminated) {
+      List<LockedExternalTask> unhandledTasks = new ArrayList<LockedExternalTask>();
+      for (Runnable invocation : executor.shutdownNow()) {
+        unhandledTasks.add(((HandlerInvocation) invocation).getExternalTask());
+        permits.release();
+      }
+
+      if (!unhandledTasks.isEmpty()) {
+        LOG.unlockingUnhandledExternalTasks(workerId, stopTimeout, unhandledTasks.size());
+      }
+
+      for (LockedExternalTask externalTask : unhandledTasks) {
+        try {
+          externalTaskService.unlock(externalTask.getId());
+        }
+        catch (Exception e) {
+          // the lock expires eventually
+          LOG.exceptionWhileHandlingExternalTask(externalTask.getId(), externalTask.getTopicName(), e);
+        }
+      }
+    }
+  }
+
+  protected ThreadFactory createHandlerThreadFactory() {
+    return new ThreadFactory() {
+      protected final AtomicInteger threadNumber = new AtomicInteger();
+
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "Camunda External Task Worker " + workerId + " Handler " + threadNumber.incrementAndGet());
+        // the handler threads must not keep the JVM alive if the worker is not stopped
+        thread.setDaemon(true);
+        return thread;
+      }
+    };
+  }
+
+  public boolean isActive() {
+    return isActive;
+  }
+
+  public String getWorkerId() {
+    return workerId;
+  }
+
+  /**
+   * @return the number of further tasks the worker can fetch before fetched tasks have to be handled
+   */
+  public int getFreeCapacity() {
+    return permits != null ? permits.availablePermits() : capacity;
+  }
+
+  protected void acquireTasks() {
+    while (isActive) {
+      int tasksToFetch = getTasksToFetch();
+
+      if (tasksToFetch == 0) {
+        waitForHandlers();
+        continue;
+      }
+
+      List<LockedExternalTask> externalTasks;
+      try {
+        externalTasks = fetchAndLock(tasksToFetch);
+      }
+      catch (Exception e) {
+        LOG.exceptionWhileFetchingExternalTasks(workerId, e);
+        externalTasks = Collections.emptyList();
+      }
+
+      for (LockedExternalTask externalTask : externalTasks) {
+        submit(externalTask);
+      }
+
+      if (externalTasks.isEmpty() && isActive) {
+        // like a long polling request, wait until new tasks are created or the timeout is reached
+        condition.await(asyncResponseTimeout);
+      }
+    }
+  }
+
+  protected List<LockedExternalTask> fetchAndLock(int tasksToFetch) {
+    ExternalTaskQueryBuilder fetchBuilder = externalTaskService.fetchAndLock(tasksToFetch, workerId, usePriority);
+
+    for (Map.Entry<String, Long> lockDuration : lockDurations.entrySet()) {
+      fetchBuilder.topic(lockDuration.getKey(), lockDuration.getValue());
+    }
+
+    return fetchBuilder.execute();
+  }
+
+  /**
+   * Returns the number of tasks which can be fetched: bounded by the free capacity of the pool
+   * and by the number of tasks the handlers are expected to handle within the lock duration,
+   * minus the tasks which are not handled yet.
+   */
+  protected int getTasksToFetch() {
+    int freeCapacity = permits.availablePermits();
+    int tasksToFetch = Math.min(maxTasks, freeCapacity);
+
+    double handlerDuration = getAverageHandlerDuration();
+    if (handlerDuration > 0) {
+      int pendingTasks = capacity - freeCapacity;
+      double lockDurationNanos = TimeUnit.MILLISECONDS.toNanos(minLockDuration) * LOCK_DURATION_UTILIZATION;
+      long handleableTasks = (long) (poolSize * lockDurationNanos / handlerDuration) - pendingTasks;
+
+      if (pendingTasks == 0) {
+        // fetch at least one task, even if the handlers are slower than the lock duration
+        handleableTasks = Math.max(handleableTasks, 1);
+      }
+
+      tasksToFetch = (int) Math.max(0, Math.min(tasksToFetch, handleableTasks));
+    }
+
+    return tasksToFetch;
+  }
+
+  protected void waitForHandlers() {
+    isWaitingForHandlers = true;
+    try {
+      // check again, in case a handler finished before it could see the flag
+      if (isActive && getTasksToFetch() == 0) {
+        condition.await(asyncResponseTimeout);
+      }
+    }
+    finally {
+      isWaitingForHandlers = false;
+    }
+  }
+
+  protected void submit(LockedExternalTask externalTask) {
+    ExternalTaskHandler handler = handlers.get(externalTask.getTopicName());
+
+    permits.acquireUninterruptibly();
+    executor.execute(new HandlerInvocation(handler, externalTask));
+  }
+
+  protected void handle(ExternalTaskHandler handler, LockedExternalTask externalTask) {
+    long start = System.nanoTime();
+
+    try {
+      handler.execute(externalTask, externalTaskService);
+    }
+    catch (Exception e) {
+      LOG.exceptionWhileHandlingExternalTask(externalTask.getId(), externalTask.getTopicName(), e);
+    }
+    finally {
+      recordHandlerDuration(System.nanoTime() - start);
+      permits.release();
+
+      if (isWaitingForHandlers) {
+        condition.signal();
+      }
+    }
+  }
+
+  protected synchronized void recordHandlerDuration(long duration) {
+    if (averageHandlerDuration < 0) {
+      averageHandlerDuration = duration;
+    }
+    else {
+      averageHandlerDuration += HANDLER_DURATION_SMOOTHING * (duration - averageHandlerDuration);
+    }
+  }
+
+  protected synchronized double getAverageHandlerDuration() {
+    return averageHandlerDuration;
+  }
+
+  protected class HandlerInvocation implements Runnable {
+
+    protected ExternalTaskHandler handler;
+    protected LockedExternalTask externalTask;
+
+    public HandlerInvocation(ExternalTaskHandler handler, LockedExternalTask externalTask) {
+      this.handler = handler;
+      this.externalTask = externalTask;
+    }
+
+    public void run() {
+      handle(handler, externalTask);
+    }
+
+    public LockedExternalTask getExternalTask() {
+      return externalTask;
+    }
+  }
+
+}
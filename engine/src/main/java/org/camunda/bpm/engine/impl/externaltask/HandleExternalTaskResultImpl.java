@@ -0,0 +1,56 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.externaltask;
+
+import org.camunda.bpm.engine.externaltask.HandleExternalTaskResult;
+
+public class HandleExternalTaskResultImpl implements HandleExternalTaskResult {
+
+  protected String externalTaskId;
+  protected String errorMessage;
+
+  protected HandleExternalTaskResultImpl(String externalTaskId, String errorMessage) {
+    this.externalTaskId = externalTaskId;
+    this.errorMessage = errorMessage;
+  }
+
+  public String getExternalTaskId() {
+    return externalTaskId;
+  }
+
+  public boolean isSuccessful() {
+    return errorMessage == null;
+  }
+
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+
+  public static HandleExternalTaskResultImpl successful(String externalTaskId) {
+    return new HandleExternalTaskResultImpl(externalTaskId, null);
+  }
+
+  public static HandleExternalTaskResultImpl failed(String externalTaskId, String errorMessage) {
+    return new HandleExternalTaskResultImpl(externalTaskId, errorMessage);
+  }
+
+  @Override
+  public String toString() {
+    return "HandleExternalTaskResultImpl [externalTaskId=" + externalTaskId + ", errorMessage=" + errorMessage + "]";
+  }
+
+}
@@ -34,6 +34,8 @@ public class TopicFetchInstruction implements Serializable {
 
   private static final long serialVersionUID = 1L;
 
+  public static final int DEFAULT_WEIGHT = 1;
+
   protected String topicName;
   protected String businessKey;
   protected String processDefinitionId;
@@ -48,6 +50,7 @@ public class TopicFetchInstruction implements Serializable {
   protected long lockDuration;
   protected boolean deserializeVariables = false;
   protected boolean localVariables = false;
+  protected int weight = DEFAULT_WEIGHT;
 
   public TopicFetchInstruction(String topicName, long lockDuration) {
     this.topicName = topicName;
@@ -172,4 +175,12 @@ public class TopicFetchInstruction implements Serializable {
     this.localVariables = localVariables;
   }
 
+  public int getWeight() {
+    return weight;
+  }
+
+  public void setWeight(int weight) {
+    this.weight = weight;
+  }
+
 }
@@ -16,7 +16,7 @@
  */
 package org.camunda.bpm.engine.impl.history.event;
 
-
+import org.camunda.bpm.engine.impl.util.JsonPatchUtil;
 
 /**
  * @author Daniel Meyer
@@ -42,6 +42,15 @@ public class HistoricVariableUpdateEventEntity extends HistoricDetailEventEntity
 
   protected String byteArrayId;
 
+  /**
+   * @return true if this update stores a Json patch against the previous update
+   *   of the variable instead of the full value
+   */
+  public boolean isJsonPatch() {
+    // the text value is not used by object values and marks the encoding of the bytes
+    return JsonPatchUtil.JSON_PATCH_DATA_FORMAT.equals(textValue);
+  }
+
   // getter / setters ////////////////////////////
 
   public String getSerializerName() {
@@ -16,19 +16,32 @@
  */
 package org.camunda.bpm.engine.impl.history.handler;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.camunda.bpm.engine.history.HistoricVariableInstance;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.history.HistoryLevel;
 import org.camunda.bpm.engine.impl.history.event.HistoricDecisionEvaluationEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoricDetailEventEntity;
 import org.camunda.bpm.engine.impl.history.event.HistoricScopeInstanceEvent;
 import org.camunda.bpm.engine.impl.history.event.HistoricVariableUpdateEventEntity;
 import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
 import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
 import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayManager;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricVariableInstanceEntity;
+import org.camunda.bpm.engine.impl.util.CompressionUtil;
+import org.camunda.bpm.engine.impl.util.JsonPatchUtil;
+import org.camunda.bpm.engine.impl.variable.serializer.TypedValueSerializer;
 import org.camunda.bpm.engine.repository.ResourceTypes;
+import org.camunda.bpm.engine.variable.Variables.SerializationDataFormats;
 
 /**
  * <p>History event handler that writes history events to the process engine
@@ -91,21 +104,38 @@ public class DbHistoryEventHandler implements HistoryEventHandler {
     // insert update only if history level = FULL
     if(shouldWriteHistoricDetail(historyEvent)) {
 
+      // the history event is passed on to other handlers, so a patch is stored in a copy
+      HistoricVariableUpdateEventEntity detail = createJsonPatchDetail(historyEvent);
+      if (detail == null) {
+        detail = historyEvent;
+      }
+
       // insert byte array entity (if applicable)
-      byte[] byteValue = historyEvent.getByteValue();
+      byte[] byteValue = detail.getByteValue();
       if(byteValue != null) {
+        int compressionThreshold = Context.getProcessEngineConfiguration().getByteArrayCompressionThreshold();
+        byte[] compressedValue = CompressionUtil.compress(byteValue, compressionThreshold);
+
         ByteArrayEntity byteArrayEntity = new ByteArrayEntity(historyEvent.getVariableName(), byteValue, ResourceTypes.HISTORY);
+        if (compressedValue != null) {
+          byteArrayEntity.setBytes(compressedValue);
+          byteArrayEntity.setCompressed(true);
+        }
         byteArrayEntity.setRootProcessInstanceId(historyEvent.getRootProcessInstanceId());
         byteArrayEntity.setRemovalTime(historyEvent.getRemovalTime());
 
-        Context
-        .getCommandContext()
-        .getByteArrayManager()
-        .insertByteArray(byteArrayEntity);
-        historyEvent.setByteArrayId(byteArrayEntity.getId());
+        ByteArrayManager byteArrayManager = Context.getCommandContext().getByteArrayManager();
+        if (Context.getProcessEngineConfiguration().isHistoryByteArrayDeduplicationEnabled()) {
+          String byteArrayId = byteArrayManager.insertHistoricDetailByteArray(historyEvent.getVariableInstanceId(), byteArrayEntity);
+          detail.setByteArrayId(byteArrayId);
+
+        } else {
+          byteArrayManager.insertByteArray(byteArrayEntity);
+          detail.setByteArrayId(byteArrayEntity.getId());
+        }
 
       }
-      dbEntityManager.insert(historyEvent);
+      dbEntityManager.insert(detail);
     }
 
     // always insert/update HistoricProcessVariableInstance
@@ -137,6 +167,144 @@ public class DbHistoryEventHandler implements HistoryEventHandler {
     }
   }
 
+  /**
+   * @return a copy of the history event which stores a Json patch from the previous value
+   *   of a Json object variable to the updated value, or <code>null</code> if the full value
+   *   should be stored
+   */
+  protected HistoricVariableUpdateEventEntity createJsonPatchDetail(HistoricVariableUpdateEventEntity historyEvent) {
+    ProcessEngineConfigurationImpl configuration = Context.getProcessEngineConfiguration();
+
+    // with a lower history level, not every update has a detail to apply the patch to
+    if (!configuration.isHistoryJsonPatchEnabled()
+        || configuration.getHistoryLevel() != HistoryLevel.HISTORY_LEVEL_FULL
+        || !historyEvent.isEventOfType(HistoryEventTypes.VARIABLE_INSTANCE_UPDATE)
+        || historyEvent.getByteValue() == null
+        || !isJsonSerializer(historyEvent.getSerializerName())) {
+      return null;
+    }
+
+    // the historic variable instance still holds the value of the previous update
+    HistoricVariableInstanceEntity historicVariableInstance = getDbEntityManager()
+        .selectById(HistoricVariableInstanceEntity.class, historyEvent.getVariableInstanceId());
+
+    if (historicVariableInstance == null
+        || !historyEvent.getSerializerName().equals(historicVariableInstance.getSerializerName())) {
+      return null;
+    }
+
+    // store the full value again after a number of patches, so that reading an update stays cheap
+    List<HistoricVariableUpdateEventEntity> previousUpdates = findVariableUpdatesSinceFullValue(historyEvent);
+    if (previousUpdates.isEmpty()
+        || previousUpdates.size() > configuration.getHistoryJsonPatchSnapshotInterval()) {
+      return null;
+    }
+
+    byte[] patch = JsonPatchUtil.createPatch(historicVariableInstance.getByteArrayValue(), historyEvent.getByteValue());
+    if (patch == null) {
+      return null;
+    }
+
+    // the size of all patches since the full value is kept in the long value of a patch
+    HistoricVariableUpdateEventEntity previousUpdate = previousUpdates.get(previousUpdates.size() - 1);
+    long patchesSize = patch.length;
+    if (previousUpdate.isJsonPatch() && previousUpdate.getLongValue() != null) {
+      patchesSize += previousUpdate.getLongValue();
+    }
+    if (patchesSize >= historyEvent.getByteValue().length) {
+      return null;
+    }
+
+    HistoricVariableUpdateEventEntity detail = copyVariableUpdate(historyEvent);
+    detail.setByteValue(patch);
+    detail.setTextValue(JsonPatchUtil.JSON_PATCH_DATA_FORMAT);
+    detail.setLongValue(patchesSize);
+    return detail;
+  }
+
+  /**
+   * @return the previous updates of the variable back to its latest full value, including
+   *   the ones inserted in this command, ordered by sequence counter
+   */
+  protected List<HistoricVariableUpdateEventEntity> findVariableUpdatesSinceFullValue(HistoricVariableUpdateEventEntity historyEvent) {
+    String variableInstanceId = historyEvent.getVariableInstanceId();
+
+    Map<String, HistoricVariableUpdateEventEntity> updatesById = new HashMap<String, HistoricVariableUpdateEventEntity>();
+    for (HistoricVariableUpdateEventEntity update : Context.getCommandContext()
+        .getHistoricDetailManager()
+        .findHistoricVariableUpdatesSinceFullValue(variableInstanceId, historyEvent.getSequenceCounter())) {
+      updatesById.put(update.getId(), update);
+    }
+    for (HistoricDetailEventEntity detail : getDbEntityManager().getCachedEntitiesByType(HistoricDetailEventEntity.class)) {
+      if (detail instanceof HistoricVariableUpdateEventEntity) {
+        HistoricVariableUpdateEventEntity update = (HistoricVariableUpdateEventEntity) detail;
+        if (variableInstanceId.equals(update.getVariableInstanceId())
+            && update.getSequenceCounter() < historyEvent.getSequenceCounter()) {
+          updatesById.put(update.getId(), update);
+        }
+      }
+    }
+
+    List<HistoricVariableUpdateEventEntity> updates = new ArrayList<HistoricVariableUpdateEventEntity>(updatesById.values());
+    Collections.sort(updates, new Comparator<HistoricVariableUpdateEventEntity>() {
+      public int compare(HistoricVariableUpdateEventEntity update, HistoricVariableUpdateEventEntity otherUpdate) {
+        return Long.valueOf(update.getSequenceCounter()).compareTo(otherUpdate.getSequenceCounter());
+      }
+    });
+
+    for (int i = updates.size() - 1; i >= 0; i--) {
+      if (!updates.get(i).isJsonPatch()) {
+        return updates.subList(i, updates.size());
+      }
+    }
+    return Collections.emptyList();
+  }
+
+  protected HistoricVariableUpdateEventEntity copyVariableUpdate(HistoricVariableUpdateEventEntity historyEvent) {
+    HistoricVariableUpdateEventEntity copy = new HistoricVariableUpdateEventEntity();
+    copy.setId(historyEvent.getId());
+    copy.setEventType(historyEvent.getEventType());
+    copy.setSequenceCounter(historyEvent.getSequenceCounter());
+    copy.setRemovalTime(historyEvent.getRemovalTime());
+    copy.setRootProcessInstanceId(historyEvent.getRootProcessInstanceId());
+    copy.setProcessInstanceId(historyEvent.getProcessInstanceId());
+    copy.setExecutionId(historyEvent.getExecutionId());
+    copy.setProcessDefinitionId(historyEvent.getProcessDefinitionId());
+    copy.setProcessDefinitionKey(historyEvent.getProcessDefinitionKey());
+    copy.setProcessDefinitionName(historyEvent.getProcessDefinitionName());
+    copy.setProcessDefinitionVersion(historyEvent.getProcessDefinitionVersion());
+    copy.setCaseInstanceId(historyEvent.getCaseInstanceId());
+    copy.setCaseExecutionId(historyEvent.getCaseExecutionId());
+    copy.setCaseDefinitionId(historyEvent.getCaseDefinitionId());
+    copy.setCaseDefinitionKey(historyEvent.getCaseDefinitionKey());
+    copy.setCaseDefinitionName(historyEvent.getCaseDefinitionName());
+    copy.setActivityInstanceId(historyEvent.getActivityInstanceId());
+    copy.setTaskId(historyEvent.getTaskId());
+    copy.setTimestamp(historyEvent.getTimestamp());
+    copy.setTenantId(historyEvent.getTenantId());
+    copy.setUserOperationId(historyEvent.getUserOperationId());
+    copy.setRevision(historyEvent.getRevision());
+    copy.setVariableName(historyEvent.getVariableName());
+    copy.setVariableInstanceId(historyEvent.getVariableInstanceId());
+    copy.setScopeActivityInstanceId(historyEvent.getScopeActivityInstanceId());
+    copy.setSerializerName(historyEvent.getSerializerName());
+    copy.setLongValue(historyEvent.getLongValue());
+    copy.setDoubleValue(historyEvent.getDoubleValue());
+    copy.setTextValue(historyEvent.getTextValue());
+    copy.setTextValue2(historyEvent.getTextValue2());
+    copy.setByteValue(historyEvent.getByteValue());
+    return copy;
+  }
+
+  protected boolean isJsonSerializer(String serializerName) {
+    TypedValueSerializer<?> serializer = Context.getProcessEngineConfiguration()
+        .getVariableSerializers()
+        .getSerializerByName(serializerName);
+
+    return serializer != null
+        && SerializationDataFormats.JSON.getName().equals(serializer.getSerializationDataformat());
+  }
+
   protected boolean shouldWriteHistoricDetail(HistoricVariableUpdateEventEntity historyEvent) {
 
     return Context.getProcessEngineConfiguration().getHistoryLevel()
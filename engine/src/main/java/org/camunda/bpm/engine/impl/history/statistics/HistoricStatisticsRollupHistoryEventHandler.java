@@ -0,0 +1,126 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.statistics;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.history.event.HistoricActivityInstanceEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoricProcessInstanceEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoricActivityStatisticsRollupEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoricProcessInstanceStatisticsRollupEntity;
+
+/**
+ * {@link HistoryEventHandler} which maintains the historic statistics rollups incrementally.
+ *
+ * <p>The deltas of an event are added to the {@link HistoricStatisticsRollupRegistry} once the
+ * surrounding transaction is committed, so rolled back transactions (e.g. retried jobs) are not counted.</p>
+ */
+public class HistoricStatisticsRollupHistoryEventHandler implements HistoryEventHandler {
+
+  protected HistoricStatisticsRollupRegistry registry;
+
+  public HistoricStatisticsRollupHistoryEventHandler(HistoricStatisticsRollupRegistry registry) {
+    this.registry = registry;
+  }
+
+  public void handleEvent(HistoryEvent historyEvent) {
+    if (historyEvent instanceof HistoricActivityInstanceEventEntity) {
+      handleActivityInstanceEvent((HistoricActivityInstanceEventEntity) historyEvent);
+    }
+    else if (historyEvent instanceof HistoricProcessInstanceEventEntity
+        && historyEvent.isEventOfType(HistoryEventTypes.PROCESS_INSTANCE_END)) {
+      handleProcessInstanceEndEvent((HistoricProcessInstanceEventEntity) historyEvent);
+    }
+  }
+
+  public void handleEvents(List<HistoryEvent> historyEvents) {
+    for (HistoryEvent historyEvent : historyEvents) {
+      handleEvent(historyEvent);
+    }
+  }
+
+  protected void handleActivityInstanceEvent(HistoricActivityInstanceEventEntity event) {
+    if (event.getProcessDefinitionId() == null) {
+      return;
+    }
+
+    final HistoricActivityStatisticsRollupEntity delta = new HistoricActivityStatisticsRollupEntity(
+        event.getProcessDefinitionKey(), event.getProcessDefinitionId(), event.getActivityId(), event.getTenantId());
+
+    if (event.isEventOfType(HistoryEventTypes.ACTIVITY_INSTANCE_START)) {
+      delta.setStarted(1);
+    }
+    else if (event.isEventOfType(HistoryEventTypes.ACTIVITY_INSTANCE_END)) {
+      delta.setFinished(1);
+      delta.setCanceled(event.isCanceled() ? 1 : 0);
+      delta.setCompleteScope(event.isCompleteScope() ? 1 : 0);
+      if (event.getDurationInMillis() != null) {
+        delta.setDuration(event.getDurationInMillis());
+      }
+    }
+    else {
+      return;
+    }
+
+    addTransactionListener(new TransactionListener() {
+      public void execute(CommandContext commandContext) {
+        registry.mergeActivityRollup(delta);
+      }
+    });
+  }
+
+  protected void handleProcessInstanceEndEvent(HistoricProcessInstanceEventEntity event) {
+    if (event.getStartTime() == null || event.getDurationInMillis() == null) {
+      return;
+    }
+
+    final HistoricProcessInstanceStatisticsRollupEntity delta = new HistoricProcessInstanceStatisticsRollupEntity(
+        event.getProcessDefinitionKey(), event.getProcessDefinitionId(), event.getTenantId(), truncateToHour(event.getStartTime()));
+    delta.addDuration(event.getDurationInMillis());
+
+    addTransactionListener(new TransactionListener() {
+      public void execute(CommandContext commandContext) {
+        registry.mergeProcessInstanceRollup(delta);
+      }
+    });
+  }
+
+  protected void addTransactionListener(TransactionListener listener) {
+    Context.getCommandContext()
+      .getTransactionContext()
+      .addTransactionListener(TransactionState.COMMITTED, listener);
+  }
+
+  protected Date truncateToHour(Date date) {
+    Calendar calendar = Calendar.getInstance();
+    calendar.setTime(date);
+    calendar.set(Calendar.MINUTE, 0);
+    calendar.set(Calendar.SECOND, 0);
+    calendar.set(Calendar.MILLISECOND, 0);
+    return calendar.getTime();
+  }
+
+}
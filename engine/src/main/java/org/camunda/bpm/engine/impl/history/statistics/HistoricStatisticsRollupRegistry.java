@@ -0,0 +1,91 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.statistics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.persistence.entity.HistoricActivityStatisticsRollupEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoricProcessInstanceStatisticsRollupEntity;
+
+/**
+ * Collects the statistics deltas of committed transactions in memory until
+ * they are written to the database by the {@link HistoricStatisticsRollupReporter}.
+ */
+public class HistoricStatisticsRollupRegistry {
+
+  protected Map<String, HistoricActivityStatisticsRollupEntity> activityRollups = new HashMap<String, HistoricActivityStatisticsRollupEntity>();
+  protected Map<String, HistoricProcessInstanceStatisticsRollupEntity> processInstanceRollups = new HashMap<String, HistoricProcessInstanceStatisticsRollupEntity>();
+
+  public synchronized void mergeActivityRollup(HistoricActivityStatisticsRollupEntity delta) {
+    String key = delta.getRollupKey();
+    HistoricActivityStatisticsRollupEntity rollup = activityRollups.get(key);
+
+    if (rollup == null) {
+      rollup = new HistoricActivityStatisticsRollupEntity(delta.getProcessDefinitionKey(),
+          delta.getProcessDefinitionId(), delta.getActivityId(), delta.getTenantId());
+      activityRollups.put(key, rollup);
+    }
+
+    rollup.merge(delta);
+  }
+
+  public synchronized void mergeProcessInstanceRollup(HistoricProcessInstanceStatisticsRollupEntity delta) {
+    String key = delta.getRollupKey();
+    HistoricProcessInstanceStatisticsRollupEntity rollup = processInstanceRollups.get(key);
+
+    if (rollup == null) {
+      rollup = new HistoricProcessInstanceStatisticsRollupEntity(delta.getProcessDefinitionKey(),
+          delta.getProcessDefinitionId(), delta.getTenantId(), delta.getStartTime());
+      processInstanceRollups.put(key, rollup);
+    }
+
+    rollup.merge(delta);
+  }
+
+  public synchronized void removeRollupsByProcessDefinitionId(String processDefinitionId) {
+    Iterator<HistoricActivityStatisticsRollupEntity> activityRollupIterator = activityRollups.values().iterator();
+    while (activityRollupIterator.hasNext()) {
+      if (processDefinitionId.equals(activityRollupIterator.next().getProcessDefinitionId())) {
+        activityRollupIterator.remove();
+      }
+    }
+
+    Iterator<HistoricProcessInstanceStatisticsRollupEntity> processInstanceRollupIterator = processInstanceRollups.values().iterator();
+    while (processInstanceRollupIterator.hasNext()) {
+      if (processDefinitionId.equals(processInstanceRollupIterator.next().getProcessDefinitionId())) {
+        processInstanceRollupIterator.remove();
+      }
+    }
+  }
+
+  public synchronized List<HistoricActivityStatisticsRollupEntity> getAndClearActivityRollups() {
+    List<HistoricActivityStatisticsRollupEntity> rollups = new ArrayList<HistoricActivityStatisticsRollupEntity>(activityRollups.values());
+    activityRollups = new HashMap<String, HistoricActivityStatisticsRollupEntity>();
+    return rollups;
+  }
+
+  public synchronized List<HistoricProcessInstanceStatisticsRollupEntity> getAndClearProcessInstanceRollups() {
+    List<HistoricProcessInstanceStatisticsRollupEntity> rollups = new ArrayList<HistoricProcessInstanceStatisticsRollupEntity>(processInstanceRollups.values());
+    processInstanceRollups = new HashMap<String, HistoricProcessInstanceStatisticsRollupEntity>();
+    return rollups;
+  }
+
+}
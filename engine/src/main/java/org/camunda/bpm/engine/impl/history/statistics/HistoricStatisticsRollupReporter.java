@@ -0,0 +1,85 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.statistics;
+
+import java.util.Timer;
+
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+
+/**
+ * Periodically writes the historic statistics rollups collected by the
+ * {@link HistoricStatisticsRollupHistoryEventHandler} to the database.
+ */
+public class HistoricStatisticsRollupReporter {
+
+  protected HistoricStatisticsRollupRegistry registry;
+  protected CommandExecutor commandExecutor;
+
+  protected long reportingIntervalInSeconds = 60;
+
+  protected HistoricStatisticsRollupTask rollupTask;
+  private Timer timer;
+
+  public HistoricStatisticsRollupReporter(HistoricStatisticsRollupRegistry registry, CommandExecutor commandExecutor) {
+    this.registry = registry;
+    this.commandExecutor = commandExecutor;
+    this.rollupTask = new HistoricStatisticsRollupTask(registry, commandExecutor);
+  }
+
+  public void start() {
+    timer = new Timer("Camunda Historic Statistics Reporter", true);
+    long reportingIntervalInMillis = reportingIntervalInSeconds * 1000;
+
+    timer.scheduleAtFixedRate(rollupTask,
+        reportingIntervalInMillis,
+        reportingIntervalInMillis);
+  }
+
+  public void stop() {
+    if (timer != null) {
+      timer.cancel();
+      timer = null;
+      // report the remaining rollups for the last time
+      reportNow();
+    }
+  }
+
+  public void reportNow() {
+    rollupTask.run();
+  }
+
+  public long getReportingIntervalInSeconds() {
+    return reportingIntervalInSeconds;
+  }
+
+  public void setReportingIntervalInSeconds(long reportingIntervalInSeconds) {
+    this.reportingIntervalInSeconds = reportingIntervalInSeconds;
+  }
+
+  public long getCompactionIntervalInSeconds() {
+    return rollupTask.getCompactionIntervalInSeconds();
+  }
+
+  public void setCompactionIntervalInSeconds(long compactionIntervalInSeconds) {
+    rollupTask.setCompactionIntervalInSeconds(compactionIntervalInSeconds);
+  }
+
+  public HistoricStatisticsRollupRegistry getRegistry() {
+    return registry;
+  }
+
+}
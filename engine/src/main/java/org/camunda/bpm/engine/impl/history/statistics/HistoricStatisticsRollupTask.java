@@ -0,0 +1,150 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.statistics;
+
+import java.util.Date;
+import java.util.List;
+import java.util.TimerTask;
+
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.metrics.MetricsLogger;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoricActivityStatisticsRollupEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoricProcessInstanceStatisticsRollupEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoricStatisticsManager;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * Writes the rollups collected in the {@link HistoricStatisticsRollupRegistry} to the database
+ * and periodically compacts the reported rollups.
+ */
+public class HistoricStatisticsRollupTask extends TimerTask {
+
+  private final static MetricsLogger LOG = ProcessEngineLogger.METRICS_LOGGER;
+
+  protected HistoricStatisticsRollupRegistry registry;
+  protected CommandExecutor commandExecutor;
+
+  protected long compactionIntervalInSeconds = 3600;
+  protected long lastCompaction = 0;
+
+  public HistoricStatisticsRollupTask(HistoricStatisticsRollupRegistry registry, CommandExecutor commandExecutor) {
+    this.registry = registry;
+    this.commandExecutor = commandExecutor;
+  }
+
+  public void run() {
+    try {
+      reportRollups();
+    }
+    catch (Exception e) {
+      try {
+        LOG.couldNotReportHistoricStatisticsRollups(e);
+      }
+      catch (Exception ex) {
+        // ignore if log can't be written
+      }
+    }
+
+    try {
+      if (ClockUtil.getCurrentTime().getTime() - lastCompaction >= compactionIntervalInSeconds * 1000) {
+        compactRollups();
+      }
+    }
+    catch (OptimisticLockingException e) {
+      // another engine reported or compacted the rollups concurrently, retry with the next run
+    }
+    catch (Exception e) {
+      try {
+        LOG.couldNotCompactHistoricStatisticsRollups(e);
+      }
+      catch (Exception ex) {
+        // ignore if log can't be written
+      }
+    }
+  }
+
+  protected void compactRollups() {
+    final Date reportedBefore = ClockUtil.getCurrentTime();
+
+    commandExecutor.execute(new Command<Void>() {
+
+      public Void execute(CommandContext commandContext) {
+        commandContext.getHistoricStatisticsManager().compactStatisticsRollups(reportedBefore);
+        return null;
+      }
+    });
+
+    lastCompaction = reportedBefore.getTime();
+  }
+
+  protected void reportRollups() {
+    final List<HistoricActivityStatisticsRollupEntity> activityRollups = registry.getAndClearActivityRollups();
+    final List<HistoricProcessInstanceStatisticsRollupEntity> processInstanceRollups = registry.getAndClearProcessInstanceRollups();
+
+    if (activityRollups.isEmpty() && processInstanceRollups.isEmpty()) {
+      return;
+    }
+
+    final Date timestamp = ClockUtil.getCurrentTime();
+
+    try {
+      commandExecutor.execute(new Command<Void>() {
+
+        public Void execute(CommandContext commandContext) {
+          HistoricStatisticsManager historicStatisticsManager = commandContext.getHistoricStatisticsManager();
+
+          for (HistoricActivityStatisticsRollupEntity rollup : activityRollups) {
+            rollup.setTimestamp(timestamp);
+            historicStatisticsManager.insertActivityStatisticsRollup(rollup);
+          }
+
+          for (HistoricProcessInstanceStatisticsRollupEntity rollup : processInstanceRollups) {
+            rollup.setTimestamp(timestamp);
+            historicStatisticsManager.insertProcessInstanceStatisticsRollup(rollup);
+          }
+
+          return null;
+        }
+      });
+    }
+    catch (RuntimeException e) {
+      // keep the collected deltas for the next attempt
+      for (HistoricActivityStatisticsRollupEntity rollup : activityRollups) {
+        rollup.setId(null);
+        registry.mergeActivityRollup(rollup);
+      }
+      for (HistoricProcessInstanceStatisticsRollupEntity rollup : processInstanceRollups) {
+        rollup.setId(null);
+        registry.mergeProcessInstanceRollup(rollup);
+      }
+      throw e;
+    }
+  }
+
+  public long getCompactionIntervalInSeconds() {
+    return compactionIntervalInSeconds;
+  }
+
+  public void setCompactionIntervalInSeconds(long compactionIntervalInSeconds) {
+    this.compactionIntervalInSeconds = compactionIntervalInSeconds;
+  }
+
+}
@@ -94,6 +94,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.TaskManager;
 import org.camunda.bpm.engine.impl.persistence.entity.TaskReportManager;
 import org.camunda.bpm.engine.impl.persistence.entity.TenantManager;
 import org.camunda.bpm.engine.impl.persistence.entity.UserOperationLogManager;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableIndexManager;
 import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceManager;
 
 /**
@@ -341,6 +342,10 @@ public class CommandContext {
     return getSession(VariableInstanceManager.class);
   }
 
+  public VariableIndexManager getVariableIndexManager() {
+    return getSession(VariableIndexManager.class);
+  }
+
   public HistoricProcessInstanceManager getHistoricProcessInstanceManager() {
     return getSession(HistoricProcessInstanceManager.class);
   }
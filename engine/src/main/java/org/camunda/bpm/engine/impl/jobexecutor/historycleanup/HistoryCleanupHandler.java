@@ -18,7 +18,9 @@ package org.camunda.bpm.engine.impl.jobexecutor.historycleanup;
 
 import java.util.Map;
 
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
@@ -37,7 +39,15 @@ public abstract class HistoryCleanupHandler implements TransactionListener {
   protected String jobId;
   protected CommandExecutor commandExecutor;
 
+  /**
+   * Point in time (in milliseconds) when the cleanup was started, <code>-1</code> if no cleanup was performed.
+   */
+  protected long cleanupStartTime = -1;
+
   public void execute(CommandContext commandContext) {
+    // the deletes are flushed on commit, so the duration includes them
+    final long cleanupDuration = System.currentTimeMillis() - cleanupStartTime;
+
     // passed commandContext may be in an inconsistent state
     commandExecutor.execute(new Command<Void>() {
       @Override
@@ -46,6 +56,13 @@ public abstract class HistoryCleanupHandler implements TransactionListener {
         Map<String, Long> report = reportMetrics();
         boolean isRescheduleNow = shouldRescheduleNow();
 
+        ProcessEngineConfigurationImpl engineConfiguration = commandContext.getProcessEngineConfiguration();
+        if (cleanupStartTime >= 0 && engineConfiguration.isHistoryCleanupAdaptiveBatchSize()) {
+          int nextBatchSize = HistoryCleanupHelper.calculateNextBatchSize(getBatchSize(), cleanupDuration,
+              isRescheduleNow, engineConfiguration);
+          configuration.setBatchSize(nextBatchSize);
+        }
+
         new HistoryCleanupSchedulerCmd(isRescheduleNow, report, configuration, jobId).execute(commandContext);
 
         return null;
@@ -53,12 +70,35 @@ public abstract class HistoryCleanupHandler implements TransactionListener {
     });
   }
 
+  /**
+   * Performs the cleanup and remembers when it was started to be able to tune the batch size of the next run.
+   */
+  public void performMeasuredCleanup() {
+    cleanupStartTime = System.currentTimeMillis();
+    performCleanup();
+  }
+
   abstract void performCleanup();
 
   abstract Map<String, Long> reportMetrics();
 
   abstract boolean shouldRescheduleNow();
 
+  /**
+   * @return the batch size tuned by the previous run in case adaptive batch sizing is enabled,
+   * the configured history cleanup batch size otherwise
+   */
+  public int getBatchSize() {
+    ProcessEngineConfigurationImpl engineConfiguration = Context.getProcessEngineConfiguration();
+
+    Integer tunedBatchSize = configuration.getBatchSize();
+    if (engineConfiguration.isHistoryCleanupAdaptiveBatchSize() && tunedBatchSize != null) {
+      return Math.min(tunedBatchSize, engineConfiguration.getHistoryCleanupBatchSize());
+    }
+
+    return engineConfiguration.getHistoryCleanupBatchSize();
+  }
+
   public HistoryCleanupJobHandlerConfiguration getConfiguration() {
     return configuration;
   }
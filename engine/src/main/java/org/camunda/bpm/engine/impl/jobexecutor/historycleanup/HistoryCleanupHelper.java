@@ -63,10 +63,6 @@ public abstract class HistoryCleanupHelper {
     }
   }
 
-  private static Integer getHistoryCleanupBatchSize(CommandContext commandContext) {
-    return commandContext.getProcessEngineConfiguration().getHistoryCleanupBatchSize();
-  }
-
   /**
    * Creates next batch object for history cleanup. First searches for historic process instances ready for cleanup. If there is still some place left in batch (configured batch
    * size was not reached), searches for historic decision instances and also adds them to the batch. Then if there is still some place left in batch, searches for historic case
@@ -77,7 +73,7 @@ public abstract class HistoryCleanupHelper {
    */
   public static void prepareNextBatch(HistoryCleanupBatch historyCleanupBatch, CommandContext commandContext) {
     final HistoryCleanupJobHandlerConfiguration configuration = historyCleanupBatch.getConfiguration();
-    final Integer batchSize = getHistoryCleanupBatchSize(commandContext);
+    final int batchSize = historyCleanupBatch.getBatchSize();
     ProcessEngineConfigurationImpl processEngineConfiguration = commandContext.getProcessEngineConfiguration();
 
     //add process instance ids
@@ -117,6 +113,40 @@ public abstract class HistoryCleanupHelper {
     }
   }
 
+  /**
+   * Calculates the batch size for the next cleanup run of a job based on the duration of its previous run.
+   * The batch size is scaled by the ratio between the target duration and the measured duration: it shrinks
+   * proportionally when the run was too slow and grows (at most doubles) when the run was fast and more data is
+   * waiting for cleanup. When a batch window is active, the target duration is limited to the remaining time of
+   * the window. The result is always between 1 and the configured history cleanup batch size.
+   *
+   * @param batchSize the batch size of the previous run
+   * @param duration the duration of the previous run in milliseconds
+   * @param isRescheduleNow indicates whether more data is available for cleanup
+   */
+  public static int calculateNextBatchSize(int batchSize, long duration, boolean isRescheduleNow, ProcessEngineConfigurationImpl configuration) {
+    int maxBatchSize = configuration.getHistoryCleanupBatchSize();
+    long targetDuration = configuration.getHistoryCleanupTargetBatchDuration();
+
+    Date now = ClockUtil.getCurrentTime();
+    if (isWithinBatchWindow(now, configuration)) {
+      BatchWindow batchWindow = configuration.getBatchWindowManager().getCurrentOrNextBatchWindow(now, configuration);
+      long remainingTime = batchWindow.getEnd().getTime() - now.getTime();
+      targetDuration = Math.max(1, Math.min(targetDuration, remainingTime));
+    }
+
+    duration = Math.max(1, duration);
+
+    long nextBatchSize = batchSize;
+    if (duration > targetDuration) {
+      nextBatchSize = batchSize * targetDuration / duration;
+    } else if (isRescheduleNow) {
+      nextBatchSize = Math.min(2L * batchSize, batchSize * targetDuration / duration);
+    }
+
+    return (int) Math.max(1, Math.min(maxBatchSize, nextBatchSize));
+  }
+
   public static int[][] listMinuteChunks(int numberOfChunks) {
     final int[][] minuteChunks = new int[numberOfChunks][2];
     int chunkLength = 60 / numberOfChunks;
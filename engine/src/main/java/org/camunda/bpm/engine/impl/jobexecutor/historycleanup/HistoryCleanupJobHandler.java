@@ -41,7 +41,7 @@ public class HistoryCleanupJobHandler implements JobHandler<HistoryCleanupJobHan
     HistoryCleanupHandler cleanupHandler = initCleanupHandler(configuration, commandContext);
 
     if (configuration.isImmediatelyDue() || isWithinBatchWindow(commandContext) ) {
-      cleanupHandler.performCleanup();
+      cleanupHandler.performMeasuredCleanup();
     }
 
     commandContext.getTransactionContext()
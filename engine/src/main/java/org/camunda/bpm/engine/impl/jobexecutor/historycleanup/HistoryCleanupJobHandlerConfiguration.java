@@ -34,6 +34,7 @@ public class HistoryCleanupJobHandlerConfiguration implements JobHandlerConfigur
   public static final String JOB_CONFIG_EXECUTE_AT_ONCE = "immediatelyDue";
   public static final String JOB_CONFIG_MINUTE_FROM = "minuteFrom";
   public static final String JOB_CONFIG_MINUTE_TO = "minuteTo";
+  public static final String JOB_CONFIG_BATCH_SIZE = "batchSize";
 
   /**
    * Counts runs without data. Is used within batch window to calculate the delay between two job runs in case no data for cleanup was found.
@@ -52,6 +53,12 @@ public class HistoryCleanupJobHandlerConfiguration implements JobHandlerConfigur
 
   private int minuteTo = 59;
 
+  /**
+   * Batch size tuned by the previous run of this job, <code>null</code> if the batch size was not tuned yet.
+   * Is only used when {@link org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl#isHistoryCleanupAdaptiveBatchSize()} is enabled.
+   */
+  private Integer batchSize;
+
   public HistoryCleanupJobHandlerConfiguration() {
   }
 
@@ -62,6 +69,7 @@ public class HistoryCleanupJobHandlerConfiguration implements JobHandlerConfigur
     JsonUtil.addField(json, JOB_CONFIG_EXECUTE_AT_ONCE, immediatelyDue);
     JsonUtil.addField(json, JOB_CONFIG_MINUTE_FROM, minuteFrom);
     JsonUtil.addField(json, JOB_CONFIG_MINUTE_TO, minuteTo);
+    JsonUtil.addField(json, JOB_CONFIG_BATCH_SIZE, batchSize);
     return json.toString();
   }
 
@@ -75,6 +83,9 @@ public class HistoryCleanupJobHandlerConfiguration implements JobHandlerConfigur
     }
     config.setMinuteFrom(JsonUtil.getInt(jsonObject, JOB_CONFIG_MINUTE_FROM));
     config.setMinuteTo(JsonUtil.getInt(jsonObject, JOB_CONFIG_MINUTE_TO));
+    if (jsonObject.has(JOB_CONFIG_BATCH_SIZE)) {
+      config.setBatchSize(JsonUtil.getInt(jsonObject, JOB_CONFIG_BATCH_SIZE));
+    }
     return config;
   }
 
@@ -126,5 +137,12 @@ public class HistoryCleanupJobHandlerConfiguration implements JobHandlerConfigur
   public void setMinuteTo(int minuteTo) {
     this.minuteTo = minuteTo;
   }
-}
 
+  public Integer getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(Integer batchSize) {
+    this.batchSize = batchSize;
+  }
+}
@@ -110,10 +110,4 @@ public class HistoryCleanupRemovalTime extends HistoryCleanupHandler {
     return false;
   }
 
-  public int getBatchSize() {
-    return Context
-        .getProcessEngineConfiguration()
-        .getHistoryCleanupBatchSize();
-  }
-
 }
@@ -21,6 +21,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
+import org.camunda.bpm.engine.impl.IndexedVariableQueryValue;
 import org.camunda.bpm.engine.impl.QueryOperator;
 import org.camunda.bpm.engine.impl.QueryOrderingProperty;
 import org.camunda.bpm.engine.impl.TaskQueryImpl;
@@ -106,6 +107,7 @@ public class JsonTaskQueryConverter extends JsonObjectConverter<TaskQuery> {
   public static final String PROCESS_VARIABLES = "processVariables";
   public static final String TASK_VARIABLES = "taskVariables";
   public static final String CASE_INSTANCE_VARIABLES = "caseInstanceVariables";
+  public static final String PROCESS_INDEXED_VARIABLES = "processIndexedVariables";
   public static final String TENANT_IDS = "tenantIds";
   public static final String WITHOUT_TENANT_ID = "withoutTenantId";
   public static final String ORDERING_PROPERTIES = "orderingProperties";
@@ -172,6 +174,7 @@ public class JsonTaskQueryConverter extends JsonObjectConverter<TaskQuery> {
     JsonUtil.addArrayField(json, PROCESS_INSTANCE_BUSINESS_KEYS, query.getProcessInstanceBusinessKeys());
     JsonUtil.addField(json, PROCESS_INSTANCE_BUSINESS_KEY_LIKE, query.getProcessInstanceBusinessKeyLike());
     addVariablesFields(json, query.getVariables());
+    addIndexedVariablesField(json, query.getIndexedVariableValues());
     JsonUtil.addDateField(json, DUE, query.getDueDate());
     JsonUtil.addDateField(json, DUE_BEFORE, query.getDueBefore());
     JsonUtil.addDateField(json, DUE_AFTER, query.getDueAfter());
@@ -252,6 +255,19 @@ public class JsonTaskQueryConverter extends JsonObjectConverter<TaskQuery> {
     }
   }
 
+  protected void addIndexedVariablesField(JsonObject jsonObject, List<IndexedVariableQueryValue> indexedVariables) {
+    if (!indexedVariables.isEmpty()) {
+      JsonArray variables = JsonUtil.createArray();
+      for (IndexedVariableQueryValue indexedVariable : indexedVariables) {
+        JsonObject variable = JsonUtil.createObject();
+        JsonUtil.addField(variable, "path", indexedVariable.getPath());
+        JsonUtil.addField(variable, "value", indexedVariable.getValue());
+        variables.add(variable);
+      }
+      JsonUtil.addField(jsonObject, PROCESS_INDEXED_VARIABLES, variables);
+    }
+  }
+
   protected void addVariable(JsonObject jsonObject, String variableType, TaskQueryVariableValue variable) {
     JsonArray variables = JsonUtil.getArray(jsonObject, variableType);
 
@@ -406,6 +422,9 @@ public class JsonTaskQueryConverter extends JsonObjectConverter<TaskQuery> {
     if (json.has(CASE_INSTANCE_VARIABLES)) {
       addVariables(query, JsonUtil.getArray(json, CASE_INSTANCE_VARIABLES), false, false);
     }
+    if (json.has(PROCESS_INDEXED_VARIABLES)) {
+      addIndexedVariables(query, JsonUtil.getArray(json, PROCESS_INDEXED_VARIABLES));
+    }
     if (json.has(DUE)) {
       query.dueDate(new Date(JsonUtil.getLong(json, DUE)));
     }
@@ -511,4 +530,11 @@ public class JsonTaskQueryConverter extends JsonObjectConverter<TaskQuery> {
     }
   }
 
+  protected void addIndexedVariables(TaskQueryImpl query, JsonArray variables) {
+    for (JsonElement variable : variables) {
+      JsonObject variableObj = JsonUtil.getObject(variable);
+      query.processIndexedVariableValueEquals(JsonUtil.getString(variableObj, "path"), JsonUtil.getString(variableObj, "value"));
+    }
+  }
+
 }
@@ -37,4 +37,14 @@ public class MetricsLogger extends ProcessEngineLogger {
         "002", "Could not collect and log metrics", e);
   }
 
+  public void couldNotReportHistoricStatisticsRollups(Exception e) {
+    logWarn(
+        "003", "Could not report historic statistics rollups", e);
+  }
+
+  public void couldNotCompactHistoricStatisticsRollups(Exception e) {
+    logWarn(
+        "004", "Could not compact historic statistics rollups", e);
+  }
+
 }
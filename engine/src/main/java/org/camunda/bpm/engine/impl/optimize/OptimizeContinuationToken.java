@@ -0,0 +1,83 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.optimize;
+
+import java.util.Date;
+
+import org.camunda.bpm.engine.exception.NotValidException;
+import org.camunda.bpm.engine.impl.digest._apacheCommonsCodec.Base64;
+import org.camunda.bpm.engine.impl.digest._apacheCommonsCodec.StringUtils;
+
+/**
+ * Position of the last entity of a page returned by the keyset pagination
+ * of the {@link OptimizeManager}. The next page starts after the entity with
+ * the same timestamp and a greater id or with a greater timestamp, which allows
+ * the database to seek into the timestamp index instead of skipping rows.
+ */
+public class OptimizeContinuationToken {
+
+  protected static final String SEPARATOR = "|";
+
+  protected Date timestamp;
+  protected String id;
+
+  public OptimizeContinuationToken(Date timestamp, String id) {
+    this.timestamp = timestamp;
+    this.id = id;
+  }
+
+  public Date getTimestamp() {
+    return timestamp;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * @return the opaque string representation of this token
+   */
+  public String encode() {
+    String value = timestamp.getTime() + SEPARATOR + id;
+    return Base64.encodeBase64URLSafeString(StringUtils.getBytesUtf8(value));
+  }
+
+  /**
+   * @return the decoded token or <code>null</code> if the given string is <code>null</code>
+   * @throws NotValidException if the given string is not a valid continuation token
+   */
+  public static OptimizeContinuationToken decode(String token) {
+    if (token == null) {
+      return null;
+    }
+
+    String value = StringUtils.newStringUtf8(Base64.decodeBase64(token));
+    int separatorIndex = value.indexOf(SEPARATOR);
+    if (separatorIndex <= 0 || separatorIndex == value.length() - 1) {
+      throw new NotValidException("Invalid continuation token '" + token + "'");
+    }
+
+    try {
+      long timestamp = Long.parseLong(value.substring(0, separatorIndex));
+      return new OptimizeContinuationToken(new Date(timestamp), value.substring(separatorIndex + 1));
+    }
+    catch (NumberFormatException e) {
+      throw new NotValidException("Invalid continuation token '" + token + "'", e);
+    }
+  }
+
+}
@@ -23,10 +23,15 @@ import org.camunda.bpm.engine.history.HistoricTaskInstance;
 import org.camunda.bpm.engine.history.HistoricVariableUpdate;
 import org.camunda.bpm.engine.history.UserOperationLogEntry;
 import org.camunda.bpm.engine.impl.HistoricDecisionInstanceQueryImpl;
+import org.camunda.bpm.engine.impl.optimize.export.HistoricActivityInstanceExporter;
+import org.camunda.bpm.engine.impl.optimize.export.HistoricDataExporter;
+import org.camunda.bpm.engine.impl.optimize.export.HistoricProcessInstanceExporter;
+import org.camunda.bpm.engine.impl.optimize.export.HistoricTaskInstanceExporter;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.optimize.OptimizeHistoricIdentityLinkLogEntity;
 
+import java.io.OutputStream;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -205,6 +210,95 @@ public class OptimizeManager extends AbstractManager {
     return decisionInstances;
   }
 
+  @SuppressWarnings("unchecked")
+  public OptimizeResultPage<HistoricActivityInstance> getCompletedHistoricActivityInstancePage(String continuationToken,
+                                                                                               int maxResults) {
+    checkIsAuthorizedToReadHistoryOfProcessDefinitions();
+
+    List<HistoricActivityInstance> historicActivityInstances =
+      getDbEntityManager().selectList("selectCompletedHistoricActivityPage", createKeysetPageParameters(continuationToken, maxResults));
+
+    String nextContinuationToken = continuationToken;
+    if (!historicActivityInstances.isEmpty()) {
+      HistoricActivityInstance last = historicActivityInstances.get(historicActivityInstances.size() - 1);
+      nextContinuationToken = new OptimizeContinuationToken(last.getEndTime(), last.getId()).encode();
+    }
+
+    return new OptimizeResultPage<>(historicActivityInstances, nextContinuationToken);
+  }
+
+  @SuppressWarnings("unchecked")
+  public OptimizeResultPage<HistoricTaskInstance> getCompletedHistoricTaskInstancePage(String continuationToken,
+                                                                                       int maxResults) {
+    checkIsAuthorizedToReadHistoryOfProcessDefinitions();
+
+    List<HistoricTaskInstance> historicTaskInstances =
+      getDbEntityManager().selectList("selectCompletedHistoricTaskInstancePage", createKeysetPageParameters(continuationToken, maxResults));
+
+    String nextContinuationToken = continuationToken;
+    if (!historicTaskInstances.isEmpty()) {
+      HistoricTaskInstance last = historicTaskInstances.get(historicTaskInstances.size() - 1);
+      nextContinuationToken = new OptimizeContinuationToken(last.getEndTime(), last.getId()).encode();
+    }
+
+    return new OptimizeResultPage<>(historicTaskInstances, nextContinuationToken);
+  }
+
+  @SuppressWarnings("unchecked")
+  public OptimizeResultPage<HistoricProcessInstance> getCompletedHistoricProcessInstancePage(String continuationToken,
+                                                                                             int maxResults) {
+    checkIsAuthorizedToReadHistoryOfProcessDefinitions();
+
+    List<HistoricProcessInstance> historicProcessInstances =
+      getDbEntityManager().selectList("selectCompletedHistoricProcessInstancePage", createKeysetPageParameters(continuationToken, maxResults));
+
+    String nextContinuationToken = continuationToken;
+    if (!historicProcessInstances.isEmpty()) {
+      HistoricProcessInstance last = historicProcessInstances.get(historicProcessInstances.size() - 1);
+      nextContinuationToken = new OptimizeContinuationToken(last.getEndTime(), last.getId()).encode();
+    }
+
+    return new OptimizeResultPage<>(historicProcessInstances, nextContinuationToken);
+  }
+
+  protected Map<String, Object> createKeysetPageParameters(String continuationToken, int maxResults) {
+    OptimizeContinuationToken token = OptimizeContinuationToken.decode(continuationToken);
+
+    Map<String, Object> params = new HashMap<>();
+    if (token != null) {
+      params.put("finishedAfter", token.getTimestamp());
+      params.put("finishedAfterId", token.getId());
+    }
+    params.put("maxResults", maxResults);
+    return params;
+  }
+
+  public long exportCompletedHistoricProcessInstances(Date finishedAfter, OutputStream outputStream) {
+    return exportCompletedHistory("selectCompletedHistoricProcessInstancesForExport", finishedAfter,
+      new HistoricProcessInstanceExporter(outputStream));
+  }
+
+  public long exportCompletedHistoricActivityInstances(Date finishedAfter, OutputStream outputStream) {
+    return exportCompletedHistory("selectCompletedHistoricActivityInstancesForExport", finishedAfter,
+      new HistoricActivityInstanceExporter(outputStream));
+  }
+
+  public long exportCompletedHistoricTaskInstances(Date finishedAfter, OutputStream outputStream) {
+    return exportCompletedHistory("selectCompletedHistoricTaskInstancesForExport", finishedAfter,
+      new HistoricTaskInstanceExporter(outputStream));
+  }
+
+  protected long exportCompletedHistory(String statement, Date finishedAfter, HistoricDataExporter<?> exporter) {
+    checkIsAuthorizedToReadHistoryOfProcessDefinitions();
+
+    Map<String, Object> params = new HashMap<>();
+    params.put("finishedAfter", finishedAfter);
+
+    getDbEntityManager().selectWithResultHandler(statement, params, exporter);
+
+    return exporter.finish();
+  }
+
   private void checkIsAuthorizedToReadHistoryOfDecisionDefinitions() {
     getAuthorizationManager().checkAuthorization(READ_HISTORY, DECISION_DEFINITION);
   }
@@ -0,0 +1,110 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.optimize.export;
+
+import static org.camunda.bpm.engine.impl.optimize.export.HistoricDataExportColumnType.BOOLEAN;
+import static org.camunda.bpm.engine.impl.optimize.export.HistoricDataExportColumnType.DATE;
+import static org.camunda.bpm.engine.impl.optimize.export.HistoricDataExportColumnType.LONG;
+import static org.camunda.bpm.engine.impl.optimize.export.HistoricDataExportColumnType.STRING;
+
+import java.io.OutputStream;
+
+import org.camunda.bpm.engine.history.HistoricActivityInstance;
+
+/**
+ * Exports historic activity instances.
+ */
+public class HistoricActivityInstanceExporter extends HistoricDataExporter<HistoricActivityInstance> {
+
+  protected static final String[] COLUMN_NAMES = {
+    "id",
+    "parentActivityInstanceId",
+    "activityId",
+    "activityName",
+    "activityType",
+    "processDefinitionKey",
+    "processDefinitionId",
+    "processInstanceId",
+    "executionId",
+    "taskId",
+    "calledProcessInstanceId",
+    "assignee",
+    "startTime",
+    "endTime",
+    "durationInMillis",
+    "canceled",
+    "completeScope",
+    "tenantId"
+  };
+
+  protected static final HistoricDataExportColumnType[] COLUMN_TYPES = {
+    STRING,
+    STRING,
+    STRING,
+    STRING,
+    STRING,
+    STRING,
+    STRING,
+    STRING,
+    STRING,
+    STRING,
+    STRING,
+    STRING,
+    DATE,
+    DATE,
+    LONG,
+    BOOLEAN,
+    BOOLEAN,
+    STRING
+  };
+
+  public HistoricActivityInstanceExporter(OutputStream outputStream) {
+    super(outputStream);
+  }
+
+  protected String[] getColumnNames() {
+    return COLUMN_NAMES;
+  }
+
+  protected HistoricDataExportColumnType[] getColumnTypes() {
+    return COLUMN_TYPES;
+  }
+
+  protected Object[] toRow(HistoricActivityInstance entity) {
+    return new Object[] {
+      entity.getId(),
+      entity.getParentActivityInstanceId(),
+      entity.getActivityId(),
+      entity.getActivityName(),
+      entity.getActivityType(),
+      entity.getProcessDefinitionKey(),
+      entity.getProcessDefinitionId(),
+      entity.getProcessInstanceId(),
+      entity.getExecutionId(),
+      entity.getTaskId(),
+      entity.getCalledProcessInstanceId(),
+      entity.getAssignee(),
+      entity.getStartTime(),
+      entity.getEndTime(),
+      entity.getDurationInMillis(),
+      entity.isCanceled(),
+      entity.isCompleteScope(),
+      entity.getTenantId()
+    };
+  }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.optimize.export;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Date;
+import java.util.zip.GZIPInputStream;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+
+/**
+ * Reads the rows written by a {@link HistoricDataExportWriter}.
+ */
+public class HistoricDataExportReader {
+
+  protected DataInputStream in;
+
+  protected String[] columnNames;
+  protected HistoricDataExportColumnType[] columnTypes;
+
+  protected Object[][] rowGroup;
+  protected int rowGroupRowCount = 0;
+  protected int rowGroupPosition = 0;
+  protected boolean finished = false;
+
+  public HistoricDataExportReader(InputStream inputStream) {
+    try {
+      in = new DataInputStream(new GZIPInputStream(inputStream));
+      readHeader();
+    }
+    catch (IOException e) {
+      throw new ProcessEngineException("Could not read historic data export", e);
+    }
+  }
+
+  public String[] getColumnNames() {
+    return columnNames;
+  }
+
+  public HistoricDataExportColumnType[] getColumnTypes() {
+    return columnTypes;
+  }
+
+  /**
+   * @return the next row or <code>null</code> if all rows have been read
+   */
+  public Object[] readRow() {
+    if (rowGroupPosition == rowGroupRowCount) {
+      if (finished) {
+        return null;
+      }
+      readRowGroup();
+      if (finished) {
+        return null;
+      }
+    }
+
+    Object[] row = new Object[columnNames.length];
+    for (int column = 0; column < columnNames.length; column++) {
+      row[column] = rowGroup[column][rowGroupPosition];
+    }
+    rowGroupPosition++;
+    return row;
+  }
+
+  protected void readHeader() throws IOException {
+    if (in.readInt() != HistoricDataExportWriter.MAGIC) {
+      throw new ProcessEngineException("Input is not a historic data export");
+    }
+
+    byte version = in.readByte();
+    if (version != HistoricDataExportWriter.VERSION) {
+      throw new ProcessEngineException("Unsupported historic data export version " + version);
+    }
+
+    int columnCount = in.readInt();
+    columnNames = new String[columnCount];
+    columnTypes = new HistoricDataExportColumnType[columnCount];
+    for (int column = 0; column < columnCount; column++) {
+      columnNames[column] = in.readUTF();
+      columnTypes[column] = HistoricDataExportColumnType.values()[in.readByte()];
+    }
+  }
+
+  protected void readRowGroup() {
+    try {
+      rowGroupRowCount = in.readInt();
+      rowGroupPosition = 0;
+
+      if (rowGroupRowCount == 0) {
+        finished = true;
+        return;
+      }
+
+      rowGroup = new Object[columnNames.length][rowGroupRowCount];
+      for (int column = 0; column < columnNames.length; column++) {
+        for (int row = 0; row < rowGroupRowCount; row++) {
+          rowGroup[column][row] = readValue(columnTypes[column]);
+        }
+      }
+    }
+    catch (IOException e) {
+      throw new ProcessEngineException("Could not read historic data export", e);
+    }
+  }
+
+  protected Object readValue(HistoricDataExportColumnType type) throws IOException {
+    if (!in.readBoolean()) {
+      return null;
+    }
+
+    switch (type) {
+      case STRING:
+        return in.readUTF();
+      case LONG:
+        return in.readLong();
+      case DATE:
+        return new Date(in.readLong());
+      case BOOLEAN:
+        return in.readBoolean();
+      default:
+        throw new ProcessEngineException("Unsupported column type " + type);
+    }
+  }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.optimize.export;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.zip.GZIPOutputStream;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+
+/**
+ * <p>Writes rows in a compressed, column oriented layout. Rows are buffered
+ * into row groups and each row group is written column by column, so that
+ * values of the same column are stored next to each other and compress well.</p>
+ *
+ * <p>The complete output is gzip compressed and structured as follows:</p>
+ * <pre>
+ * header:    magic (int), version (byte), column count (int),
+ *            per column: name (UTF), type ordinal (byte)
+ * row group: row count (int),
+ *            per column and row: null marker (boolean), value if not null
+ * end:       row count 0 (int)
+ * </pre>
+ *
+ * <p>Strings are written as modified UTF-8, dates as epoch milliseconds.</p>
+ *
+ * @see HistoricDataExportReader
+ */
+public class HistoricDataExportWriter {
+
+  public static final int MAGIC = 0x43414d58;
+  public static final byte VERSION = 1;
+  public static final int DEFAULT_ROW_GROUP_SIZE = 1000;
+
+  protected String[] columnNames;
+  protected HistoricDataExportColumnType[] columnTypes;
+  protected int rowGroupSize;
+
+  protected DataOutputStream out;
+  protected GZIPOutputStream gzipOut;
+
+  protected Object[][] rowGroup;
+  protected int rowGroupRowCount = 0;
+  protected long rowCount = 0;
+
+  public HistoricDataExportWriter(OutputStream outputStream, String[] columnNames, HistoricDataExportColumnType[] columnTypes) {
+    this(outputStream, columnNames, columnTypes, DEFAULT_ROW_GROUP_SIZE);
+  }
+
+  public HistoricDataExportWriter(OutputStream outputStream, String[] columnNames, HistoricDataExportColumnType[] columnTypes, int rowGroupSize) {
+    if (columnNames.length != columnTypes.length) {
+      throw new ProcessEngineException("Number of column names and column types of a historic data export must be equal");
+    }
+    this.columnNames = columnNames;
+    this.columnTypes = columnTypes;
+    this.rowGroupSize = rowGroupSize;
+    this.rowGroup = new Object[columnNames.length][rowGroupSize];
+
+    try {
+      gzipOut = new GZIPOutputStream(outputStream);
+      out = new DataOutputStream(gzipOut);
+      writeHeader();
+    }
+    catch (IOException e) {
+      throw new ProcessEngineException("Could not write historic data export", e);
+    }
+  }
+
+  public void writeRow(Object[] row) {
+    for (int column = 0; column < columnNames.length; column++) {
+      rowGroup[column][rowGroupRowCount] = row[column];
+    }
+    rowGroupRowCount++;
+    rowCount++;
+
+    if (rowGroupRowCount == rowGroupSize) {
+      flushRowGroup();
+    }
+  }
+
+  /**
+   * Writes the remaining buffered rows and finishes the compressed stream
+   * without closing the underlying output stream.
+   */
+  public void finish() {
+    flushRowGroup();
+    try {
+      out.writeInt(0);
+      out.flush();
+      gzipOut.finish();
+    }
+    catch (IOException e) {
+      throw new ProcessEngineException("Could not write historic data export", e);
+    }
+  }
+
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  protected void writeHeader() throws IOException {
+    out.writeInt(MAGIC);
+    out.writeByte(VERSION);
+    out.writeInt(columnNames.length);
+    for (int column = 0; column < columnNames.length; column++) {
+      out.writeUTF(columnNames[column]);
+      out.writeByte(columnTypes[column].ordinal());
+    }
+  }
+
+  protected void flushRowGroup() {
+    if (rowGroupRowCount == 0) {
+      return;
+    }
+
+    try {
+      out.writeInt(rowGroupRowCount);
+      for (int column = 0; column < columnNames.length; column++) {
+        Object[] values = rowGroup[column];
+        for (int row = 0; row < rowGroupRowCount; row++) {
+          writeValue(columnTypes[column], values[row]);
+          values[row] = null;
+        }
+      }
+    }
+    catch (IOException e) {
+      throw new ProcessEngineException("Could not write historic data export", e);
+    }
+
+    rowGroupRowCount = 0;
+  }
+
+  protected void writeValue(HistoricDataExportColumnType type, Object value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value == null) {
+      return;
+    }
+
+    switch (type) {
+      case STRING:
+        out.writeUTF((String) value);
+        break;
+      case LONG:
+        out.writeLong(((Number) value).longValue());
+        break;
+      case DATE:
+        out.writeLong(((Date) value).getTime());
+        break;
+      case BOOLEAN:
+        out.writeBoolean((Boolean) value);
+        break;
+      default:
+        throw new ProcessEngineException("Unsupported column type " + type);
+    }
+  }
+
+}
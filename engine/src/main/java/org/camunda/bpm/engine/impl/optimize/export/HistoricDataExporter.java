@@ -0,0 +1,56 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.optimize.export;
+
+import java.io.OutputStream;
+
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * Receives the rows of a streamed select and writes them to a
+ * {@link HistoricDataExportWriter} without keeping them in memory.
+ *
+ * @param <T> the type of the exported history entity
+ */
+public abstract class HistoricDataExporter<T> implements ResultHandler<T> {
+
+  protected HistoricDataExportWriter writer;
+
+  public HistoricDataExporter(OutputStream outputStream) {
+    writer = new HistoricDataExportWriter(outputStream, getColumnNames(), getColumnTypes());
+  }
+
+  public void handleResult(ResultContext<? extends T> resultContext) {
+    writer.writeRow(toRow(resultContext.getResultObject()));
+  }
+
+  /**
+   * @return the number of exported rows
+   */
+  public long finish() {
+    writer.finish();
+    return writer.getRowCount();
+  }
+
+  protected abstract String[] getColumnNames();
+
+  protected abstract HistoricDataExportColumnType[] getColumnTypes();
+
+  protected abstract Object[] toRow(T entity);
+
+}
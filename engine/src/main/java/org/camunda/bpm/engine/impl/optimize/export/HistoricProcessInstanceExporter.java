@@ -0,0 +1,103 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.optimize.export;
+
+import static org.camunda.bpm.engine.impl.optimize.export.HistoricDataExportColumnType.DATE;
+import static org.camunda.bpm.engine.impl.optimize.export.HistoricDataExportColumnType.LONG;
+import static org.camunda.bpm.engine.impl.optimize.export.HistoricDataExportColumnType.STRING;
+
+import java.io.OutputStream;
+
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+
+/**
+ * Exports historic process instances.
+ */
+public class HistoricProcessInstanceExporter extends HistoricDataExporter<HistoricProcessInstance> {
+
+  protected static final String[] COLUMN_NAMES = {
+    "id",
+    "businessKey",
+    "processDefinitionKey",
+    "processDefinitionId",
+    "processDefinitionVersion",
+    "startTime",
+    "endTime",
+    "durationInMillis",
+    "startUserId",
+    "startActivityId",
+    "endActivityId",
+    "deleteReason",
+    "superProcessInstanceId",
+    "rootProcessInstanceId",
+    "tenantId",
+    "state"
+  };
+
+  protected static final HistoricDataExportColumnType[] COLUMN_TYPES = {
+    STRING,
+    STRING,
+    STRING,
+    STRING,
+    LONG,
+    DATE,
+    DATE,
+    LONG,
+    STRING,
+    STRING,
+    STRING,
+    STRING,
+    STRING,
+    STRING,
+    STRING,
+    STRING
+  };
+
+  public HistoricProcessInstanceExporter(OutputStream outputStream) {
+    super(outputStream);
+  }
+
+  protected String[] getColumnNames() {
+    return COLUMN_NAMES;
+  }
+
+  protected HistoricDataExportColumnType[] getColumnTypes() {
+    return COLUMN_TYPES;
+  }
+
+  protected Object[] toRow(HistoricProcessInstance entity) {
+    return new Object[] {
+      entity.getId(),
+      entity.getBusinessKey(),
+      entity.getProcessDefinitionKey(),
+      entity.getProcessDefinitionId(),
+      entity.getProcessDefinitionVersion(),
+      entity.getStartTime(),
+      entity.getEndTime(),
+      entity.getDurationInMillis(),
+      entity.getStartUserId(),
+      entity.getStartActivityId(),
+      entity.getEndActivityId(),
+      entity.getDeleteReason(),
+      entity.getSuperProcessInstanceId(),
+      entity.getRootProcessInstanceId(),
+      entity.getTenantId(),
+      entity.getState()
+    };
+  }
+
+}
@@ -53,6 +53,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.HistoricIncidentManager;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricJobLogManager;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricProcessInstanceManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ReportManager;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoricStatisticsManager;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricTaskInstanceManager;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricVariableInstanceManager;
 import org.camunda.bpm.engine.impl.persistence.entity.IdentityInfoManager;
@@ -198,6 +199,10 @@ public abstract class AbstractManager implements Session {
     return getSession(HistoricExternalTaskLogManager.class);
   }
 
+  protected HistoricStatisticsManager getHistoricStatisticsManager() {
+    return getSession(HistoricStatisticsManager.class);
+  }
+
   protected JobManager getJobManager() {
     return getSession(JobManager.class);
   }
@@ -0,0 +1,65 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.blob;
+
+import java.io.InputStream;
+import java.io.Serializable;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.util.CompressionUtil;
+
+/**
+ * Refers to a blob of a {@link BlobStore} and allows to stream its content
+ * any number of times, also after the command which loaded the reference
+ * has been completed.
+ */
+public class BlobReference implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected transient BlobStore blobStore;
+  protected String key;
+  protected boolean compressed;
+
+  public BlobReference(BlobStore blobStore, String key, boolean compressed) {
+    this.blobStore = blobStore;
+    this.key = key;
+    this.compressed = compressed;
+  }
+
+  /**
+   * Opens a new stream to the (uncompressed) content of the blob. The caller is
+   * responsible for closing the stream.
+   */
+  public InputStream openStream() {
+    if (blobStore == null) {
+      throw new ProcessEngineException("Cannot load blob '" + key + "', the reference is not attached to a blob store");
+    }
+
+    InputStream inputStream = blobStore.load(key);
+    return compressed ? CompressionUtil.decompress(inputStream) : inputStream;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public boolean isCompressed() {
+    return compressed;
+  }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.blob;
+
+import java.io.InputStream;
+
+/**
+ * <p>Stores the content of byte arrays outside of the database.</p>
+ *
+ * <p>The {@link org.camunda.bpm.engine.impl.persistence.entity.ByteArrayManager} writes
+ * variable values which reach the configured threshold to the blob store and only keeps
+ * the returned key in the database. Blobs are deleted once the transaction which removes
+ * the referencing byte array has been committed.</p>
+ *
+ * <p>Implementations must be thread-safe.</p>
+ */
+public interface BlobStore {
+
+  /**
+   * Stores the given bytes.
+   *
+   * @return the key to load or delete the blob with; must not exceed 255 characters
+   */
+  String store(byte[] bytes);
+
+  /**
+   * Opens a stream to the content of the blob with the given key. The caller is
+   * responsible for closing the stream.
+   */
+  InputStream load(String key);
+
+  /**
+   * Deletes the blob with the given key. Deleting a non-existing blob has no effect.
+   */
+  void delete(String key);
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.blob;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+
+/**
+ * <p>{@link BlobStore} which keeps blobs as files below a root directory.</p>
+ *
+ * <p>Blobs are addressed by the SHA-256 hash of their content which also spreads
+ * the files over sub directories. Since the engine deletes a blob together with the
+ * byte array referencing it, every stored blob gets its own key, even if the same
+ * content has been stored before.</p>
+ */
+public class FileSystemBlobStore implements BlobStore {
+
+  protected static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}-[0-9a-f\\-]{36}");
+
+  protected File rootDirectory;
+
+  public FileSystemBlobStore() {
+  }
+
+  public FileSystemBlobStore(File rootDirectory) {
+    this.rootDirectory = rootDirectory;
+  }
+
+  public String store(byte[] bytes) {
+    String key = calculateHash(bytes) + "-" + UUID.randomUUID().toString();
+    Path file = getFile(key);
+
+    try {
+      Files.createDirectories(file.getParent());
+
+      // write to a temporary file first so that readers never see partial content
+      Path temporaryFile = Files.createTempFile(file.getParent(), key, ".tmp");
+      try {
+        Files.write(temporaryFile, bytes);
+        Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+      }
+      finally {
+        Files.deleteIfExists(temporaryFile);
+      }
+    }
+    catch (IOException e) {
+      throw new ProcessEngineException("Cannot store blob '" + key + "' in directory '" + rootDirectory + "'", e);
+    }
+
+    return key;
+  }
+
+  public InputStream load(String key) {
+    try {
+      return Files.newInputStream(getFile(key));
+    }
+    catch (IOException e) {
+      throw new ProcessEngineException("Cannot load blob '" + key + "' from directory '" + rootDirectory + "'", e);
+    }
+  }
+
+  public void delete(String key) {
+    try {
+      Files.deleteIfExists(getFile(key));
+    }
+    catch (IOException e) {
+      throw new ProcessEngineException("Cannot delete blob '" + key + "' from directory '" + rootDirectory + "'", e);
+    }
+  }
+
+  protected Path getFile(String key) {
+    if (rootDirectory == null) {
+      throw new ProcessEngineException("No root directory configured for the file system blob store");
+    }
+    if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+      throw new ProcessEngineException("Invalid blob key '" + key + "'");
+    }
+
+    return rootDirectory.toPath()
+      .resolve(key.substring(0, 2))
+      .resolve(key);
+  }
+
+  protected String calculateHash(byte[] bytes) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+
+      StringBuilder hash = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        hash.append(Character.forDigit((b >> 4) & 0xF, 16));
+        hash.append(Character.forDigit(b & 0xF, 16));
+      }
+      return hash.toString();
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new ProcessEngineException("Cannot calculate hash of blob", e);
+    }
+  }
+
+  public File getRootDirectory() {
+    return rootDirectory;
+  }
+
+  public void setRootDirectory(File rootDirectory) {
+    this.rootDirectory = rootDirectory;
+  }
+
+  /**
+   * Allows to configure the root directory from an engine configuration file.
+   */
+  public void setRootDirectoryPath(String rootDirectoryPath) {
+    this.rootDirectory = new File(rootDirectoryPath);
+  }
+
+}
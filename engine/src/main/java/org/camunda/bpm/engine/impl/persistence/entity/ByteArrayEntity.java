@@ -42,6 +42,9 @@ public class ByteArrayEntity implements Serializable, DbEntity, HasDbRevision {
   protected Date createTime;
   protected String rootProcessInstanceId;
   protected Date removalTime;
+  protected String hash;
+  protected String blobKey;
+  protected boolean compressed;
 
   public ByteArrayEntity() {
   }
@@ -72,7 +75,15 @@ public class ByteArrayEntity implements Serializable, DbEntity, HasDbRevision {
   }
 
   public Object getPersistentState() {
-    return (bytes != null ? bytes : PERSISTENTSTATE_NULL);
+    if (bytes != null) {
+      return bytes;
+    }
+    else if (blobKey != null) {
+      return blobKey;
+    }
+    else {
+      return PERSISTENTSTATE_NULL;
+    }
   }
 
   public int getRevisionNext() {
@@ -157,6 +168,34 @@ public class ByteArrayEntity implements Serializable, DbEntity, HasDbRevision {
     this.removalTime = removalTime;
   }
 
+  public String getHash() {
+    return hash;
+  }
+
+  public void setHash(String hash) {
+    this.hash = hash;
+  }
+
+  public String getBlobKey() {
+    return blobKey;
+  }
+
+  public void setBlobKey(String blobKey) {
+    this.blobKey = blobKey;
+  }
+
+  /**
+   * @return true if the stored bytes (or the referenced blob) hold a value
+   * that was compressed by {@link org.camunda.bpm.engine.impl.util.CompressionUtil}
+   */
+  public boolean isCompressed() {
+    return compressed;
+  }
+
+  public void setCompressed(boolean compressed) {
+    this.compressed = compressed;
+  }
+
   @Override
   public String toString() {
     return this.getClass().getSimpleName()
@@ -169,6 +208,9 @@ public class ByteArrayEntity implements Serializable, DbEntity, HasDbRevision {
            + ", createTime=" + createTime
            + ", rootProcessInstanceId=" + rootProcessInstanceId
            + ", removalTime=" + removalTime
+           + ", hash=" + hash
+           + ", blobKey=" + blobKey
+           + ", compressed=" + compressed
            + "]";
   }
 
@@ -16,13 +16,32 @@
  */
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.digest._apacheCommonsCodec.Base64;
+import org.camunda.bpm.engine.impl.digest._apacheCommonsCodec.StringUtils;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
+import org.camunda.bpm.engine.impl.persistence.blob.BlobReference;
+import org.camunda.bpm.engine.impl.persistence.blob.BlobStore;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -45,6 +64,146 @@ public class ByteArrayManager extends AbstractManager {
     getDbEntityManager().insert(arr);
   }
 
+  /**
+   * Sets the bytes of the given byte array. If a {@link BlobStore} is configured and the
+   * bytes reach its threshold, they are written to the blob store and only the key is
+   * kept in the byte array. A blob which has been referenced before is deleted once the
+   * transaction is committed, a newly stored blob is deleted if it is rolled back.
+   */
+  public void setBytes(ByteArrayEntity byteArray, byte[] bytes) {
+    ProcessEngineConfigurationImpl configuration = Context.getProcessEngineConfiguration();
+    BlobStore blobStore = configuration.getBlobStore();
+    String previousBlobKey = byteArray.getBlobKey();
+
+    if (blobStore != null && bytes != null && bytes.length >= configuration.getBlobStoreThreshold()) {
+      String blobKey = blobStore.store(bytes);
+      deleteBlobOnTransactionEnd(blobStore, blobKey, TransactionState.ROLLED_BACK);
+
+      byteArray.setBlobKey(blobKey);
+      byteArray.setBytes(null);
+    }
+    else {
+      byteArray.setBlobKey(null);
+      byteArray.setBytes(bytes);
+    }
+
+    if (previousBlobKey != null) {
+      deleteBlobOnTransactionEnd(blobStore, previousBlobKey, TransactionState.COMMITTED);
+    }
+  }
+
+  /**
+   * Opens a stream to the bytes of the given byte array which are read either
+   * from the entity itself or from the blob store.
+   */
+  public InputStream openBytes(ByteArrayEntity byteArray) {
+    if (byteArray.getBlobKey() != null) {
+      BlobStore blobStore = Context.getProcessEngineConfiguration().getBlobStore();
+      ensureNotNull("Cannot load blob '" + byteArray.getBlobKey() + "' of byte array '" + byteArray.getId()
+          + "', no blob store is configured", "blobStore", blobStore);
+
+      return blobStore.load(byteArray.getBlobKey());
+    }
+    else if (byteArray.getBytes() != null) {
+      return new ByteArrayInputStream(byteArray.getBytes());
+    }
+    else {
+      return null;
+    }
+  }
+
+  /**
+   * Returns a reference to stream the blob of the given byte array, also after
+   * the current command has been completed.
+   */
+  public BlobReference getBlobReference(ByteArrayEntity byteArray) {
+    BlobStore blobStore = Context.getProcessEngineConfiguration().getBlobStore();
+    ensureNotNull("Cannot load blob '" + byteArray.getBlobKey() + "' of byte array '" + byteArray.getId()
+        + "', no blob store is configured", "blobStore", blobStore);
+
+    return new BlobReference(blobStore, byteArray.getBlobKey(), byteArray.isCompressed());
+  }
+
+  /**
+   * Deletes the blob referenced by the given byte array (if any) once the
+   * transaction which deletes the byte array has been committed.
+   */
+  public void deleteBlob(ByteArrayEntity byteArray) {
+    if (byteArray.getBlobKey() != null) {
+      BlobStore blobStore = Context.getProcessEngineConfiguration().getBlobStore();
+      deleteBlobOnTransactionEnd(blobStore, byteArray.getBlobKey(), TransactionState.COMMITTED);
+    }
+  }
+
+  protected void deleteBlobOnTransactionEnd(final BlobStore blobStore, final String blobKey, TransactionState transactionState) {
+    if (blobStore != null) {
+      Context.getCommandContext()
+        .getTransactionContext()
+        .addTransactionListener(transactionState, new TransactionListener() {
+          public void execute(CommandContext commandContext) {
+            blobStore.delete(blobKey);
+          }
+        });
+    }
+  }
+
+  /**
+   * Inserts the given byte array of a historic variable update unless a previous
+   * update of the same variable instance already references a byte array with
+   * the same content. The content is compared by its SHA-256 hash.
+   *
+   * @return the id of the reused or the inserted byte array
+   */
+  public String insertHistoricDetailByteArray(String variableInstanceId, ByteArrayEntity byteArray) {
+    String hash = calculateHash(byteArray.getBytes(), byteArray.isCompressed());
+
+    if (variableInstanceId != null) {
+      String existingByteArrayId = findHistoricDetailByteArrayId(variableInstanceId, hash);
+      if (existingByteArrayId != null) {
+        return existingByteArrayId;
+      }
+    }
+
+    byteArray.setHash(hash);
+    insertByteArray(byteArray);
+    return byteArray.getId();
+  }
+
+  @SuppressWarnings("unchecked")
+  protected String findHistoricDetailByteArrayId(String variableInstanceId, String hash) {
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("variableInstanceId", variableInstanceId);
+    parameters.put("hash", hash);
+
+    List<String> byteArrayIds = getDbEntityManager().selectList("selectHistoricDetailByteArrayIdsByHash", parameters);
+    return byteArrayIds.isEmpty() ? null : byteArrayIds.get(0);
+  }
+
+  /**
+   * Loads the byte arrays with the given ids with a single query into the
+   * entity cache, so that subsequent lookups by id do not hit the database.
+   */
+  public void prefetchByteArrays(Collection<String> byteArrayIds) {
+    if (!byteArrayIds.isEmpty()) {
+      getDbEntityManager().selectList("selectByteArrays", new ArrayList<>(byteArrayIds));
+    }
+  }
+
+  protected String calculateHash(byte[] bytes, boolean compressed) {
+    try {
+      MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+      if (compressed) {
+        // never match an uncompressed byte array with the same content
+        messageDigest.update((byte) 1);
+      }
+      byte[] digest = messageDigest.digest(bytes);
+      return StringUtils.newStringUtf8(Base64.encodeBase64(digest));
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new ProcessEngineException("Cannot calculate hash of byte array", e);
+    }
+  }
+
   public void addRemovalTimeToByteArraysByRootProcessInstanceId(String rootProcessInstanceId, Date removalTime) {
     Map<String, Object> parameters = new HashMap<>();
     parameters.put("rootProcessInstanceId", rootProcessInstanceId);
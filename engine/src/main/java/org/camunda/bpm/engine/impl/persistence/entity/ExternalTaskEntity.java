@@ -452,7 +452,7 @@ public class ExternalTaskEntity implements ExternalTask, DbEntity, HasDbRevision
     }
   }
 
-  protected void ensureActive() {
+  public void ensureActive() {
     if (suspensionState == SuspensionState.SUSPENDED.getStateCode()) {
       throw LOG.suspendedEntityException(EntityTypes.EXTERNAL_TASK, id);
     }
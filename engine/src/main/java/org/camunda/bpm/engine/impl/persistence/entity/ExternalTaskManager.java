@@ -18,9 +18,15 @@ package org.camunda.bpm.engine.impl.persistence.entity;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.camunda.bpm.engine.externaltask.ExternalTask;
 import org.camunda.bpm.engine.impl.Direction;
@@ -33,10 +39,12 @@ import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskNotificationChannel;
 import org.camunda.bpm.engine.impl.externaltask.TopicFetchInstruction;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.impl.util.CollectionUtil;
 
 /**
  * @author Thorben Lindhauer
@@ -46,6 +54,15 @@ public class ExternalTaskManager extends AbstractManager {
 
   public static QueryOrderingProperty EXT_TASK_PRIORITY_ORDERING_PROPERTY = new QueryOrderingProperty(ExternalTaskQueryProperty.PRIORITY, Direction.DESCENDING);
 
+  /**
+   * The number of candidates selected per requested task when fetching with <code>SKIP LOCKED</code>,
+   * so that a fetch still returns a full batch when some candidates are locked by concurrent fetches.
+   */
+  protected static final int SKIP_LOCKED_CANDIDATES_PER_TASK = 3;
+
+  // maximum number of elements in an IN list (Oracle); lists of ids and names passed to IN clauses are partitioned by it
+  protected static final int MAX_IN_LIST_SIZE = 1000;
+
   public ExternalTaskEntity findExternalTaskById(String id) {
     return getDbEntityManager().selectById(ExternalTaskEntity.class, id);
   }
@@ -69,6 +86,26 @@ public class ExternalTaskManager extends AbstractManager {
     return getDbEntityManager().selectList("selectExternalTasksByProcessInstanceId", processInstanceId);
   }
 
+  @SuppressWarnings("unchecked")
+  public List<String> findProcessInstanceIdsOfExtendableLocks(String workerId, Date now) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("workerId", workerId);
+    parameters.put("now", now);
+    return getDbEntityManager().selectList("selectProcessInstanceIdsOfExtendableExternalTaskLocks", parameters);
+  }
+
+  /**
+   * Extends all locks of the given worker which have not expired yet with a single statement,
+   * so that a worker does not have to extend the locks of its tasks one by one.
+   */
+  public void extendLocksByWorkerId(String workerId, Date now, Date lockExpirationTime) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("workerId", workerId);
+    parameters.put("now", now);
+    parameters.put("lockExpirationTime", lockExpirationTime);
+    getDbEntityManager().update(ExternalTaskEntity.class, "updateExternalTaskLockExpirationTimeByWorkerId", new ListQueryParameterObject(parameters, 0, Integer.MAX_VALUE));
+  }
+
   public List<ExternalTaskEntity> selectExternalTasksForTopics(Collection<TopicFetchInstruction> queryFilters, int maxResults, boolean usePriority) {
     if (queryFilters.isEmpty()) {
       return new ArrayList<ExternalTaskEntity>();
@@ -82,11 +119,258 @@ public class ExternalTaskManager extends AbstractManager {
     orderingProperties.add(EXT_TASK_PRIORITY_ORDERING_PROPERTY);
     parameters.put("orderingProperties", orderingProperties);
 
-    ListQueryParameterObject parameter = new ListQueryParameterObject(parameters, 0, maxResults);
+    boolean skipLocked = isSkipLockedEnabled();
+    int candidates = skipLocked ? getSkipLockedCandidateCount(maxResults) : maxResults;
+
+    ListQueryParameterObject parameter = new ListQueryParameterObject(parameters, 0, candidates);
     configureQuery(parameter);
 
     DbEntityManager manager = getDbEntityManager();
-    return manager.selectList("selectExternalTasksForTopics", parameter);
+    List<ExternalTaskEntity> externalTasks = manager.selectList("selectExternalTasksForTopics", parameter);
+
+    if (skipLocked) {
+      externalTasks = lockSkippingLocked(externalTasks, maxResults);
+    }
+
+    return externalTasks;
+  }
+
+  /**
+   * Selects external tasks like {@link #selectExternalTasksForTopics(Collection, int, boolean)}, but allocates
+   * maxResults across the topics by their weights, so that a topic with many (high priority) tasks does not
+   * starve the other topics. Shares which a topic cannot use because it has not enough tasks are passed on
+   * to the other topics.
+   */
+  public List<ExternalTaskEntity> selectExternalTasksForTopicsFairly(Collection<TopicFetchInstruction> queryFilters, int maxResults, boolean usePriority) {
+    if (queryFilters.size() <= 1) {
+      return selectExternalTasksForTopics(queryFilters, maxResults, usePriority);
+    }
+
+    Map<TopicFetchInstruction, Integer> shares = allocateShares(queryFilters, maxResults);
+
+    List<ExternalTaskEntity> externalTasks = new ArrayList<ExternalTaskEntity>();
+    Set<String> externalTaskIds = new HashSet<String>();
+    List<TopicFetchInstruction> topicsWithMoreTasks = new ArrayList<TopicFetchInstruction>();
+    int unusedShares = 0;
+
+    for (Map.Entry<TopicFetchInstruction, Integer> share : shares.entrySet()) {
+      TopicFetchInstruction topic = share.getKey();
+      int topicShare = share.getValue();
+
+      List<ExternalTaskEntity> topicTasks = new ArrayList<ExternalTaskEntity>();
+      if (topicShare > 0) {
+        topicTasks = selectExternalTasksForTopics(Collections.singleton(topic), topicShare, usePriority);
+      }
+
+      for (ExternalTaskEntity topicTask : topicTasks) {
+        externalTaskIds.add(topicTask.getId());
+        externalTasks.add(topicTask);
+      }
+
+      if (topicTasks.size() < topicShare) {
+        unusedShares += topicShare - topicTasks.size();
+      }
+      else {
+        topicsWithMoreTasks.add(topic);
+      }
+    }
+
+    for (TopicFetchInstruction topic : topicsWithMoreTasks) {
+      if (unusedShares == 0) {
+        break;
+      }
+
+      // the tasks which have been selected before are selected again, since they are not locked in the database yet
+      int topicShare = shares.get(topic) + unusedShares;
+      List<ExternalTaskEntity> topicTasks = selectExternalTasksForTopics(Collections.singleton(topic), topicShare, usePriority);
+
+      for (ExternalTaskEntity topicTask : topicTasks) {
+        if (unusedShares > 0 && externalTaskIds.add(topicTask.getId())) {
+          externalTasks.add(topicTask);
+          unusedShares--;
+        }
+      }
+    }
+
+    return externalTasks;
+  }
+
+  /**
+   * Allocates maxResults across the topics proportionally to their weights (largest remainder method).
+   * Topics with equal remainders are ordered randomly, so that they take turns in receiving the
+   * remaining tasks if there are less tasks than topics.
+   */
+  protected Map<TopicFetchInstruction, Integer> allocateShares(Collection<TopicFetchInstruction> topics, int maxResults) {
+    List<TopicFetchInstruction> orderedTopics = new ArrayList<TopicFetchInstruction>(topics);
+    Collections.shuffle(orderedTopics);
+
+    long totalWeight = 0;
+    for (TopicFetchInstruction topic : orderedTopics) {
+      totalWeight += topic.getWeight();
+    }
+
+    Map<TopicFetchInstruction, Integer> shares = new LinkedHashMap<TopicFetchInstruction, Integer>();
+    final Map<TopicFetchInstruction, Long> remainders = new HashMap<TopicFetchInstruction, Long>();
+    int allocated = 0;
+
+    for (TopicFetchInstruction topic : orderedTopics) {
+      long weightedResults = (long) maxResults * topic.getWeight();
+      int share = (int) (weightedResults / totalWeight);
+
+      shares.put(topic, share);
+      remainders.put(topic, weightedResults % totalWeight);
+      allocated += share;
+    }
+
+    List<TopicFetchInstruction> topicsByRemainder = new ArrayList<TopicFetchInstruction>(orderedTopics);
+    Collections.sort(topicsByRemainder, new Comparator<TopicFetchInstruction>() {
+      public int compare(TopicFetchInstruction topic1, TopicFetchInstruction topic2) {
+        return remainders.get(topic2).compareTo(remainders.get(topic1));
+      }
+    });
+
+    for (int i = 0; allocated < maxResults; i++) {
+      TopicFetchInstruction topic = topicsByRemainder.get(i);
+      shares.put(topic, shares.get(topic) + 1);
+      allocated++;
+    }
+
+    return shares;
+  }
+
+  /**
+   * Locks the rows of the given candidates in candidate order, skipping rows that are locked by
+   * concurrent transactions and rows that have been locked by a worker in the meantime. Each
+   * statement locks at most as many candidates as are still missing, so that no row is locked
+   * which is not returned; otherwise concurrent fetches would skip it until this transaction ends.
+   *
+   * @return the first maxResults candidates which could be locked, in candidate order
+   */
+  protected List<ExternalTaskEntity> lockSkippingLocked(List<ExternalTaskEntity> candidates, int maxResults) {
+    List<ExternalTaskEntity> externalTasks = new ArrayList<ExternalTaskEntity>();
+
+    int position = 0;
+    while (externalTasks.size() < maxResults && position < candidates.size()) {
+      int chunkSize = Math.min(maxResults - externalTasks.size(), MAX_IN_LIST_SIZE);
+      List<ExternalTaskEntity> chunk = candidates.subList(position, Math.min(candidates.size(), position + chunkSize));
+      position += chunk.size();
+
+      List<String> ids = new ArrayList<String>(chunk.size());
+      for (ExternalTaskEntity candidate : chunk) {
+        ids.add(candidate.getId());
+      }
+
+      Map<String, Object> parameters = new HashMap<String, Object>();
+      parameters.put("ids", ids);
+      parameters.put("now", ClockUtil.getCurrentTime());
+
+      List<String> rowIds = getDbEntityManager().selectList("selectExternalTaskIdsForUpdateSkipLocked", parameters);
+      Set<String> lockedIds = new HashSet<String>(rowIds);
+
+      for (ExternalTaskEntity candidate : chunk) {
+        if (lockedIds.contains(candidate.getId())) {
+          externalTasks.add(candidate);
+        }
+      }
+    }
+
+    return externalTasks;
+  }
+
+  protected boolean isSkipLockedEnabled() {
+    return Context.getProcessEngineConfiguration().isExternalTaskSkipLockedEnabled()
+        && getDbSqlSession().getDbSqlSessionFactory().isSkipLockedSupported(getDbSqlSession());
+  }
+
+  protected int getSkipLockedCandidateCount(int maxResults) {
+    long candidates = (long) maxResults * SKIP_LOCKED_CANDIDATES_PER_TASK;
+    return (int) Math.min(candidates, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Fetches the variables which are requested by name for the given external tasks with one query,
+   * so that the variable scopes of the tasks' executions are not initialized one by one when
+   * the variables are collected. Tasks which request all variables are not affected.
+   */
+  public void fetchVariablesByName(Collection<ExternalTaskEntity> externalTasks, Map<String, TopicFetchInstruction> fetchInstructions) {
+    List<ExternalTaskEntity> tasksWithVariables = new ArrayList<ExternalTaskEntity>();
+    Set<String> processInstanceIds = new HashSet<String>();
+    Set<String> variableNames = new HashSet<String>();
+
+    for (ExternalTaskEntity externalTask : externalTasks) {
+      List<String> variablesToFetch = fetchInstructions.get(externalTask.getTopicName()).getVariablesToFetch();
+      if (variablesToFetch != null && !variablesToFetch.isEmpty()) {
+        tasksWithVariables.add(externalTask);
+        processInstanceIds.add(externalTask.getProcessInstanceId());
+        variableNames.addAll(variablesToFetch);
+      }
+    }
+
+    if (tasksWithVariables.isEmpty()) {
+      return;
+    }
+
+    fetchExecutionTrees(processInstanceIds);
+
+    // the executions whose variables are visible to the tasks
+    Map<String, ExecutionEntity> scopes = new HashMap<String, ExecutionEntity>();
+    for (ExternalTaskEntity externalTask : tasksWithVariables) {
+      boolean localVariables = fetchInstructions.get(externalTask.getTopicName()).isLocalVariables();
+
+      ExecutionEntity scope = externalTask.getExecution();
+      while (scope != null && !scopes.containsKey(scope.getId())) {
+        scopes.put(scope.getId(), scope);
+        scope = localVariables ? null : scope.getParent();
+      }
+    }
+
+    Map<String, List<VariableInstanceEntity>> variablesByScope = new HashMap<String, List<VariableInstanceEntity>>();
+    VariableInstanceManager variableInstanceManager = getVariableInstanceManager();
+
+    List<List<String>> variableNamePartitions = CollectionUtil.partition(new ArrayList<String>(variableNames), MAX_IN_LIST_SIZE);
+
+    for (List<String> scopeIds : CollectionUtil.partition(new ArrayList<String>(scopes.keySet()), MAX_IN_LIST_SIZE)) {
+      for (List<String> names : variableNamePartitions) {
+        List<VariableInstanceEntity> variables = variableInstanceManager
+            .findVariableInstancesByExecutionIdsAndVariableNames(scopeIds, names);
+
+        for (VariableInstanceEntity variable : variables) {
+          CollectionUtil.addToMapOfLists(variablesByScope, variable.getExecutionId(), variable);
+        }
+      }
+    }
+
+    for (ExecutionEntity scope : scopes.values()) {
+      scope.variableStore.addFetchedVariables(variableNames, variablesByScope.get(scope.getId()));
+    }
+  }
+
+  /**
+   * Loads the executions of the given process instances with one query. With execution tree
+   * prefetching, the trees of the process instances are restored unless they are loaded already.
+   */
+  protected void fetchExecutionTrees(Collection<String> processInstanceIds) {
+    Map<String, List<ExecutionEntity>> executionsByProcessInstance = new HashMap<String, List<ExecutionEntity>>();
+    ExecutionManager executionManager = getProcessInstanceManager();
+
+    for (List<String> ids : CollectionUtil.partition(new ArrayList<String>(processInstanceIds), MAX_IN_LIST_SIZE)) {
+      for (ExecutionEntity execution : executionManager.findExecutionsByProcessInstanceIds(ids)) {
+        CollectionUtil.addToMapOfLists(executionsByProcessInstance, execution.getProcessInstanceId(), execution);
+      }
+    }
+
+    if (!Context.getProcessEngineConfiguration().isExecutionTreePrefetchEnabled()) {
+      // the executions are resolved from the entity cache
+      return;
+    }
+
+    for (List<ExecutionEntity> executions : executionsByProcessInstance.values()) {
+      for (ExecutionEntity execution : executions) {
+        if (execution.isProcessInstanceExecution() && execution.executions == null) {
+          execution.restoreProcessInstance(executions, null, null, null, null, null, null);
+        }
+      }
+    }
   }
 
   public List<ExternalTask> findExternalTasksByQueryCriteria(ExternalTaskQueryImpl externalTaskQuery) {
@@ -157,6 +441,12 @@ public class ExternalTaskManager extends AbstractManager {
         @Override
         public void execute(CommandContext commandContext) {
           ProcessEngineImpl.EXT_TASK_CONDITIONS.signalAll();
+
+          ExternalTaskNotificationChannel notificationChannel = commandContext.getProcessEngineConfiguration()
+            .getExternalTaskNotificationChannel();
+          if (notificationChannel != null) {
+            notificationChannel.publish();
+          }
         }
       });
   }
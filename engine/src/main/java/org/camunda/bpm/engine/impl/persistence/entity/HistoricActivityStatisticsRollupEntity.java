@@ -0,0 +1,184 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+
+/**
+ * Pre-aggregated counts of the activity instances of one activity which were
+ * started and ended within a reporting interval.
+ *
+ * <p>Rows are only inserted and summed up when queried, so concurrent reporters
+ * never compete for the same row.</p>
+ */
+public class HistoricActivityStatisticsRollupEntity implements DbEntity, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected String id;
+  protected Date timestamp;
+
+  protected String processDefinitionKey;
+  protected String processDefinitionId;
+  protected String activityId;
+  protected String tenantId;
+
+  protected long started;
+  protected long finished;
+  protected long canceled;
+  protected long completeScope;
+  protected long duration;
+
+  public HistoricActivityStatisticsRollupEntity() {
+  }
+
+  public HistoricActivityStatisticsRollupEntity(String processDefinitionKey, String processDefinitionId, String activityId, String tenantId) {
+    this.processDefinitionKey = processDefinitionKey;
+    this.processDefinitionId = processDefinitionId;
+    this.activityId = activityId;
+    this.tenantId = tenantId;
+  }
+
+  /**
+   * @return the key which identifies the aggregated activity
+   */
+  public String getRollupKey() {
+    return processDefinitionId + ":" + activityId + ":" + tenantId;
+  }
+
+  public void merge(HistoricActivityStatisticsRollupEntity other) {
+    started += other.started;
+    finished += other.finished;
+    canceled += other.canceled;
+    completeScope += other.completeScope;
+    duration += other.duration;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public Date getTimestamp() {
+    return timestamp;
+  }
+
+  public void setTimestamp(Date timestamp) {
+    this.timestamp = timestamp;
+  }
+
+  public String getProcessDefinitionKey() {
+    return processDefinitionKey;
+  }
+
+  public void setProcessDefinitionKey(String processDefinitionKey) {
+    this.processDefinitionKey = processDefinitionKey;
+  }
+
+  public String getProcessDefinitionId() {
+    return processDefinitionId;
+  }
+
+  public void setProcessDefinitionId(String processDefinitionId) {
+    this.processDefinitionId = processDefinitionId;
+  }
+
+  public String getActivityId() {
+    return activityId;
+  }
+
+  public void setActivityId(String activityId) {
+    this.activityId = activityId;
+  }
+
+  public String getTenantId() {
+    return tenantId;
+  }
+
+  public void setTenantId(String tenantId) {
+    this.tenantId = tenantId;
+  }
+
+  public long getStarted() {
+    return started;
+  }
+
+  public void setStarted(long started) {
+    this.started = started;
+  }
+
+  public long getFinished() {
+    return finished;
+  }
+
+  public void setFinished(long finished) {
+    this.finished = finished;
+  }
+
+  public long getCanceled() {
+    return canceled;
+  }
+
+  public void setCanceled(long canceled) {
+    this.canceled = canceled;
+  }
+
+  public long getCompleteScope() {
+    return completeScope;
+  }
+
+  public void setCompleteScope(long completeScope) {
+    this.completeScope = completeScope;
+  }
+
+  public long getDuration() {
+    return duration;
+  }
+
+  public void setDuration(long duration) {
+    this.duration = duration;
+  }
+
+  public Object getPersistentState() {
+    // immutable
+    return HistoricActivityStatisticsRollupEntity.class;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName()
+        + "[id=" + id
+        + ", timestamp=" + timestamp
+        + ", processDefinitionKey=" + processDefinitionKey
+        + ", processDefinitionId=" + processDefinitionId
+        + ", activityId=" + activityId
+        + ", tenantId=" + tenantId
+        + ", started=" + started
+        + ", finished=" + finished
+        + ", canceled=" + canceled
+        + ", completeScope=" + completeScope
+        + ", duration=" + duration
+        + "]";
+  }
+
+}
@@ -16,10 +16,15 @@
  */
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.camunda.bpm.engine.history.HistoricDetail;
 import org.camunda.bpm.engine.impl.HistoricDetailQueryImpl;
@@ -28,12 +33,16 @@ import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
 import org.camunda.bpm.engine.impl.history.event.HistoricDetailEventEntity;
 import org.camunda.bpm.engine.impl.persistence.AbstractHistoricManager;
+import org.camunda.bpm.engine.impl.util.CollectionUtil;
 
 /**
  * @author Tom Baeyens
  */
 public class HistoricDetailManager extends AbstractHistoricManager {
 
+  /** the maximum number of variable instances whose updates are selected with one query */
+  protected static final int MAX_VARIABLE_INSTANCES_PER_QUERY = 100;
+
   public void deleteHistoricDetailsByProcessInstanceIds(List<String> historicProcessInstanceIds) {
     Map<String, Object> parameters = new HashMap<String, Object>();
     parameters.put("processInstanceIds", historicProcessInstanceIds);
@@ -106,6 +115,88 @@ public class HistoricDetailManager extends AbstractHistoricManager {
     return getDbEntityManager().selectList("selectHistoricDetailsByTaskId", taskId);
   }
 
+  /**
+   * @return the variable updates of the given variable instance from the latest update
+   *   with a full value up to the given sequence counter, ordered by sequence counter
+   */
+  public List<HistoricDetailVariableInstanceUpdateEntity> findHistoricVariableUpdatesSinceFullValue(String variableInstanceId, long sequenceCounter) {
+    return findHistoricVariableUpdatesSinceFullValue(Collections.singletonList(
+        createUpdateRange(variableInstanceId, sequenceCounter, sequenceCounter)));
+  }
+
+  @SuppressWarnings("unchecked")
+  protected List<HistoricDetailVariableInstanceUpdateEntity> findHistoricVariableUpdatesSinceFullValue(List<Map<String, Object>> updateRanges) {
+    return getDbEntityManager().selectList("selectHistoricVariableUpdatesSinceFullValue", updateRanges);
+  }
+
+  /**
+   * Reconstructs the values of the given updates which store a Json patch. The
+   * updates of a variable instance back to its latest full value are selected
+   * with one query per batch of variable instances, their byte arrays with
+   * another one.
+   */
+  public void resolveJsonPatches(List<HistoricDetailVariableInstanceUpdateEntity> updates) {
+    Map<String, HistoricDetailVariableInstanceUpdateEntity> updatesById = new HashMap<String, HistoricDetailVariableInstanceUpdateEntity>();
+    Map<String, Map<String, Object>> rangesByVariableInstance = new LinkedHashMap<String, Map<String, Object>>();
+
+    for (HistoricDetailVariableInstanceUpdateEntity update : updates) {
+      if (!update.isJsonPatch()) {
+        continue;
+      }
+      updatesById.put(update.getId(), update);
+
+      Map<String, Object> range = rangesByVariableInstance.get(update.getVariableInstanceId());
+      if (range == null) {
+        range = createUpdateRange(update.getVariableInstanceId(), update.getSequenceCounter(), update.getSequenceCounter());
+        rangesByVariableInstance.put(update.getVariableInstanceId(), range);
+      }
+      else {
+        range.put("minSequenceCounter", Math.min((Long) range.get("minSequenceCounter"), update.getSequenceCounter()));
+        range.put("maxSequenceCounter", Math.max((Long) range.get("maxSequenceCounter"), update.getSequenceCounter()));
+      }
+    }
+
+    List<Map<String, Object>> ranges = new ArrayList<Map<String, Object>>(rangesByVariableInstance.values());
+    for (List<Map<String, Object>> rangeBatch : CollectionUtil.partition(ranges, MAX_VARIABLE_INSTANCES_PER_QUERY)) {
+      List<HistoricDetailVariableInstanceUpdateEntity> chain = findHistoricVariableUpdatesSinceFullValue(rangeBatch);
+
+      Set<String> byteArrayIds = new HashSet<String>();
+      for (HistoricDetailVariableInstanceUpdateEntity update : chain) {
+        if (update.getByteArrayValueId() != null) {
+          byteArrayIds.add(update.getByteArrayValueId());
+        }
+      }
+      getByteArrayManager().prefetchByteArrays(byteArrayIds);
+
+      // the chain is ordered by variable instance and sequence counter, so every
+      // patch follows the update it applies to
+      String variableInstanceId = null;
+      byte[] value = null;
+      for (HistoricDetailVariableInstanceUpdateEntity update : chain) {
+        if (!update.getVariableInstanceId().equals(variableInstanceId)) {
+          variableInstanceId = update.getVariableInstanceId();
+          value = null;
+        }
+
+        if (update.isJsonPatch()) {
+          HistoricDetailVariableInstanceUpdateEntity requestedUpdate = updatesById.get(update.getId());
+          value = (requestedUpdate != null ? requestedUpdate : update).applyJsonPatch(value);
+        }
+        else {
+          value = update.getByteArrayValue();
+        }
+      }
+    }
+  }
+
+  protected Map<String, Object> createUpdateRange(String variableInstanceId, long minSequenceCounter, long maxSequenceCounter) {
+    Map<String, Object> range = new HashMap<String, Object>();
+    range.put("variableInstanceId", variableInstanceId);
+    range.put("minSequenceCounter", minSequenceCounter);
+    range.put("maxSequenceCounter", maxSequenceCounter);
+    return range;
+  }
+
   protected void configureQuery(HistoricDetailQueryImpl query) {
     getAuthorizationManager().configureHistoricDetailQuery(query);
     getTenantManager().configureQuery(query);
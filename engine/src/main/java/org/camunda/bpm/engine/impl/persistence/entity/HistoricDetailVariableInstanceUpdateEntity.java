@@ -16,6 +16,7 @@
  */
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.util.Collections;
 import java.util.Date;
 
 import org.camunda.bpm.engine.history.HistoricVariableUpdate;
@@ -27,6 +28,7 @@ import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
 import org.camunda.bpm.engine.impl.history.event.HistoricVariableUpdateEventEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.util.ByteArrayField;
 import org.camunda.bpm.engine.impl.persistence.entity.util.TypedValueField;
+import org.camunda.bpm.engine.impl.util.JsonPatchUtil;
 import org.camunda.bpm.engine.impl.variable.serializer.TypedValueSerializer;
 import org.camunda.bpm.engine.impl.variable.serializer.ValueFields;
 import org.camunda.bpm.engine.repository.ResourceTypes;
@@ -45,6 +47,9 @@ public class HistoricDetailVariableInstanceUpdateEntity extends HistoricVariable
 
   protected ByteArrayField byteArrayField = new ByteArrayField(this, ResourceTypes.HISTORY);
 
+  // the value reconstructed from a Json patch
+  protected byte[] patchedByteArrayValue;
+
   public Object getValue() {
     return typedValueField.getValue();
   }
@@ -96,7 +101,45 @@ public class HistoricDetailVariableInstanceUpdateEntity extends HistoricVariable
   }
 
   public byte[] getByteArrayValue() {
-    return byteArrayField.getByteArrayValue();
+    if (isJsonPatch()) {
+      if (patchedByteArrayValue == null) {
+        patchedByteArrayValue = applyJsonPatches();
+      }
+      return patchedByteArrayValue;
+    }
+    else {
+      return byteArrayField.getByteArrayValue();
+    }
+  }
+
+  @Override
+  public String getTextValue() {
+    if (isJsonPatch()) {
+      return null;
+    }
+    else {
+      return textValue;
+    }
+  }
+
+  protected byte[] applyJsonPatches() {
+    Context.getCommandContext()
+      .getHistoricDetailManager()
+      .resolveJsonPatches(Collections.singletonList(this));
+
+    return patchedByteArrayValue;
+  }
+
+  /**
+   * Applies the Json patch of this update to the value of the previous update.
+   *
+   * @return the value of this update
+   */
+  public byte[] applyJsonPatch(byte[] previousValue) {
+    if (patchedByteArrayValue == null) {
+      patchedByteArrayValue = JsonPatchUtil.applyPatch(previousValue, byteArrayField.getByteArrayValue());
+    }
+    return patchedByteArrayValue;
   }
 
   public void setByteArrayValue(byte[] bytes) {
@@ -0,0 +1,180 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+
+/**
+ * Pre-aggregated durations of the process instances of one process definition which
+ * were started within the same hour and finished within a reporting interval.
+ *
+ * <p>Rows are only inserted and aggregated when queried, so concurrent reporters
+ * never compete for the same row.</p>
+ */
+public class HistoricProcessInstanceStatisticsRollupEntity implements DbEntity, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected String id;
+  protected Date timestamp;
+
+  protected String processDefinitionKey;
+  protected String processDefinitionId;
+  protected String tenantId;
+  protected Date startTime;
+
+  protected long finished;
+  protected long duration;
+  protected long minDuration = Long.MAX_VALUE;
+  protected long maxDuration = Long.MIN_VALUE;
+
+  public HistoricProcessInstanceStatisticsRollupEntity() {
+  }
+
+  public HistoricProcessInstanceStatisticsRollupEntity(String processDefinitionKey, String processDefinitionId, String tenantId, Date startTime) {
+    this.processDefinitionKey = processDefinitionKey;
+    this.processDefinitionId = processDefinitionId;
+    this.tenantId = tenantId;
+    this.startTime = startTime;
+  }
+
+  /**
+   * @return the key which identifies the aggregated process definition and start time bucket
+   */
+  public String getRollupKey() {
+    return processDefinitionId + ":" + tenantId + ":" + startTime.getTime();
+  }
+
+  public void addDuration(long duration) {
+    this.finished++;
+    this.duration += duration;
+    this.minDuration = Math.min(minDuration, duration);
+    this.maxDuration = Math.max(maxDuration, duration);
+  }
+
+  public void merge(HistoricProcessInstanceStatisticsRollupEntity other) {
+    finished += other.finished;
+    duration += other.duration;
+    minDuration = Math.min(minDuration, other.minDuration);
+    maxDuration = Math.max(maxDuration, other.maxDuration);
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public Date getTimestamp() {
+    return timestamp;
+  }
+
+  public void setTimestamp(Date timestamp) {
+    this.timestamp = timestamp;
+  }
+
+  public String getProcessDefinitionKey() {
+    return processDefinitionKey;
+  }
+
+  public void setProcessDefinitionKey(String processDefinitionKey) {
+    this.processDefinitionKey = processDefinitionKey;
+  }
+
+  public String getProcessDefinitionId() {
+    return processDefinitionId;
+  }
+
+  public void setProcessDefinitionId(String processDefinitionId) {
+    this.processDefinitionId = processDefinitionId;
+  }
+
+  public String getTenantId() {
+    return tenantId;
+  }
+
+  public void setTenantId(String tenantId) {
+    this.tenantId = tenantId;
+  }
+
+  public Date getStartTime() {
+    return startTime;
+  }
+
+  public void setStartTime(Date startTime) {
+    this.startTime = startTime;
+  }
+
+  public long getFinished() {
+    return finished;
+  }
+
+  public void setFinished(long finished) {
+    this.finished = finished;
+  }
+
+  public long getDuration() {
+    return duration;
+  }
+
+  public void setDuration(long duration) {
+    this.duration = duration;
+  }
+
+  public long getMinDuration() {
+    return minDuration;
+  }
+
+  public void setMinDuration(long minDuration) {
+    this.minDuration = minDuration;
+  }
+
+  public long getMaxDuration() {
+    return maxDuration;
+  }
+
+  public void setMaxDuration(long maxDuration) {
+    this.maxDuration = maxDuration;
+  }
+
+  public Object getPersistentState() {
+    // immutable
+    return HistoricProcessInstanceStatisticsRollupEntity.class;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName()
+        + "[id=" + id
+        + ", timestamp=" + timestamp
+        + ", processDefinitionKey=" + processDefinitionKey
+        + ", processDefinitionId=" + processDefinitionId
+        + ", tenantId=" + tenantId
+        + ", startTime=" + startTime
+        + ", finished=" + finished
+        + ", duration=" + duration
+        + ", minDuration=" + minDuration
+        + ", maxDuration=" + maxDuration
+        + "]";
+  }
+
+}
@@ -1,85 +1,201 @@
-/*
- * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
- * under one or more contributor license agreements. See the NOTICE file
- * distributed with this work for additional information regarding copyright
- * ownership. Camunda licenses this file to you under the Apache License,
- * Version 2.0; you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package org.camunda.bpm.engine.impl.persistence.entity;
-
-import static org.camunda.bpm.engine.authorization.Permissions.READ_HISTORY;
-import static org.camunda.bpm.engine.authorization.Resources.PROCESS_DEFINITION;
-
-import java.util.ArrayList;
-import java.util.List;
-
-import org.camunda.bpm.engine.history.HistoricActivityStatistics;
-import org.camunda.bpm.engine.history.HistoricCaseActivityStatistics;
-import org.camunda.bpm.engine.impl.HistoricActivityStatisticsQueryImpl;
-import org.camunda.bpm.engine.impl.HistoricCaseActivityStatisticsQueryImpl;
-import org.camunda.bpm.engine.impl.Page;
-import org.camunda.bpm.engine.impl.interceptor.CommandContext;
-import org.camunda.bpm.engine.impl.persistence.AbstractManager;
-
-/**
- *
- * @author Roman Smirnov
- *
- */
-public class HistoricStatisticsManager extends AbstractManager {
-
-  @SuppressWarnings("unchecked")
-  public List<HistoricActivityStatistics> getHistoricStatisticsGroupedByActivity(HistoricActivityStatisticsQueryImpl query, Page page) {
-    if (ensureHistoryReadOnProcessDefinition(query)) {
-      return getDbEntityManager().selectList("selectHistoricActivityStatistics", query, page);
-    }
-    else {
-      return new ArrayList<HistoricActivityStatistics>();
-    }
-  }
-
-  public long getHistoricStatisticsCountGroupedByActivity(HistoricActivityStatisticsQueryImpl query) {
-    if (ensureHistoryReadOnProcessDefinition(query)) {
-      return (Long) getDbEntityManager().selectOne("selectHistoricActivityStatisticsCount", query);
-    }
-    else {
-      return 0;
-    }
-  }
-
-  @SuppressWarnings("unchecked")
-  public List<HistoricCaseActivityStatistics> getHistoricStatisticsGroupedByCaseActivity(HistoricCaseActivityStatisticsQueryImpl query, Page page) {
-    return getDbEntityManager().selectList("selectHistoricCaseActivityStatistics", query, page);
-  }
-
-  public long getHistoricStatisticsCountGroupedByCaseActivity(HistoricCaseActivityStatisticsQueryImpl query) {
-    return (Long) getDbEntityManager().selectOne("selectHistoricCaseActivityStatisticsCount", query);
-  }
-
-  protected boolean ensureHistoryReadOnProcessDefinition(HistoricActivityStatisticsQueryImpl query) {
-    CommandContext commandContext = getCommandContext();
-
-    if(isAuthorizationEnabled() && getCurrentAuthentication() != null && commandContext.isAuthorizationCheckEnabled()) {
-      String processDefinitionId = query.getProcessDefinitionId();
-      ProcessDefinitionEntity definition = getProcessDefinitionManager().findLatestProcessDefinitionById(processDefinitionId);
-
-      if (definition == null) {
-        return false;
-      }
-
-      return getAuthorizationManager().isAuthorized(READ_HISTORY, PROCESS_DEFINITION, definition.getKey());
-    }
-
-    return true;
-  }
-
-}
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import static org.camunda.bpm.engine.authorization.Permissions.READ_HISTORY;
+import static org.camunda.bpm.engine.authorization.Resources.PROCESS_DEFINITION;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.history.HistoricActivityStatistics;
+import org.camunda.bpm.engine.history.HistoricCaseActivityStatistics;
+import org.camunda.bpm.engine.impl.HistoricActivityStatisticsQueryImpl;
+import org.camunda.bpm.engine.impl.HistoricCaseActivityStatisticsQueryImpl;
+import org.camunda.bpm.engine.impl.Page;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.history.statistics.HistoricStatisticsRollupRegistry;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.AbstractManager;
+
+/**
+ *
+ * @author Roman Smirnov
+ *
+ */
+public class HistoricStatisticsManager extends AbstractManager {
+
+  @SuppressWarnings("unchecked")
+  public List<HistoricActivityStatistics> getHistoricStatisticsGroupedByActivity(HistoricActivityStatisticsQueryImpl query, Page page) {
+    if (ensureHistoryReadOnProcessDefinition(query)) {
+      String statement = isRollupApplicable(query) ? "selectHistoricActivityStatisticsFromRollup" : "selectHistoricActivityStatistics";
+      return getDbEntityManager().selectList(statement, query, page);
+    }
+    else {
+      return new ArrayList<HistoricActivityStatistics>();
+    }
+  }
+
+  public long getHistoricStatisticsCountGroupedByActivity(HistoricActivityStatisticsQueryImpl query) {
+    if (ensureHistoryReadOnProcessDefinition(query)) {
+      String statement = isRollupApplicable(query) ? "selectHistoricActivityStatisticsFromRollupCount" : "selectHistoricActivityStatisticsCount";
+      return (Long) getDbEntityManager().selectOne(statement, query);
+    }
+    else {
+      return 0;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public List<HistoricCaseActivityStatistics> getHistoricStatisticsGroupedByCaseActivity(HistoricCaseActivityStatisticsQueryImpl query, Page page) {
+    return getDbEntityManager().selectList("selectHistoricCaseActivityStatistics", query, page);
+  }
+
+  public long getHistoricStatisticsCountGroupedByCaseActivity(HistoricCaseActivityStatisticsQueryImpl query) {
+    return (Long) getDbEntityManager().selectOne("selectHistoricCaseActivityStatisticsCount", query);
+  }
+
+  public void insertActivityStatisticsRollup(HistoricActivityStatisticsRollupEntity rollup) {
+    getDbEntityManager().insert(rollup);
+  }
+
+  public void insertProcessInstanceStatisticsRollup(HistoricProcessInstanceStatisticsRollupEntity rollup) {
+    getDbEntityManager().insert(rollup);
+  }
+
+  public void deleteAllStatisticsRollups() {
+    getDbEntityManager().delete(HistoricActivityStatisticsRollupEntity.class, "deleteAllHistoricActivityStatisticsRollups", null);
+    getDbEntityManager().delete(HistoricProcessInstanceStatisticsRollupEntity.class, "deleteAllHistoricProcessInstanceStatisticsRollups", null);
+  }
+
+  public void deleteStatisticsRollupsByProcessDefinitionId(final String processDefinitionId) {
+    getDbEntityManager().delete(HistoricActivityStatisticsRollupEntity.class, "deleteHistoricActivityStatisticsRollupsByProcessDefinitionId", processDefinitionId);
+    getDbEntityManager().delete(HistoricProcessInstanceStatisticsRollupEntity.class, "deleteHistoricProcessInstanceStatisticsRollupsByProcessDefinitionId", processDefinitionId);
+
+    final HistoricStatisticsRollupRegistry registry = Context.getProcessEngineConfiguration().getHistoricStatisticsRollupRegistry();
+    if (registry != null) {
+      // drop the deltas which are not reported yet, they would be orphaned otherwise
+      getCommandContext()
+        .getTransactionContext()
+        .addTransactionListener(TransactionState.COMMITTED, new TransactionListener() {
+          public void execute(CommandContext commandContext) {
+            registry.removeRollupsByProcessDefinitionId(processDefinitionId);
+          }
+        });
+    }
+  }
+
+  /**
+   * Merges all rollups reported until the given time into a single row per
+   * process definition and activity respectively per process definition and
+   * start time bucket. The merged rows are reported at the given time.
+   *
+   * @throws OptimisticLockingException if the rollups were changed concurrently
+   */
+  public void compactStatisticsRollups(Date reportedBefore) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("reportedBefore", reportedBefore);
+
+    long activityRollupCount = (Long) getDbEntityManager().selectOne("selectHistoricActivityStatisticsRollupCountReportedBefore", parameters);
+    List<HistoricActivityStatisticsRollupEntity> activityRollups =
+        selectCompactedRollups("selectCompactedHistoricActivityStatisticsRollups", parameters);
+
+    if (activityRollups.size() < activityRollupCount) {
+      deleteRollupsReportedBefore("deleteHistoricActivityStatisticsRollupsReportedBefore", parameters, activityRollupCount);
+      for (HistoricActivityStatisticsRollupEntity rollup : activityRollups) {
+        rollup.setTimestamp(reportedBefore);
+        insertActivityStatisticsRollup(rollup);
+      }
+    }
+
+    long processInstanceRollupCount = (Long) getDbEntityManager().selectOne("selectHistoricProcessInstanceStatisticsRollupCountReportedBefore", parameters);
+    List<HistoricProcessInstanceStatisticsRollupEntity> processInstanceRollups =
+        selectCompactedRollups("selectCompactedHistoricProcessInstanceStatisticsRollups", parameters);
+
+    if (processInstanceRollups.size() < processInstanceRollupCount) {
+      deleteRollupsReportedBefore("deleteHistoricProcessInstanceStatisticsRollupsReportedBefore", parameters, processInstanceRollupCount);
+      for (HistoricProcessInstanceStatisticsRollupEntity rollup : processInstanceRollups) {
+        rollup.setTimestamp(reportedBefore);
+        insertProcessInstanceStatisticsRollup(rollup);
+      }
+    }
+  }
+
+  protected <T> List<T> selectCompactedRollups(String statement, Map<String, Object> parameters) {
+    final List<T> rollups = new ArrayList<T>();
+
+    // the merged rows have no id and must not end up in the entity cache
+    getDbEntityManager().selectWithResultHandler(statement, parameters, new ResultHandler<T>() {
+      public void handleResult(ResultContext<? extends T> resultContext) {
+        rollups.add(resultContext.getResultObject());
+      }
+    });
+
+    return rollups;
+  }
+
+  protected void deleteRollupsReportedBefore(String statement, Map<String, Object> parameters, long expectedRowCount) {
+    int deletedRowCount = getDbSqlSession().executeUpdate(statement, parameters);
+    if (deletedRowCount != expectedRowCount) {
+      throw new OptimisticLockingException("Statistics rollups were changed concurrently while compacting them: expected to delete "
+          + expectedRowCount + " rows but deleted " + deletedRowCount);
+    }
+  }
+
+  protected boolean isRollupApplicable(HistoricActivityStatisticsQueryImpl query) {
+    if (query.isUseRollups()) {
+      ensureStatisticsRollupEnabled();
+      return true;
+    }
+    else {
+      return false;
+    }
+  }
+
+  public void ensureStatisticsRollupEnabled() {
+    if (!Context.getProcessEngineConfiguration().isHistoryStatisticsRollupEnabled()) {
+      throw new ProcessEngineException("Statistics rollups are not maintained, enable them with the process engine configuration property 'historyStatisticsRollupEnabled'");
+    }
+  }
+
+  protected boolean ensureHistoryReadOnProcessDefinition(HistoricActivityStatisticsQueryImpl query) {
+    CommandContext commandContext = getCommandContext();
+
+    if(isAuthorizationEnabled() && getCurrentAuthentication() != null && commandContext.isAuthorizationCheckEnabled()) {
+      String processDefinitionId = query.getProcessDefinitionId();
+      ProcessDefinitionEntity definition = getProcessDefinitionManager().findLatestProcessDefinitionById(processDefinitionId);
+
+      if (definition == null) {
+        return false;
+      }
+
+      return getAuthorizationManager().isAuthorized(READ_HISTORY, PROCESS_DEFINITION, definition.getKey());
+    }
+
+    return true;
+  }
+
+}
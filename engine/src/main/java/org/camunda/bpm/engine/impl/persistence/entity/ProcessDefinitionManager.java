@@ -367,6 +367,9 @@ public class ProcessDefinitionManager extends AbstractManager implements Abstrac
     // delete job definitions
     getJobDefinitionManager().deleteJobDefinitionsByProcessDefinitionId(processDefinition.getId());
 
+    // delete statistics rollups
+    getHistoricStatisticsManager().deleteStatisticsRollupsByProcessDefinitionId(processDefinitionId);
+
   }
 
 
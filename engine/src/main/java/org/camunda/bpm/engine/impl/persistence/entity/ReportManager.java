@@ -31,7 +31,18 @@ public class ReportManager extends AbstractManager {
   @SuppressWarnings("unchecked")
   public List<DurationReportResult> selectHistoricProcessInstanceDurationReport(HistoricProcessInstanceReportImpl query) {
     configureQuery(query);
-    return getDbEntityManager().selectListWithRawParameter("selectHistoricProcessInstanceDurationReport", query, 0, Integer.MAX_VALUE);
+    String statement = isRollupApplicable(query) ? "selectHistoricProcessInstanceDurationReportFromRollup" : "selectHistoricProcessInstanceDurationReport";
+    return getDbEntityManager().selectListWithRawParameter(statement, query, 0, Integer.MAX_VALUE);
+  }
+
+  protected boolean isRollupApplicable(HistoricProcessInstanceReportImpl query) {
+    if (query.isUseRollups()) {
+      getSession(HistoricStatisticsManager.class).ensureStatisticsRollupEnabled();
+      return true;
+    }
+    else {
+      return false;
+    }
   }
 
   protected void configureQuery(HistoricProcessInstanceReportImpl parameter) {
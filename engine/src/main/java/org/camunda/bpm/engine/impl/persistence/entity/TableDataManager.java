@@ -75,6 +75,7 @@ public class TableDataManager extends AbstractManager {
     persistentObjectToTableNameMap.put(ExecutionEntity.class, "ACT_RU_EXECUTION");
     persistentObjectToTableNameMap.put(IdentityLinkEntity.class, "ACT_RU_IDENTITYLINK");
     persistentObjectToTableNameMap.put(VariableInstanceEntity.class, "ACT_RU_VARIABLE");
+    persistentObjectToTableNameMap.put(VariableIndexEntity.class, "ACT_RU_VAR_INDEX");
 
     persistentObjectToTableNameMap.put(JobEntity.class, "ACT_RU_JOB");
     persistentObjectToTableNameMap.put(MessageEntity.class, "ACT_RU_JOB");
@@ -110,6 +111,8 @@ public class TableDataManager extends AbstractManager {
     persistentObjectToTableNameMap.put(HistoricActivityInstanceEntity.class, "ACT_HI_ACTINST");
     persistentObjectToTableNameMap.put(AttachmentEntity.class, "ACT_HI_ATTACHMENT");
     persistentObjectToTableNameMap.put(HistoricProcessInstanceEntity.class, "ACT_HI_PROCINST");
+    persistentObjectToTableNameMap.put(HistoricProcessInstanceStatisticsRollupEntity.class, "ACT_HI_PROCINST_STATS");
+    persistentObjectToTableNameMap.put(HistoricActivityStatisticsRollupEntity.class, "ACT_HI_ACT_STATS");
     persistentObjectToTableNameMap.put(HistoricTaskInstanceEntity.class, "ACT_HI_TASKINST");
     persistentObjectToTableNameMap.put(HistoricJobLogEventEntity.class, "ACT_HI_JOB_LOG");
     persistentObjectToTableNameMap.put(HistoricIncidentEventEntity.class, "ACT_HI_INCIDENT");
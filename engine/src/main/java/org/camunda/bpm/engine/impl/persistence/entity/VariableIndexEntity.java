@@ -0,0 +1,102 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.io.Serializable;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.variable.IndexedVariablePath;
+
+/**
+ * The value of an {@link IndexedVariablePath} in a process variable.
+ */
+public class VariableIndexEntity implements DbEntity, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected String id;
+  protected String processInstanceId;
+  protected String variableInstanceId;
+  protected String path;
+  protected String value;
+
+  public VariableIndexEntity() {
+  }
+
+  public VariableIndexEntity(VariableInstanceEntity variableInstance, String path, String value) {
+    this.processInstanceId = variableInstance.getProcessInstanceId();
+    this.variableInstanceId = variableInstance.getId();
+    this.path = path;
+    this.value = value;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getProcessInstanceId() {
+    return processInstanceId;
+  }
+
+  public void setProcessInstanceId(String processInstanceId) {
+    this.processInstanceId = processInstanceId;
+  }
+
+  public String getVariableInstanceId() {
+    return variableInstanceId;
+  }
+
+  public void setVariableInstanceId(String variableInstanceId) {
+    this.variableInstanceId = variableInstanceId;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public void setPath(String path) {
+    this.path = path;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  public void setValue(String value) {
+    this.value = value;
+  }
+
+  public Object getPersistentState() {
+    // only the value can change
+    return value;
+  }
+
+  public String toString() {
+    return this.getClass().getSimpleName()
+        + "[id=" + id
+        + ", processInstanceId=" + processInstanceId
+        + ", variableInstanceId=" + variableInstanceId
+        + ", path=" + path
+        + ", value=" + value
+        + "]";
+  }
+
+}
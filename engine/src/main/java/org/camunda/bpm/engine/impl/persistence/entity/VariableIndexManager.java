@@ -0,0 +1,124 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.camunda.bpm.engine.impl.bpmn.helper.BpmnProperties;
+import org.camunda.bpm.engine.impl.persistence.AbstractManager;
+import org.camunda.bpm.engine.impl.variable.IndexedVariablePath;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+
+/**
+ * Maintains the values of the {@link IndexedVariablePath indexed variable paths}
+ * declared by a process definition in the ACT_RU_VAR_INDEX table.
+ */
+public class VariableIndexManager extends AbstractManager {
+
+  @SuppressWarnings("unchecked")
+  public List<VariableIndexEntity> findVariableIndexesByVariableInstanceId(String variableInstanceId) {
+    return new ArrayList<VariableIndexEntity>(getDbEntityManager().selectList("selectVariableIndexesByVariableInstanceId", variableInstanceId));
+  }
+
+  /**
+   * Indexes a variable which has been created in the current command.
+   */
+  public void insertVariableIndexes(VariableInstanceEntity variableInstance) {
+    if (!getIndexedVariablePaths(variableInstance).isEmpty()) {
+      // a new variable has no index entries yet
+      variableInstance.setVariableIndexes(new ArrayList<VariableIndexEntity>());
+      updateVariableIndexes(variableInstance);
+    }
+  }
+
+  /**
+   * Brings the index entries of a variable in line with its current value.
+   */
+  public void updateVariableIndexes(VariableInstanceEntity variableInstance) {
+    List<IndexedVariablePath> paths = getIndexedVariablePaths(variableInstance);
+    if (paths.isEmpty()) {
+      return;
+    }
+
+    TypedValue typedValue = variableInstance.getTypedValue(false);
+    Map<String, String> values = new HashMap<String, String>();
+    for (IndexedVariablePath path : paths) {
+      String value = path.resolveValue(typedValue);
+      if (value != null) {
+        values.put(path.getPath(), value);
+      }
+    }
+
+    List<VariableIndexEntity> variableIndexes = variableInstance.getVariableIndexes();
+    Iterator<VariableIndexEntity> iterator = variableIndexes.iterator();
+    while (iterator.hasNext()) {
+      VariableIndexEntity variableIndex = iterator.next();
+      String value = values.remove(variableIndex.getPath());
+      if (value != null) {
+        // flushed as update if the value has changed
+        variableIndex.setValue(value);
+      }
+      else {
+        getDbEntityManager().delete(variableIndex);
+        iterator.remove();
+      }
+    }
+
+    for (Entry<String, String> value : values.entrySet()) {
+      VariableIndexEntity variableIndex = new VariableIndexEntity(variableInstance, value.getKey(), value.getValue());
+      getDbEntityManager().insert(variableIndex);
+      variableIndexes.add(variableIndex);
+    }
+  }
+
+  public void deleteVariableIndexes(VariableInstanceEntity variableInstance) {
+    if (!getIndexedVariablePaths(variableInstance).isEmpty()) {
+      List<VariableIndexEntity> variableIndexes = variableInstance.getVariableIndexes();
+      for (VariableIndexEntity variableIndex : variableIndexes) {
+        getDbEntityManager().delete(variableIndex);
+      }
+      variableIndexes.clear();
+    }
+  }
+
+  protected List<IndexedVariablePath> getIndexedVariablePaths(VariableInstanceEntity variableInstance) {
+    if (variableInstance.isTransient()
+        || variableInstance.getTaskId() != null
+        || variableInstance.getExecutionId() == null) {
+      // only process variables are indexed
+      return Collections.emptyList();
+    }
+
+    ProcessDefinitionEntity processDefinition = variableInstance.getExecution().getProcessDefinition();
+    List<IndexedVariablePath> declaredPaths = processDefinition.getProperties().get(BpmnProperties.INDEXED_VARIABLE_PATHS);
+
+    List<IndexedVariablePath> paths = new ArrayList<IndexedVariablePath>();
+    for (IndexedVariablePath path : declaredPaths) {
+      if (path.getVariableName().equals(variableInstance.getName())) {
+        paths.add(path);
+      }
+    }
+    return paths;
+  }
+
+}
@@ -19,6 +19,7 @@ package org.camunda.bpm.engine.impl.persistence.entity;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -36,11 +37,12 @@ import org.camunda.bpm.engine.impl.db.DbEntityLifecycleAware;
 import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
 import org.camunda.bpm.engine.impl.db.HasDbReferences;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
+import org.camunda.bpm.engine.impl.persistence.blob.BlobReference;
 import org.camunda.bpm.engine.impl.persistence.entity.util.ByteArrayField;
 import org.camunda.bpm.engine.impl.persistence.entity.util.TypedValueField;
 import org.camunda.bpm.engine.impl.persistence.entity.util.TypedValueUpdateListener;
 import org.camunda.bpm.engine.impl.variable.serializer.TypedValueSerializer;
-import org.camunda.bpm.engine.impl.variable.serializer.ValueFields;
+import org.camunda.bpm.engine.impl.variable.serializer.BlobValueFields;
 import org.camunda.bpm.engine.repository.ResourceTypes;
 import org.camunda.bpm.engine.runtime.VariableInstance;
 import org.camunda.bpm.engine.variable.value.TypedValue;
@@ -48,7 +50,7 @@ import org.camunda.bpm.engine.variable.value.TypedValue;
 /**
  * @author Tom Baeyens
  */
-public class VariableInstanceEntity implements VariableInstance, CoreVariableInstance, ValueFields, DbEntity, DbEntityLifecycleAware, TypedValueUpdateListener, HasDbRevision,
+public class VariableInstanceEntity implements VariableInstance, CoreVariableInstance, BlobValueFields, DbEntity, DbEntityLifecycleAware, TypedValueUpdateListener, HasDbRevision,
   HasDbReferences, Serializable {
 
   protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
@@ -73,7 +75,7 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   protected String textValue;
   protected String textValue2;
 
-  protected ByteArrayField byteArrayField = new ByteArrayField(this, ResourceTypes.RUNTIME);
+  protected ByteArrayField byteArrayField = new ByteArrayField(this, ResourceTypes.RUNTIME, true);
 
   protected TypedValueField typedValueField = new TypedValueField(this, true);
 
@@ -114,6 +116,7 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
 
   // transient properties
   protected ExecutionEntity execution;
+  protected transient List<VariableIndexEntity> variableIndexes;
 
   // Default constructor for SQL mapping
   public VariableInstanceEntity() {
@@ -251,6 +254,10 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
     byteArrayField.setByteArrayValue(bytes, isTransient);
   }
 
+  public BlobReference getByteArrayValueBlob() {
+    return byteArrayField.getByteArrayValueBlob();
+  }
+
   protected void deleteByteArrayValue() {
     byteArrayField.deleteByteArrayValue();
   }
@@ -293,6 +300,22 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
     return typedValueField.getTypeName();
   }
 
+  // variable indexes /////////////////////////////////////////////////////////
+
+  public List<VariableIndexEntity> getVariableIndexes() {
+    if (variableIndexes == null) {
+      variableIndexes = Context
+          .getCommandContext()
+          .getVariableIndexManager()
+          .findVariableIndexesByVariableInstanceId(id);
+    }
+    return variableIndexes;
+  }
+
+  public void setVariableIndexes(List<VariableIndexEntity> variableIndexes) {
+    this.variableIndexes = variableIndexes;
+  }
+
   // entity lifecycle /////////////////////////////////////////////////////////
 
   public void postLoad() {
@@ -16,6 +16,7 @@
  */
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.core.variable.scope.AbstractVariableScope;
 import org.camunda.bpm.engine.impl.core.variable.scope.VariableInstanceLifecycleListener;
 
@@ -30,15 +31,22 @@ public class VariableInstanceEntityPersistenceListener implements VariableInstan
   @Override
   public void onCreate(VariableInstanceEntity variable, AbstractVariableScope sourceScope) {
     VariableInstanceEntity.insert(variable);
+    getVariableIndexManager().insertVariableIndexes(variable);
   }
 
   @Override
   public void onDelete(VariableInstanceEntity variable, AbstractVariableScope sourceScope) {
     variable.delete();
+    getVariableIndexManager().deleteVariableIndexes(variable);
   }
 
   @Override
   public void onUpdate(VariableInstanceEntity variable, AbstractVariableScope sourceScope) {
+    getVariableIndexManager().updateVariableIndexes(variable);
+  }
+
+  protected VariableIndexManager getVariableIndexManager() {
+    return Context.getCommandContext().getVariableIndexManager();
   }
 
 }
@@ -56,6 +56,14 @@ public class VariableInstanceManager extends AbstractManager {
     return getDbEntityManager().selectList("selectVariablesByExecutionId", parameter);
   }
 
+  @SuppressWarnings("unchecked")
+  public List<VariableInstanceEntity> findVariableInstancesByExecutionIdsAndVariableNames(Collection<String> executionIds, Collection<String> variableNames) {
+    Map<String, Object> parameter = new HashMap<String, Object>();
+    parameter.put("executionIds", executionIds);
+    parameter.put("variableNames", variableNames);
+    return getDbEntityManager().selectList("selectVariablesByExecutionIds", parameter);
+  }
+
   @SuppressWarnings("unchecked")
   public List<VariableInstanceEntity> findVariableInstancesByProcessInstanceId(String processInstanceId) {
     return getDbEntityManager().selectList("selectVariablesByProcessInstanceId", processInstanceId);
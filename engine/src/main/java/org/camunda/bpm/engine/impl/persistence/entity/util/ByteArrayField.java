@@ -16,12 +16,19 @@
  */
 package org.camunda.bpm.engine.impl.persistence.entity.util;
 
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.blob.BlobReference;
 import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.Nameable;
+import org.camunda.bpm.engine.impl.util.CompressionUtil;
+import org.camunda.bpm.engine.impl.util.IoUtil;
 import org.camunda.bpm.engine.impl.variable.serializer.ValueFields;
 import org.camunda.bpm.engine.repository.ResourceType;
 
+import java.io.InputStream;
 import java.util.Date;
 
 /**
@@ -35,12 +42,20 @@ public class ByteArrayField {
   protected ByteArrayEntity byteArrayValue;
   protected String byteArrayId;
 
+  // the last stored bytes or blob key and the uncompressed value
+  protected byte[] storedBytes;
+  protected String storedBlobKey;
+  protected byte[] uncompressedBytes;
+
   protected final Nameable nameProvider;
   protected ResourceType type;
 
   protected String rootProcessInstanceId;
   protected Date removalTime;
 
+  // whether large values may be kept in the configured blob store
+  protected boolean externalizable;
+
   public ByteArrayField(Nameable nameProvider, ResourceType type, String rootProcessInstanceId, Date removalTime) {
     this(nameProvider, type);
     this.removalTime = removalTime;
@@ -52,6 +67,11 @@ public class ByteArrayField {
     this.type = type;
   }
 
+  public ByteArrayField(Nameable nameProvider, ResourceType type, boolean externalizable) {
+    this(nameProvider, type);
+    this.externalizable = externalizable;
+  }
+
   public String getByteArrayId() {
     return byteArrayId;
   }
@@ -65,13 +85,72 @@ public class ByteArrayField {
     getByteArrayEntity();
 
     if (byteArrayValue != null) {
-      return byteArrayValue.getBytes();
+      String blobKey = byteArrayValue.getBlobKey();
+      if (blobKey != null) {
+        if (!blobKey.equals(storedBlobKey)) {
+          storedBlobKey = blobKey;
+          storedBytes = null;
+          uncompressedBytes = decompress(readBlob());
+        }
+        return uncompressedBytes;
+      }
+
+      byte[] bytes = byteArrayValue.getBytes();
+      if (bytes != storedBytes || storedBlobKey != null) {
+        storedBlobKey = null;
+        storedBytes = bytes;
+        uncompressedBytes = decompress(bytes);
+      }
+      return uncompressedBytes;
     }
     else {
       return null;
     }
   }
 
+  /**
+   * @return a reference to stream the value from the blob store or <code>null</code>
+   *   if the value is not kept in a blob store
+   */
+  public BlobReference getByteArrayValueBlob() {
+    getByteArrayEntity();
+
+    if (byteArrayValue != null && byteArrayValue.getBlobKey() != null && Context.getCommandContext() != null) {
+      return Context.getCommandContext()
+          .getByteArrayManager()
+          .getBlobReference(byteArrayValue);
+    }
+    else {
+      return null;
+    }
+  }
+
+  protected byte[] decompress(byte[] bytes) {
+    return byteArrayValue.isCompressed() ? CompressionUtil.decompress(bytes) : bytes;
+  }
+
+  protected byte[] readBlob() {
+    InputStream inputStream = openBlob();
+    try {
+      return IoUtil.readInputStream(inputStream, byteArrayValue.getBlobKey());
+    }
+    finally {
+      IoUtil.closeSilently(inputStream);
+    }
+  }
+
+  protected InputStream openBlob() {
+    CommandContext commandContext = Context.getCommandContext();
+    if (commandContext == null) {
+      throw new ProcessEngineException("Cannot load blob '" + byteArrayValue.getBlobKey() + "' of byte array '"
+          + byteArrayId + "' outside of a command context");
+    }
+
+    return commandContext
+        .getByteArrayManager()
+        .openBytes(byteArrayValue);
+  }
+
   protected ByteArrayEntity getByteArrayEntity() {
 
     if (byteArrayValue == null) {
@@ -95,16 +174,24 @@ public class ByteArrayField {
 
   public void setByteArrayValue(byte[] bytes, boolean isTransient) {
     if (bytes != null) {
+      byte[] value = bytes;
+      byte[] compressedBytes = compress(bytes);
+      boolean compressed = compressedBytes != null;
+      if (compressed) {
+        bytes = compressedBytes;
+      }
+
       // note: there can be cases where byteArrayId is not null
       //   but the corresponding byte array entity has been removed in parallel;
       //   thus we also need to check if the actual byte array entity still exists
       if (this.byteArrayId != null && getByteArrayEntity() != null) {
-        byteArrayValue.setBytes(bytes);
+        writeBytes(bytes, compressed, isTransient);
       }
       else {
         deleteByteArrayValue();
 
-        byteArrayValue = new ByteArrayEntity(nameProvider.getName(), bytes, type, rootProcessInstanceId, removalTime);
+        byteArrayValue = new ByteArrayEntity(nameProvider.getName(), null, type, rootProcessInstanceId, removalTime);
+        writeBytes(bytes, compressed, isTransient);
 
         // avoid insert of byte array value for a transient variable
         if (!isTransient) {
@@ -116,6 +203,11 @@ public class ByteArrayField {
           byteArrayId = byteArrayValue.getId();
         }
       }
+
+      // avoid to read the value again (e.g. from the blob store)
+      storedBlobKey = byteArrayValue.getBlobKey();
+      storedBytes = byteArrayValue.getBytes();
+      uncompressedBytes = value;
     }
     else {
       deleteByteArrayValue();
@@ -123,6 +215,32 @@ public class ByteArrayField {
 
   }
 
+  protected void writeBytes(byte[] bytes, boolean compressed, boolean isTransient) {
+    byteArrayValue.setCompressed(compressed);
+
+    if (externalizable && !isTransient) {
+      Context.getCommandContext()
+        .getByteArrayManager()
+        .setBytes(byteArrayValue, bytes);
+    }
+    else {
+      byteArrayValue.setBytes(bytes);
+    }
+  }
+
+  /**
+   * @return the compressed bytes or <code>null</code> if the bytes are stored uncompressed
+   */
+  protected byte[] compress(byte[] bytes) {
+    ProcessEngineConfigurationImpl configuration = Context.getProcessEngineConfiguration();
+    if (configuration != null) {
+      return CompressionUtil.compress(bytes, configuration.getByteArrayCompressionThreshold());
+    }
+    else {
+      return null;
+    }
+  }
+
   public void deleteByteArrayValue() {
     if (byteArrayId != null) {
       // the next apparently useless line is probably to ensure consistency in the DbSqlSession cache,
@@ -133,6 +251,10 @@ public class ByteArrayField {
         Context.getCommandContext()
                .getDbEntityManager()
                .delete(byteArrayValue);
+
+        Context.getCommandContext()
+               .getByteArrayManager()
+               .deleteBlob(byteArrayValue);
       }
 
       byteArrayId = null;
@@ -56,6 +56,15 @@ public class TypedValueField implements DbEntityLifecycleAware, CommandContextLi
 
   protected TypedValue cachedValue;
 
+  /**
+   * Serialized form of a mutable value as computed when checking it for
+   * implicit updates. If the same value is written back as part of the
+   * implicit update, it is reused instead of serializing the value again.
+   */
+  protected TypedValue implicitlyUpdatedValue;
+  protected TypedValueSerializer<?> implicitlyUpdatedValueSerializer;
+  protected ValueFieldsImpl implicitlyUpdatedValueFields;
+
   protected String errorMessage;
 
   protected final ValueFields valueFields;
@@ -120,7 +129,14 @@ public class TypedValueField implements DbEntityLifecycleAware, CommandContextLi
     }
 
     // set new value
-    writeValue(value, valueFields);
+    if (value == implicitlyUpdatedValue && serializer == implicitlyUpdatedValueSerializer) {
+      // the value has just been serialized when checking for implicit updates
+      copyValueFields(implicitlyUpdatedValueFields, valueFields);
+    }
+    else {
+      writeValue(value, valueFields);
+    }
+    clearImplicitlyUpdatedValue();
 
     // cache the value
     cachedValue = value;
@@ -152,12 +168,32 @@ public class TypedValueField implements DbEntityLifecycleAware, CommandContextLi
 
       byte[] byteArrayAfter = tempValueFields.getByteArrayValue();
 
-      return !Arrays.equals(byteArray, byteArrayAfter);
+      if (!Arrays.equals(byteArray, byteArrayAfter)) {
+        implicitlyUpdatedValue = cachedValue;
+        implicitlyUpdatedValueSerializer = getSerializer();
+        implicitlyUpdatedValueFields = tempValueFields;
+        return true;
+      }
     }
 
     return false;
   }
 
+  protected void copyValueFields(ValueFields source, ValueFields target) {
+    // copy null values as well, so that no field keeps a value of the previous serialization
+    target.setTextValue(source.getTextValue());
+    target.setTextValue2(source.getTextValue2());
+    target.setLongValue(source.getLongValue());
+    target.setDoubleValue(source.getDoubleValue());
+    target.setByteArrayValue(source.getByteArrayValue());
+  }
+
+  protected void clearImplicitlyUpdatedValue() {
+    implicitlyUpdatedValue = null;
+    implicitlyUpdatedValueSerializer = null;
+    implicitlyUpdatedValueFields = null;
+  }
+
   @SuppressWarnings("unchecked")
   protected void writeValue(TypedValue value, ValueFields valueFields) {
     ((TypedValueSerializer<TypedValue>) getSerializer()).writeValue(value, valueFields);
@@ -170,8 +206,13 @@ public class TypedValueField implements DbEntityLifecycleAware, CommandContextLi
 
   public void notifyImplicitValueUpdate() {
     if (isValuedImplicitlyUpdated()) {
-      for (TypedValueUpdateListener typedValueImplicitUpdateListener : updateListeners) {
-        typedValueImplicitUpdateListener.onImplicitValueUpdate(cachedValue);
+      try {
+        for (TypedValueUpdateListener typedValueImplicitUpdateListener : updateListeners) {
+          typedValueImplicitUpdateListener.onImplicitValueUpdate(cachedValue);
+        }
+      }
+      finally {
+        clearImplicitlyUpdatedValue();
       }
     }
   }
@@ -0,0 +1,176 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+
+/**
+ * Compresses byte array values with Deflate. Compressed values are prefixed
+ * with their uncompressed length. Whether a stored value is compressed is not
+ * derived from its content but kept separately, see
+ * {@link org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity#isCompressed()}.
+ */
+public final class CompressionUtil {
+
+  private static final EngineUtilLogger LOG = ProcessEngineLogger.UTIL_LOGGER;
+
+  protected static final int HEADER_LENGTH = 4;
+
+  // deflate cannot exceed a compression ratio of about 1032:1
+  protected static final int MAX_COMPRESSION_RATIO = 1032;
+
+  private CompressionUtil() {
+  }
+
+  /**
+   * Returns the compressed representation of the given bytes if their length
+   * reaches the given threshold and the compression actually saves space.
+   *
+   * @param threshold the minimum number of bytes to compress; a negative
+   *   threshold disables the compression
+   * @return the compressed bytes or <code>null</code> if the bytes have not
+   *   been compressed and must be stored as they are
+   */
+  public static byte[] compress(byte[] bytes, int threshold) {
+    if (bytes == null || threshold < 0 || bytes.length < threshold) {
+      return null;
+    }
+
+    Deflater deflater = new Deflater();
+    try {
+      deflater.setInput(bytes);
+      deflater.finish();
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + HEADER_LENGTH);
+      writeInt(out, bytes.length);
+
+      byte[] buffer = new byte[4096];
+      while (!deflater.finished()) {
+        int count = deflater.deflate(buffer);
+        out.write(buffer, 0, count);
+
+        if (out.size() >= bytes.length) {
+          // does not pay off
+          return null;
+        }
+      }
+
+      return out.toByteArray();
+    }
+    finally {
+      deflater.end();
+    }
+  }
+
+  /**
+   * Returns the uncompressed representation of bytes which have been returned
+   * by {@link #compress(byte[], int)}.
+   *
+   * @throws ProcessEngineException if the bytes are not a compressed value
+   */
+  public static byte[] decompress(byte[] bytes) {
+    if (bytes == null) {
+      return null;
+    }
+
+    if (bytes.length < HEADER_LENGTH) {
+      throw new ProcessEngineException("Cannot decompress value, it is shorter than the compression header");
+    }
+
+    int length = readInt(bytes, 0);
+    if (length < 0 || length / MAX_COMPRESSION_RATIO > bytes.length) {
+      throw new ProcessEngineException("Cannot decompress value, the header declares an invalid length of " + length);
+    }
+
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+
+      byte[] result = new byte[length];
+      int offset = 0;
+      while (offset < length && !inflater.finished()) {
+        int count = inflater.inflate(result, offset, length - offset);
+        if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        offset += count;
+      }
+
+      if (offset != length || !inflater.finished()) {
+        throw new ProcessEngineException("Cannot decompress value, expected " + length + " bytes but got " + offset);
+      }
+
+      return result;
+    }
+    catch (DataFormatException e) {
+      throw new ProcessEngineException("Cannot decompress value", e);
+    }
+    finally {
+      inflater.end();
+    }
+  }
+
+  /**
+   * Returns a stream of the uncompressed representation of a compressed value
+   * which is read from the given stream.
+   */
+  public static InputStream decompress(InputStream inputStream) {
+    try {
+      int length = 0;
+      while (length < HEADER_LENGTH) {
+        if (inputStream.read() == -1) {
+          throw new ProcessEngineException("Cannot decompress value, it is shorter than the compression header");
+        }
+        length++;
+      }
+
+      return new InflaterInputStream(inputStream);
+    }
+    catch (IOException e) {
+      IoUtil.closeSilently(inputStream);
+      throw LOG.exceptionWhileReadingStream("compressed value", e);
+    }
+    catch (RuntimeException e) {
+      IoUtil.closeSilently(inputStream);
+      throw e;
+    }
+  }
+
+  protected static void writeInt(ByteArrayOutputStream out, int value) {
+    out.write((value >>> 24) & 0xFF);
+    out.write((value >>> 16) & 0xFF);
+    out.write((value >>> 8) & 0xFF);
+    out.write(value & 0xFF);
+  }
+
+  protected static int readInt(byte[] bytes, int offset) {
+    return ((bytes[offset] & 0xFF) << 24)
+        | ((bytes[offset + 1] & 0xFF) << 16)
+        | ((bytes[offset + 2] & 0xFF) << 8)
+        | (bytes[offset + 3] & 0xFF);
+  }
+
+}
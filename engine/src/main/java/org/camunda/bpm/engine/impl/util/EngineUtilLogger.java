@@ -219,4 +219,10 @@ public class EngineUtilLogger extends ProcessEngineLogger {
       "030",
       "Exception while parsing JSON: {}", e.getMessage(), e);
   }
+
+  public ProcessEngineException cannotApplyJsonPatch(String operation, String path) {
+    return new ProcessEngineException(exceptionMessage(
+        "031",
+        "Cannot apply JSON patch operation '{}' at path '{}'", operation, path));
+  }
 }
@@ -0,0 +1,270 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.util;
+
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Creates and applies JSON patches (RFC 6902). Patches are created with the
+ * operations <code>add</code>, <code>remove</code> and <code>replace</code>
+ * only, so these are the only operations which can be applied.
+ */
+public final class JsonPatchUtil {
+
+  private static final EngineUtilLogger LOG = ProcessEngineLogger.UTIL_LOGGER;
+
+  public static final String JSON_PATCH_DATA_FORMAT = "application/json-patch+json";
+
+  protected static final String OP = "op";
+  protected static final String PATH = "path";
+  protected static final String VALUE = "value";
+
+  protected static final String ADD = "add";
+  protected static final String REMOVE = "remove";
+  protected static final String REPLACE = "replace";
+
+  private JsonPatchUtil() {
+  }
+
+  /**
+   * Returns the serialized patch which transforms the source document into the
+   * target document, or <code>null</code> if one of the documents is not valid
+   * JSON or the patch is not smaller than the target document.
+   */
+  public static byte[] createPatch(byte[] source, byte[] target) {
+    JsonElement sourceDocument = parse(source);
+    JsonElement targetDocument = parse(target);
+    if (sourceDocument == null || targetDocument == null) {
+      return null;
+    }
+
+    byte[] patch = JsonUtil.asBytes(diff(sourceDocument, targetDocument));
+    if (patch.length < target.length) {
+      return patch;
+    }
+    else {
+      return null;
+    }
+  }
+
+  /**
+   * Applies the serialized patch to the serialized document.
+   */
+  public static byte[] applyPatch(byte[] document, byte[] patch) {
+    JsonElement patchedDocument = apply(parse(document), JsonUtil.getArray(parse(patch)));
+    return JsonUtil.asBytes(patchedDocument);
+  }
+
+  public static JsonArray diff(JsonElement source, JsonElement target) {
+    JsonArray patch = new JsonArray();
+    diff("", source, target, patch);
+    return patch;
+  }
+
+  public static JsonElement apply(JsonElement document, JsonArray patch) {
+    for (JsonElement element : patch) {
+      JsonObject operation = JsonUtil.getObject(element);
+      String op = JsonUtil.getString(operation, OP);
+      String path = JsonUtil.getString(operation, PATH);
+      JsonElement value = operation.get(VALUE);
+
+      if (path.isEmpty()) {
+        if (REMOVE.equals(op)) {
+          throw LOG.cannotApplyJsonPatch(op, path);
+        }
+        document = value;
+        continue;
+      }
+
+      int separator = path.lastIndexOf('/');
+      JsonElement parent = resolve(document, path.substring(0, separator));
+      String token = unescape(path.substring(separator + 1));
+
+      if (parent != null && parent.isJsonObject()) {
+        applyToObject((JsonObject) parent, op, path, token, value);
+      }
+      else if (parent != null && parent.isJsonArray()) {
+        applyToArray((JsonArray) parent, op, path, token, value);
+      }
+      else {
+        throw LOG.cannotApplyJsonPatch(op, path);
+      }
+    }
+
+    return document;
+  }
+
+  protected static void diff(String path, JsonElement source, JsonElement target, JsonArray patch) {
+    if (source.equals(target)) {
+      return;
+    }
+
+    if (source.isJsonObject() && target.isJsonObject()) {
+      JsonObject sourceObject = (JsonObject) source;
+      JsonObject targetObject = (JsonObject) target;
+
+      for (Map.Entry<String, JsonElement> member : sourceObject.entrySet()) {
+        if (!targetObject.has(member.getKey())) {
+          patch.add(operation(REMOVE, path + "/" + escape(member.getKey()), null));
+        }
+      }
+
+      for (Map.Entry<String, JsonElement> member : targetObject.entrySet()) {
+        String memberPath = path + "/" + escape(member.getKey());
+        if (sourceObject.has(member.getKey())) {
+          diff(memberPath, sourceObject.get(member.getKey()), member.getValue(), patch);
+        }
+        else {
+          patch.add(operation(ADD, memberPath, member.getValue()));
+        }
+      }
+    }
+    else if (source.isJsonArray() && target.isJsonArray()) {
+      JsonArray sourceArray = (JsonArray) source;
+      JsonArray targetArray = (JsonArray) target;
+      int common = Math.min(sourceArray.size(), targetArray.size());
+
+      for (int i = 0; i < common; i++) {
+        diff(path + "/" + i, sourceArray.get(i), targetArray.get(i), patch);
+      }
+      // remove from the end so that the remaining indexes stay valid
+      for (int i = sourceArray.size() - 1; i >= common; i--) {
+        patch.add(operation(REMOVE, path + "/" + i, null));
+      }
+      for (int i = common; i < targetArray.size(); i++) {
+        patch.add(operation(ADD, path + "/" + i, targetArray.get(i)));
+      }
+    }
+    else {
+      patch.add(operation(REPLACE, path, target));
+    }
+  }
+
+  protected static void applyToObject(JsonObject object, String op, String path, String member, JsonElement value) {
+    if (REMOVE.equals(op)) {
+      if (object.remove(member) == null) {
+        throw LOG.cannotApplyJsonPatch(op, path);
+      }
+    }
+    else if ((ADD.equals(op) || REPLACE.equals(op)) && value != null) {
+      object.add(member, value);
+    }
+    else {
+      throw LOG.cannotApplyJsonPatch(op, path);
+    }
+  }
+
+  protected static void applyToArray(JsonArray array, String op, String path, String token, JsonElement value) {
+    int index = "-".equals(token) ? array.size() : parseIndex(token, op, path);
+
+    if (ADD.equals(op) && value != null && index <= array.size()) {
+      // JsonArray cannot insert, so append and shift the tail by one
+      array.add(value);
+      for (int i = array.size() - 1; i > index; i--) {
+        array.set(i, array.get(i - 1));
+      }
+      array.set(index, value);
+    }
+    else if (REMOVE.equals(op) && index < array.size()) {
+      array.remove(index);
+    }
+    else if (REPLACE.equals(op) && value != null && index < array.size()) {
+      array.set(index, value);
+    }
+    else {
+      throw LOG.cannotApplyJsonPatch(op, path);
+    }
+  }
+
+  protected static JsonElement resolve(JsonElement document, String pointer) {
+    JsonElement current = document;
+    if (pointer.isEmpty()) {
+      return current;
+    }
+
+    for (String token : pointer.substring(1).split("/", -1)) {
+      token = unescape(token);
+      if (current != null && current.isJsonObject()) {
+        current = ((JsonObject) current).get(token);
+      }
+      else if (current != null && current.isJsonArray()) {
+        int index = parseIndex(token, "resolve", pointer);
+        JsonArray array = (JsonArray) current;
+        current = index < array.size() ? array.get(index) : null;
+      }
+      else {
+        return null;
+      }
+    }
+    return current;
+  }
+
+  protected static int parseIndex(String token, String op, String path) {
+    try {
+      int index = Integer.parseInt(token);
+      if (index >= 0) {
+        return index;
+      }
+    }
+    catch (NumberFormatException e) {
+      // fall through
+    }
+    throw LOG.cannotApplyJsonPatch(op, path);
+  }
+
+  protected static JsonObject operation(String op, String path, JsonElement value) {
+    JsonObject operation = new JsonObject();
+    operation.add(OP, new JsonPrimitive(op));
+    operation.add(PATH, new JsonPrimitive(path));
+    if (value != null) {
+      operation.add(VALUE, value);
+    }
+    return operation;
+  }
+
+  protected static JsonElement parse(byte[] bytes) {
+    if (bytes == null) {
+      return null;
+    }
+
+    try {
+      return JsonUtil.getGsonMapper().fromJson(StringUtil.fromBytes(bytes), JsonElement.class);
+    }
+    catch (JsonParseException e) {
+      LOG.logJsonException(e);
+      return null;
+    }
+  }
+
+  // RFC 6901: '~' is escaped as '~0' and '/' as '~1'
+  protected static String escape(String token) {
+    return token.replace("~", "~0").replace("/", "~1");
+  }
+
+  protected static String unescape(String token) {
+    return token.replace("~1", "/").replace("~0", "~");
+  }
+
+}
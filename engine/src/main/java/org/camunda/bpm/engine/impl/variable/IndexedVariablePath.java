@@ -0,0 +1,212 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.variable;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.util.JsonUtil;
+import org.camunda.bpm.engine.variable.Variables.SerializationDataFormats;
+import org.camunda.bpm.engine.variable.value.SerializableValue;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * A path into a variable value which is indexed in a narrow table for fast
+ * value queries, e.g. <code>customer.id</code>. The first segment of the path
+ * is the name of the variable, the remaining segments address a property of
+ * the variable value. Properties are resolved on the serialized Json
+ * representation of a value or, for other object values, on maps and bean
+ * getters of the deserialized object.
+ */
+public class IndexedVariablePath implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  public static final char SEPARATOR = '.';
+
+  /** Maximum length of path and value in the index table. */
+  public static final int MAX_LENGTH = 255;
+
+  protected final String path;
+  protected final String[] segments;
+
+  public IndexedVariablePath(String path) {
+    this.path = path;
+    this.segments = path.split("\\" + SEPARATOR, -1);
+  }
+
+  /**
+   * @return true if the path is not longer than the index column and none of its segments is empty
+   */
+  public static boolean isValid(String path) {
+    if (path == null || path.isEmpty() || path.length() > MAX_LENGTH) {
+      return false;
+    }
+    for (String segment : new IndexedVariablePath(path).segments) {
+      if (segment.trim().isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public String getVariableName() {
+    return segments[0];
+  }
+
+  /**
+   * @return the value at this path in the given variable value, converted to its
+   *   index representation or null if the value cannot be indexed
+   */
+  public String resolveValue(TypedValue typedValue) {
+    if (typedValue == null) {
+      return null;
+    }
+
+    String[] properties = Arrays.copyOfRange(segments, 1, segments.length);
+
+    if (typedValue instanceof SerializableValue) {
+      SerializableValue serializableValue = (SerializableValue) typedValue;
+      if (properties.length == 0) {
+        // objects are only indexed by their properties
+        return null;
+      }
+      else if (isJson(serializableValue)) {
+        return resolveJsonValue(serializableValue.getValueSerialized(), properties);
+      }
+      else if (serializableValue.isDeserialized()) {
+        return resolveObjectValue(serializableValue.getValue(), properties);
+      }
+      else {
+        return null;
+      }
+    }
+    else if (properties.length == 0) {
+      return toIndexValue(typedValue.getValue());
+    }
+    else {
+      return resolveObjectValue(typedValue.getValue(), properties);
+    }
+  }
+
+  protected boolean isJson(SerializableValue value) {
+    return SerializationDataFormats.JSON.getName().equals(value.getSerializationDataFormat())
+        && value.getValueSerialized() != null;
+  }
+
+  protected String resolveJsonValue(String json, String[] properties) {
+    JsonElement element = JsonUtil.asObject(json);
+    for (String property : properties) {
+      if (element instanceof JsonObject) {
+        element = ((JsonObject) element).get(property);
+      }
+      else {
+        return null;
+      }
+    }
+
+    if (element instanceof JsonPrimitive) {
+      return toIndexValue(JsonUtil.asPrimitiveObject((JsonPrimitive) element));
+    }
+    else {
+      return null;
+    }
+  }
+
+  protected String resolveObjectValue(Object value, String[] properties) {
+    for (String property : properties) {
+      if (value == null) {
+        return null;
+      }
+      value = getProperty(value, property);
+    }
+    return toIndexValue(value);
+  }
+
+  protected Object getProperty(Object object, String property) {
+    if (object instanceof Map) {
+      return ((Map<?, ?>) object).get(property);
+    }
+
+    String capitalized = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+    Method getter = getPublicMethod(object.getClass(), "get" + capitalized);
+    if (getter == null) {
+      getter = getPublicMethod(object.getClass(), "is" + capitalized);
+    }
+
+    if (getter != null) {
+      try {
+        return getter.invoke(object);
+      }
+      catch (Exception e) {
+        // a property that cannot be read is not indexed
+        return null;
+      }
+    }
+    else {
+      return null;
+    }
+  }
+
+  protected Method getPublicMethod(Class<?> type, String name) {
+    try {
+      return type.getMethod(name);
+    }
+    catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Converts a primitive value to the representation that is stored in the index table.
+   *
+   * @return the string representation of the value or null if it cannot be indexed
+   */
+  public static String toIndexValue(Object value) {
+    String indexValue = null;
+
+    if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+      indexValue = value.toString();
+    }
+    else if (value instanceof Date) {
+      indexValue = String.valueOf(((Date) value).getTime());
+    }
+
+    if (indexValue != null && indexValue.length() <= MAX_LENGTH) {
+      return indexValue;
+    }
+    else {
+      return null;
+    }
+  }
+
+  public String toString() {
+    return path;
+  }
+
+}
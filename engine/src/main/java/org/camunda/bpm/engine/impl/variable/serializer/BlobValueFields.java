@@ -0,0 +1,35 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.variable.serializer;
+
+import org.camunda.bpm.engine.impl.persistence.blob.BlobReference;
+
+/**
+ * {@link ValueFields} whose byte array value may be kept in a
+ * {@link org.camunda.bpm.engine.impl.persistence.blob.BlobStore}.
+ * Serializers can use the reference to stream the value instead of
+ * loading it with {@link #getByteArrayValue()}.
+ */
+public interface BlobValueFields extends ValueFields {
+
+  /**
+   * @return the reference to the blob which holds the byte array value or
+   *   <code>null</code> if the value is not kept in a blob store
+   */
+  BlobReference getByteArrayValueBlob();
+
+}
@@ -21,10 +21,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.variable.type.ValueType;
+import org.camunda.bpm.engine.variable.value.SerializableValue;
 import org.camunda.bpm.engine.variable.value.TypedValue;
 
 /**
@@ -38,6 +41,15 @@ public class DefaultVariableSerializers implements Serializable, VariableSeriali
   protected List<TypedValueSerializer<?>> serializerList = new ArrayList<TypedValueSerializer<?>>();
   protected Map<String, TypedValueSerializer<?>> serializerMap = new HashMap<String, TypedValueSerializer<?>>();
 
+  /** upper bound for the number of cached resolutions; the cache is cleared when it is reached */
+  protected static final int MAX_RESOLUTION_CACHE_SIZE = 1024;
+
+  /**
+   * resolved serializers by the properties of a value which the serializers decide on;
+   * cleared whenever the serializers change
+   */
+  protected transient Map<ResolutionKey, TypedValueSerializer<?>> resolutionCache;
+
   public DefaultVariableSerializers() {
   }
 
@@ -52,15 +64,52 @@ public class DefaultVariableSerializers implements Serializable, VariableSeriali
 
   public TypedValueSerializer<?> findSerializerForValue(TypedValue value, VariableSerializerFactory fallBackSerializerFactory) {
 
-    String defaultSerializationFormat = Context.getProcessEngineConfiguration().getDefaultSerializationFormat();
-
-    List<TypedValueSerializer<?>> matchedSerializers = new ArrayList<TypedValueSerializer<?>>();
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    String defaultSerializationFormat = processEngineConfiguration.getDefaultSerializationFormat();
 
     ValueType type = value.getType();
     if (type != null && type.isAbstract()) {
       throw new ProcessEngineException("Cannot serialize value of abstract type " + type.getName());
     }
 
+    if (!processEngineConfiguration.isVariableSerializerResolutionCacheEnabled()) {
+      TypedValueSerializer<?> serializer = resolveSerializer(value, defaultSerializationFormat);
+      if (serializer == null) {
+        return resolveFallbackSerializer(value, fallBackSerializerFactory);
+      }
+      return serializer;
+    }
+
+    Map<ResolutionKey, TypedValueSerializer<?>> cache = getResolutionCache();
+    ResolutionKey key = new ResolutionKey(value, defaultSerializationFormat);
+
+    TypedValueSerializer<?> serializer = cache.get(key);
+    if (serializer == null) {
+      serializer = resolveSerializer(value, defaultSerializationFormat);
+
+      if (serializer == null) {
+        // fallback serializers are not cached since the factory may differ between calls
+        return resolveFallbackSerializer(value, fallBackSerializerFactory);
+      }
+
+      if (cache.size() >= MAX_RESOLUTION_CACHE_SIZE) {
+        cache.clear();
+      }
+      cache.put(key, serializer);
+    }
+
+    return serializer;
+  }
+
+  /**
+   * @return the serializer of this instance for the value or null if none matches
+   */
+  protected TypedValueSerializer<?> resolveSerializer(TypedValue value, String defaultSerializationFormat) {
+
+    List<TypedValueSerializer<?>> matchedSerializers = new ArrayList<TypedValueSerializer<?>>();
+
+    ValueType type = value.getType();
+
     for (TypedValueSerializer<?> serializer : serializerList) {
       if(type == null || serializer.getType().equals(type)) {
 
@@ -78,14 +127,7 @@ public class DefaultVariableSerializers implements Serializable, VariableSeriali
     }
 
     if(matchedSerializers.size() == 0) {
-      if (fallBackSerializerFactory != null) {
-        TypedValueSerializer<?> serializer = fallBackSerializerFactory.getSerializer(value);
-        if (serializer != null) {
-          return serializer;
-        }
-      }
-
-      throw new ProcessEngineException("Cannot find serializer for value '"+value+"'.");
+      return null;
     }
     else if(matchedSerializers.size() == 1) {
       return matchedSerializers.get(0);
@@ -105,10 +147,33 @@ public class DefaultVariableSerializers implements Serializable, VariableSeriali
 
   }
 
+  protected TypedValueSerializer<?> resolveFallbackSerializer(TypedValue value, VariableSerializerFactory fallBackSerializerFactory) {
+    if (fallBackSerializerFactory != null) {
+      TypedValueSerializer<?> serializer = fallBackSerializerFactory.getSerializer(value);
+      if (serializer != null) {
+        return serializer;
+      }
+    }
+
+    throw new ProcessEngineException("Cannot find serializer for value '"+value+"'.");
+  }
+
   public TypedValueSerializer<?> findSerializerForValue(TypedValue value) {
     return findSerializerForValue(value, null);
   }
 
+  protected Map<ResolutionKey, TypedValueSerializer<?>> getResolutionCache() {
+    Map<ResolutionKey, TypedValueSerializer<?>> cache = resolutionCache;
+    if (cache == null) {
+      cache = resolutionCache = new ConcurrentHashMap<ResolutionKey, TypedValueSerializer<?>>();
+    }
+    return cache;
+  }
+
+  protected void clearResolutionCache() {
+    resolutionCache = null;
+  }
+
   public DefaultVariableSerializers addSerializer(TypedValueSerializer<?> serializer) {
     return addSerializer(serializer, serializerList.size());
   }
@@ -116,6 +181,7 @@ public class DefaultVariableSerializers implements Serializable, VariableSeriali
   public DefaultVariableSerializers addSerializer(TypedValueSerializer<?> serializer, int index) {
     serializerList.add(index, serializer);
     serializerMap.put(serializer.getName(), serializer);
+    clearResolutionCache();
     return this;
   }
 
@@ -126,6 +192,7 @@ public class DefaultVariableSerializers implements Serializable, VariableSeriali
     for (TypedValueSerializer<?> serializer : serializerList) {
       serializerMap.put(serializer.getName(), serializer);
     }
+    clearResolutionCache();
   }
 
   public int getSerializerIndex(TypedValueSerializer<?> serializer) {
@@ -144,6 +211,7 @@ public class DefaultVariableSerializers implements Serializable, VariableSeriali
   public VariableSerializers removeSerializer(TypedValueSerializer<?> serializer) {
     serializerList.remove(serializer);
     serializerMap.remove(serializer.getName());
+    clearResolutionCache();
     return this;
   }
 
@@ -176,4 +244,73 @@ public class DefaultVariableSerializers implements Serializable, VariableSeriali
     return new ArrayList<TypedValueSerializer<?>>(serializerList);
   }
 
+  /**
+   * The properties of a value which the engine's serializers base their
+   * {@link TypedValueSerializer#canHandle(TypedValue)} decision on. Classes are
+   * referenced by name so that the cache does not keep classes of undeployed
+   * applications alive.
+   */
+  protected static class ResolutionKey {
+
+    protected final String typedValueClass;
+    protected final ValueType type;
+    protected final String valueClass;
+    protected final String serializationDataFormat;
+    protected final boolean deserialized;
+    protected final String defaultSerializationFormat;
+
+    public ResolutionKey(TypedValue value, String defaultSerializationFormat) {
+      this.typedValueClass = value.getClass().getName();
+      this.type = value.getType();
+      this.defaultSerializationFormat = defaultSerializationFormat;
+
+      Object rawValue = null;
+      if (value instanceof SerializableValue) {
+        SerializableValue serializableValue = (SerializableValue) value;
+        this.serializationDataFormat = serializableValue.getSerializationDataFormat();
+        this.deserialized = serializableValue.isDeserialized();
+        if (deserialized) {
+          rawValue = value.getValue();
+        }
+      }
+      else {
+        this.serializationDataFormat = null;
+        this.deserialized = true;
+        rawValue = value.getValue();
+      }
+
+      this.valueClass = rawValue != null ? rawValue.getClass().getName() : null;
+    }
+
+    public int hashCode() {
+      int result = typedValueClass.hashCode();
+      result = 31 * result + (type != null ? type.hashCode() : 0);
+      result = 31 * result + (valueClass != null ? valueClass.hashCode() : 0);
+      result = 31 * result + (serializationDataFormat != null ? serializationDataFormat.hashCode() : 0);
+      result = 31 * result + (deserialized ? 1 : 0);
+      result = 31 * result + (defaultSerializationFormat != null ? defaultSerializationFormat.hashCode() : 0);
+      return result;
+    }
+
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof ResolutionKey)) {
+        return false;
+      }
+      ResolutionKey other = (ResolutionKey) obj;
+      return typedValueClass.equals(other.typedValueClass)
+          && equal(type, other.type)
+          && equal(valueClass, other.valueClass)
+          && equal(serializationDataFormat, other.serializationDataFormat)
+          && deserialized == other.deserialized
+          && equal(defaultSerializationFormat, other.defaultSerializationFormat);
+    }
+
+    protected static boolean equal(Object a, Object b) {
+      return a == b || (a != null && a.equals(b));
+    }
+  }
+
 }
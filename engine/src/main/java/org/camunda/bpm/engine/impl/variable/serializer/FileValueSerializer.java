@@ -18,9 +18,11 @@ package org.camunda.bpm.engine.impl.variable.serializer;
 
 import java.util.Arrays;
 
+import org.camunda.bpm.engine.impl.persistence.blob.BlobReference;
 import org.camunda.bpm.engine.variable.Variables;
 import org.camunda.bpm.engine.variable.impl.value.FileValueImpl;
 import org.camunda.bpm.engine.variable.impl.value.UntypedValueImpl;
+import org.camunda.bpm.engine.variable.type.FileValueType;
 import org.camunda.bpm.engine.variable.type.ValueType;
 import org.camunda.bpm.engine.variable.value.FileValue;
 import org.camunda.bpm.engine.variable.value.TypedValue;
@@ -74,23 +76,42 @@ public class FileValueSerializer extends AbstractTypedValueSerializer<FileValue>
       // ensure file name is not null
       fileName = "";
     }
-    FileValueBuilder builder = Variables.fileValue(fileName);
-    if (valueFields.getByteArrayValue() != null) {
-      builder.file(valueFields.getByteArrayValue());
-    }
+
+    String mimeType = null;
+    String encoding = null;
     // to ensure the same array size all the time
     if (valueFields.getTextValue2() != null) {
       String[] split = Arrays.copyOf(valueFields.getTextValue2().split(MIMETYPE_ENCODING_SEPARATOR, NR_OF_VALUES_IN_TEXTFIELD2), NR_OF_VALUES_IN_TEXTFIELD2);
 
-      String mimeType = returnNullIfEmptyString(split[0]);
-      String encoding = returnNullIfEmptyString(split[1]);
+      mimeType = returnNullIfEmptyString(split[0]);
+      encoding = returnNullIfEmptyString(split[1]);
+    }
+
+    // stream values from the blob store instead of loading them into memory
+    BlobReference blobReference = getBlobReference(valueFields);
+    if (blobReference != null) {
+      return new StreamedFileValueImpl(blobReference, (FileValueType) valueType, fileName, mimeType, encoding);
+    }
 
-      builder.mimeType(mimeType);
-      builder.encoding(encoding);
+    FileValueBuilder builder = Variables.fileValue(fileName);
+    byte[] bytes = valueFields.getByteArrayValue();
+    if (bytes != null) {
+      builder.file(bytes);
     }
+    builder.mimeType(mimeType);
+    builder.encoding(encoding);
     return builder.create();
   }
 
+  protected BlobReference getBlobReference(ValueFields valueFields) {
+    if (valueFields instanceof BlobValueFields) {
+      return ((BlobValueFields) valueFields).getByteArrayValueBlob();
+    }
+    else {
+      return null;
+    }
+  }
+
   protected String returnNullIfEmptyString(String s) {
     if (s.isEmpty()) {
       return null;
@@ -0,0 +1,78 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.variable.serializer;
+
+import java.io.InputStream;
+
+import org.camunda.bpm.engine.impl.persistence.blob.BlobReference;
+import org.camunda.bpm.engine.impl.util.IoUtil;
+import org.camunda.bpm.engine.variable.impl.value.FileValueImpl;
+import org.camunda.bpm.engine.variable.type.FileValueType;
+
+/**
+ * File value whose content is streamed from a blob store on every call to
+ * {@link #getValue()} instead of being held in memory. The content is only
+ * loaded completely if the internal API needs the byte array, e.g. when the
+ * value is written to another variable.
+ */
+public class StreamedFileValueImpl extends FileValueImpl {
+
+  private static final long serialVersionUID = 1L;
+
+  protected BlobReference blobReference;
+
+  public StreamedFileValueImpl(BlobReference blobReference, FileValueType type, String filename, String mimeType, String encoding) {
+    super(null, type, filename, mimeType, encoding);
+    this.blobReference = blobReference;
+  }
+
+  @Override
+  public InputStream getValue() {
+    if (value != null) {
+      return super.getValue();
+    }
+    return blobReference.openStream();
+  }
+
+  @Override
+  public byte[] getByteArray() {
+    if (value == null) {
+      InputStream inputStream = blobReference.openStream();
+      try {
+        value = IoUtil.readInputStream(inputStream, filename);
+      }
+      finally {
+        IoUtil.closeSilently(inputStream);
+      }
+    }
+    return value;
+  }
+
+  public BlobReference getBlobReference() {
+    return blobReference;
+  }
+
+  /**
+   * The blob store is not serializable, so the content is serialized instead.
+   */
+  protected Object writeReplace() {
+    FileValueImpl fileValue = new FileValueImpl(getByteArray(), type, filename, mimeType, encoding);
+    fileValue.setTransient(isTransient);
+    return fileValue;
+  }
+
+}
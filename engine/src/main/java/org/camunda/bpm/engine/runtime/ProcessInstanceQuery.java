@@ -179,6 +179,18 @@ public interface ProcessInstanceQuery extends Query<ProcessInstanceQuery, Proces
    */
   ProcessInstanceQuery variableValueLike(String name, String value);
 
+  /**
+   * Only select process instances in which the given indexed variable path has the
+   * given value. Indexed variable paths are declared by the process definition with the
+   * <code>camunda:indexedVariablePaths</code> attribute, e.g. <code>customer.id</code>,
+   * and are looked up in an index table instead of scanning the variable values.
+   * Values are compared by their string representation.
+   *
+   * @param path the indexed variable path, cannot be null.
+   * @param value a string, number, boolean or date value, cannot be null.
+   */
+  ProcessInstanceQuery indexedVariableValueEquals(String path, Object value);
+
   /**
    * Only selects process instances which are suspended, either because the
    * process instance itself is suspended or because the corresponding process
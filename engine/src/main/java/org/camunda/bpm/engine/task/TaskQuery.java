@@ -494,6 +494,18 @@ public interface TaskQuery extends Query<TaskQuery, Task>{
    */
   TaskQuery processVariableValueEquals(String variableName, Object variableValue);
 
+  /**
+   * Only select tasks which are part of a process instance in which the given
+   * indexed variable path has the given value. Indexed variable paths are declared by
+   * the process definition with the <code>camunda:indexedVariablePaths</code> attribute,
+   * e.g. <code>customer.id</code>, and are looked up in an index table instead of scanning
+   * the variable values. Values are compared by their string representation.
+   *
+   * @param path the indexed variable path, cannot be null.
+   * @param value a string, number, boolean or date value, cannot be null.
+   */
+  TaskQuery processIndexedVariableValueEquals(String path, Object value);
+
   /**
    * Only select tasks which have a variable with the given name, but
    * with a different value than the passed value.
@@ -40,6 +40,9 @@ values ('history.cleanup.job.lock', '0', 1);
 insert into ACT_GE_PROPERTY
 values ('startup.lock', '0', 1);
 
+insert into ACT_GE_PROPERTY
+values ('external.task.notification', '0', 1);
+
 create table ACT_GE_BYTEARRAY (
     ID_ varchar(64),
     REV_ integer,
@@ -52,6 +55,9 @@ create table ACT_GE_BYTEARRAY (
     CREATE_TIME_ timestamp,
     ROOT_PROC_INST_ID_ varchar(64),
     REMOVAL_TIME_ timestamp,
+    HASH_ varchar(64),
+    BLOB_KEY_ varchar(255),
+    COMPRESSED_ bit,
     primary key (ID_)
 );
 
@@ -529,3 +535,15 @@ alter table ACT_RU_BATCH
     add constraint ACT_FK_BATCH_JOB_DEF
     foreign key (BATCH_JOB_DEF_ID_)
     references ACT_RU_JOBDEF (ID_);
+
+create table ACT_RU_VAR_INDEX (
+    ID_ varchar(64) not null,
+    PROC_INST_ID_ varchar(64),
+    VAR_ID_ varchar(64),
+    PATH_ varchar(255),
+    VALUE_ varchar(255),
+    primary key (ID_)
+);
+
+create index ACT_IDX_VAR_INDEX_PATH_VALUE on ACT_RU_VAR_INDEX(PATH_, VALUE_, PROC_INST_ID_);
+create index ACT_IDX_VAR_INDEX_VAR_ID on ACT_RU_VAR_INDEX(VAR_ID_);
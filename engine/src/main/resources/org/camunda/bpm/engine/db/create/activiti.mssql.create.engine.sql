@@ -40,6 +40,9 @@ values ('history.cleanup.job.lock', '0', 1);
 insert into ACT_GE_PROPERTY
 values ('startup.lock', '0', 1);
 
+insert into ACT_GE_PROPERTY
+values ('external.task.notification', '0', 1);
+
 create table ACT_GE_BYTEARRAY (
     ID_ nvarchar(64),
     REV_ int,
@@ -52,6 +55,9 @@ create table ACT_GE_BYTEARRAY (
     CREATE_TIME_ datetime2,
     ROOT_PROC_INST_ID_ nvarchar(64),
     REMOVAL_TIME_ datetime2,
+    HASH_ nvarchar(64),
+    BLOB_KEY_ nvarchar(255),
+    COMPRESSED_ tinyint,
     primary key (ID_)
 );
 
@@ -533,3 +539,15 @@ create index ACT_IDX_EVENT_SUBSCR_EVT_NAME ON ACT_RU_EVENT_SUBSCR(EVENT_NAME_);
 create index ACT_IDX_PROCDEF_DEPLOYMENT_ID ON ACT_RE_PROCDEF(DEPLOYMENT_ID_);
 create index ACT_IDX_PROCDEF_TENANT_ID ON ACT_RE_PROCDEF(TENANT_ID_);
 create index ACT_IDX_PROCDEF_VER_TAG ON ACT_RE_PROCDEF(VERSION_TAG_);
+
+create table ACT_RU_VAR_INDEX (
+    ID_ nvarchar(64) not null,
+    PROC_INST_ID_ nvarchar(64),
+    VAR_ID_ nvarchar(64),
+    PATH_ nvarchar(255),
+    VALUE_ nvarchar(255),
+    primary key (ID_)
+);
+
+create index ACT_IDX_VAR_INDEX_PATH_VALUE on ACT_RU_VAR_INDEX(PATH_, VALUE_, PROC_INST_ID_);
+create index ACT_IDX_VAR_INDEX_VAR_ID on ACT_RU_VAR_INDEX(VAR_ID_);
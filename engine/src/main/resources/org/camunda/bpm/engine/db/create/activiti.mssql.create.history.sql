@@ -427,3 +427,39 @@ create index ACT_IDX_HI_ATTACHMENT_ROOT_PI on ACT_HI_ATTACHMENT(ROOT_PROC_INST_I
 create index ACT_IDX_HI_ATTACHMENT_PROCINST on ACT_HI_ATTACHMENT(PROC_INST_ID_);
 create index ACT_IDX_HI_ATTACHMENT_TASK on ACT_HI_ATTACHMENT(TASK_ID_);
 create index ACT_IDX_HI_ATTACHMENT_RM_TIME on ACT_HI_ATTACHMENT(REMOVAL_TIME_);
+
+create table ACT_HI_ACT_STATS (
+    ID_ nvarchar(64) not null,
+    TIMESTAMP_ datetime2 not null,
+    PROC_DEF_KEY_ nvarchar(255),
+    PROC_DEF_ID_ nvarchar(64) not null,
+    ACT_ID_ nvarchar(255) not null,
+    TENANT_ID_ nvarchar(64),
+    STARTED_ numeric(19,0),
+    FINISHED_ numeric(19,0),
+    CANCELED_ numeric(19,0),
+    COMPLETE_SCOPE_ numeric(19,0),
+    DURATION_ numeric(19,0),
+    primary key (ID_)
+);
+
+create index ACT_IDX_HI_ACT_STATS_PROCDEF on ACT_HI_ACT_STATS(PROC_DEF_ID_, ACT_ID_);
+
+create table ACT_HI_PROCINST_STATS (
+    ID_ nvarchar(64) not null,
+    TIMESTAMP_ datetime2 not null,
+    PROC_DEF_KEY_ nvarchar(255),
+    PROC_DEF_ID_ nvarchar(64) not null,
+    TENANT_ID_ nvarchar(64),
+    START_TIME_ datetime2 not null,
+    FINISHED_ numeric(19,0),
+    DURATION_ numeric(19,0),
+    MIN_DURATION_ numeric(19,0),
+    MAX_DURATION_ numeric(19,0),
+    primary key (ID_)
+);
+
+create index ACT_IDX_HI_PI_STATS_PROCDEF on ACT_HI_PROCINST_STATS(PROC_DEF_ID_);
+create index ACT_IDX_HI_PI_STATS_PDEF_KEY on ACT_HI_PROCINST_STATS(PROC_DEF_KEY_);
+
+create index ACT_IDX_HI_DETAIL_VAR_INST_ID on ACT_HI_DETAIL(VAR_INST_ID_);
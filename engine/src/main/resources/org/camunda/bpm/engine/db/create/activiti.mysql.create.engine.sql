@@ -40,6 +40,9 @@ values ('history.cleanup.job.lock', '0', 1);
 insert into ACT_GE_PROPERTY
 values ('startup.lock', '0', 1);
 
+insert into ACT_GE_PROPERTY
+values ('external.task.notification', '0', 1);
+
 create table ACT_GE_BYTEARRAY (
     ID_ varchar(64),
     REV_ integer,
@@ -52,6 +55,9 @@ create table ACT_GE_BYTEARRAY (
     CREATE_TIME_ datetime,
     ROOT_PROC_INST_ID_ varchar(64),
     REMOVAL_TIME_ datetime,
+    HASH_ varchar(64),
+    BLOB_KEY_ varchar(255),
+    COMPRESSED_ TINYINT,
     primary key (ID_)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8 COLLATE utf8_bin;
 
@@ -530,3 +536,15 @@ create index ACT_IDX_EVENT_SUBSCR_EVT_NAME ON ACT_RU_EVENT_SUBSCR(EVENT_NAME_);
 create index ACT_IDX_PROCDEF_DEPLOYMENT_ID ON ACT_RE_PROCDEF(DEPLOYMENT_ID_);
 create index ACT_IDX_PROCDEF_TENANT_ID ON ACT_RE_PROCDEF(TENANT_ID_);
 create index ACT_IDX_PROCDEF_VER_TAG ON ACT_RE_PROCDEF(VERSION_TAG_);
+
+create table ACT_RU_VAR_INDEX (
+    ID_ varchar(64) not null,
+    PROC_INST_ID_ varchar(64),
+    VAR_ID_ varchar(64),
+    PATH_ varchar(255),
+    VALUE_ varchar(255),
+    primary key (ID_)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COLLATE utf8_bin;
+
+create index ACT_IDX_VAR_INDEX_PATH_VALUE on ACT_RU_VAR_INDEX(PATH_, VALUE_, PROC_INST_ID_);
+create index ACT_IDX_VAR_INDEX_VAR_ID on ACT_RU_VAR_INDEX(VAR_ID_);
@@ -176,6 +176,9 @@ drop index ACT_IDX_PROCDEF_VER_TAG;
 
 drop index ACT_IDX_JOB_EXECUTION_ID;
 
+drop index ACT_IDX_VAR_INDEX_PATH_VALUE;
+drop index ACT_IDX_VAR_INDEX_VAR_ID;
+
 drop table ACT_GE_PROPERTY;
 drop table ACT_GE_BYTEARRAY;
 drop table ACT_RE_DEPLOYMENT;
@@ -194,3 +197,4 @@ drop table ACT_RU_METER_LOG;
 drop table ACT_RU_EXT_TASK;
 drop table ACT_RU_BATCH;
 drop table ACT_GE_SCHEMA_LOG;
+drop table ACT_RU_VAR_INDEX;
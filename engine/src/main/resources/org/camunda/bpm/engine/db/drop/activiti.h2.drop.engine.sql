@@ -169,6 +169,9 @@ drop index ACT_IDX_PROCDEF_VER_TAG;
 drop index ACT_IDX_JOB_EXECUTION_ID;
 drop index ACT_IDX_JOB_HANDLER;
 
+drop index ACT_IDX_VAR_INDEX_PATH_VALUE;
+drop index ACT_IDX_VAR_INDEX_VAR_ID;
+
 drop table ACT_GE_PROPERTY if exists;
 drop table ACT_GE_BYTEARRAY if exists;
 drop table ACT_RE_DEPLOYMENT if exists;
@@ -187,4 +190,4 @@ drop table ACT_RU_METER_LOG if exists;
 drop table ACT_RU_EXT_TASK if exists;
 drop table ACT_RU_BATCH if exists;
 drop table ACT_GE_SCHEMA_LOG if exists;
-
+drop table ACT_RU_VAR_INDEX if exists;
@@ -122,6 +122,13 @@ drop index ACT_IDX_HI_COMMENT_ROOT_PI;
 drop index ACT_IDX_HI_COMMENT_PROCINST;
 drop index ACT_IDX_HI_COMMENT_RM_TIME;
 
+drop index ACT_IDX_HI_ACT_STATS_PROCDEF;
+
+drop index ACT_IDX_HI_PI_STATS_PROCDEF;
+drop index ACT_IDX_HI_PI_STATS_PDEF_KEY;
+
+drop index ACT_IDX_HI_DETAIL_VAR_INST_ID;
+
 drop table ACT_HI_PROCINST if exists;
 drop table ACT_HI_ACTINST if exists;
 drop table ACT_HI_VARINST if exists;
@@ -135,3 +142,5 @@ drop table ACT_HI_JOB_LOG if exists;
 drop table ACT_HI_BATCH if exists;
 drop table ACT_HI_IDENTITYLINK if exists;
 drop table ACT_HI_EXT_TASK_LOG if exists;
+drop table ACT_HI_ACT_STATS if exists;
+drop table ACT_HI_PROCINST_STATS if exists;
@@ -161,6 +161,9 @@ drop index ACT_IDX_PROCDEF_VER_TAG on ACT_RE_PROCDEF;
 drop index ACT_IDX_JOB_EXECUTION_ID on ACT_RU_JOB;
 drop index ACT_IDX_JOB_HANDLER on ACT_RU_JOB;
 
+drop index ACT_IDX_VAR_INDEX_PATH_VALUE on ACT_RU_VAR_INDEX;
+drop index ACT_IDX_VAR_INDEX_VAR_ID on ACT_RU_VAR_INDEX;
+
 drop table if exists ACT_GE_PROPERTY;
 drop table if exists ACT_RU_VARIABLE;
 drop table if exists ACT_GE_BYTEARRAY;
@@ -179,3 +182,4 @@ drop table if exists ACT_RU_METER_LOG;
 drop table if exists ACT_RU_EXT_TASK;
 drop table if exists ACT_RU_BATCH;
 drop table if exists ACT_GE_SCHEMA_LOG;
+drop table if exists ACT_RU_VAR_INDEX;
@@ -122,6 +122,13 @@ drop index ACT_IDX_HI_COMMENT_ROOT_PI on ACT_HI_COMMENT;
 drop index ACT_IDX_HI_COMMENT_PROCINST on ACT_HI_COMMENT;
 drop index ACT_IDX_HI_COMMENT_RM_TIME on ACT_HI_COMMENT;
 
+drop index ACT_IDX_HI_ACT_STATS_PROCDEF on ACT_HI_ACT_STATS;
+
+drop index ACT_IDX_HI_PI_STATS_PROCDEF on ACT_HI_PROCINST_STATS;
+drop index ACT_IDX_HI_PI_STATS_PDEF_KEY on ACT_HI_PROCINST_STATS;
+
+drop index ACT_IDX_HI_DETAIL_VAR_INST_ID on ACT_HI_DETAIL;
+
 drop table if exists ACT_HI_PROCINST;
 drop table if exists ACT_HI_ACTINST;
 drop table if exists ACT_HI_VARINST;
@@ -134,4 +141,6 @@ drop table if exists ACT_HI_INCIDENT;
 drop table if exists ACT_HI_JOB_LOG;
 drop table if exists ACT_HI_BATCH;
 drop table if exists ACT_HI_IDENTITYLINK;
-drop table if exists ACT_HI_EXT_TASK_LOG;
\ No newline at end of file
+drop table if exists ACT_HI_EXT_TASK_LOG;
+drop table if exists ACT_HI_ACT_STATS;
+drop table if exists ACT_HI_PROCINST_STATS;
@@ -16,4 +16,64 @@
 --
 
 insert into ACT_GE_SCHEMA_LOG
-values ('100', CURRENT_TIMESTAMP, '7.12.0');
\ No newline at end of file
+values ('100', CURRENT_TIMESTAMP, '7.12.0');
+
+create table ACT_HI_ACT_STATS (
+    ID_ NVARCHAR2(64) not null,
+    TIMESTAMP_ TIMESTAMP(6) not null,
+    PROC_DEF_KEY_ NVARCHAR2(255),
+    PROC_DEF_ID_ NVARCHAR2(64) not null,
+    ACT_ID_ NVARCHAR2(255) not null,
+    TENANT_ID_ NVARCHAR2(64),
+    STARTED_ NUMBER(19,0),
+    FINISHED_ NUMBER(19,0),
+    CANCELED_ NUMBER(19,0),
+    COMPLETE_SCOPE_ NUMBER(19,0),
+    DURATION_ NUMBER(19,0),
+    primary key (ID_)
+);
+
+create index ACT_IDX_HI_ACT_STATS_PROCDEF on ACT_HI_ACT_STATS(PROC_DEF_ID_, ACT_ID_);
+
+create table ACT_HI_PROCINST_STATS (
+    ID_ NVARCHAR2(64) not null,
+    TIMESTAMP_ TIMESTAMP(6) not null,
+    PROC_DEF_KEY_ NVARCHAR2(255),
+    PROC_DEF_ID_ NVARCHAR2(64) not null,
+    TENANT_ID_ NVARCHAR2(64),
+    START_TIME_ TIMESTAMP(6) not null,
+    FINISHED_ NUMBER(19,0),
+    DURATION_ NUMBER(19,0),
+    MIN_DURATION_ NUMBER(19,0),
+    MAX_DURATION_ NUMBER(19,0),
+    primary key (ID_)
+);
+
+create index ACT_IDX_HI_PI_STATS_PROCDEF on ACT_HI_PROCINST_STATS(PROC_DEF_ID_);
+create index ACT_IDX_HI_PI_STATS_PDEF_KEY on ACT_HI_PROCINST_STATS(PROC_DEF_KEY_);
+
+ALTER TABLE ACT_GE_BYTEARRAY
+  ADD HASH_ NVARCHAR2(64);
+
+create index ACT_IDX_HI_DETAIL_VAR_INST_ID on ACT_HI_DETAIL(VAR_INST_ID_);
+
+ALTER TABLE ACT_GE_BYTEARRAY
+  ADD BLOB_KEY_ NVARCHAR2(255);
+
+create table ACT_RU_VAR_INDEX (
+    ID_ NVARCHAR2(64) not null,
+    PROC_INST_ID_ NVARCHAR2(64),
+    VAR_ID_ NVARCHAR2(64),
+    PATH_ NVARCHAR2(255),
+    VALUE_ NVARCHAR2(255),
+    primary key (ID_)
+);
+
+create index ACT_IDX_VAR_INDEX_PATH_VALUE on ACT_RU_VAR_INDEX(PATH_, VALUE_, PROC_INST_ID_);
+create index ACT_IDX_VAR_INDEX_VAR_ID on ACT_RU_VAR_INDEX(VAR_ID_);
+
+ALTER TABLE ACT_GE_BYTEARRAY
+  ADD COMPRESSED_ NUMBER(1,0) CHECK (COMPRESSED_ IN (1,0));
+
+insert into ACT_GE_PROPERTY
+values ('external.task.notification', '0', 1);
@@ -0,0 +1,97 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.sql;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import org.apache.ibatis.session.SqlSession;
+import org.junit.Test;
+
+public class DbSqlSessionFactorySkipLockedTest {
+
+  @Test
+  public void shouldSupportSkipLockedOnRecentVersions() throws SQLException {
+    assertTrue(isSkipLockedSupported(DbSqlSessionFactory.MYSQL, "8.0.19"));
+    assertTrue(isSkipLockedSupported(DbSqlSessionFactory.MARIADB, "10.6.3-MariaDB"));
+    assertTrue(isSkipLockedSupported(DbSqlSessionFactory.MARIADB, "5.5.5-10.6.3-MariaDB"));
+    assertTrue(isSkipLockedSupported(DbSqlSessionFactory.POSTGRES, "9.5.1"));
+    assertTrue(isSkipLockedSupported(DbSqlSessionFactory.POSTGRES, "12.2"));
+    assertTrue(isSkipLockedSupported(DbSqlSessionFactory.ORACLE, "Oracle Database 12c Release 12.1.0.1.0"));
+    assertTrue(isSkipLockedSupported(DbSqlSessionFactory.MSSQL, "14.00.3223"));
+  }
+
+  @Test
+  public void shouldNotSupportSkipLockedOnOlderVersions() throws SQLException {
+    assertFalse(isSkipLockedSupported(DbSqlSessionFactory.MYSQL, "5.7.29"));
+    assertFalse(isSkipLockedSupported(DbSqlSessionFactory.MARIADB, "10.5.8-MariaDB"));
+    assertFalse(isSkipLockedSupported(DbSqlSessionFactory.MARIADB, "5.5.5-10.4.12-MariaDB"));
+    assertFalse(isSkipLockedSupported(DbSqlSessionFactory.POSTGRES, "9.4.26"));
+  }
+
+  @Test
+  public void shouldNotSupportSkipLockedOnOtherDatabases() throws SQLException {
+    assertFalse(isSkipLockedSupported(DbSqlSessionFactory.H2, "1.4.190"));
+    assertFalse(isSkipLockedSupported(DbSqlSessionFactory.DB2, "SQL11050"));
+  }
+
+  @Test
+  public void shouldCheckVersionOnce() throws SQLException {
+    // given
+    DbSqlSessionFactory sessionFactory = new DbSqlSessionFactory(false);
+    sessionFactory.setDatabaseType(DbSqlSessionFactory.MYSQL);
+    DbSqlSession dbSqlSession = createSession("8.0.19");
+    DatabaseMetaData metaData = dbSqlSession.getSqlSession().getConnection().getMetaData();
+
+    // when
+    sessionFactory.isSkipLockedSupported(dbSqlSession);
+    sessionFactory.isSkipLockedSupported(dbSqlSession);
+
+    // then
+    verify(metaData, times(1)).getDatabaseProductVersion();
+  }
+
+  protected boolean isSkipLockedSupported(String databaseType, String databaseVersion) throws SQLException {
+    DbSqlSessionFactory sessionFactory = new DbSqlSessionFactory(false);
+    sessionFactory.setDatabaseType(databaseType);
+    return sessionFactory.isSkipLockedSupported(createSession(databaseVersion));
+  }
+
+  protected DbSqlSession createSession(String databaseVersion) throws SQLException {
+    DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+    when(metaData.getDatabaseProductVersion()).thenReturn(databaseVersion);
+
+    Connection connection = mock(Connection.class);
+    when(connection.getMetaData()).thenReturn(metaData);
+
+    SqlSession sqlSession = mock(SqlSession.class);
+    when(sqlSession.getConnection()).thenReturn(connection);
+
+    DbSqlSession dbSqlSession = mock(DbSqlSession.class);
+    when(dbSqlSession.getSqlSession()).thenReturn(sqlSession);
+    return dbSqlSession;
+  }
+
+}
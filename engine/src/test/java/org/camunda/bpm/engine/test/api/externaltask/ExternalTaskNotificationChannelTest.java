@@ -0,0 +1,216 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.externaltask;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.externaltask.LockedExternalTask;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.externaltask.DbExternalTaskNotificationChannel;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskNotificationChannel;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyEntity;
+import org.camunda.bpm.engine.impl.util.CompositeCondition;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests the notification of other cluster nodes about available external tasks
+ */
+public class ExternalTaskNotificationChannelTest {
+
+  @Rule
+  public ProcessEngineRule rule = new ProvidedProcessEngineRule();
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected ExternalTaskNotificationChannel notificationChannel;
+
+  protected ExternalTaskNotificationChannel channel;
+  protected ExternalTaskNotificationChannel otherChannel;
+
+  private String deploymentId;
+
+  private final BpmnModelInstance testProcess = Bpmn.createExecutableProcess("theProcess")
+    .startEvent()
+    .serviceTask("theTask")
+        .camundaExternalTask("theTopic")
+    .done();
+
+  @Before
+  public void setUp() {
+    processEngineConfiguration = rule.getProcessEngineConfiguration();
+
+    notificationChannel = mock(ExternalTaskNotificationChannel.class);
+    processEngineConfiguration.setExternalTaskNotificationChannel(notificationChannel);
+
+    deploymentId = rule.getRepositoryService()
+        .createDeployment()
+        .addModelInstance("process.bpmn", testProcess)
+        .deploy()
+        .getId();
+  }
+
+  @After
+  public void tearDown() {
+    processEngineConfiguration.setExternalTaskNotificationChannel(null);
+
+    if (channel != null) {
+      channel.stop();
+    }
+    if (otherChannel != null) {
+      otherChannel.stop();
+    }
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        PropertyEntity property = commandContext.getPropertyManager()
+          .findPropertyById(DbExternalTaskNotificationChannel.NOTIFICATION_PROPERTY_NAME);
+        property.setValue("0");
+        return null;
+      }
+    });
+
+    if (deploymentId != null) {
+      rule.getRepositoryService().deleteDeployment(deploymentId, true);
+    }
+  }
+
+  @Test
+  public void shouldPublishOnTaskCreate() {
+
+    // when
+    rule.getRuntimeService()
+      .startProcessInstanceByKey("theProcess");
+
+    // then
+    verify(notificationChannel, times(1)).publish();
+  }
+
+  @Test
+  public void shouldPublishOnUnlock() {
+
+    // given
+    rule.getRuntimeService()
+      .startProcessInstanceByKey("theProcess");
+
+    reset(notificationChannel); // clear publication for create
+
+    LockedExternalTask lockedTask = rule.getExternalTaskService().fetchAndLock(1, "theWorker")
+      .topic("theTopic", 10000)
+      .execute()
+      .get(0);
+
+    // when
+    rule.getExternalTaskService().unlock(lockedTask.getId());
+
+    // then
+    verify(notificationChannel, times(1)).publish();
+  }
+
+  @Test
+  public void shouldCreateNotificationPropertyWithSchema() {
+
+    // when
+    Map<String, String> properties = rule.getManagementService().getProperties();
+
+    // then
+    assertThat(properties.get(DbExternalTaskNotificationChannel.NOTIFICATION_PROPERTY_NAME), is("0"));
+  }
+
+  @Test
+  public void shouldNotifyOtherNodeThroughDatabase() throws InterruptedException {
+
+    // given
+    DbExternalTaskNotificationChannel dbChannel = new DbExternalTaskNotificationChannel();
+    dbChannel.setPollIntervalInMillis(10);
+    channel = dbChannel;
+
+    DbExternalTaskNotificationChannel otherDbChannel = new DbExternalTaskNotificationChannel();
+    otherDbChannel.setPollIntervalInMillis(10);
+    otherChannel = otherDbChannel;
+
+    // when
+    boolean notified = publishUntilNotified(channel, otherChannel);
+
+    // then
+    assertThat(notified, is(true));
+  }
+
+  @Test
+  public void shouldNotifyOtherNodeThroughSocket() throws InterruptedException {
+
+    // given
+    SocketExternalTaskNotificationChannel socketChannel = new SocketExternalTaskNotificationChannel();
+    SocketExternalTaskNotificationChannel otherSocketChannel = new SocketExternalTaskNotificationChannel();
+    socketChannel.addPeer(otherSocketChannel);
+    otherSocketChannel.addPeer(socketChannel);
+
+    channel = socketChannel;
+    otherChannel = otherSocketChannel;
+
+    // when
+    boolean notified = publishUntilNotified(channel, otherChannel);
+
+    // then
+    assertThat(notified, is(true));
+  }
+
+  protected boolean publishUntilNotified(ExternalTaskNotificationChannel publishingChannel, ExternalTaskNotificationChannel receivingChannel)
+      throws InterruptedException {
+    CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutorTxRequired();
+    LatchCondition receivingCondition = new LatchCondition();
+
+    publishingChannel.start(commandExecutor, new CompositeCondition());
+    receivingChannel.start(commandExecutor, receivingCondition);
+
+    // the receiving channel may start listening after the first publication
+    for (int i = 0; i < 100; i++) {
+      publishingChannel.publish();
+      if (receivingCondition.latch.await(50, TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public static class LatchCondition extends CompositeCondition {
+
+    protected CountDownLatch latch = new CountDownLatch(1);
+
+    public void signalAll() {
+      latch.countDown();
+    }
+  }
+
+}
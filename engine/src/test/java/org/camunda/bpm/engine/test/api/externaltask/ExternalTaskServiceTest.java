@@ -132,6 +132,156 @@ public class ExternalTaskServiceTest extends PluggableProcessEngineTestCase {
     assertEquals(WORKER_ID, task.getWorkerId());
   }
 
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testFetchWithSkipLocked() {
+    // given
+    processEngineConfiguration.setExternalTaskSkipLockedEnabled(true);
+
+    try {
+      for (int i = 0; i < 3; i++) {
+        runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+      }
+
+      // when
+      List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(2, WORKER_ID)
+        .topic(TOPIC_NAME, LOCK_TIME)
+        .execute();
+
+      List<LockedExternalTask> remainingTasks = externalTaskService.fetchAndLock(2, WORKER_ID)
+        .topic(TOPIC_NAME, LOCK_TIME)
+        .execute();
+
+      // then
+      assertEquals(2, externalTasks.size());
+      assertEquals(1, remainingTasks.size());
+
+      assertEquals(3, externalTaskService.createExternalTaskQuery().locked().count());
+    }
+    finally {
+      processEngineConfiguration.setExternalTaskSkipLockedEnabled(false);
+    }
+  }
+
+
+  public void testFetchFairlyWithPriority() {
+    // given
+    processEngineConfiguration.setExternalTaskFairFetchEnabled(true);
+
+    try {
+      deployment(createExternalTaskProcess("highPriorityProcess", "highPriorityTopic", 100),
+          createExternalTaskProcess("lowPriorityProcess", "lowPriorityTopic", 0));
+      startProcessInstances("highPriorityProcess", 5);
+      startProcessInstances("lowPriorityProcess", 5);
+
+      // when
+      List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(4, WORKER_ID, true)
+        .topic("highPriorityTopic", LOCK_TIME)
+        .topic("lowPriorityTopic", LOCK_TIME)
+        .execute();
+
+      // then
+      assertEquals(4, externalTasks.size());
+      assertEquals(2, countTasksOfTopic(externalTasks, "highPriorityTopic"));
+      assertEquals(2, countTasksOfTopic(externalTasks, "lowPriorityTopic"));
+    }
+    finally {
+      processEngineConfiguration.setExternalTaskFairFetchEnabled(false);
+    }
+  }
+
+  public void testFetchFairlyWithWeights() {
+    // given
+    processEngineConfiguration.setExternalTaskFairFetchEnabled(true);
+
+    try {
+      deployment(createExternalTaskProcess("processA", "topicA", 0),
+          createExternalTaskProcess("processB", "topicB", 0));
+      startProcessInstances("processA", 5);
+      startProcessInstances("processB", 5);
+
+      // when
+      List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(4, WORKER_ID)
+        .topic("topicA", LOCK_TIME)
+          .weight(3)
+        .topic("topicB", LOCK_TIME)
+        .execute();
+
+      // then
+      assertEquals(4, externalTasks.size());
+      assertEquals(3, countTasksOfTopic(externalTasks, "topicA"));
+      assertEquals(1, countTasksOfTopic(externalTasks, "topicB"));
+    }
+    finally {
+      processEngineConfiguration.setExternalTaskFairFetchEnabled(false);
+    }
+  }
+
+  public void testFetchFairlyPassesOnUnusedShares() {
+    // given
+    processEngineConfiguration.setExternalTaskFairFetchEnabled(true);
+
+    try {
+      deployment(createExternalTaskProcess("processA", "topicA", 0),
+          createExternalTaskProcess("processB", "topicB", 0));
+      startProcessInstances("processA", 5);
+      startProcessInstances("processB", 1);
+
+      // when
+      List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(4, WORKER_ID)
+        .topic("topicA", LOCK_TIME)
+        .topic("topicB", LOCK_TIME)
+        .execute();
+
+      // then
+      assertEquals(4, externalTasks.size());
+      assertEquals(3, countTasksOfTopic(externalTasks, "topicA"));
+      assertEquals(1, countTasksOfTopic(externalTasks, "topicB"));
+      assertEquals(4, externalTaskService.createExternalTaskQuery().locked().count());
+    }
+    finally {
+      processEngineConfiguration.setExternalTaskFairFetchEnabled(false);
+    }
+  }
+
+  public void testFetchFairlyWithNonPositiveWeight() {
+    try {
+      externalTaskService.fetchAndLock(4, WORKER_ID)
+        .topic(TOPIC_NAME, LOCK_TIME)
+          .weight(0)
+        .execute();
+      fail("Exception expected");
+    }
+    catch (ProcessEngineException e) {
+      assertTrue(e.getMessage().contains("weight is not greater than 0"));
+    }
+  }
+
+  protected BpmnModelInstance createExternalTaskProcess(String processKey, String topicName, int priority) {
+    return Bpmn.createExecutableProcess(processKey)
+      .startEvent()
+      .serviceTask()
+        .camundaType("external")
+        .camundaTopic(topicName)
+        .camundaTaskPriority(String.valueOf(priority))
+      .endEvent()
+      .done();
+  }
+
+  protected void startProcessInstances(String processKey, int count) {
+    for (int i = 0; i < count; i++) {
+      runtimeService.startProcessInstanceByKey(processKey);
+    }
+  }
+
+  protected int countTasksOfTopic(List<LockedExternalTask> externalTasks, String topicName) {
+    int count = 0;
+    for (LockedExternalTask externalTask : externalTasks) {
+      if (topicName.equals(externalTask.getTopicName())) {
+        count++;
+      }
+    }
+    return count;
+  }
 
   @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/twoExternalTaskWithPriorityProcess.bpmn20.xml")
   public void testFetchWithPriority() {
@@ -440,6 +590,62 @@ public class ExternalTaskServiceTest extends PluggableProcessEngineTestCase {
 
   }
 
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/ExternalTaskServiceTest.testFetchVariables.bpmn20.xml")
+  public void testFetchVariablesOfMultipleTasks() {
+    // given
+    Map<String, Integer> processVariableValues = new HashMap<String, Integer>();
+    for (int i = 0; i < 3; i++) {
+      ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("subProcessExternalTask",
+          Variables.createVariables().putValue("processVar1", i).putValue("processVar2", 43));
+      processVariableValues.put(processInstance.getId(), i);
+    }
+
+    // when
+    List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(3, WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME)
+      .variables("processVar1", "subProcessVar", "nonExistingVar")
+      .execute();
+
+    // then
+    assertEquals(3, externalTasks.size());
+
+    for (LockedExternalTask task : externalTasks) {
+      VariableMap variables = task.getVariables();
+      assertEquals(2, variables.size());
+
+      assertEquals(processVariableValues.get(task.getProcessInstanceId()), variables.get("processVar1"));
+      assertEquals(44L, variables.get("subProcessVar"));
+    }
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/ExternalTaskServiceTest.testFetchVariables.bpmn20.xml")
+  public void testFetchVariablesExceedingInListSize() {
+    // given
+    runtimeService.startProcessInstanceByKey("subProcessExternalTask",
+        Variables.createVariables().putValue("processVar1", 42).putValue("processVar2", 43));
+
+    List<String> variableNames = new ArrayList<String>();
+    variableNames.add("processVar1");
+    for (int i = 0; i < 1500; i++) {
+      variableNames.add("nonExistingVar" + i);
+    }
+    variableNames.add("subProcessVar");
+
+    // when
+    List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(1, WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME)
+      .variables(variableNames)
+      .execute();
+
+    // then
+    assertEquals(1, externalTasks.size());
+
+    VariableMap variables = externalTasks.get(0).getVariables();
+    assertEquals(2, variables.size());
+    assertEquals(42, variables.get("processVar1"));
+    assertEquals(44L, variables.get("subProcessVar"));
+  }
+
   @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/ExternalTaskServiceTest.testFetchVariables.bpmn20.xml")
   public void testShouldNotFetchSerializedVariables() {
     // given
@@ -2622,6 +2828,99 @@ public class ExternalTaskServiceTest extends PluggableProcessEngineTestCase {
     }
   }
 
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testExtendLocksOfWorker() {
+    final Date oldCurrentTime = ClockUtil.getCurrentTime();
+    try {
+      // given
+      runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+      runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+      runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+      ClockUtil.setCurrentTime(nowMinus(1000));
+      externalTaskService.fetchAndLock(2, WORKER_ID).topic(TOPIC_NAME, LOCK_TIME).execute();
+      List<LockedExternalTask> otherTasks = externalTaskService.fetchAndLock(1, "anotherWorkerId").topic(TOPIC_NAME, LOCK_TIME).execute();
+
+      // when
+      Date extendLockTime = new Date();
+      ClockUtil.setCurrentTime(extendLockTime);
+
+      externalTaskService.extendLocks(WORKER_ID, LOCK_TIME);
+
+      // then
+      List<ExternalTask> tasksWithExtendedLock = externalTaskService.createExternalTaskQuery().workerId(WORKER_ID).list();
+      assertEquals(2, tasksWithExtendedLock.size());
+      for (ExternalTask task : tasksWithExtendedLock) {
+        AssertUtil.assertEqualsSecondPrecision(new Date(extendLockTime.getTime() + LOCK_TIME), task.getLockExpirationTime());
+      }
+
+      ExternalTask otherTask = externalTaskService.createExternalTaskQuery().workerId("anotherWorkerId").singleResult();
+      AssertUtil.assertEqualsSecondPrecision(otherTasks.get(0).getLockExpirationTime(), otherTask.getLockExpirationTime());
+
+    } finally {
+      ClockUtil.setCurrentTime(oldCurrentTime);
+    }
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testExtendLocksOfWorkerNotAffectingExpiredLocks() {
+    // given
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+
+    List<LockedExternalTask> lockedTasks = externalTaskService.fetchAndLock(1, WORKER_ID)
+      .topic(TOPIC_NAME, 1L)
+      .execute();
+
+    ClockUtil.setCurrentTime(nowPlus(2));
+
+    // when
+    externalTaskService.extendLocks(WORKER_ID, LOCK_TIME);
+
+    // then
+    ExternalTask task = externalTaskService.createExternalTaskQuery().singleResult();
+    AssertUtil.assertEqualsSecondPrecision(lockedTasks.get(0).getLockExpirationTime(), task.getLockExpirationTime());
+    assertEquals(0, externalTaskService.createExternalTaskQuery().locked().count());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testExtendLocksOfWorkerNotAffectingSuspendedTasks() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+
+    List<LockedExternalTask> lockedTasks = externalTaskService.fetchAndLock(1, WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME)
+      .execute();
+
+    runtimeService.suspendProcessInstanceById(processInstance.getId());
+    ClockUtil.setCurrentTime(nowPlus(1000));
+
+    // when
+    externalTaskService.extendLocks(WORKER_ID, LOCK_TIME);
+
+    // then
+    ExternalTask task = externalTaskService.createExternalTaskQuery().singleResult();
+    AssertUtil.assertEqualsSecondPrecision(lockedTasks.get(0).getLockExpirationTime(), task.getLockExpirationTime());
+  }
+
+  public void testExtendLocksOfWorkerWithNegativeLockTime() {
+    try {
+      externalTaskService.extendLocks(WORKER_ID, -1);
+      fail("Exception expected");
+    } catch (BadUserRequestException e) {
+      // then
+      assertTrue(e.getMessage().contains("lockTime is not greater than 0"));
+    }
+  }
+
+  public void testExtendLocksOfWorkerWithNullWorkerId() {
+    try {
+      externalTaskService.extendLocks(null, LOCK_TIME);
+      fail("Exception expected");
+    } catch (NullValueException e) {
+      // then
+      assertTrue(e.getMessage().contains("workerId is null"));
+    }
+  }
+
   public void testCompleteWithLocalVariables() {
     // given
     BpmnModelInstance instance = Bpmn.createExecutableProcess("Process").startEvent().serviceTask("externalTask")
@@ -0,0 +1,305 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.externaltask;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.camunda.bpm.engine.ExternalTaskService;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.externaltask.ExternalTaskHandler;
+import org.camunda.bpm.engine.externaltask.ExternalTaskWorker;
+import org.camunda.bpm.engine.externaltask.LockedExternalTask;
+import org.camunda.bpm.engine.impl.ExternalTaskServiceImpl;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskWorkerImpl;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.test.Deployment;
+
+public class ExternalTaskWorkerTest extends PluggableProcessEngineTestCase {
+
+  protected static final String WORKER_ID = "aWorkerId";
+  protected static final String TOPIC_NAME = "externalTaskTopic";
+  protected static final long LOCK_TIME = 10000L;
+  protected static final long TEST_TIMEOUT = 10000L;
+
+  protected ExternalTaskWorker worker;
+
+  @Override
+  protected void tearDown() throws Exception {
+    if (worker != null) {
+      worker.stop();
+    }
+    super.tearDown();
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testHandleExternalTasks() {
+    // given
+    startProcessInstances(3);
+
+    worker = externalTaskService.createWorker(WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME, new CompletingHandler())
+      .build();
+
+    // when
+    worker.start();
+
+    // then
+    waitUntilExternalTaskCount(0);
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testHandleExternalTasksCreatedAfterStart() {
+    // given
+    worker = externalTaskService.createWorker(WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME, new CompletingHandler())
+      .asyncResponseTimeout(10 * TEST_TIMEOUT)
+      .build();
+
+    worker.start();
+
+    // when
+    startProcessInstances(3);
+
+    // then the worker is notified about the new tasks before its timeout is reached
+    waitUntilExternalTaskCount(0);
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testFetchNoMoreTasksThanCapacity() throws Exception {
+    // given
+    startProcessInstances(5);
+
+    BlockingHandler handler = new BlockingHandler();
+    worker = externalTaskService.createWorker(WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME, handler)
+      .maxTasks(10)
+      .poolSize(1)
+      .queueCapacity(1)
+      .build();
+
+    // when
+    worker.start();
+
+    // then only one task is handled and one task waits for the thread
+    handler.awaitStarted();
+    waitUntilFreeCapacity(0);
+    assertEquals(1, handler.getStartedCount());
+    assertEquals(2, externalTaskService.createExternalTaskQuery().locked().count());
+
+    // and the remaining tasks are fetched once the handler is done
+    handler.release();
+    waitUntilExternalTaskCount(0);
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testUnlockUnhandledTasksOnStop() throws Exception {
+    // given
+    startProcessInstances(2);
+
+    BlockingHandler handler = new BlockingHandler();
+    worker = externalTaskService.createWorker(WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME, handler)
+      .poolSize(1)
+      .queueCapacity(1)
+      .stopTimeout(100)
+      .build();
+
+    worker.start();
+    handler.awaitStarted();
+    waitUntilFreeCapacity(0);
+
+    // when
+    worker.stop();
+
+    // then the task waiting for the thread is unlocked and the interrupted handler's task stays locked
+    assertFalse(worker.isActive());
+    assertEquals(1, handler.getStartedCount());
+    assertEquals(1, externalTaskService.createExternalTaskQuery().notLocked().count());
+    assertEquals(1, externalTaskService.createExternalTaskQuery().locked().count());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testHandlerExceptionDoesNotStopWorker() {
+    // given
+    startProcessInstances(1);
+
+    worker = externalTaskService.createWorker(WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME, new FailingHandler())
+      .build();
+
+    worker.start();
+    waitUntilLockedExternalTaskCount(1);
+
+    // when
+    startProcessInstances(1);
+
+    // then
+    waitUntilLockedExternalTaskCount(2);
+    assertTrue(worker.isActive());
+  }
+
+  public void testStartAndStopWorker() {
+    // given
+    worker = externalTaskService.createWorker(WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME, new CompletingHandler())
+      .build();
+
+    assertFalse(worker.isActive());
+    assertEquals(WORKER_ID, worker.getWorkerId());
+
+    // when
+    worker.start();
+
+    // then
+    assertTrue(worker.isActive());
+
+    // when
+    worker.stop();
+
+    // then
+    assertFalse(worker.isActive());
+  }
+
+  public void testStopWorkersOfService() {
+    // given
+    worker = externalTaskService.createWorker(WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME, new CompletingHandler())
+      .build();
+    worker.start();
+
+    // when (as done when the process engine is closed)
+    ((ExternalTaskServiceImpl) externalTaskService).stopWorkers();
+
+    // then
+    assertFalse(worker.isActive());
+  }
+
+  public void testCreateWorkerWithoutTopic() {
+    try {
+      externalTaskService.createWorker(WORKER_ID).build();
+      fail("Exception expected");
+    }
+    catch (ProcessEngineException e) {
+      assertTrue(e.getMessage().contains("topics is empty"));
+    }
+  }
+
+  public void testCreateWorkerWithNonPositivePoolSize() {
+    try {
+      externalTaskService.createWorker(WORKER_ID)
+        .topic(TOPIC_NAME, LOCK_TIME, new CompletingHandler())
+        .poolSize(0)
+        .build();
+      fail("Exception expected");
+    }
+    catch (ProcessEngineException e) {
+      assertTrue(e.getMessage().contains("poolSize is not greater than 0"));
+    }
+  }
+
+  protected void startProcessInstances(int count) {
+    for (int i = 0; i < count; i++) {
+      runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    }
+  }
+
+  protected void waitUntilExternalTaskCount(long count) {
+    long timeout = System.currentTimeMillis() + TEST_TIMEOUT;
+    while (externalTaskService.createExternalTaskQuery().count() != count) {
+      ensureNotTimedOut(timeout);
+    }
+  }
+
+  protected void waitUntilLockedExternalTaskCount(long count) {
+    long timeout = System.currentTimeMillis() + TEST_TIMEOUT;
+    while (externalTaskService.createExternalTaskQuery().locked().count() != count) {
+      ensureNotTimedOut(timeout);
+    }
+  }
+
+  protected void waitUntilFreeCapacity(int freeCapacity) {
+    long timeout = System.currentTimeMillis() + TEST_TIMEOUT;
+    while (((ExternalTaskWorkerImpl) worker).getFreeCapacity() != freeCapacity) {
+      ensureNotTimedOut(timeout);
+    }
+  }
+
+  protected void ensureNotTimedOut(long timeout) {
+    if (System.currentTimeMillis() > timeout) {
+      fail("Worker did not handle the external tasks in time");
+    }
+
+    try {
+      Thread.sleep(50);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  public static class CompletingHandler implements ExternalTaskHandler {
+
+    public void execute(LockedExternalTask externalTask, ExternalTaskService externalTaskService) {
+      externalTaskService.complete(externalTask.getId(), WORKER_ID);
+    }
+  }
+
+  public static class BlockingHandler extends CompletingHandler {
+
+    protected CountDownLatch latch = new CountDownLatch(1);
+    protected CountDownLatch started = new CountDownLatch(1);
+    protected AtomicInteger startedCount = new AtomicInteger();
+
+    public void execute(LockedExternalTask externalTask, ExternalTaskService externalTaskService) {
+      startedCount.incrementAndGet();
+      started.countDown();
+      try {
+        latch.await();
+      }
+      catch (InterruptedException e) {
+        // the worker was stopped; leave the task locked
+        Thread.currentThread().interrupt();
+        return;
+      }
+      super.execute(externalTask, externalTaskService);
+    }
+
+    public void release() {
+      latch.countDown();
+    }
+
+    public void awaitStarted() throws InterruptedException {
+      assertTrue("Handler was not started in time", started.await(TEST_TIMEOUT, TimeUnit.MILLISECONDS));
+    }
+
+    public int getStartedCount() {
+      return startedCount.get();
+    }
+  }
+
+  public static class FailingHandler implements ExternalTaskHandler {
+
+    public void execute(LockedExternalTask externalTask, ExternalTaskService externalTaskService) {
+      throw new RuntimeException("expected exception");
+    }
+  }
+
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.externaltask;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.externaltask.ExternalTask;
+import org.camunda.bpm.engine.externaltask.HandleExternalTaskResult;
+import org.camunda.bpm.engine.externaltask.LockedExternalTask;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+
+public class HandleExternalTasksTest extends PluggableProcessEngineTestCase {
+
+  protected static final String WORKER_ID = "aWorkerId";
+  protected static final long LOCK_TIME = 10000L;
+  protected static final String TOPIC_NAME = "externalTaskTopic";
+
+  protected void setUp() throws Exception {
+    ClockUtil.setCurrentTime(new Date());
+  }
+
+  protected void tearDown() throws Exception {
+    ClockUtil.reset();
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testCompleteTasks() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+
+    List<LockedExternalTask> lockedTasks = fetchAndLock(WORKER_ID, 2);
+
+    // when
+    List<HandleExternalTaskResult> results = externalTaskService.handleExternalTasks(WORKER_ID)
+      .complete(lockedTasks.get(0).getId(), Collections.<String, Object>singletonMap("aVariable", "aValue"))
+      .complete(lockedTasks.get(1).getId())
+      .execute();
+
+    // then
+    assertEquals(2, results.size());
+    assertSuccessful(results.get(0), lockedTasks.get(0).getId());
+    assertSuccessful(results.get(1), lockedTasks.get(1).getId());
+
+    assertEquals(0, externalTaskService.createExternalTaskQuery().count());
+    assertEquals(0, runtimeService.createProcessInstanceQuery().processInstanceId(processInstance.getId()).count());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testReportFailurePerTask() {
+    // given
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+
+    LockedExternalTask lockedTask = fetchAndLock(WORKER_ID, 1).get(0);
+    LockedExternalTask otherWorkersTask = fetchAndLock("anotherWorkerId", 1).get(0);
+
+    // when
+    List<HandleExternalTaskResult> results = externalTaskService.handleExternalTasks(WORKER_ID)
+      .complete(otherWorkersTask.getId())
+      .complete("nonExistingId")
+      .complete(lockedTask.getId())
+      .execute();
+
+    // then
+    assertEquals(3, results.size());
+    assertFailed(results.get(0), otherWorkersTask.getId(), "cannot be completed by worker '" + WORKER_ID);
+    assertFailed(results.get(1), "nonExistingId", "Cannot find external task with id nonExistingId");
+    assertSuccessful(results.get(2), lockedTask.getId());
+
+    ExternalTask remainingTask = externalTaskService.createExternalTaskQuery().singleResult();
+    assertEquals(otherWorkersTask.getId(), remainingTask.getId());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testExtendLocksAndHandleFailures() {
+    // given
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+
+    List<LockedExternalTask> lockedTasks = fetchAndLock(WORKER_ID, 2);
+
+    Date extendLockTime = new Date(ClockUtil.getCurrentTime().getTime() + 1000);
+    ClockUtil.setCurrentTime(extendLockTime);
+
+    // when
+    List<HandleExternalTaskResult> results = externalTaskService.handleExternalTasks(WORKER_ID)
+      .extendLock(lockedTasks.get(0).getId(), 2 * LOCK_TIME)
+      .handleFailure(lockedTasks.get(1).getId(), "anErrorMessage", "anErrorDetails", 3, 0)
+      .execute();
+
+    // then
+    assertSuccessful(results.get(0), lockedTasks.get(0).getId());
+    assertSuccessful(results.get(1), lockedTasks.get(1).getId());
+
+    ExternalTask extendedTask = externalTaskService.createExternalTaskQuery().externalTaskId(lockedTasks.get(0).getId()).singleResult();
+    assertEquals(extendLockTime.getTime() + 2 * LOCK_TIME, extendedTask.getLockExpirationTime().getTime(), 1000);
+
+    ExternalTask failedTask = externalTaskService.createExternalTaskQuery().externalTaskId(lockedTasks.get(1).getId()).singleResult();
+    assertEquals(Integer.valueOf(3), failedTask.getRetries());
+    assertEquals("anErrorMessage", failedTask.getErrorMessage());
+    assertEquals("anErrorDetails", externalTaskService.getExternalTaskErrorDetails(failedTask.getId()));
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testReportExpiredLockPerTask() {
+    // given
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    LockedExternalTask lockedTask = fetchAndLock(WORKER_ID, 1).get(0);
+
+    ClockUtil.setCurrentTime(new Date(ClockUtil.getCurrentTime().getTime() + 2 * LOCK_TIME));
+
+    // when
+    List<HandleExternalTaskResult> results = externalTaskService.handleExternalTasks(WORKER_ID)
+      .extendLock(lockedTask.getId(), LOCK_TIME)
+      .execute();
+
+    // then
+    assertFailed(results.get(0), lockedTask.getId(), "Cannot extend a lock that expired");
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testHandleTaskOncePerBatch() {
+    // given
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    LockedExternalTask lockedTask = fetchAndLock(WORKER_ID, 1).get(0);
+
+    // when
+    List<HandleExternalTaskResult> results = externalTaskService.handleExternalTasks(WORKER_ID)
+      .complete(lockedTask.getId())
+      .extendLock(lockedTask.getId(), LOCK_TIME)
+      .execute();
+
+    // then
+    assertSuccessful(results.get(0), lockedTask.getId());
+    assertFailed(results.get(1), lockedTask.getId(), "is handled more than once in the same batch");
+    assertEquals(0, externalTaskService.createExternalTaskQuery().count());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testReportSuspendedTaskPerTask() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+
+    List<LockedExternalTask> lockedTasks = fetchAndLock(WORKER_ID, 2);
+    LockedExternalTask suspendedTask = lockedTasks.get(0).getProcessInstanceId().equals(processInstance.getId())
+        ? lockedTasks.get(0) : lockedTasks.get(1);
+    LockedExternalTask activeTask = suspendedTask == lockedTasks.get(0) ? lockedTasks.get(1) : lockedTasks.get(0);
+
+    runtimeService.suspendProcessInstanceById(processInstance.getId());
+
+    // when
+    List<HandleExternalTaskResult> results = externalTaskService.handleExternalTasks(WORKER_ID)
+      .complete(suspendedTask.getId())
+      .complete(activeTask.getId())
+      .execute();
+
+    // then
+    assertFailed(results.get(0), suspendedTask.getId(), "is suspended");
+    assertSuccessful(results.get(1), activeTask.getId());
+
+    ExternalTask remainingTask = externalTaskService.createExternalTaskQuery().singleResult();
+    assertEquals(suspendedTask.getId(), remainingTask.getId());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testReportFailingContinuationPerTask() {
+    // given
+    BpmnModelInstance failingProcess = Bpmn.createExecutableProcess("failingProcess")
+      .startEvent()
+      .serviceTask()
+        .camundaExternalTask(TOPIC_NAME)
+      .serviceTask()
+        .camundaExpression("${nonExistingVariable}")
+      .endEvent()
+      .done();
+    deployment(failingProcess);
+
+    ProcessInstance failingInstance = runtimeService.startProcessInstanceByKey("failingProcess");
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+
+    List<LockedExternalTask> lockedTasks = fetchAndLock(WORKER_ID, 2);
+    LockedExternalTask failingTask = lockedTasks.get(0).getProcessInstanceId().equals(failingInstance.getId())
+        ? lockedTasks.get(0) : lockedTasks.get(1);
+    LockedExternalTask otherTask = failingTask == lockedTasks.get(0) ? lockedTasks.get(1) : lockedTasks.get(0);
+
+    // when
+    List<HandleExternalTaskResult> results = externalTaskService.handleExternalTasks(WORKER_ID)
+      .complete(failingTask.getId())
+      .complete(otherTask.getId())
+      .execute();
+
+    // then the failing task is rolled back and the other task is still completed
+    assertFailed(results.get(0), failingTask.getId(), "nonExistingVariable");
+    assertSuccessful(results.get(1), otherTask.getId());
+
+    ExternalTask remainingTask = externalTaskService.createExternalTaskQuery().singleResult();
+    assertEquals(failingTask.getId(), remainingTask.getId());
+  }
+
+  public void testHandleNoTasks() {
+    // when
+    List<HandleExternalTaskResult> results = externalTaskService.handleExternalTasks(WORKER_ID).execute();
+
+    // then
+    assertTrue(results.isEmpty());
+  }
+
+  protected List<LockedExternalTask> fetchAndLock(String workerId, int maxTasks) {
+    List<LockedExternalTask> lockedTasks = externalTaskService.fetchAndLock(maxTasks, workerId)
+      .topic(TOPIC_NAME, LOCK_TIME)
+      .execute();
+    assertEquals(maxTasks, lockedTasks.size());
+    return lockedTasks;
+  }
+
+  protected void assertSuccessful(HandleExternalTaskResult result, String externalTaskId) {
+    assertEquals(externalTaskId, result.getExternalTaskId());
+    assertTrue(result.isSuccessful());
+    assertNull(result.getErrorMessage());
+  }
+
+  protected void assertFailed(HandleExternalTaskResult result, String externalTaskId, String expectedMessage) {
+    assertEquals(externalTaskId, result.getExternalTaskId());
+    assertFalse(result.isSuccessful());
+    assertTrue(result.getErrorMessage(), result.getErrorMessage().contains(expectedMessage));
+  }
+
+}
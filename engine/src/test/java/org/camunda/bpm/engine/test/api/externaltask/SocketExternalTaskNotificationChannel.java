@@ -0,0 +1,102 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.externaltask;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.SocketException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskNotificationChannel;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.util.CompositeCondition;
+
+/**
+ * Stands in for a cluster wide notification channel in tests by sending
+ * datagrams to the other channels of the same JVM over the loopback interface.
+ */
+public class SocketExternalTaskNotificationChannel implements ExternalTaskNotificationChannel {
+
+  protected DatagramSocket socket;
+  protected List<Integer> peerPorts = new CopyOnWriteArrayList<Integer>();
+  protected Thread receiverThread;
+
+  public SocketExternalTaskNotificationChannel() {
+    try {
+      socket = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+    }
+    catch (SocketException e) {
+      throw new ProcessEngineException("Cannot open notification socket", e);
+    }
+  }
+
+  public void addPeer(SocketExternalTaskNotificationChannel peer) {
+    peerPorts.add(peer.getPort());
+  }
+
+  public int getPort() {
+    return socket.getLocalPort();
+  }
+
+  public void start(CommandExecutor commandExecutor, final CompositeCondition condition) {
+    receiverThread = new Thread(new Runnable() {
+      public void run() {
+        DatagramPacket packet = new DatagramPacket(new byte[1], 1);
+        while (!socket.isClosed()) {
+          try {
+            socket.receive(packet);
+            condition.signalAll();
+          }
+          catch (IOException e) {
+            // socket closed
+          }
+        }
+      }
+    }, getClass().getSimpleName());
+    receiverThread.setDaemon(true);
+    receiverThread.start();
+  }
+
+  public void publish() {
+    for (Integer peerPort : peerPorts) {
+      try {
+        socket.send(new DatagramPacket(new byte[] { 1 }, 1, InetAddress.getLoopbackAddress(), peerPort));
+      }
+      catch (IOException e) {
+        // the peer misses this notification and fetches periodically
+      }
+    }
+  }
+
+  public void stop() {
+    socket.close();
+
+    if (receiverThread != null) {
+      try {
+        receiverThread.join();
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+}
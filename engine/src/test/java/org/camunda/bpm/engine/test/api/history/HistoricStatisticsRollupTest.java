@@ -0,0 +1,326 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.history;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.exception.NotValidException;
+import org.camunda.bpm.engine.history.DurationReportResult;
+import org.camunda.bpm.engine.history.HistoricActivityStatistics;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.history.statistics.HistoricStatisticsRollupReporter;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.query.PeriodUnit;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.RequiredHistoryLevel;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+@RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+public class HistoricStatisticsRollupTest {
+
+  protected static final BpmnModelInstance PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent("start")
+      .userTask("task")
+      .endEvent("end")
+      .done();
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setHistoryStatisticsRollupEnabled(true);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl engineConfiguration;
+  protected RepositoryService repositoryService;
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+  protected HistoryService historyService;
+
+  @Before
+  public void init() {
+    engineConfiguration = engineRule.getProcessEngineConfiguration();
+    repositoryService = engineRule.getRepositoryService();
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+    historyService = engineRule.getHistoryService();
+  }
+
+  @After
+  public void cleanUp() {
+    // flush pending deltas so that closing the engine does not write them afterwards
+    engineConfiguration.getHistoricStatisticsRollupReporter().reportNow();
+    engineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        commandContext.getHistoricStatisticsManager().deleteAllStatisticsRollups();
+        return null;
+      }
+    });
+  }
+
+  @Test
+  public void shouldQueryActivityStatisticsFromRollups() {
+    // given
+    ProcessDefinition processDefinition = testRule.deployAndGetDefinition(PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+    runtimeService.startProcessInstanceByKey("process");
+    runtimeService.startProcessInstanceByKey("process");
+
+    Task task = taskService.createTaskQuery().listPage(0, 1).get(0);
+    taskService.complete(task.getId());
+
+    // when
+    engineConfiguration.getHistoricStatisticsRollupReporter().reportNow();
+
+    // then
+    List<HistoricActivityStatistics> statistics = historyService
+        .createHistoricActivityStatisticsQuery(processDefinition.getId())
+        .includeFinished()
+        .useRollups()
+        .orderByActivityId()
+        .list();
+
+    assertThat(statistics.size(), is(3));
+    assertStatistics(statistics.get(0), "end", 0, 1);
+    assertStatistics(statistics.get(1), "start", 0, 3);
+    assertStatistics(statistics.get(2), "task", 2, 1);
+  }
+
+  @Test
+  public void shouldOmitFinishedActivitiesFromRollups() {
+    // given
+    ProcessDefinition processDefinition = testRule.deployAndGetDefinition(PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+    runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    engineConfiguration.getHistoricStatisticsRollupReporter().reportNow();
+
+    // then
+    List<HistoricActivityStatistics> statistics = historyService
+        .createHistoricActivityStatisticsQuery(processDefinition.getId())
+        .useRollups()
+        .list();
+
+    assertThat(statistics.size(), is(1));
+    assertThat(statistics.get(0).getId(), is("task"));
+    assertThat(statistics.get(0).getInstances(), is(2L));
+    assertThat(historyService.createHistoricActivityStatisticsQuery(processDefinition.getId()).useRollups().count(), is(1L));
+  }
+
+  @Test
+  public void shouldNotQueryRollupsBeforeReport() {
+    // given
+    ProcessDefinition processDefinition = testRule.deployAndGetDefinition(PROCESS);
+
+    // when
+    runtimeService.startProcessInstanceByKey("process");
+
+    // then
+    assertThat(historyService.createHistoricActivityStatisticsQuery(processDefinition.getId()).useRollups().count(), is(0L));
+  }
+
+  @Test
+  public void shouldQueryActivityStatisticsFromHistoryByDefault() {
+    // given
+    ProcessDefinition processDefinition = testRule.deployAndGetDefinition(PROCESS);
+
+    // when
+    runtimeService.startProcessInstanceByKey("process");
+
+    // then
+    assertThat(historyService.createHistoricActivityStatisticsQuery(processDefinition.getId()).count(), is(1L));
+  }
+
+  @Test
+  public void shouldNotQueryRollupsWithDateRange() {
+    // given
+    ProcessDefinition processDefinition = testRule.deployAndGetDefinition(PROCESS);
+
+    try {
+      // when
+      historyService.createHistoricActivityStatisticsQuery(processDefinition.getId())
+        .useRollups()
+        .startedAfter(new Date())
+        .list();
+      fail("exception expected");
+    }
+    catch (NotValidException e) {
+      // then
+      assertThat(e.getMessage(), containsString("cannot be restricted by start or end date"));
+    }
+  }
+
+  @Test
+  public void shouldNotQueryRollupsIfNotMaintained() {
+    // given
+    ProcessDefinition processDefinition = testRule.deployAndGetDefinition(PROCESS);
+    engineConfiguration.setHistoryStatisticsRollupEnabled(false);
+
+    try {
+      // when
+      historyService.createHistoricActivityStatisticsQuery(processDefinition.getId())
+        .useRollups()
+        .list();
+      fail("exception expected");
+    }
+    catch (ProcessEngineException e) {
+      // then
+      assertThat(e.getMessage(), containsString("historyStatisticsRollupEnabled"));
+    }
+    finally {
+      engineConfiguration.setHistoryStatisticsRollupEnabled(true);
+    }
+  }
+
+  @Test
+  public void shouldCreateDurationReportFromRollups() {
+    // given
+    testRule.deploy(PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+    runtimeService.startProcessInstanceByKey("process");
+
+    for (Task task : taskService.createTaskQuery().list()) {
+      taskService.complete(task.getId());
+    }
+
+    // when
+    engineConfiguration.getHistoricStatisticsRollupReporter().reportNow();
+
+    // then
+    List<DurationReportResult> result = historyService
+        .createHistoricProcessInstanceReport()
+        .processDefinitionKeyIn("process")
+        .useRollups()
+        .duration(PeriodUnit.MONTH);
+
+    assertThat(result.size(), is(1));
+    assertThat(result.get(0).getMinimum() <= result.get(0).getAverage(), is(true));
+    assertThat(result.get(0).getAverage() <= result.get(0).getMaximum(), is(true));
+  }
+
+  @Test
+  public void shouldCompactRollups() {
+    // given
+    HistoricStatisticsRollupReporter reporter = engineConfiguration.getHistoricStatisticsRollupReporter();
+    long compactionInterval = reporter.getCompactionIntervalInSeconds();
+    reporter.setCompactionIntervalInSeconds(24 * 3600);
+
+    try {
+      ProcessDefinition processDefinition = testRule.deployAndGetDefinition(PROCESS);
+      reporter.reportNow();
+
+      for (int i = 0; i < 3; i++) {
+        runtimeService.startProcessInstanceByKey("process");
+        reporter.reportNow();
+      }
+
+      assertThat(countActivityRollups(), is(6L));
+
+      // when
+      final Date reportedBefore = ClockUtil.getCurrentTime();
+      engineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          commandContext.getHistoricStatisticsManager().compactStatisticsRollups(reportedBefore);
+          return null;
+        }
+      });
+
+      // then
+      assertThat(countActivityRollups(), is(2L));
+
+      List<HistoricActivityStatistics> statistics = historyService
+          .createHistoricActivityStatisticsQuery(processDefinition.getId())
+          .includeFinished()
+          .useRollups()
+          .orderByActivityId()
+          .list();
+
+      assertThat(statistics.size(), is(2));
+      assertStatistics(statistics.get(0), "start", 0, 3);
+      assertStatistics(statistics.get(1), "task", 3, 0);
+    }
+    finally {
+      reporter.setCompactionIntervalInSeconds(compactionInterval);
+    }
+  }
+
+  @Test
+  public void shouldDeleteRollupsWithProcessDefinition() {
+    // given
+    ProcessDefinition processDefinition = testRule.deployAndGetDefinition(PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+    engineConfiguration.getHistoricStatisticsRollupReporter().reportNow();
+
+    // when
+    repositoryService.deleteProcessDefinition(processDefinition.getId(), true);
+    engineConfiguration.getHistoricStatisticsRollupReporter().reportNow();
+
+    // then
+    assertThat(countActivityRollups(), is(0L));
+  }
+
+  protected long countActivityRollups() {
+    return engineConfiguration.getCommandExecutorTxRequired().execute(new Command<Long>() {
+      public Long execute(CommandContext commandContext) {
+        Map<String, Object> parameters = new HashMap<String, Object>();
+        parameters.put("reportedBefore", new Date(ClockUtil.getCurrentTime().getTime() + 3600 * 1000));
+        return (Long) commandContext.getDbEntityManager()
+            .selectOne("selectHistoricActivityStatisticsRollupCountReportedBefore", parameters);
+      }
+    });
+  }
+
+  protected void assertStatistics(HistoricActivityStatistics statistics, String activityId, long instances, long finished) {
+    assertThat(statistics.getId(), is(activityId));
+    assertThat(statistics.getInstances(), is(instances));
+    assertThat(statistics.getFinished(), is(finished));
+  }
+
+}
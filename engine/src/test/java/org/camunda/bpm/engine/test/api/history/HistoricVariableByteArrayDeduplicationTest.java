@@ -0,0 +1,166 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.history;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.history.HistoricDetail;
+import org.camunda.bpm.engine.history.HistoricVariableUpdate;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoricDetailVariableInstanceUpdateEntity;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.RequiredHistoryLevel;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+@RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+public class HistoricVariableByteArrayDeduplicationTest {
+
+  protected static final BpmnModelInstance PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .userTask()
+      .endEvent()
+      .done();
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setHistoryByteArrayDeduplicationEnabled(true);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected HistoryService historyService;
+
+  @Before
+  public void init() {
+    runtimeService = engineRule.getRuntimeService();
+    historyService = engineRule.getHistoryService();
+
+    testRule.deploy(PROCESS);
+  }
+
+  @Test
+  public void shouldShareByteArrayOfEqualUpdates() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    runtimeService.setVariable(processInstance.getId(), "bytes", "camunda".getBytes());
+    runtimeService.setVariable(processInstance.getId(), "bytes", "camunda".getBytes());
+
+    // then
+    List<HistoricDetail> details = historyService.createHistoricDetailQuery()
+      .variableUpdates()
+      .orderPartiallyByOccurrence().asc()
+      .list();
+
+    assertThat(details.size(), is(2));
+    assertThat(getByteArrayId(details.get(0)), is(getByteArrayId(details.get(1))));
+    assertArrayEquals("camunda".getBytes(), (byte[]) ((HistoricVariableUpdate) details.get(1)).getValue());
+
+    // clean up
+    deleteProcessInstance(processInstance.getId());
+  }
+
+  @Test
+  public void shouldNotShareByteArrayOfDifferentUpdates() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    runtimeService.setVariable(processInstance.getId(), "bytes", "camunda".getBytes());
+    runtimeService.setVariable(processInstance.getId(), "bytes", "bpm".getBytes());
+
+    // then
+    List<HistoricDetail> details = historyService.createHistoricDetailQuery()
+      .variableUpdates()
+      .orderPartiallyByOccurrence().asc()
+      .list();
+
+    assertThat(details.size(), is(2));
+    assertThat(getByteArrayId(details.get(0)), is(not(getByteArrayId(details.get(1)))));
+    assertArrayEquals("camunda".getBytes(), (byte[]) ((HistoricVariableUpdate) details.get(0)).getValue());
+    assertArrayEquals("bpm".getBytes(), (byte[]) ((HistoricVariableUpdate) details.get(1)).getValue());
+
+    // clean up
+    deleteProcessInstance(processInstance.getId());
+  }
+
+  @Test
+  public void shouldNotShareByteArrayAcrossVariables() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    runtimeService.setVariable(processInstance.getId(), "bytes", "camunda".getBytes());
+    runtimeService.setVariable(processInstance.getId(), "otherBytes", "camunda".getBytes());
+
+    // then
+    HistoricDetail bytesDetail = historyService.createHistoricDetailQuery()
+      .variableUpdates()
+      .variableInstanceId(getVariableInstanceId("bytes"))
+      .singleResult();
+    HistoricDetail otherBytesDetail = historyService.createHistoricDetailQuery()
+      .variableUpdates()
+      .variableInstanceId(getVariableInstanceId("otherBytes"))
+      .singleResult();
+
+    assertThat(getByteArrayId(bytesDetail), is(not(getByteArrayId(otherBytesDetail))));
+
+    // clean up
+    deleteProcessInstance(processInstance.getId());
+  }
+
+  protected String getByteArrayId(HistoricDetail detail) {
+    return ((HistoricDetailVariableInstanceUpdateEntity) detail).getByteArrayValueId();
+  }
+
+  protected String getVariableInstanceId(String name) {
+    return historyService.createHistoricVariableInstanceQuery()
+      .variableName(name)
+      .singleResult()
+      .getId();
+  }
+
+  protected void deleteProcessInstance(String processInstanceId) {
+    runtimeService.deleteProcessInstance(processInstanceId, null);
+    historyService.deleteHistoricProcessInstance(processInstanceId);
+  }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.history;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupHelper;
+import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupJobHandlerConfiguration;
+import org.camunda.bpm.engine.impl.util.JsonUtil;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class HistoryCleanupAdaptiveBatchSizeTest {
+
+  @Rule
+  public ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  protected ProcessEngineConfigurationImpl engineConfiguration;
+
+  protected int defaultBatchSize;
+  protected long defaultTargetBatchDuration;
+
+  @Before
+  public void init() {
+    engineConfiguration = engineRule.getProcessEngineConfiguration();
+
+    defaultBatchSize = engineConfiguration.getHistoryCleanupBatchSize();
+    defaultTargetBatchDuration = engineConfiguration.getHistoryCleanupTargetBatchDuration();
+
+    engineConfiguration.setHistoryCleanupBatchSize(400);
+    engineConfiguration.setHistoryCleanupTargetBatchDuration(1000);
+  }
+
+  @After
+  public void resetConfiguration() {
+    engineConfiguration.setHistoryCleanupBatchSize(defaultBatchSize);
+    engineConfiguration
+      .setHistoryCleanupTargetBatchDuration(defaultTargetBatchDuration)
+      .initHistoryCleanup();
+  }
+
+  @Test
+  public void shouldShrinkBatchSizeWhenCleanupIsTooSlow() {
+    // when
+    int batchSize = HistoryCleanupHelper.calculateNextBatchSize(200, 4000, true, engineConfiguration);
+
+    // then
+    assertThat(batchSize, is(50));
+  }
+
+  @Test
+  public void shouldGrowBatchSizeWhenCleanupIsFastAndDataIsLeft() {
+    // when
+    int batchSize = HistoryCleanupHelper.calculateNextBatchSize(100, 800, true, engineConfiguration);
+
+    // then
+    assertThat(batchSize, is(125));
+  }
+
+  @Test
+  public void shouldAtMostDoubleBatchSize() {
+    // when
+    int batchSize = HistoryCleanupHelper.calculateNextBatchSize(100, 10, true, engineConfiguration);
+
+    // then
+    assertThat(batchSize, is(200));
+  }
+
+  @Test
+  public void shouldNotExceedConfiguredBatchSize() {
+    // when
+    int batchSize = HistoryCleanupHelper.calculateNextBatchSize(300, 10, true, engineConfiguration);
+
+    // then
+    assertThat(batchSize, is(400));
+  }
+
+  @Test
+  public void shouldKeepBatchSizeWhenNoDataIsLeft() {
+    // when
+    int batchSize = HistoryCleanupHelper.calculateNextBatchSize(100, 10, false, engineConfiguration);
+
+    // then
+    assertThat(batchSize, is(100));
+  }
+
+  @Test
+  public void shouldNotShrinkBelowOne() {
+    // when
+    int batchSize = HistoryCleanupHelper.calculateNextBatchSize(1, 100000, true, engineConfiguration);
+
+    // then
+    assertThat(batchSize, is(1));
+  }
+
+  @Test
+  public void shouldSerializeTunedBatchSize() {
+    // given
+    HistoryCleanupJobHandlerConfiguration configuration = new HistoryCleanupJobHandlerConfiguration();
+    configuration.setBatchSize(42);
+
+    // when
+    HistoryCleanupJobHandlerConfiguration result = HistoryCleanupJobHandlerConfiguration
+      .fromJson(JsonUtil.asObject(configuration.toCanonicalString()));
+
+    // then
+    assertThat(result.getBatchSize(), is(42));
+  }
+
+  @Test
+  public void shouldNotSerializeUntunedBatchSize() {
+    // given
+    HistoryCleanupJobHandlerConfiguration configuration = new HistoryCleanupJobHandlerConfiguration();
+
+    // when
+    HistoryCleanupJobHandlerConfiguration result = HistoryCleanupJobHandlerConfiguration
+      .fromJson(JsonUtil.asObject(configuration.toCanonicalString()));
+
+    // then
+    assertThat(result.getBatchSize(), is(nullValue()));
+  }
+
+  @Test
+  public void shouldRejectNonPositiveTargetBatchDuration() {
+    // given
+    engineConfiguration.setHistoryCleanupTargetBatchDuration(0);
+
+    // then
+    thrown.expect(ProcessEngineException.class);
+    thrown.expectMessage("History cleanup target batch duration must be positive.");
+
+    // when
+    engineConfiguration.initHistoryCleanup();
+  }
+
+}
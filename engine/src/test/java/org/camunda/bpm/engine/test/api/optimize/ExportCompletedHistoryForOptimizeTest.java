@@ -0,0 +1,219 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.optimize;
+
+import static org.camunda.bpm.engine.impl.optimize.export.HistoricDataExportColumnType.LONG;
+import static org.camunda.bpm.engine.impl.optimize.export.HistoricDataExportColumnType.STRING;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.OptimizeService;
+import org.camunda.bpm.engine.impl.optimize.export.HistoricDataExportColumnType;
+import org.camunda.bpm.engine.impl.optimize.export.HistoricDataExportReader;
+import org.camunda.bpm.engine.impl.optimize.export.HistoricDataExportWriter;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.RequiredHistoryLevel;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+@RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+public class ExportCompletedHistoryForOptimizeTest {
+
+  protected static final BpmnModelInstance PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent("start")
+      .userTask("userTask")
+      .endEvent("end")
+      .done();
+
+  public ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testHelper = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testHelper);
+
+  private OptimizeService optimizeService;
+  private RuntimeService runtimeService;
+  private TaskService taskService;
+
+  @Before
+  public void init() {
+    optimizeService = engineRule.getProcessEngineConfiguration().getOptimizeService();
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+
+    testHelper.deploy(PROCESS);
+  }
+
+  @After
+  public void resetClock() {
+    ClockUtil.reset();
+  }
+
+  @Test
+  public void shouldExportCompletedProcessInstances() {
+    // given
+    ProcessInstance first = completeProcessInstanceAt(new Date(1000000L));
+    ProcessInstance second = completeProcessInstanceAt(new Date(2000000L));
+    runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    long count = optimizeService.exportCompletedHistoricProcessInstances(null, out);
+
+    // then
+    assertThat(count, is(2L));
+
+    HistoricDataExportReader reader = read(out);
+    List<String> columnNames = Arrays.asList(reader.getColumnNames());
+    int idColumn = columnNames.indexOf("id");
+    int endTimeColumn = columnNames.indexOf("endTime");
+
+    List<Object[]> rows = readRows(reader);
+    assertThat(rows.size(), is(2));
+    assertThat((String) rows.get(0)[idColumn], is(first.getId()));
+    assertThat((Date) rows.get(0)[endTimeColumn], is(new Date(1000000L)));
+    assertThat((String) rows.get(1)[idColumn], is(second.getId()));
+    assertThat((Date) rows.get(1)[endTimeColumn], is(new Date(2000000L)));
+  }
+
+  @Test
+  public void shouldExportCompletedProcessInstancesFinishedAfter() {
+    // given
+    completeProcessInstanceAt(new Date(1000000L));
+    ProcessInstance second = completeProcessInstanceAt(new Date(2000000L));
+
+    // when
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    long count = optimizeService.exportCompletedHistoricProcessInstances(new Date(1000000L), out);
+
+    // then
+    assertThat(count, is(1L));
+
+    HistoricDataExportReader reader = read(out);
+    List<Object[]> rows = readRows(reader);
+    assertThat(rows.size(), is(1));
+    assertThat((String) rows.get(0)[Arrays.asList(reader.getColumnNames()).indexOf("id")], is(second.getId()));
+  }
+
+  @Test
+  public void shouldExportCompletedActivityInstances() {
+    // given
+    completeProcessInstanceAt(new Date(1000000L));
+
+    // when
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    long count = optimizeService.exportCompletedHistoricActivityInstances(null, out);
+
+    // then
+    assertThat(count, is(3L));
+
+    HistoricDataExportReader reader = read(out);
+    int canceledColumn = Arrays.asList(reader.getColumnNames()).indexOf("canceled");
+    for (Object[] row : readRows(reader)) {
+      assertThat((Boolean) row[canceledColumn], is(false));
+    }
+  }
+
+  @Test
+  public void shouldExportCompletedTaskInstances() {
+    // given
+    completeProcessInstanceAt(new Date(1000000L));
+
+    // when
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    long count = optimizeService.exportCompletedHistoricTaskInstances(null, out);
+
+    // then
+    assertThat(count, is(1L));
+
+    HistoricDataExportReader reader = read(out);
+    List<String> columnNames = Arrays.asList(reader.getColumnNames());
+    Object[] row = reader.readRow();
+    assertThat((String) row[columnNames.indexOf("taskDefinitionKey")], is("userTask"));
+    assertThat(row[columnNames.indexOf("assignee")], is(nullValue()));
+    assertThat(reader.readRow(), is(nullValue()));
+  }
+
+  @Test
+  public void shouldSplitRowsIntoRowGroups() {
+    // given
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    HistoricDataExportWriter writer = new HistoricDataExportWriter(out,
+        new String[] { "name", "value" },
+        new HistoricDataExportColumnType[] { STRING, LONG }, 2);
+
+    // when
+    for (long i = 0; i < 5; i++) {
+      writer.writeRow(new Object[] { "row" + i, i % 2 == 0 ? i : null });
+    }
+    writer.finish();
+
+    // then
+    List<Object[]> rows = readRows(read(out));
+    assertThat(rows.size(), is(5));
+    for (int i = 0; i < 5; i++) {
+      assertThat((String) rows.get(i)[0], is("row" + i));
+      assertThat(rows.get(i)[1], is(i % 2 == 0 ? (Object) Long.valueOf(i) : null));
+    }
+  }
+
+  protected ProcessInstance completeProcessInstanceAt(Date endTime) {
+    ClockUtil.setCurrentTime(new Date(endTime.getTime() - 1000L));
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    ClockUtil.setCurrentTime(endTime);
+    Task task = taskService.createTaskQuery().processInstanceId(processInstance.getId()).singleResult();
+    taskService.complete(task.getId());
+
+    return processInstance;
+  }
+
+  protected HistoricDataExportReader read(ByteArrayOutputStream out) {
+    return new HistoricDataExportReader(new ByteArrayInputStream(out.toByteArray()));
+  }
+
+  protected List<Object[]> readRows(HistoricDataExportReader reader) {
+    List<Object[]> rows = new ArrayList<>();
+    Object[] row;
+    while ((row = reader.readRow()) != null) {
+      rows.add(row);
+    }
+    return rows;
+  }
+
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.optimize;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.exception.NotValidException;
+import org.camunda.bpm.engine.history.HistoricActivityInstance;
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+import org.camunda.bpm.engine.history.HistoricTaskInstance;
+import org.camunda.bpm.engine.impl.OptimizeService;
+import org.camunda.bpm.engine.impl.optimize.OptimizeResultPage;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.RequiredHistoryLevel;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.RuleChain;
+
+@RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+public class GetCompletedHistoricInstancePagesForOptimizeTest {
+
+  protected static final BpmnModelInstance PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent("start")
+      .userTask("userTask")
+      .endEvent("end")
+      .done();
+
+  public ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testHelper = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testHelper);
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private OptimizeService optimizeService;
+  private RuntimeService runtimeService;
+  private TaskService taskService;
+
+  @Before
+  public void init() {
+    optimizeService = engineRule.getProcessEngineConfiguration().getOptimizeService();
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+
+    testHelper.deploy(PROCESS);
+  }
+
+  @After
+  public void resetClock() {
+    ClockUtil.reset();
+  }
+
+  @Test
+  public void shouldNotSkipProcessInstancesWithSameEndTime() {
+    // given
+    Date endTime = new Date(1000000L);
+    Set<String> processInstanceIds = new HashSet<>();
+    for (int i = 0; i < 5; i++) {
+      processInstanceIds.add(completeProcessInstanceAt(endTime).getId());
+    }
+
+    // when
+    Set<String> fetchedIds = new HashSet<>();
+    String continuationToken = null;
+    int pages = 0;
+    OptimizeResultPage<HistoricProcessInstance> page;
+    do {
+      page = optimizeService.getCompletedHistoricProcessInstancePage(continuationToken, 2);
+      for (HistoricProcessInstance instance : page.getResults()) {
+        assertThat(fetchedIds.add(instance.getId()), is(true));
+      }
+      continuationToken = page.getContinuationToken();
+      pages++;
+    } while (!page.getResults().isEmpty());
+
+    // then
+    assertThat(fetchedIds, is(processInstanceIds));
+    assertThat(pages, is(4));
+  }
+
+  @Test
+  public void shouldContinueWithNewlyCompletedActivityInstances() {
+    // given
+    completeProcessInstanceAt(new Date(1000000L));
+    OptimizeResultPage<HistoricActivityInstance> firstPage =
+      optimizeService.getCompletedHistoricActivityInstancePage(null, 10);
+
+    completeProcessInstanceAt(new Date(2000000L));
+
+    // when
+    OptimizeResultPage<HistoricActivityInstance> secondPage =
+      optimizeService.getCompletedHistoricActivityInstancePage(firstPage.getContinuationToken(), 10);
+
+    // then
+    assertThat(firstPage.getResults().size(), is(3));
+    assertThat(secondPage.getResults().size(), is(3));
+    for (HistoricActivityInstance instance : secondPage.getResults()) {
+      assertThat(instance.getEndTime().getTime() > 1000000L, is(true));
+    }
+  }
+
+  @Test
+  public void shouldReturnSameTokenForEmptyPage() {
+    // given
+    completeProcessInstanceAt(new Date(1000000L));
+    OptimizeResultPage<HistoricTaskInstance> firstPage =
+      optimizeService.getCompletedHistoricTaskInstancePage(null, 10);
+
+    // when
+    OptimizeResultPage<HistoricTaskInstance> secondPage =
+      optimizeService.getCompletedHistoricTaskInstancePage(firstPage.getContinuationToken(), 10);
+
+    // then
+    assertThat(firstPage.getResults().size(), is(1));
+    assertThat(firstPage.getContinuationToken(), is(notNullValue()));
+    assertThat(secondPage.getResults().isEmpty(), is(true));
+    assertThat(secondPage.getContinuationToken(), is(firstPage.getContinuationToken()));
+  }
+
+  @Test
+  public void shouldReturnNoTokenWithoutResults() {
+    // when
+    OptimizeResultPage<HistoricTaskInstance> page = optimizeService.getCompletedHistoricTaskInstancePage(null, 10);
+
+    // then
+    assertThat(page.getResults().isEmpty(), is(true));
+    assertThat(page.getContinuationToken(), is(nullValue()));
+  }
+
+  @Test
+  public void shouldFailOnInvalidToken() {
+    // then
+    thrown.expect(NotValidException.class);
+    thrown.expectMessage("Invalid continuation token");
+
+    // when
+    optimizeService.getCompletedHistoricTaskInstancePage("invalid", 10);
+  }
+
+  protected ProcessInstance completeProcessInstanceAt(Date endTime) {
+    ClockUtil.setCurrentTime(new Date(endTime.getTime() - 1000L));
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    ClockUtil.setCurrentTime(endTime);
+    Task task = taskService.createTaskQuery().processInstanceId(processInstance.getId()).singleResult();
+    taskService.complete(task.getId());
+
+    return processInstance;
+  }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.variables;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.variable.serializer.JavaObjectSerializer;
+import org.camunda.bpm.engine.impl.variable.serializer.TypedValueSerializer;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class ImplicitVariableUpdateSerializationTest {
+
+  protected static final String ONE_TASK_PROCESS = "org/camunda/bpm/engine/test/api/variables/oneTaskProcess.bpmn20.xml";
+
+  protected static final String COUNTING_DATA_FORMAT = "application/x-counting";
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    @SuppressWarnings("rawtypes")
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      List<TypedValueSerializer> serializers = new ArrayList<>();
+      serializers.add(new CountingSerializer());
+      configuration.setCustomPreVariableSerializers(serializers);
+      return configuration;
+    }
+  };
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  public ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RuntimeService runtimeService;
+
+  protected String processInstanceId;
+
+  @Before
+  public void init() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    runtimeService = engineRule.getRuntimeService();
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldSerializeImplicitlyUpdatedValueOnce() {
+    // given
+    startProcessInstance();
+    CountingSerializer.reset();
+
+    // when
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      @SuppressWarnings("unchecked")
+      public Void execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(processInstanceId);
+
+        List<String> list = (List<String>) execution.getVariable("list");
+        list.add("b");
+
+        // reading the variable again does not deserialize it again
+        assertThat(execution.getVariable("list"), is((Object) list));
+
+        return null;
+      }
+    });
+
+    // then
+    assertThat(CountingSerializer.deserializations, is(1));
+    assertThat(CountingSerializer.serializations, is(1));
+    assertThat(runtimeService.getVariable(processInstanceId, "list"), is((Object) Arrays.asList("a", "b")));
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldNotUpdateUnchangedValue() {
+    // given
+    startProcessInstance();
+    CountingSerializer.reset();
+
+    // when
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(processInstanceId);
+        execution.getVariable("list");
+        return null;
+      }
+    });
+
+    // then
+    assertThat(CountingSerializer.deserializations, is(1));
+    assertThat(CountingSerializer.serializations, is(1));
+    assertThat(runtimeService.getVariable(processInstanceId, "list"), is((Object) Collections.singletonList("a")));
+  }
+
+  protected void startProcessInstance() {
+    List<String> list = new ArrayList<>();
+    list.add("a");
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+        Variables.createVariables()
+          .putValue("list", Variables.objectValue(list).serializationDataFormat(COUNTING_DATA_FORMAT).create()));
+
+    processInstanceId = processInstance.getId();
+  }
+
+  public static class CountingSerializer extends JavaObjectSerializer {
+
+    protected static int serializations = 0;
+    protected static int deserializations = 0;
+
+    public CountingSerializer() {
+      serializationDataFormat = COUNTING_DATA_FORMAT;
+    }
+
+    public static void reset() {
+      serializations = 0;
+      deserializations = 0;
+    }
+
+    public String getName() {
+      return "counting";
+    }
+
+    protected byte[] serializeToByteArray(Object deserializedObject) throws Exception {
+      serializations++;
+      return super.serializeToByteArray(deserializedObject);
+    }
+
+    protected Object deserializeFromByteArray(byte[] bytes, String objectTypeName) throws Exception {
+      deserializations++;
+      return super.deserializeFromByteArray(bytes, objectTypeName);
+    }
+  }
+
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.variables;
+
+import static org.camunda.bpm.model.bpmn.impl.BpmnModelConstants.CAMUNDA_NS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.camunda.bpm.engine.FilterService;
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.filter.Filter;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class IndexedVariableQueryTest {
+
+  protected static final String VAR_INDEX_TABLE = "ACT_RU_VAR_INDEX";
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setJavaSerializationFormatEnabled(true);
+      return configuration;
+    }
+  };
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  public ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+  protected ManagementService managementService;
+  protected FilterService filterService;
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+
+  @Before
+  public void init() {
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+    managementService = engineRule.getManagementService();
+    filterService = engineRule.getFilterService();
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+
+    BpmnModelInstance process = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .userTask("task")
+      .endEvent()
+      .done();
+    process.getModelElementById("process").setAttributeValueNs(CAMUNDA_NS, "indexedVariablePaths", "orderId, customer.id");
+
+    testRule.deploy(process);
+  }
+
+  @Test
+  public void shouldQueryProcessInstancesByIndexedVariable() {
+    // given
+    ProcessInstance processInstance = startProcessInstance("order-1", "customer-1");
+    startProcessInstance("order-2", "customer-2");
+
+    // when
+    long count = runtimeService.createProcessInstanceQuery()
+      .indexedVariableValueEquals("orderId", "order-1")
+      .count();
+    ProcessInstance result = runtimeService.createProcessInstanceQuery()
+      .indexedVariableValueEquals("customer.id", "customer-1")
+      .singleResult();
+
+    // then
+    assertThat(count, is(1L));
+    assertThat(result.getId(), is(processInstance.getId()));
+  }
+
+  @Test
+  public void shouldQueryTasksByIndexedVariable() {
+    // given
+    ProcessInstance processInstance = startProcessInstance("order-1", "customer-1");
+    startProcessInstance("order-2", "customer-2");
+
+    // when
+    String processInstanceId = taskService.createTaskQuery()
+      .processIndexedVariableValueEquals("customer.id", "customer-1")
+      .singleResult()
+      .getProcessInstanceId();
+
+    // then
+    assertThat(processInstanceId, is(processInstance.getId()));
+  }
+
+  @Test
+  public void shouldQueryByNumericValue() {
+    // given
+    Map<String, Object> customer = new HashMap<String, Object>();
+    customer.put("id", 42);
+    runtimeService.startProcessInstanceByKey("process", Variables.createVariables().putValue("customer", customer));
+
+    // when
+    long count = runtimeService.createProcessInstanceQuery()
+      .indexedVariableValueEquals("customer.id", 42L)
+      .count();
+
+    // then
+    assertThat(count, is(1L));
+  }
+
+  @Test
+  public void shouldUpdateIndexOnVariableUpdate() {
+    // given
+    ProcessInstance processInstance = startProcessInstance("order-1", "customer-1");
+
+    // when
+    runtimeService.setVariable(processInstance.getId(), "orderId", "order-2");
+
+    // then
+    assertThat(runtimeService.createProcessInstanceQuery().indexedVariableValueEquals("orderId", "order-1").count(), is(0L));
+    assertThat(runtimeService.createProcessInstanceQuery().indexedVariableValueEquals("orderId", "order-2").count(), is(1L));
+    assertThat(managementService.getTableCount().get(VAR_INDEX_TABLE), is(2L));
+  }
+
+  @Test
+  public void shouldUpdateIndexOnImplicitObjectUpdate() {
+    // given
+    ProcessInstance processInstance = startProcessInstance("order-1", "customer-1");
+
+    final String processInstanceId = processInstance.getId();
+
+    // when the value is changed in place without setting it again
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(processInstanceId);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> customer = (Map<String, Object>) execution.getVariable("customer");
+        customer.put("id", "customer-2");
+        return null;
+      }
+    });
+
+    // then
+    assertThat(runtimeService.createProcessInstanceQuery().indexedVariableValueEquals("customer.id", "customer-1").count(), is(0L));
+    assertThat(runtimeService.createProcessInstanceQuery().indexedVariableValueEquals("customer.id", "customer-2").count(), is(1L));
+  }
+
+  @Test
+  public void shouldQueryTasksByIndexedVariableInFilter() {
+    // given
+    startProcessInstance("order-1", "customer-1");
+    startProcessInstance("order-2", "customer-2");
+
+    Filter filter = filterService.newTaskFilter("indexed")
+        .setQuery(taskService.createTaskQuery().processIndexedVariableValueEquals("customer.id", "customer-1"));
+    filterService.saveFilter(filter);
+
+    try {
+      // when
+      long count = filterService.count(filter.getId());
+
+      // then
+      assertThat(count, is(1L));
+    }
+    finally {
+      filterService.deleteFilter(filter.getId());
+    }
+  }
+
+  @Test
+  public void shouldDeleteIndexOnVariableRemoval() {
+    // given
+    ProcessInstance processInstance = startProcessInstance("order-1", "customer-1");
+
+    // when
+    runtimeService.removeVariable(processInstance.getId(), "orderId");
+
+    // then
+    assertThat(runtimeService.createProcessInstanceQuery().indexedVariableValueEquals("orderId", "order-1").count(), is(0L));
+    assertThat(managementService.getTableCount().get(VAR_INDEX_TABLE), is(1L));
+  }
+
+  @Test
+  public void shouldDeleteIndexOnProcessInstanceEnd() {
+    // given
+    ProcessInstance processInstance = startProcessInstance("order-1", "customer-1");
+
+    // when
+    String taskId = taskService.createTaskQuery().processInstanceId(processInstance.getId()).singleResult().getId();
+    taskService.complete(taskId);
+
+    // then
+    assertThat(managementService.getTableCount().get(VAR_INDEX_TABLE), is(0L));
+  }
+
+  @Test
+  public void shouldNotIndexUndeclaredVariables() {
+    // given
+    runtimeService.startProcessInstanceByKey("process", Variables.createVariables().putValue("otherId", "order-1"));
+
+    // then
+    assertThat(managementService.getTableCount().get(VAR_INDEX_TABLE), is(0L));
+  }
+
+  protected ProcessInstance startProcessInstance(String orderId, String customerId) {
+    Map<String, Object> customer = new HashMap<String, Object>();
+    customer.put("id", customerId);
+
+    return runtimeService.startProcessInstanceByKey("process", Variables.createVariables()
+        .putValue("orderId", orderId)
+        .putValue("customer", customer));
+  }
+
+}
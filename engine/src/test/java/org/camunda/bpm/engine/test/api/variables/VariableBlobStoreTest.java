@@ -0,0 +1,295 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.variables;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.blob.FileSystemBlobStore;
+import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.impl.util.IoUtil;
+import org.camunda.bpm.engine.impl.variable.serializer.StreamedFileValueImpl;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.engine.variable.value.FileValue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class VariableBlobStoreTest {
+
+  protected static final String ONE_TASK_PROCESS = "org/camunda/bpm/engine/test/api/variables/oneTaskProcess.bpmn20.xml";
+
+  protected static final int THRESHOLD = 1000;
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      try {
+        File rootDirectory = Files.createTempDirectory("camunda-blobs").toFile();
+        configuration.setBlobStore(new FileSystemBlobStore(rootDirectory));
+        configuration.setBlobStoreThreshold(THRESHOLD);
+      }
+      catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+      return configuration;
+    }
+  };
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  public ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RuntimeService runtimeService;
+  protected File rootDirectory;
+
+  @Before
+  public void init() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    runtimeService = engineRule.getRuntimeService();
+    rootDirectory = ((FileSystemBlobStore) processEngineConfiguration.getBlobStore()).getRootDirectory();
+  }
+
+  @After
+  public void removeBlobs() {
+    deleteFiles(rootDirectory);
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldStoreLargeValueInBlobStore() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    byte[] value = createValue(2 * THRESHOLD);
+
+    // when
+    runtimeService.setVariable(processInstance.getId(), "bytes", value);
+
+    // then
+    ByteArrayEntity byteArray = getByteArray(processInstance.getId(), "bytes");
+    assertThat(byteArray.getBlobKey(), is(notNullValue()));
+    assertThat(byteArray.getBytes(), is(nullValue()));
+    assertThat(countFiles(rootDirectory), is(1));
+
+    assertArrayEquals(value, (byte[]) runtimeService.getVariable(processInstance.getId(), "bytes"));
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldStoreSmallValueInDatabase() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    byte[] value = createValue(THRESHOLD / 2);
+
+    // when
+    runtimeService.setVariable(processInstance.getId(), "bytes", value);
+
+    // then
+    ByteArrayEntity byteArray = getByteArray(processInstance.getId(), "bytes");
+    assertThat(byteArray.getBlobKey(), is(nullValue()));
+    assertArrayEquals(value, byteArray.getBytes());
+    assertThat(countFiles(rootDirectory), is(0));
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldDeleteBlobWhenVariableIsRemoved() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    runtimeService.setVariable(processInstance.getId(), "bytes", createValue(2 * THRESHOLD));
+
+    // when
+    runtimeService.removeVariable(processInstance.getId(), "bytes");
+
+    // then
+    assertThat(countFiles(rootDirectory), is(0));
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldDeleteBlobWhenProcessInstanceIsDeleted() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    runtimeService.setVariable(processInstance.getId(), "bytes", createValue(2 * THRESHOLD));
+
+    // when
+    runtimeService.deleteProcessInstance(processInstance.getId(), null);
+
+    // then
+    assertThat(countFiles(rootDirectory), is(0));
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldReplaceBlobWhenVariableIsUpdated() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    runtimeService.setVariable(processInstance.getId(), "bytes", createValue(2 * THRESHOLD));
+    String blobKey = getByteArray(processInstance.getId(), "bytes").getBlobKey();
+
+    // when
+    byte[] value = createValue(3 * THRESHOLD);
+    runtimeService.setVariable(processInstance.getId(), "bytes", value);
+
+    // then
+    String updatedBlobKey = getByteArray(processInstance.getId(), "bytes").getBlobKey();
+    assertThat(updatedBlobKey.equals(blobKey), is(false));
+    assertThat(countFiles(rootDirectory), is(1));
+
+    assertArrayEquals(value, (byte[]) runtimeService.getVariable(processInstance.getId(), "bytes"));
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldDeleteBlobOnRollback() {
+    // given
+    final ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    // when
+    try {
+      processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          runtimeService.setVariable(processInstance.getId(), "bytes", createValue(2 * THRESHOLD));
+          throw new ProcessEngineException("rollback");
+        }
+      });
+      fail("exception expected");
+    }
+    catch (ProcessEngineException e) {
+      // expected
+    }
+
+    // then
+    assertThat(countFiles(rootDirectory), is(0));
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldStreamFileValueFromBlobStore() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    byte[] content = createValue(2 * THRESHOLD);
+    runtimeService.setVariable(processInstance.getId(), "file", Variables.fileValue("data.bin")
+        .file(content)
+        .mimeType("application/octet-stream")
+        .encoding("UTF-8")
+        .create());
+
+    // when
+    FileValue fileValue = runtimeService.getVariableTyped(processInstance.getId(), "file");
+
+    // then
+    assertThat(fileValue, is(instanceOf(StreamedFileValueImpl.class)));
+    assertThat(fileValue.getFilename(), is("data.bin"));
+    assertThat(fileValue.getMimeType(), is("application/octet-stream"));
+    assertThat(fileValue.getEncoding(), is("UTF-8"));
+
+    // the content can be streamed repeatedly after the command has been completed
+    assertArrayEquals(content, IoUtil.readInputStream(fileValue.getValue(), "file"));
+    assertArrayEquals(content, IoUtil.readInputStream(fileValue.getValue(), "file"));
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldCopyStreamedFileValue() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    byte[] content = createValue(2 * THRESHOLD);
+    runtimeService.setVariable(processInstance.getId(), "file", Variables.fileValue("data.bin").file(content).create());
+    FileValue fileValue = runtimeService.getVariableTyped(processInstance.getId(), "file");
+
+    // when
+    runtimeService.setVariable(processInstance.getId(), "copy", fileValue);
+
+    // then
+    assertThat(countFiles(rootDirectory), is(2));
+
+    FileValue copy = runtimeService.getVariableTyped(processInstance.getId(), "copy");
+    assertArrayEquals(content, IoUtil.readInputStream(copy.getValue(), "copy"));
+  }
+
+  protected byte[] createValue(int length) {
+    byte[] value = new byte[length];
+    for (int i = 0; i < length; i++) {
+      value[i] = (byte) i;
+    }
+    return value;
+  }
+
+  protected ByteArrayEntity getByteArray(String processInstanceId, String variableName) {
+    VariableInstanceEntity variableInstance = (VariableInstanceEntity) runtimeService.createVariableInstanceQuery()
+        .processInstanceIdIn(processInstanceId)
+        .variableName(variableName)
+        .disableBinaryFetching()
+        .singleResult();
+
+    final String byteArrayId = variableInstance.getByteArrayValueId();
+    return processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<ByteArrayEntity>() {
+      public ByteArrayEntity execute(CommandContext commandContext) {
+        return commandContext.getDbEntityManager().selectById(ByteArrayEntity.class, byteArrayId);
+      }
+    });
+  }
+
+  protected int countFiles(File directory) {
+    int count = 0;
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        count += file.isDirectory() ? countFiles(file) : 1;
+      }
+    }
+    return count;
+  }
+
+  protected void deleteFiles(File directory) {
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (file.isDirectory()) {
+          deleteFiles(file);
+        }
+        file.delete();
+      }
+    }
+  }
+
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.variables;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.history.HistoricDetail;
+import org.camunda.bpm.engine.history.HistoricVariableUpdate;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoricDetailVariableInstanceUpdateEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.impl.util.CompressionUtil;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.RequiredHistoryLevel;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class VariableCompressionTest {
+
+  protected static final String ONE_TASK_PROCESS = "org/camunda/bpm/engine/test/api/variables/oneTaskProcess.bpmn20.xml";
+
+  protected static final int THRESHOLD = 100;
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setByteArrayCompressionThreshold(THRESHOLD);
+      configuration.setJavaSerializationFormatEnabled(true);
+      return configuration;
+    }
+  };
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  public ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RuntimeService runtimeService;
+  protected HistoryService historyService;
+
+  @Before
+  public void init() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    runtimeService = engineRule.getRuntimeService();
+    historyService = engineRule.getHistoryService();
+  }
+
+  @After
+  public void resetThreshold() {
+    processEngineConfiguration.setByteArrayCompressionThreshold(THRESHOLD);
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldStoreLargeValueCompressed() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    byte[] value = createValue(10 * THRESHOLD);
+
+    // when
+    runtimeService.setVariable(processInstance.getId(), "bytes", value);
+
+    // then
+    assertThat(getStoredByteArray(processInstance.getId(), "bytes").isCompressed(), is(true));
+    assertArrayEquals(value, (byte[]) runtimeService.getVariable(processInstance.getId(), "bytes"));
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldStoreSmallValueUncompressed() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    byte[] value = createValue(THRESHOLD / 2);
+
+    // when
+    runtimeService.setVariable(processInstance.getId(), "bytes", value);
+
+    // then
+    ByteArrayEntity storedByteArray = getStoredByteArray(processInstance.getId(), "bytes");
+    assertThat(storedByteArray.isCompressed(), is(false));
+    assertArrayEquals(value, storedByteArray.getBytes());
+    assertArrayEquals(value, (byte[]) runtimeService.getVariable(processInstance.getId(), "bytes"));
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldReadUncompressedValueWhichLooksCompressed() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    // a raw value which happens to be the output of a compression
+    byte[] value = CompressionUtil.compress(createValue(10 * THRESHOLD), 0);
+
+    // when
+    processEngineConfiguration.setByteArrayCompressionThreshold(-1);
+    runtimeService.setVariable(processInstance.getId(), "bytes", value);
+    processEngineConfiguration.setByteArrayCompressionThreshold(THRESHOLD);
+
+    // then
+    assertThat(getStoredByteArray(processInstance.getId(), "bytes").isCompressed(), is(false));
+    assertArrayEquals(value, (byte[]) runtimeService.getVariable(processInstance.getId(), "bytes"));
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldReadUncompressedValueAfterEnablingCompression() {
+    // given
+    processEngineConfiguration.setByteArrayCompressionThreshold(-1);
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    byte[] value = createValue(10 * THRESHOLD);
+    runtimeService.setVariable(processInstance.getId(), "bytes", value);
+
+    // when
+    processEngineConfiguration.setByteArrayCompressionThreshold(THRESHOLD);
+
+    // then
+    assertArrayEquals(value, getStoredByteArray(processInstance.getId(), "bytes").getBytes());
+    assertArrayEquals(value, (byte[]) runtimeService.getVariable(processInstance.getId(), "bytes"));
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldDeserializeCompressedObjectValue() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    JavaSerializable value = new JavaSerializable(new String(createValue(10 * THRESHOLD)));
+
+    // when
+    runtimeService.setVariable(processInstance.getId(), "object", Variables.objectValue(value)
+        .serializationDataFormat(Variables.SerializationDataFormats.JAVA)
+        .create());
+
+    // then
+    assertThat(getStoredByteArray(processInstance.getId(), "object").isCompressed(), is(true));
+    assertThat((JavaSerializable) runtimeService.getVariable(processInstance.getId(), "object"), is(value));
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  @RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+  public void shouldStoreHistoricVariableUpdateCompressed() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    byte[] value = createValue(10 * THRESHOLD);
+
+    // when
+    runtimeService.setVariable(processInstance.getId(), "bytes", value);
+
+    // then
+    HistoricDetail detail = historyService.createHistoricDetailQuery()
+      .variableUpdates()
+      .singleResult();
+
+    String byteArrayId = ((HistoricDetailVariableInstanceUpdateEntity) detail).getByteArrayValueId();
+    assertThat(getByteArray(byteArrayId).isCompressed(), is(true));
+    assertArrayEquals(value, (byte[]) ((HistoricVariableUpdate) detail).getValue());
+    assertArrayEquals(value, (byte[]) historyService.createHistoricVariableInstanceQuery()
+        .variableName("bytes")
+        .singleResult()
+        .getValue());
+  }
+
+  protected byte[] createValue(int length) {
+    byte[] value = new byte[length];
+    for (int i = 0; i < length; i++) {
+      value[i] = (byte) ('a' + i % 8);
+    }
+    return value;
+  }
+
+  protected ByteArrayEntity getStoredByteArray(String processInstanceId, String variableName) {
+    VariableInstanceEntity variableInstance = (VariableInstanceEntity) runtimeService.createVariableInstanceQuery()
+        .processInstanceIdIn(processInstanceId)
+        .variableName(variableName)
+        .disableBinaryFetching()
+        .singleResult();
+
+    return getByteArray(variableInstance.getByteArrayValueId());
+  }
+
+  protected ByteArrayEntity getByteArray(final String byteArrayId) {
+    return processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<ByteArrayEntity>() {
+      public ByteArrayEntity execute(CommandContext commandContext) {
+        return commandContext.getDbEntityManager().selectById(ByteArrayEntity.class, byteArrayId);
+      }
+    });
+  }
+
+}
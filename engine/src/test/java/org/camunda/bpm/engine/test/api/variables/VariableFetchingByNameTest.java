@@ -0,0 +1,171 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.variables;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.VariableMap;
+import org.camunda.bpm.engine.variable.Variables;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class VariableFetchingByNameTest {
+
+  protected static final String ONE_TASK_PROCESS = "org/camunda/bpm/engine/test/api/variables/oneTaskProcess.bpmn20.xml";
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RuntimeService runtimeService;
+
+  protected String processInstanceId;
+
+  @Before
+  public void init() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    runtimeService = engineRule.getRuntimeService();
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldFetchSingleVariableByName() {
+    // given
+    startProcessInstance();
+
+    // when
+    int fetchedVariables = processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Integer>() {
+      public Integer execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(processInstanceId);
+
+        assertThat((String) execution.getVariable("a"), is("a"));
+        assertThat(execution.getVariable("unknown"), is(nullValue()));
+        assertThat(execution.hasVariable("b"), is(true));
+
+        return countCachedVariables(commandContext);
+      }
+    });
+
+    // then
+    assertThat(fetchedVariables, is(2));
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldFetchVariablesByNames() {
+    // given
+    startProcessInstance();
+
+    // when
+    int fetchedVariables = processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Integer>() {
+      public Integer execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(processInstanceId);
+
+        VariableMap variables = execution.getVariablesTyped(Arrays.asList("a", "c"), true);
+        assertThat(variables.size(), is(2));
+        assertThat((String) variables.get("a"), is("a"));
+        assertThat((String) variables.get("c"), is("c"));
+
+        return countCachedVariables(commandContext);
+      }
+    });
+
+    // then
+    assertThat(fetchedVariables, is(2));
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldUpdateVariableFetchedByName() {
+    // given
+    startProcessInstance();
+
+    // when
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(processInstanceId);
+
+        execution.getVariable("a");
+        execution.setVariable("a", "updated");
+
+        return null;
+      }
+    });
+
+    // then
+    assertThat((String) runtimeService.getVariable(processInstanceId, "a"), is("updated"));
+    assertThat(runtimeService.getVariables(processInstanceId).size(), is(4));
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldLoadAllVariablesAfterFetchingByName() {
+    // given
+    startProcessInstance();
+
+    // when
+    int variables = processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Integer>() {
+      public Integer execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(processInstanceId);
+
+        execution.getVariable("a");
+        execution.setVariable("e", "e");
+
+        return execution.getVariablesLocal().size();
+      }
+    });
+
+    // then
+    assertThat(variables, is(5));
+    assertThat(runtimeService.getVariables(processInstanceId).size(), is(5));
+  }
+
+  protected void startProcessInstance() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess", Variables.createVariables()
+        .putValue("a", "a")
+        .putValue("b", "b")
+        .putValue("c", "c")
+        .putValue("d", "d"));
+
+    processInstanceId = processInstance.getId();
+  }
+
+  protected int countCachedVariables(CommandContext commandContext) {
+    return commandContext.getDbEntityManager().getCachedEntitiesByType(VariableInstanceEntity.class).size();
+  }
+
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.variables;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.impl.variable.serializer.DefaultVariableSerializers;
+import org.camunda.bpm.engine.impl.variable.serializer.JavaObjectSerializer;
+import org.camunda.bpm.engine.impl.variable.serializer.StringValueSerializer;
+import org.camunda.bpm.engine.impl.variable.serializer.TypedValueSerializer;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class VariableSerializerResolutionCacheTest {
+
+  protected static final String ONE_TASK_PROCESS = "org/camunda/bpm/engine/test/api/variables/oneTaskProcess.bpmn20.xml";
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setVariableSerializerResolutionCacheEnabled(true);
+      configuration.setJavaSerializationFormatEnabled(true);
+      return configuration;
+    }
+  };
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  public ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RuntimeService runtimeService;
+
+  @Before
+  public void init() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    runtimeService = engineRule.getRuntimeService();
+  }
+
+  @Test
+  public void shouldResolveSerializerOnceForSameKindOfValue() {
+    // given
+    CountingStringValueSerializer serializer = new CountingStringValueSerializer("counting");
+    DefaultVariableSerializers serializers = new DefaultVariableSerializers();
+    serializers.addSerializer(serializer);
+
+    // when
+    TypedValueSerializer<?> first = findSerializer(serializers, Variables.stringValue("a"));
+    TypedValueSerializer<?> second = findSerializer(serializers, Variables.stringValue("b"));
+
+    // then
+    assertThat(first, is(sameInstance((TypedValueSerializer) serializer)));
+    assertThat(second, is(sameInstance((TypedValueSerializer) serializer)));
+    assertThat(serializer.canHandleInvocations, is(1));
+  }
+
+  @Test
+  public void shouldResolveSerializerOnEveryCallIfDisabled() {
+    // given
+    processEngineConfiguration.setVariableSerializerResolutionCacheEnabled(false);
+
+    CountingStringValueSerializer serializer = new CountingStringValueSerializer("counting");
+    DefaultVariableSerializers serializers = new DefaultVariableSerializers();
+    serializers.addSerializer(serializer);
+
+    try {
+      // when
+      findSerializer(serializers, Variables.stringValue("a"));
+      findSerializer(serializers, Variables.stringValue("b"));
+
+      // then
+      assertThat(serializer.canHandleInvocations, is(2));
+    }
+    finally {
+      processEngineConfiguration.setVariableSerializerResolutionCacheEnabled(true);
+    }
+  }
+
+  @Test
+  public void shouldInvalidateCacheOnSerializerRegistration() {
+    // given
+    DefaultVariableSerializers serializers = new DefaultVariableSerializers();
+    serializers.addSerializer(new CountingStringValueSerializer("first"));
+    findSerializer(serializers, Variables.stringValue("a"));
+
+    CountingStringValueSerializer secondSerializer = new CountingStringValueSerializer("second");
+
+    // when
+    serializers.addSerializer(secondSerializer, 0);
+
+    // then
+    TypedValueSerializer<?> serializer = findSerializer(serializers, Variables.stringValue("a"));
+    assertThat(serializer, is(sameInstance((TypedValueSerializer) secondSerializer)));
+  }
+
+  @Test
+  public void shouldInvalidateCacheOnSerializerRemoval() {
+    // given
+    CountingStringValueSerializer firstSerializer = new CountingStringValueSerializer("first");
+    CountingStringValueSerializer secondSerializer = new CountingStringValueSerializer("second");
+
+    DefaultVariableSerializers serializers = new DefaultVariableSerializers();
+    serializers.addSerializer(firstSerializer);
+    serializers.addSerializer(secondSerializer);
+    findSerializer(serializers, Variables.stringValue("a"));
+
+    // when
+    serializers.removeSerializer(firstSerializer);
+
+    // then
+    TypedValueSerializer<?> serializer = findSerializer(serializers, Variables.stringValue("a"));
+    assertThat(serializer, is(sameInstance((TypedValueSerializer) secondSerializer)));
+  }
+
+  @Test
+  public void shouldFailIfNoSerializerMatches() {
+    // given
+    DefaultVariableSerializers serializers = new DefaultVariableSerializers();
+    serializers.addSerializer(new CountingStringValueSerializer("counting"));
+
+    try {
+      // when
+      findSerializer(serializers, Variables.integerValue(42));
+      fail("exception expected");
+    }
+    catch (ProcessEngineException e) {
+      // then
+      assertThat(e.getMessage(), containsString("Cannot find serializer for value"));
+    }
+  }
+
+  @Test
+  public void shouldFailIfNoSerializerMatchesAndCacheIsDisabled() {
+    // given
+    processEngineConfiguration.setVariableSerializerResolutionCacheEnabled(false);
+
+    DefaultVariableSerializers serializers = new DefaultVariableSerializers();
+    serializers.addSerializer(new CountingStringValueSerializer("counting"));
+
+    try {
+      // when
+      findSerializer(serializers, Variables.integerValue(42));
+      fail("exception expected");
+    }
+    catch (ProcessEngineException e) {
+      // then
+      assertThat(e.getMessage(), containsString("Cannot find serializer for value"));
+    }
+    finally {
+      processEngineConfiguration.setVariableSerializerResolutionCacheEnabled(true);
+    }
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void shouldResolveSerializersOfMixedValues() {
+    // given
+    ArrayList<String> list = new ArrayList<String>();
+    list.add("camunda");
+
+    // when
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+        Variables.createVariables()
+          .putValue("string", "camunda")
+          .putValue("otherString", "bpm")
+          .putValue("long", 42L)
+          .putValue("null", null)
+          .putValue("list", list)
+          .putValue("otherList", new ArrayList<String>()));
+
+    // then
+    assertSerializer(processInstance, "string", "string");
+    assertSerializer(processInstance, "otherString", "string");
+    assertSerializer(processInstance, "long", "long");
+    assertSerializer(processInstance, "null", "null");
+    assertSerializer(processInstance, "list", JavaObjectSerializer.NAME);
+    assertSerializer(processInstance, "otherList", JavaObjectSerializer.NAME);
+    assertThat(runtimeService.getVariable(processInstance.getId(), "list"), is((Object) list));
+  }
+
+  protected void assertSerializer(ProcessInstance processInstance, String variableName, String serializerName) {
+    VariableInstanceEntity variableInstance = (VariableInstanceEntity) runtimeService.createVariableInstanceQuery()
+      .processInstanceIdIn(processInstance.getId())
+      .variableName(variableName)
+      .singleResult();
+
+    assertThat(variableInstance.getSerializerName(), is(serializerName));
+  }
+
+  protected TypedValueSerializer<?> findSerializer(final DefaultVariableSerializers serializers, final TypedValue value) {
+    return processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<TypedValueSerializer<?>>() {
+      public TypedValueSerializer<?> execute(CommandContext commandContext) {
+        return serializers.findSerializerForValue(value);
+      }
+    });
+  }
+
+  public static class CountingStringValueSerializer extends StringValueSerializer {
+
+    protected String name;
+    protected int canHandleInvocations;
+
+    public CountingStringValueSerializer(String name) {
+      this.name = name;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public boolean canHandle(TypedValue value) {
+      canHandleInvocations++;
+      return super.canHandle(value);
+    }
+  }
+
+}
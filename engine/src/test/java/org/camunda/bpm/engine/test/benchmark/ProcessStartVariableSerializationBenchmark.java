@@ -0,0 +1,135 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures process starts with many variables of mixed types on an in-memory
+ * engine, with and without the variable serializer resolution cache. The process
+ * has no wait state, so that the runtime tables do not grow between iterations.
+ * Run with <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.camunda.bpm.engine.test.benchmark.ProcessStartVariableSerializationBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProcessStartVariableSerializationBenchmark {
+
+  protected static final String PROCESS_KEY = "process";
+
+  @Param({"10", "50"})
+  public int variableCount;
+
+  @Param({"false", "true"})
+  public boolean resolutionCacheEnabled;
+
+  protected ProcessEngine processEngine;
+  protected RuntimeService runtimeService;
+  protected Map<String, Object> variables;
+
+  @Setup
+  public void setUp() {
+    ProcessEngineConfigurationImpl configuration = new StandaloneInMemProcessEngineConfiguration();
+    configuration.setJavaSerializationFormatEnabled(true);
+    configuration
+      .setVariableSerializerResolutionCacheEnabled(resolutionCacheEnabled)
+      .setJdbcUrl("jdbc:h2:mem:serializer-benchmark")
+      .setHistory(ProcessEngineConfiguration.HISTORY_NONE)
+      .setProcessEngineName("serializer-benchmark");
+
+    processEngine = configuration.buildProcessEngine();
+    runtimeService = processEngine.getRuntimeService();
+
+    processEngine.getRepositoryService()
+      .createDeployment()
+      .addModelInstance("process.bpmn", Bpmn.createExecutableProcess(PROCESS_KEY)
+        .startEvent()
+        .endEvent()
+        .done())
+      .deploy();
+
+    variables = Variables.createVariables();
+    for (int i = 0; i < variableCount; i++) {
+      String name = "variable" + i;
+      switch (i % 5) {
+      case 0:
+        variables.put(name, "value" + i);
+        break;
+      case 1:
+        variables.put(name, Long.valueOf(i));
+        break;
+      case 2:
+        variables.put(name, i % 2 == 0);
+        break;
+      case 3:
+        variables.put(name, new Date());
+        break;
+      default:
+        ArrayList<String> list = new ArrayList<String>();
+        list.add("value" + i);
+        variables.put(name, list);
+      }
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    processEngine.close();
+  }
+
+  @Benchmark
+  public void startProcessInstance() {
+    runtimeService.startProcessInstanceByKey(PROCESS_KEY, variables);
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder()
+        .include(ProcessStartVariableSerializationBenchmark.class.getSimpleName())
+        .build())
+      .run();
+  }
+
+}
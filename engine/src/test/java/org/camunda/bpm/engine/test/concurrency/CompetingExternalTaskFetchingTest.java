@@ -23,8 +23,10 @@ import java.util.Map;
 import org.camunda.bpm.engine.OptimisticLockingException;
 import org.camunda.bpm.engine.externaltask.LockedExternalTask;
 import org.camunda.bpm.engine.impl.cmd.FetchExternalTasksCmd;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
 import org.camunda.bpm.engine.impl.externaltask.TopicFetchInstruction;
 import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.impl.test.RequiredDatabase;
 import org.camunda.bpm.engine.test.Deployment;
 
 /**
@@ -63,6 +65,32 @@ public class CompetingExternalTaskFetchingTest extends PluggableProcessEngineTes
     }
   }
 
+  public class ControlledExternalTaskFetcherThread extends ExternalTaskFetcherThread {
+
+    public ControlledExternalTaskFetcherThread(String workerId, int results, String topic) {
+      super(workerId, results, topic);
+    }
+
+    public void run() {
+      Map<String, TopicFetchInstruction> instructions = new HashMap<String, TopicFetchInstruction>();
+
+      TopicFetchInstruction instruction = new TopicFetchInstruction(topic, 10000L);
+      instructions.put(topic, instruction);
+
+      try {
+        fetchedTasks = processEngineConfiguration.getCommandExecutorTxRequired().execute(
+            new ControlledCommand<List<LockedExternalTask>>(this, new FetchExternalTasksCmd(workerId, results, instructions)));
+      } catch (OptimisticLockingException e) {
+        exception = e;
+      }
+    }
+  }
+
+  protected void tearDown() throws Exception {
+    processEngineConfiguration.setExternalTaskSkipLockedEnabled(false);
+    super.tearDown();
+  }
+
   @Deployment
   public void testCompetingExternalTaskFetching() {
     runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
@@ -85,4 +113,34 @@ public class CompetingExternalTaskFetchingTest extends PluggableProcessEngineTes
     // but does not fail with an OptimisticLockingException
     assertNull(thread2.exception);
   }
+
+  @RequiredDatabase(excludes = {DbSqlSessionFactory.H2, DbSqlSessionFactory.DB2})
+  @Deployment(resources = "org/camunda/bpm/engine/test/concurrency/CompetingExternalTaskFetchingTest.testCompetingExternalTaskFetching.bpmn20.xml")
+  public void testCompetingExternalTaskFetchingSkipLocked() {
+    processEngineConfiguration.setExternalTaskSkipLockedEnabled(true);
+
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+
+    ExternalTaskFetcherThread thread1 = new ControlledExternalTaskFetcherThread("thread1", 1, "externalTaskTopic");
+    ExternalTaskFetcherThread thread2 = new ControlledExternalTaskFetcherThread("thread2", 1, "externalTaskTopic");
+
+    // thread1 locks a task and waits before committing
+    thread1.startAndWaitUntilControlIsReturned();
+
+    // thread2 skips the task locked by thread1
+    thread2.startAndWaitUntilControlIsReturned();
+
+    thread1.proceedAndWaitTillDone();
+    thread2.proceedAndWaitTillDone();
+
+    // both threads succeed with a task of their own
+    assertNull(thread1.exception);
+    assertEquals(1, thread1.fetchedTasks.size());
+
+    assertNull(thread2.exception);
+    assertEquals(1, thread2.fetchedTasks.size());
+
+    assertFalse(thread1.fetchedTasks.get(0).getId().equals(thread2.fetchedTasks.get(0).getId()));
+  }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.util.CompressionUtil;
+import org.camunda.bpm.engine.impl.util.IoUtil;
+import org.junit.Test;
+
+public class CompressionUtilTest {
+
+  @Test
+  public void shouldCompressAndDecompress() {
+    // given
+    byte[] bytes = repeat("{\"name\":\"camunda\"}", 100);
+
+    // when
+    byte[] compressed = CompressionUtil.compress(bytes, 0);
+
+    // then
+    assertThat(compressed.length, is(lessThan(bytes.length)));
+    assertArrayEquals(bytes, CompressionUtil.decompress(compressed));
+  }
+
+  @Test
+  public void shouldDecompressStream() {
+    // given
+    byte[] bytes = repeat("{\"name\":\"camunda\"}", 100);
+    byte[] compressed = CompressionUtil.compress(bytes, 0);
+
+    // when
+    InputStream inputStream = CompressionUtil.decompress(new ByteArrayInputStream(compressed));
+
+    // then
+    assertArrayEquals(bytes, IoUtil.readInputStream(inputStream, "decompressed value"));
+  }
+
+  @Test
+  public void shouldNotCompressBelowThreshold() {
+    byte[] bytes = repeat("camunda", 10);
+
+    assertThat(CompressionUtil.compress(bytes, bytes.length + 1), is(nullValue()));
+  }
+
+  @Test
+  public void shouldNotCompressIfDisabled() {
+    byte[] bytes = repeat("camunda", 10);
+
+    assertThat(CompressionUtil.compress(bytes, -1), is(nullValue()));
+  }
+
+  @Test
+  public void shouldNotCompressIfNotSmaller() {
+    byte[] bytes = new byte[] { 1, 2, 3 };
+
+    assertThat(CompressionUtil.compress(bytes, 0), is(nullValue()));
+  }
+
+  @Test(expected = ProcessEngineException.class)
+  public void shouldFailToDecompressUncompressedBytes() {
+    byte[] bytes = repeat("camunda", 10);
+
+    CompressionUtil.decompress(bytes);
+  }
+
+  @Test(expected = ProcessEngineException.class)
+  public void shouldFailToDecompressTruncatedBytes() {
+    byte[] compressed = CompressionUtil.compress(repeat("camunda", 100), 0);
+    byte[] truncated = new byte[compressed.length / 2];
+    System.arraycopy(compressed, 0, truncated, 0, truncated.length);
+
+    CompressionUtil.decompress(truncated);
+  }
+
+  protected byte[] repeat(String value, int times) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < times; i++) {
+      builder.append(value);
+    }
+    return builder.toString().getBytes();
+  }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.util.JsonPatchUtil;
+import org.camunda.bpm.engine.impl.util.JsonUtil;
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+
+public class JsonPatchUtilTest {
+
+  @Test
+  public void shouldCreateEmptyPatchForEqualDocuments() {
+    JsonElement document = parse("{\"name\":\"camunda\",\"items\":[1,2,3]}");
+
+    assertThat(JsonPatchUtil.diff(document, parse("{\"name\":\"camunda\",\"items\":[1,2,3]}")).size(), is(0));
+  }
+
+  @Test
+  public void shouldReplaceChangedMember() {
+    // given
+    JsonElement source = parse("{\"name\":\"camunda\",\"nested\":{\"count\":1,\"flag\":true}}");
+    JsonElement target = parse("{\"name\":\"camunda\",\"nested\":{\"count\":2,\"flag\":true}}");
+
+    // when
+    JsonArray patch = JsonPatchUtil.diff(source, target);
+
+    // then
+    assertThat(patch, is(parse("[{\"op\":\"replace\",\"path\":\"/nested/count\",\"value\":2}]")));
+    assertThat(JsonPatchUtil.apply(source, patch), is(target));
+  }
+
+  @Test
+  public void shouldAddAndRemoveMembers() {
+    // given
+    JsonElement source = parse("{\"a\":1,\"b\":2}");
+    JsonElement target = parse("{\"b\":2,\"c\":null}");
+
+    // when
+    JsonArray patch = JsonPatchUtil.diff(source, target);
+
+    // then
+    assertThat(patch, is(parse("[{\"op\":\"remove\",\"path\":\"/a\"},{\"op\":\"add\",\"path\":\"/c\",\"value\":null}]")));
+    assertThat(JsonPatchUtil.apply(source, patch), is(target));
+  }
+
+  @Test
+  public void shouldPatchArrays() {
+    JsonElement source = parse("{\"items\":[1,2,3,4]}");
+    JsonElement shorter = parse("{\"items\":[1,5]}");
+    JsonElement longer = parse("{\"items\":[1,2,3,4,5,{\"x\":1}]}");
+
+    assertThat(JsonPatchUtil.apply(parse("{\"items\":[1,2,3,4]}"), JsonPatchUtil.diff(source, shorter)), is(shorter));
+    assertThat(JsonPatchUtil.apply(parse("{\"items\":[1,2,3,4]}"), JsonPatchUtil.diff(source, longer)), is(longer));
+  }
+
+  @Test
+  public void shouldEscapeMemberNames() {
+    // given
+    JsonElement source = parse("{\"a/b\":{\"c~d\":1}}");
+    JsonElement target = parse("{\"a/b\":{\"c~d\":2}}");
+
+    // when
+    JsonArray patch = JsonPatchUtil.diff(source, target);
+
+    // then
+    assertThat(JsonUtil.getString(patch.get(0).getAsJsonObject().get("path")), is("/a~1b/c~0d"));
+    assertThat(JsonPatchUtil.apply(source, patch), is(target));
+  }
+
+  @Test
+  public void shouldReplaceDocumentOfDifferentType() {
+    JsonElement source = parse("{\"a\":1}");
+    JsonElement target = parse("[1,2]");
+
+    assertThat(JsonPatchUtil.apply(source, JsonPatchUtil.diff(source, target)), is(target));
+  }
+
+  @Test
+  public void shouldApplyInsertIntoArray() {
+    JsonElement document = parse("[1,3]");
+
+    JsonElement result = JsonPatchUtil.apply(document, parse("[{\"op\":\"add\",\"path\":\"/1\",\"value\":2}]").getAsJsonArray());
+
+    assertThat(result, is(parse("[1,2,3]")));
+  }
+
+  @Test(expected = ProcessEngineException.class)
+  public void shouldFailOnMissingTarget() {
+    JsonPatchUtil.apply(parse("{\"a\":1}"), parse("[{\"op\":\"remove\",\"path\":\"/b\"}]").getAsJsonArray());
+  }
+
+  @Test(expected = ProcessEngineException.class)
+  public void shouldFailOnUnsupportedOperation() {
+    JsonPatchUtil.apply(parse("{\"a\":1}"), parse("[{\"op\":\"move\",\"from\":\"/a\",\"path\":\"/b\"}]").getAsJsonArray());
+  }
+
+  protected JsonElement parse(String json) {
+    return JsonUtil.getGsonMapper().fromJson(json, JsonElement.class);
+  }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.variablescope;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.core.variable.scope.SimpleVariableInstance;
+import org.camunda.bpm.engine.impl.core.variable.scope.VariableStore;
+import org.camunda.bpm.engine.impl.core.variable.scope.VariableStore.VariablesProvider;
+import org.camunda.bpm.engine.variable.Variables;
+import org.junit.Before;
+import org.junit.Test;
+
+public class VariableStoreTest {
+
+  protected static final int VARIABLE_COUNT = 10;
+
+  protected CountingVariablesProvider variablesProvider;
+  protected VariableStore<SimpleVariableInstance> variableStore;
+
+  @Before
+  public void createVariableStore() {
+    variablesProvider = new CountingVariablesProvider();
+    variableStore = new VariableStore<SimpleVariableInstance>(variablesProvider);
+  }
+
+  @Test
+  public void shouldFetchFewVariablesByName() {
+    // when
+    for (int i = 0; i < VariableStore.MAX_SINGLE_FETCHES_BY_NAME; i++) {
+      assertThat(variableStore.getVariable("var" + i).getName(), is("var" + i));
+    }
+
+    // then
+    assertThat(variableStore.isInitialized(), is(false));
+    assertThat(variablesProvider.fetches, is(VariableStore.MAX_SINGLE_FETCHES_BY_NAME));
+  }
+
+  @Test
+  public void shouldFetchAllVariablesWhenReadingManyOneByOne() {
+    // when
+    for (int i = 0; i < VARIABLE_COUNT; i++) {
+      assertThat(variableStore.getVariable("var" + i).getName(), is("var" + i));
+    }
+
+    // then
+    assertThat(variableStore.isInitialized(), is(true));
+    assertThat(variablesProvider.fetches, is(VariableStore.MAX_SINGLE_FETCHES_BY_NAME + 1));
+  }
+
+  @Test
+  public void shouldNotFetchVariableByNameAgain() {
+    // when
+    for (int i = 0; i < VARIABLE_COUNT; i++) {
+      variableStore.getVariable("var0");
+      variableStore.containsKey("unknown");
+    }
+
+    // then
+    assertThat(variableStore.isInitialized(), is(false));
+    assertThat(variableStore.getVariable("unknown"), is(nullValue()));
+    assertThat(variablesProvider.fetches, is(2));
+  }
+
+  protected static class CountingVariablesProvider implements VariablesProvider<SimpleVariableInstance> {
+
+    protected int fetches;
+
+    public Collection<SimpleVariableInstance> provideVariables() {
+      fetches++;
+
+      List<SimpleVariableInstance> variables = new ArrayList<SimpleVariableInstance>();
+      for (int i = 0; i < VARIABLE_COUNT; i++) {
+        variables.add(createVariable("var" + i));
+      }
+      return variables;
+    }
+
+    public Collection<SimpleVariableInstance> provideVariables(Collection<String> variableNames) {
+      fetches++;
+
+      List<SimpleVariableInstance> variables = new ArrayList<SimpleVariableInstance>();
+      for (String variableName : variableNames) {
+        if (variableName.startsWith("var")) {
+          variables.add(createVariable(variableName));
+        }
+      }
+      return variables;
+    }
+
+    protected SimpleVariableInstance createVariable(String name) {
+      return new SimpleVariableInstance(name, Variables.stringValue(name));
+    }
+  }
+
+}
@@ -120,7 +120,17 @@ public class Variables {
      * If you want to serialize objects using the Xml dataformat, you need to provide a serializer. The optinal
      * camunda Spin process engine plugin provides such a serializer.</p>
      */
-    XML("application/xml");
+    XML("application/xml"),
+
+    /**
+     * <p>The Cbor Serialization Data format. If this data format is used for serializing an object,
+     * the object is serialized in the compact binary Cbor representation (RFC 7049).</p>
+     *
+     * <p><strong>NOTE:</strong> the process does NOT provide a serializer for this dataformat out of the box.
+     * The optinal camunda Spin process engine plugin provides such a serializer if Jackson's Cbor
+     * dataformat module is available on the classpath.</p>
+     */
+    CBOR("application/cbor");
 
     private final String name;
 
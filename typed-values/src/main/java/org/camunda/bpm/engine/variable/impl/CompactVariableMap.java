@@ -0,0 +1,538 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.variable.impl;
+
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.camunda.bpm.engine.variable.VariableMap;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.engine.variable.context.VariableContext;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+import org.camunda.bpm.engine.variable.value.builder.TypedValueBuilder;
+
+/**
+ * A {@link VariableMap} optimized for the short-lived maps the engine creates
+ * on every service invocation.
+ *
+ * <p>Entries are kept in two dense arrays in insertion order. Plain values are
+ * stored as they are and only wrapped into an untyped {@link TypedValue} when
+ * {@link #getValueTyped(String)} is first called for them. Small maps are
+ * searched linearly; larger maps additionally build an open-addressing index
+ * (linear probing) over the arrays. Compared to {@link VariableMapImpl}, this
+ * avoids the hash map nodes and the value wrapper per entry.</p>
+ *
+ * <p>Removing an entry moves the last entry into its place, so removals change
+ * the iteration order.</p>
+ */
+public class CompactVariableMap implements VariableMap, Serializable, VariableContext {
+
+  private static final long serialVersionUID = 1L;
+
+  protected static final String[] EMPTY_KEYS = new String[0];
+  protected static final Object[] EMPTY_VALUES = new Object[0];
+
+  protected static final int DEFAULT_CAPACITY = 8;
+
+  /** maps up to this size are searched linearly without an index */
+  protected static final int LINEAR_SCAN_THRESHOLD = 8;
+
+  protected String[] keys = EMPTY_KEYS;
+
+  /** either a plain value or a {@link TypedValue} */
+  protected Object[] values = EMPTY_VALUES;
+
+  protected int size;
+
+  /**
+   * open-addressing table of entry positions + 1 (0 marks a free slot);
+   * built lazily once the map exceeds {@link #LINEAR_SCAN_THRESHOLD} entries
+   */
+  protected transient int[] index;
+
+  public CompactVariableMap() {
+  }
+
+  public CompactVariableMap(Map<String, Object> map) {
+    if (map != null) {
+      putAll(map);
+    }
+  }
+
+  // VariableMap implementation //////////////////////////////
+
+  public VariableMap putValue(String name, Object value) {
+    put(name, value);
+    return this;
+  }
+
+  public VariableMap putValueTyped(String name, TypedValue value) {
+    putSlot(name, value);
+    return this;
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> T getValue(String name, Class<T> type) {
+    Object object = get(name);
+    if (object == null) {
+      return null;
+    }
+    else if (type.isAssignableFrom(object.getClass())) {
+      return (T) object;
+
+    } else {
+      throw new ClassCastException("Cannot cast variable named '"+name+"' with value '"+object+"' to type '"+type+"'.");
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T extends TypedValue> T getValueTyped(String name) {
+    int position = indexOf(name);
+    if (position >= 0) {
+      return (T) typedValueAt(position);
+    }
+    else {
+      return null;
+    }
+  }
+
+  // java.util Map<String, Object> implementation ////////////////////////////////////////
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean containsKey(Object key) {
+    return indexOf(key) >= 0;
+  }
+
+  public boolean containsValue(Object value) {
+    for (int i = 0; i < size; i++) {
+      Object candidate = valueAt(i);
+      if (value == candidate || (value != null && value.equals(candidate))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public Object get(Object key) {
+    int position = indexOf(key);
+    if (position >= 0) {
+      return valueAt(position);
+    }
+    else {
+      return null;
+    }
+  }
+
+  public Object put(String key, Object value) {
+    if (value instanceof TypedValue || value instanceof TypedValueBuilder<?>) {
+      return unwrap(putSlot(key, Variables.untypedValue(value)));
+    }
+    else {
+      return unwrap(putSlot(key, value));
+    }
+  }
+
+  public Object remove(Object key) {
+    int position = indexOf(key);
+    if (position >= 0) {
+      return unwrap(removeAt(position));
+    }
+    else {
+      return null;
+    }
+  }
+
+  public void putAll(Map<? extends String, ? extends Object> m) {
+    if (m != null) {
+      if (m instanceof CompactVariableMap) {
+        CompactVariableMap other = (CompactVariableMap) m;
+        ensureCapacity(size + other.size);
+        for (int i = 0; i < other.size; i++) {
+          putSlot(other.keys[i], other.values[i]);
+        }
+      }
+      else if (m instanceof VariableMap) {
+        VariableMap other = (VariableMap) m;
+        ensureCapacity(size + other.size());
+        for (String key : other.keySet()) {
+          putSlot(key, other.getValueTyped(key));
+        }
+      }
+      else {
+        ensureCapacity(size + m.size());
+        for (Map.Entry<? extends String, ? extends Object> entry : m.entrySet()) {
+          put(entry.getKey(), entry.getValue());
+        }
+      }
+    }
+  }
+
+  public void clear() {
+    for (int i = 0; i < size; i++) {
+      keys[i] = null;
+      values[i] = null;
+    }
+    size = 0;
+    index = null;
+  }
+
+  public Set<String> keySet() {
+    return new AbstractSet<String>() {
+
+      public Iterator<String> iterator() {
+        return new EntryIterator<String>() {
+          protected String get(int position) {
+            return keys[position];
+          }
+        };
+      }
+
+      public boolean contains(Object o) {
+        return containsKey(o);
+      }
+
+      public boolean remove(Object o) {
+        int position = indexOf(o);
+        if (position >= 0) {
+          removeAt(position);
+          return true;
+        }
+        else {
+          return false;
+        }
+      }
+
+      public int size() {
+        return size;
+      }
+
+    };
+  }
+
+  public Collection<Object> values() {
+    return new AbstractCollection<Object>() {
+
+      public Iterator<Object> iterator() {
+        return new EntryIterator<Object>() {
+          protected Object get(int position) {
+            return valueAt(position);
+          }
+        };
+      }
+
+      public int size() {
+        return size;
+      }
+
+    };
+  }
+
+  public Set<Map.Entry<String, Object>> entrySet() {
+    return new AbstractSet<Map.Entry<String, Object>>() {
+
+      public Iterator<Map.Entry<String, Object>> iterator() {
+        return new EntryIterator<Map.Entry<String, Object>>() {
+          protected Map.Entry<String, Object> get(int position) {
+            return new VariableEntry(position);
+          }
+        };
+      }
+
+      public int size() {
+        return size;
+      }
+
+    };
+  }
+
+  public String toString() {
+    StringBuilder stringBuilder = new StringBuilder();
+    stringBuilder.append("{\n");
+    for (int i = 0; i < size; i++) {
+      stringBuilder.append("  ");
+      stringBuilder.append(keys[i]);
+      stringBuilder.append(" => ");
+      stringBuilder.append(typedValueAt(i));
+      stringBuilder.append("\n");
+    }
+    stringBuilder.append("}");
+    return stringBuilder.toString();
+  }
+
+  public boolean equals(Object obj) {
+    return asValueMap().equals(obj);
+  }
+
+  public int hashCode() {
+    return asValueMap().hashCode();
+  }
+
+  public Map<String, Object> asValueMap() {
+    return new HashMap<String, Object>(this);
+  }
+
+  public TypedValue resolve(String variableName) {
+    return getValueTyped(variableName);
+  }
+
+  public boolean containsVariable(String variableName) {
+    return containsKey(variableName);
+  }
+
+  public VariableContext asVariableContext() {
+    return this;
+  }
+
+  // storage ////////////////////////////////////////////////
+
+  protected Object valueAt(int position) {
+    return unwrap(values[position]);
+  }
+
+  protected TypedValue typedValueAt(int position) {
+    Object value = values[position];
+    if (value instanceof TypedValue) {
+      return (TypedValue) value;
+    }
+    else {
+      // wrap once and keep the wrapper so that repeated calls return the same instance
+      TypedValue typedValue = Variables.untypedValue(value);
+      values[position] = typedValue;
+      return typedValue;
+    }
+  }
+
+  protected static Object unwrap(Object value) {
+    if (value instanceof TypedValue) {
+      return ((TypedValue) value).getValue();
+    }
+    else {
+      return value;
+    }
+  }
+
+  /**
+   * @return the previous plain or typed value of the key or null
+   */
+  protected Object putSlot(String key, Object value) {
+    int position = indexOf(key);
+    if (position >= 0) {
+      Object previous = values[position];
+      values[position] = value;
+      return previous;
+    }
+
+    ensureCapacity(size + 1);
+    keys[size] = key;
+    values[size] = value;
+
+    if (index != null) {
+      if ((size + 1) * 2 > index.length) {
+        // rebuilt with a larger table on the next lookup
+        index = null;
+      }
+      else {
+        addToIndex(index, size);
+      }
+    }
+
+    size++;
+    return null;
+  }
+
+  protected Object removeAt(int position) {
+    Object previous = values[position];
+    int last = size - 1;
+
+    if (position != last) {
+      keys[position] = keys[last];
+      values[position] = values[last];
+    }
+    keys[last] = null;
+    values[last] = null;
+    size = last;
+
+    // positions have changed; rebuilt on the next lookup if still required
+    index = null;
+
+    return previous;
+  }
+
+  protected int indexOf(Object key) {
+    if (size <= LINEAR_SCAN_THRESHOLD) {
+      for (int i = 0; i < size; i++) {
+        if (equal(key, keys[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    if (index == null) {
+      index = buildIndex();
+    }
+
+    int mask = index.length - 1;
+    int slot = hash(key) & mask;
+    int entry;
+    while ((entry = index[slot]) != 0) {
+      if (equal(key, keys[entry - 1])) {
+        return entry - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  protected int[] buildIndex() {
+    int capacity = Integer.highestOneBit(size * 2 - 1) << 1;
+    int[] table = new int[capacity];
+    for (int i = 0; i < size; i++) {
+      addToIndex(table, i);
+    }
+    return table;
+  }
+
+  protected void addToIndex(int[] table, int position) {
+    int mask = table.length - 1;
+    int slot = hash(keys[position]) & mask;
+    while (table[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    table[slot] = position + 1;
+  }
+
+  protected void ensureCapacity(int capacity) {
+    if (capacity > keys.length) {
+      int newCapacity = Math.max(Math.max(keys.length * 2, DEFAULT_CAPACITY), capacity);
+
+      String[] newKeys = new String[newCapacity];
+      System.arraycopy(keys, 0, newKeys, 0, size);
+      keys = newKeys;
+
+      Object[] newValues = new Object[newCapacity];
+      System.arraycopy(values, 0, newValues, 0, size);
+      values = newValues;
+    }
+  }
+
+  protected static int hash(Object key) {
+    if (key == null) {
+      return 0;
+    }
+    int h = key.hashCode();
+    // spread the higher bits since the table size is a power of two
+    return h ^ (h >>> 16);
+  }
+
+  protected static boolean equal(Object a, Object b) {
+    return a == b || (a != null && a.equals(b));
+  }
+
+  // views //////////////////////////////////////////////////
+
+  protected abstract class EntryIterator<T> implements Iterator<T> {
+
+    protected int cursor;
+    protected int lastReturned = -1;
+
+    public boolean hasNext() {
+      return cursor < size;
+    }
+
+    public T next() {
+      if (cursor >= size) {
+        throw new NoSuchElementException();
+      }
+      lastReturned = cursor++;
+      return get(lastReturned);
+    }
+
+    public void remove() {
+      if (lastReturned < 0) {
+        throw new IllegalStateException();
+      }
+      // the last entry moves into the removed position and has not been visited yet
+      removeAt(lastReturned);
+      cursor = lastReturned;
+      lastReturned = -1;
+    }
+
+    protected abstract T get(int position);
+  }
+
+  protected class VariableEntry implements Map.Entry<String, Object> {
+
+    protected final int position;
+
+    public VariableEntry(int position) {
+      this.position = position;
+    }
+
+    public String getKey() {
+      return keys[position];
+    }
+
+    public Object getValue() {
+      return valueAt(position);
+    }
+
+    public Object setValue(Object value) {
+      Object previous = valueAt(position);
+      if (value instanceof TypedValue || value instanceof TypedValueBuilder<?>) {
+        values[position] = Variables.untypedValue(value);
+      }
+      else {
+        values[position] = value;
+      }
+      return previous;
+    }
+
+    public boolean equals(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      return equal(getKey(), e.getKey()) && equal(getValue(), e.getValue());
+    }
+
+    public int hashCode() {
+      String key = getKey();
+      Object value = getValue();
+      return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+    }
+
+    public String toString() {
+      return getKey() + "=" + getValue();
+    }
+  }
+
+}
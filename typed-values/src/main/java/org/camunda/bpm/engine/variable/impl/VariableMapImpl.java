@@ -150,6 +150,12 @@ public class VariableMapImpl implements VariableMap, Serializable, VariableConte
       if(m instanceof VariableMapImpl) {
         variables.putAll(((VariableMapImpl)m).variables);
       }
+      else if(m instanceof VariableMap) {
+        VariableMap variableMap = (VariableMap) m;
+        for (String key : variableMap.keySet()) {
+          variables.put(key, variableMap.getValueTyped(key));
+        }
+      }
       else {
         for (java.util.Map.Entry<? extends String, ? extends Object> entry : m.entrySet()) {
           put(entry.getKey(), entry.getValue());
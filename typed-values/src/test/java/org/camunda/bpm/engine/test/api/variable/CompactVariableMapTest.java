@@ -0,0 +1,205 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.variable;
+
+import static org.camunda.bpm.engine.variable.Variables.integerValue;
+import static org.camunda.bpm.engine.variable.Variables.stringValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.camunda.bpm.engine.variable.VariableMap;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.engine.variable.impl.CompactVariableMap;
+import org.camunda.bpm.engine.variable.type.ValueType;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+import org.junit.Test;
+
+public class CompactVariableMapTest {
+
+  @Test
+  public void testPutAndGet() {
+    VariableMap variables = new CompactVariableMap()
+      .putValue("a", "aValue")
+      .putValueTyped("b", integerValue(42))
+      .putValue("c", null);
+
+    assertEquals(3, variables.size());
+    assertEquals("aValue", variables.get("a"));
+    assertEquals(42, variables.get("b"));
+    assertNull(variables.get("c"));
+    assertTrue(variables.containsKey("c"));
+    assertFalse(variables.containsKey("d"));
+    assertTrue(variables.containsValue(42));
+  }
+
+  @Test
+  public void testUntypedValueIsWrappedLazily() {
+    VariableMap variables = new CompactVariableMap().putValue("a", "aValue");
+
+    TypedValue typedValue = variables.getValueTyped("a");
+
+    assertEquals("aValue", typedValue.getValue());
+    assertNull(typedValue.getType());
+    assertSame(typedValue, variables.getValueTyped("a"));
+  }
+
+  @Test
+  public void testTypedValueIsKept() {
+    VariableMap variables = new CompactVariableMap().putValue("a", stringValue("aValue", true));
+
+    TypedValue typedValue = variables.getValueTyped("a");
+
+    assertEquals("aValue", variables.get("a"));
+    assertEquals(ValueType.STRING, typedValue.getType());
+    assertTrue(typedValue.isTransient());
+  }
+
+  @Test
+  public void testReplaceValue() {
+    VariableMap variables = new CompactVariableMap().putValue("a", "aValue");
+
+    Object previous = variables.put("a", "otherValue");
+
+    assertEquals("aValue", previous);
+    assertEquals("otherValue", variables.get("a"));
+    assertEquals(1, variables.size());
+  }
+
+  @Test
+  public void testManyVariables() {
+    VariableMap variables = new CompactVariableMap();
+    for (int i = 0; i < 100; i++) {
+      variables.putValue("var" + i, i);
+    }
+
+    assertEquals(100, variables.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, variables.get("var" + i));
+    }
+
+    for (int i = 0; i < 100; i += 2) {
+      assertEquals(i, variables.remove("var" + i));
+    }
+
+    assertEquals(50, variables.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i % 2 == 0 ? null : i, variables.get("var" + i));
+    }
+  }
+
+  @Test
+  public void testIteratorRemove() {
+    VariableMap variables = new CompactVariableMap();
+    for (int i = 0; i < 20; i++) {
+      variables.putValue("var" + i, i);
+    }
+
+    Iterator<Map.Entry<String, Object>> iterator = variables.entrySet().iterator();
+    int visited = 0;
+    while (iterator.hasNext()) {
+      Map.Entry<String, Object> entry = iterator.next();
+      visited++;
+      if ((Integer) entry.getValue() % 2 == 0) {
+        iterator.remove();
+      }
+    }
+
+    assertEquals(20, visited);
+    assertEquals(10, variables.size());
+    for (String name : variables.keySet()) {
+      assertEquals(1, variables.getValue(name, Integer.class) % 2);
+    }
+  }
+
+  @Test
+  public void testEntrySetValue() {
+    VariableMap variables = new CompactVariableMap().putValue("a", "aValue");
+
+    variables.entrySet().iterator().next().setValue(stringValue("otherValue"));
+
+    assertEquals("otherValue", variables.get("a"));
+    assertEquals(ValueType.STRING, variables.getValueTyped("a").getType());
+  }
+
+  @Test
+  public void testPutAllKeepsTypedValues() {
+    VariableMap source = Variables.createVariables()
+      .putValueTyped("a", stringValue("aValue"))
+      .putValue("b", "bValue");
+
+    VariableMap compactCopy = new CompactVariableMap(source);
+    VariableMap copy = Variables.createVariables();
+    copy.putAll(compactCopy);
+
+    assertEquals(ValueType.STRING, compactCopy.getValueTyped("a").getType());
+    assertEquals(ValueType.STRING, copy.getValueTyped("a").getType());
+    assertEquals("bValue", copy.get("b"));
+  }
+
+  @Test
+  public void testEquality() {
+    Map<String, Object> map = new HashMap<String, Object>();
+    map.put("a", "aValue");
+    map.put("b", 1);
+
+    VariableMap variables = new CompactVariableMap(map);
+
+    assertEquals(map, variables);
+    assertEquals(variables, Variables.createVariables().putValue("b", 1).putValue("a", "aValue"));
+    assertEquals(map.hashCode(), variables.hashCode());
+  }
+
+  @Test
+  public void testVariableContext() {
+    VariableMap variables = new CompactVariableMap().putValue("a", "aValue");
+
+    assertTrue(variables.asVariableContext().containsVariable("a"));
+    assertEquals("aValue", variables.asVariableContext().resolve("a").getValue());
+    assertNull(variables.asVariableContext().resolve("b"));
+  }
+
+  @Test
+  public void testSerialization() throws Exception {
+    VariableMap variables = new CompactVariableMap();
+    for (int i = 0; i < 20; i++) {
+      variables.putValue("var" + i, i);
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    out.writeObject(variables);
+    out.close();
+
+    ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    VariableMap deserialized = (VariableMap) in.readObject();
+
+    assertEquals(variables, deserialized);
+    assertEquals(19, deserialized.get("var19"));
+  }
+
+}
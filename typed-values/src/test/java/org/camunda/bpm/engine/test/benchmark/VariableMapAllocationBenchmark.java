@@ -0,0 +1,99 @@
+/*
+ * Copyright Camunda Services GmbH and/or licensed to Camunda Services GmbH
+ * under one or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information regarding copyright
+ * ownership. Camunda licenses this file to you under the Apache License,
+ * Version 2.0; you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.variable.VariableMap;
+import org.camunda.bpm.engine.variable.impl.CompactVariableMap;
+import org.camunda.bpm.engine.variable.impl.VariableMapImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares {@link VariableMapImpl} and {@link CompactVariableMap} for the way the
+ * engine uses variable maps on a service invocation: fill the map, then read every
+ * variable as typed value. Runs with the GC profiler so that the allocation rate
+ * per operation (<code>gc.alloc.rate.norm</code>) is reported next to the timing.
+ * Run with <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.camunda.bpm.engine.test.benchmark.VariableMapAllocationBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VariableMapAllocationBenchmark {
+
+  @Param({"2", "8", "32"})
+  public int variableCount;
+
+  protected String[] names;
+  protected Object[] values;
+
+  @Setup
+  public void setUp() {
+    names = new String[variableCount];
+    values = new Object[variableCount];
+    for (int i = 0; i < variableCount; i++) {
+      names[i] = "variable" + i;
+      values[i] = i % 2 == 0 ? (Object) ("value" + i) : (Object) Long.valueOf(i);
+    }
+  }
+
+  @Benchmark
+  public void variableMapImpl(Blackhole blackhole) {
+    fillAndRead(new VariableMapImpl(), blackhole);
+  }
+
+  @Benchmark
+  public void compactVariableMap(Blackhole blackhole) {
+    fillAndRead(new CompactVariableMap(), blackhole);
+  }
+
+  protected void fillAndRead(VariableMap variables, Blackhole blackhole) {
+    for (int i = 0; i < names.length; i++) {
+      variables.putValue(names[i], values[i]);
+    }
+    for (String name : variables.keySet()) {
+      blackhole.consume(variables.getValueTyped(name));
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder()
+      .include(VariableMapAllocationBenchmark.class.getSimpleName())
+      .addProfiler(GCProfiler.class)
+      .build())
+      .run();
+  }
+
+}